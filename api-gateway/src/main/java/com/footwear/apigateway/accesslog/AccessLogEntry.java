@@ -0,0 +1,49 @@
+package com.footwear.apigateway.accesslog;
+
+import com.footwear.apigateway.factory.JsonWriter;
+
+/**
+ * One slot of the {@link AccessLogRingBuffer}. Slots are preallocated and overwritten
+ * in place, so recording a request allocates nothing; the strings are references to
+ * values the request already holds.
+ */
+final class AccessLogEntry {
+
+    long timestampMillis;
+    String route;
+    String service;
+    String method;
+    String path;
+    int status;
+    long bytesIn;
+    long bytesOut;
+    long latencyMicros;
+    Long userId;
+    String lane;
+
+    void writeTo(JsonWriter json) {
+        json.beginObject()
+                .rawField("ts", Long.toString(timestampMillis))
+                .field("route", route)
+                .field("backend", service)
+                .field("method", method)
+                .field("path", path)
+                .rawField("status", Integer.toString(status))
+                .rawField("bytesIn", Long.toString(bytesIn))
+                .rawField("bytesOut", Long.toString(bytesOut))
+                .rawField("latencyMicros", Long.toString(latencyMicros))
+                .rawField("user", userId != null ? userId.toString() : "null")
+                .field("lane", lane)
+                .endObject();
+    }
+
+    // Referințele sunt eliberate ca să nu țină în viață string-urile request-urilor vechi
+    void clear() {
+        route = null;
+        service = null;
+        method = null;
+        path = null;
+        userId = null;
+        lane = null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.footwear.apigateway.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Gateway access log settings (app.access-log.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    private String file = "logs/gateway-access.log";
+    // Intrări în ring buffer; rotunjit în sus la o putere a lui 2
+    private int bufferSize = 16384;
+    // Fracțiunea de request-uri scrise; erorile 5xx și request-urile lente sunt scrise mereu
+    private double sampleRate = 1.0;
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    // Încercări (spin) când buffer-ul e plin înainte ca intrarea să fie aruncată; 0 = aruncată imediat
+    private int backpressureSpins = 0;
+    // Numărul maxim de intrări scrise într-un singur apel către disc
+    private int batchSize = 512;
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+    // Fișiere rotite păstrate (gateway-access.log.1 ... .N)
+    private int maxFiles = 10;
+}
@@ -0,0 +1,102 @@
+package com.footwear.apigateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring of preallocated entries
+ * (Vyukov's sequence-per-slot scheme). A producer claims a slot with one CAS on the
+ * tail, fills it and publishes it by advancing the slot's sequence; the consumer
+ * only ever reads published slots. When the ring is full the producer gives up
+ * instead of waiting for the consumer.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogEntry[] entries;
+    // Pentru slotul i: == poziția => liber pentru producătorul de la poziția respectivă,
+    // == poziția + 1 => publicat pentru consumator
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Scris doar de consumator; volatile doar pentru size() din statistici
+    private volatile long head;
+
+    AccessLogRingBuffer(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        entries = new AccessLogEntry[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = new AccessLogEntry();
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Claims a free slot, retrying up to {@code spins} times while the ring is full.
+     *
+     * @return the position to fill and then {@link #publish}, or -1 if the ring stayed full
+     */
+    long claim(int spins) {
+        long position = tail.get();
+        int attempts = 0;
+        while (true) {
+            long sequence = sequences.get((int) position & mask);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Plin: consumatorul n-a eliberat încă slotul de acum o tură
+                if (attempts++ >= spins) {
+                    return -1;
+                }
+                Thread.onSpinWait();
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    AccessLogEntry entry(long position) {
+        return entries[(int) position & mask];
+    }
+
+    void publish(long position) {
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    /**
+     * Hands up to {@code max} published entries to {@code consumer}, in order. Consumer thread only.
+     *
+     * @return the number of entries drained
+     */
+    int drain(Consumer<AccessLogEntry> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            AccessLogEntry entry = entries[slot];
+            consumer.accept(entry);
+            entry.clear();
+            sequences.set(slot, head + entries.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,190 @@
+package com.footwear.apigateway.accesslog;
+
+import com.footwear.apigateway.factory.JsonWriter;
+import com.footwear.apigateway.metrics.CountingResponse;
+import com.footwear.apigateway.priority.PriorityFilter;
+import com.footwear.apigateway.routing.Route;
+import com.footwear.apigateway.security.EdgeIdentity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-request access log (route, backend, status, bytes, latency, user) as JSON lines.
+ * <p>
+ * Request threads only copy a few fields into a preallocated slot of a lock-free
+ * {@link AccessLogRingBuffer}; a background thread drains it in batches and appends
+ * each batch to a {@link RollingFileWriter} with a single write. When the ring is full
+ * the entry is dropped and counted, so the proxy path never waits for the disk.
+ */
+@Component
+@Slf4j
+public class AccessLogger {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private AccessLogProperties properties;
+
+    private AccessLogRingBuffer ring;
+    private Thread writer;
+    private volatile boolean running;
+    private long slowThresholdNanos;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    // Scrise doar de thread-ul writer
+    private volatile long written;
+    private volatile long writeErrors;
+    private volatile long rotations;
+
+    @PostConstruct
+    void init() {
+        if (!properties.isEnabled()) {
+            log.info("Access log disabled");
+            return;
+        }
+        ring = new AccessLogRingBuffer(properties.getBufferSize());
+        slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        running = true;
+        writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Access log to {}: buffer={}, sampleRate={}", properties.getFile(), ring.capacity(), properties.getSampleRate());
+    }
+
+    /**
+     * Records a finished proxied request. Called on the request thread; never blocks.
+     */
+    public void record(Route route, HttpServletRequest request, HttpServletResponse response, long startNanos) {
+        if (ring == null) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - startNanos;
+        int status = response.getStatus();
+        if (!sampled(status, latencyNanos)) {
+            sampledOut.increment();
+            return;
+        }
+
+        EdgeIdentity identity = (EdgeIdentity) request.getAttribute(EdgeIdentity.REQUEST_ATTRIBUTE);
+        CountingResponse counting = (CountingResponse) request.getAttribute(CountingResponse.REQUEST_ATTRIBUTE);
+        long timestampMillis = System.currentTimeMillis();
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        long bytesIn = request.getContentLengthLong();
+        long bytesOut = counting != null ? counting.getBytesWritten() : -1;
+        Long userId = identity != null ? identity.getUserId() : null;
+        String lane = (String) request.getAttribute(PriorityFilter.LANE_ATTRIBUTE);
+
+        // Între claim și publish doar atribuiri - un slot revendicat și nepublicat ar bloca consumatorul
+        long position = ring.claim(properties.getBackpressureSpins());
+        if (position < 0) {
+            dropped.increment();
+            return;
+        }
+        AccessLogEntry entry = ring.entry(position);
+        entry.timestampMillis = timestampMillis;
+        entry.route = route.getId();
+        entry.service = route.getService();
+        entry.method = method;
+        entry.path = path;
+        entry.status = status;
+        entry.bytesIn = bytesIn;
+        entry.bytesOut = bytesOut;
+        entry.latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        entry.userId = userId;
+        entry.lane = lane;
+        ring.publish(position);
+        recorded.increment();
+    }
+
+    // Erorile și request-urile lente sunt păstrate indiferent de eșantionare
+    private boolean sampled(int status, long latencyNanos) {
+        double rate = properties.getSampleRate();
+        if (rate >= 1.0 || status >= 500 || latencyNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private void writeLoop() {
+        JsonWriter batch = JsonWriter.acquire();
+        try {
+            while (running || ring.size() > 0) {
+                try (RollingFileWriter file = new RollingFileWriter(Path.of(properties.getFile()),
+                        properties.getMaxFileSize().toBytes(), properties.getMaxFiles())) {
+                    drainTo(file, batch);
+                } catch (IOException e) {
+                    writeErrors++;
+                    log.warn("Access log write failed, retrying: {}", e.getMessage());
+                    LockSupport.parkNanos(RETRY_NANOS);
+                }
+            }
+        } finally {
+            batch.close();
+        }
+    }
+
+    private void drainTo(RollingFileWriter file, JsonWriter batch) throws IOException {
+        while (running || ring.size() > 0) {
+            batch.reset();
+            int drained = ring.drain(entry -> {
+                entry.writeTo(batch);
+                batch.newLine();
+            }, properties.getBatchSize());
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            long rotationsBefore = file.getRotations();
+            file.write(batch);
+            written += drained;
+            if (file.getRotations() != rotationsBefore) {
+                rotations++;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", ring != null);
+        if (ring != null) {
+            stats.put("file", properties.getFile());
+            stats.put("capacity", ring.capacity());
+            stats.put("buffered", ring.size());
+        }
+        stats.put("sampleRate", properties.getSampleRate());
+        stats.put("recorded", recorded.sum());
+        stats.put("written", written);
+        stats.put("dropped", dropped.sum());
+        stats.put("sampledOut", sampledOut.sum());
+        stats.put("writeErrors", writeErrors);
+        stats.put("rotations", rotations);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer != null) {
+            // Writer-ul golește ce a rămas în buffer înainte să se oprească
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        }
+    }
+}
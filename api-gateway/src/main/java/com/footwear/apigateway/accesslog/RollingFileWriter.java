@@ -0,0 +1,78 @@
+package com.footwear.apigateway.accesslog;
+
+import com.footwear.apigateway.factory.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log file rolled by size: {@code file} is renamed to {@code file.1},
+ * older ones shift up to {@code file.<maxFiles>} and the oldest is deleted.
+ * Used by a single writer thread.
+ */
+final class RollingFileWriter implements AutoCloseable {
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+    private long rotations;
+
+    RollingFileWriter(Path file, long maxFileSize, int maxFiles) throws IOException {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        open();
+    }
+
+    /**
+     * Appends one batch; the file is rolled before the batch if it would grow past the limit.
+     */
+    void write(JsonWriter batch) throws IOException {
+        if (size > 0 && size + batch.size() > maxFileSize) {
+            rotate();
+        }
+        batch.writeTo(out);
+        size += batch.size();
+    }
+
+    long getRotations() {
+        return rotations;
+    }
+
+    private void open() throws IOException {
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rolled(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        rotations++;
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.footwear.apigateway.aggregate;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Composition endpoint settings (app.aggregation.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.aggregation")
+public class AggregationProperties {
+
+    // Termenul total pentru toate apelurile paralele ale unei pagini
+    private Duration timeout = Duration.ofMillis(800);
+    private int maxThreads = 64;
+}
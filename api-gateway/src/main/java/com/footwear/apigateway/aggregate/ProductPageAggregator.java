@@ -0,0 +1,191 @@
+package com.footwear.apigateway.aggregate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.coalesce.RequestCoalescer;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import com.footwear.common.deadline.Deadline;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the storefront product page from product-service and inventory-service
+ * in one gateway call. The parts are fetched in parallel under a single deadline,
+ * so the page costs as much as the slowest backend instead of the sum of all of them.
+ * Parts that fail or miss the deadline are reported in {@code parts} and left out of the payload.
+ * <p>
+ * Each part runs under the page deadline (never later than the request's own), so its upstream
+ * call is capped by it; a part still running at the deadline is aborted, which frees its
+ * connection and bulkhead slot at once.
+ */
+@Component
+@Slf4j
+public class ProductPageAggregator {
+
+    @Autowired
+    private ProxyEngine proxyEngine;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AggregationProperties properties;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Fără coadă: dacă nu mai sunt thread-uri libere, partea este raportată ca REJECTED
+        executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "aggregate-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return the merged page, or null if no part could be fetched
+     */
+    public Map<String, Object> productPage(Long productId, HttpServletRequest request) throws IOException {
+        long budgetMillis = Math.min(properties.getTimeout().toMillis(), Deadline.remainingMillis());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+
+        Map<String, Call> calls = new LinkedHashMap<>();
+        calls.put("product", submit(snapshot("product",
+                "/api/products/" + productId, request), deadline));
+        calls.put("availability", submit(snapshot("inventory",
+                "/api/inventory/public/product/" + productId + "/availability", request), deadline));
+        calls.put("stores", submit(snapshot("inventory",
+                "/api/inventory/public/stores", request), deadline));
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        Map<String, Object> parts = new LinkedHashMap<>();
+        boolean anyAvailable = false;
+
+        for (Map.Entry<String, Call> call : calls.entrySet()) {
+            Part part = await(call.getValue(), deadline, budgetMillis);
+            parts.put(call.getKey(), part.describe());
+            if (part.body != null) {
+                page.put(call.getKey(), part.body);
+                anyAvailable = true;
+            }
+        }
+        page.put("parts", parts);
+        page.put("complete", parts.values().stream().allMatch(p -> "OK".equals(((Map<?, ?>) p).get("status"))));
+        return anyAvailable ? page : null;
+    }
+
+    private UpstreamRequest snapshot(String service, String path, HttpServletRequest request) throws IOException {
+        // Păstrăm Authorization și headerele de identitate ale clientului
+        return proxyEngine.snapshot(service, URI.create(path), request);
+    }
+
+    private Call submit(UpstreamRequest upstream, long deadline) {
+        long start = System.nanoTime();
+        AbortHandle abort = new AbortHandle();
+        try {
+            return new Call(CompletableFuture.supplyAsync(() -> {
+                // Thread-ul din pool nu are deadline-ul request-ului - îl intrăm aici, cu ce a rămas din pagină
+                long remaining = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                try (Deadline.Scope ignored = Deadline.enter(remaining); AbortHandle.Scope open = abort.open()) {
+                    BufferedResponse response = coalescer.fetch(upstream);
+                    return Part.fromResponse(response, objectMapper, System.nanoTime() - start);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor), abort);
+        } catch (RejectedExecutionException e) {
+            return new Call(CompletableFuture.completedFuture(Part.failed("REJECTED", null, 0)), abort);
+        }
+    }
+
+    private Part await(Call call, long deadline, long budgetMillis) {
+        long remaining = deadline - System.nanoTime();
+        try {
+            return call.result().get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.abort().abort();
+            call.result().cancel(false);
+            return Part.failed("TIMEOUT", null, TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+        } catch (ExecutionException e) {
+            log.debug("Aggregated part failed: {}", e.getCause().getMessage());
+            return Part.failed("ERROR", null, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Part.failed("ERROR", null, 0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Call(CompletableFuture<Part> result, AbortHandle abort) {
+    }
+
+    private static class Part {
+        private final String status;
+        private final Integer httpStatus;
+        private final long latencyNanos;
+        private final JsonNode body;
+
+        private Part(String status, Integer httpStatus, long latencyNanos, JsonNode body) {
+            this.status = status;
+            this.httpStatus = httpStatus;
+            this.latencyNanos = latencyNanos;
+            this.body = body;
+        }
+
+        static Part fromResponse(BufferedResponse response, ObjectMapper objectMapper, long latencyNanos) {
+            if (response.getStatus() >= 400) {
+                return failed("ERROR", response.getStatus(), latencyNanos);
+            }
+            try {
+                return new Part("OK", response.getStatus(), latencyNanos, objectMapper.readTree(response.getBody()));
+            } catch (IOException e) {
+                return failed("INVALID_BODY", response.getStatus(), latencyNanos);
+            }
+        }
+
+        static Part failed(String status, Integer httpStatus, long latencyNanos) {
+            return new Part(status, httpStatus, latencyNanos, null);
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("status", status);
+            if (httpStatus != null) {
+                description.put("httpStatus", httpStatus);
+            }
+            description.put("latencyMs", TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+            return description;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.footwear.apigateway.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwear.apigateway.ratelimit.RateLimiter;
+import com.footwear.apigateway.security.EdgeIdentity;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import com.footwear.apigateway.security.IdentityHeaderSigner;
+import com.footwear.common.deadline.Deadline;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs the sub-requests of a POST /api/batch concurrently through the gateway's
+ * normal routing. Each sub-request is authenticated and rate limited on its own:
+ * its Authorization header (its own, or the batch's) is verified at the edge and
+ * turned into signed identity headers, exactly like a standalone request.
+ * Sub-requests never touch the batch request or response directly, so one that outlives
+ * the batch cannot interfere with the reply or with a recycled servlet request.
+ */
+@Component
+@Slf4j
+public class BatchExecutor {
+
+    // Headere care descriu corpul / conexiunea request-ului batch, nu sub-request-urile
+    private static final Set<String> NON_INHERITED_HEADERS = Set.of(
+            "content-length", "content-type", "transfer-encoding", "expect",
+            "if-none-match", "if-modified-since");
+
+    @FunctionalInterface
+    public interface Dispatcher {
+        void dispatch(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    @Autowired
+    private BatchProperties properties;
+
+    @Autowired
+    private EdgeJwtVerifier edgeJwtVerifier;
+
+    @Autowired
+    private IdentityHeaderSigner identityHeaderSigner;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public int getMaxRequests() {
+        return properties.getMaxRequests();
+    }
+
+    /**
+     * Executes all sub-requests and returns their responses in request order.
+     * At most {@code parallelism} sub-requests of one batch run at the same time, all of them
+     * on the shared pool. The batch timeout is counted from entry; a sub-request still running
+     * when it expires is answered with 504, and its late result is dropped.
+     */
+    public List<Map<String, Object>> execute(List<BatchSubRequest> subRequests, HttpServletRequest batchRequest,
+                                             HttpServletResponse batchResponse, Dispatcher dispatcher) {
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        int count = subRequests.size();
+        // Tot ce ține de request-ul batch se copiază aici, pe thread-ul apelant: după timeout
+        // container-ul îl reciclează, iar worker-ii întârziați nu trebuie să-l mai atingă
+        HttpHeaders inherited = inheritedHeaders(batchRequest);
+        SubRequestWrapper.Origin origin = SubRequestWrapper.Origin.of(batchRequest);
+
+        AtomicReferenceArray<Map<String, Object>> results = new AtomicReferenceArray<>(count);
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count);
+
+        // Fiecare worker ia următorul sub-request liber până se termină lista sau expiră batch-ul
+        Runnable worker = () -> {
+            int index;
+            while (!closed.get() && (index = next.getAndIncrement()) < count) {
+                try {
+                    Map<String, Object> result = run(subRequests.get(index), index, batchRequest, batchResponse,
+                            inherited, origin, dispatcher, deadline);
+                    // După timeout rezultatul întârziat este aruncat - slotul are deja 504
+                    results.compareAndSet(index, null, result);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+
+        int workers = Math.min(properties.getParallelism(), count);
+        int started = 0;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+                started++;
+            } catch (RejectedExecutionException e) {
+                // Pool-ul partajat este plin - batch-ul rulează cu mai puțini workeri
+                break;
+            }
+        }
+
+        if (started > 0) {
+            try {
+                if (!done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Batch of {} sub-requests did not finish within {}", count, properties.getTimeout());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            log.warn("Batch of {} sub-requests rejected - all {} batch threads are busy", count, properties.getMaxThreads());
+        }
+        closed.set(true);
+
+        List<Map<String, Object>> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> timeout = started > 0
+                    ? failure(subRequests.get(i), i, 504, "Batch timeout")
+                    : failure(subRequests.get(i), i, 503, "Batch capacity exceeded");
+            // Un worker care termină acum pierde cursa și nu mai scrie în slot
+            results.compareAndSet(i, null, timeout);
+            responses.add(results.get(i));
+        }
+        return responses;
+    }
+
+    private Map<String, Object> run(BatchSubRequest subRequest, int index, HttpServletRequest batchRequest,
+                                    HttpServletResponse batchResponse, HttpHeaders inherited,
+                                    SubRequestWrapper.Origin origin, Dispatcher dispatcher, long deadline) {
+        String path = subRequest.getPath();
+        if (path == null || !path.startsWith("/api/") || path.startsWith("/api/batch")) {
+            return failure(subRequest, index, 400, "Invalid sub-request path");
+        }
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+            return failure(subRequest, index, 504, "Batch timeout");
+        }
+
+        try {
+            byte[] body = subRequest.getBody() != null && !subRequest.getBody().isNull()
+                    ? objectMapper.writeValueAsBytes(subRequest.getBody())
+                    : null;
+            SubRequestWrapper request = new SubRequestWrapper(batchRequest, origin, subRequest.getMethod().toUpperCase(), path,
+                    headersFor(subRequest, inherited, body != null, remaining), body);
+
+            if (rateLimiter.tryAcquire(request) > 0) {
+                return failure(subRequest, index, 429, "Too many requests");
+            }
+
+            CapturedResponse response = new CapturedResponse(batchResponse);
+            dispatcher.dispatch(request, response);
+            return toResult(subRequest, index, response);
+        } catch (IllegalArgumentException e) {
+            return failure(subRequest, index, 400, "Invalid sub-request: " + e.getMessage());
+        } catch (Exception e) {
+            log.debug("Batch sub-request {} failed: {}", path, e.getMessage());
+            return failure(subRequest, index, 502, "Service unavailable: " + e.getMessage());
+        }
+    }
+
+    private HttpHeaders inheritedHeaders(HttpServletRequest batchRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        Enumeration<String> names = batchRequest.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            String lower = name.toLowerCase();
+            if (NON_INHERITED_HEADERS.contains(lower) || IdentityHeaderSigner.HEADER_NAMES.contains(lower)) {
+                continue;
+            }
+            Enumeration<String> values = batchRequest.getHeaders(name);
+            while (values.hasMoreElements()) {
+                headers.add(name, values.nextElement());
+            }
+        }
+        return headers;
+    }
+
+    private HttpHeaders headersFor(BatchSubRequest subRequest, HttpHeaders inherited, boolean hasBody, long remainingMillis) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(inherited);
+        subRequest.getHeaders().forEach((name, value) -> {
+            if (!IdentityHeaderSigner.HEADER_NAMES.contains(name.toLowerCase())) {
+                headers.set(name, value);
+            }
+        });
+        if (hasBody && headers.getContentType() == null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        }
+        // Sub-request-ul nu poate aștepta backend-ul mai mult decât a rămas din batch
+        long requested = Deadline.parse(headers.getFirst(Deadline.HEADER));
+        if (requested < 0 || requested > remainingMillis) {
+            headers.set(Deadline.HEADER, String.valueOf(remainingMillis));
+        }
+
+        // Identitatea se verifică separat pentru fiecare sub-request
+        EdgeIdentity identity = edgeJwtVerifier.verify(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        if (identity != null) {
+            identityHeaderSigner.sign(identity).forEach(headers::set);
+        }
+        return headers;
+    }
+
+    private Map<String, Object> toResult(BatchSubRequest subRequest, int index, CapturedResponse response) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", subRequest.getId() != null ? subRequest.getId() : String.valueOf(index));
+        result.put("status", response.getStatus());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.getCapturedHeaders().forEach((name, values) -> headers.put(name, String.join(", ", values)));
+        result.put("headers", headers);
+
+        byte[] body = response.getCapturedBody();
+        result.put("body", parseBody(body, response.getContentType()));
+        return result;
+    }
+
+    private Object parseBody(byte[] body, String contentType) {
+        if (body.length == 0) {
+            return null;
+        }
+        if (contentType != null && contentType.contains("json")) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                // Cade pe text simplu
+            }
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private Map<String, Object> failure(BatchSubRequest subRequest, int index, int status, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", subRequest.getId() != null ? subRequest.getId() : String.valueOf(index));
+        result.put("status", status);
+        result.put("headers", Map.of());
+        result.put("body", Map.of("status", "error", "message", message));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
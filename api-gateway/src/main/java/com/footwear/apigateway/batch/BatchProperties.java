@@ -0,0 +1,22 @@
+package com.footwear.apigateway.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Batch endpoint settings (app.batch.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+
+    private int maxRequests = 50;
+    // Câte sub-request-uri ale aceluiași batch rulează simultan
+    private int parallelism = 8;
+    // Thread-uri partajate de toate batch-urile; când sunt toate ocupate batch-ul primește 503
+    private int maxThreads = 64;
+    // Socotit de la intrarea în batch; sub-request-urile nu așteaptă backend-ul mai mult de atât
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,21 @@
+package com.footwear.apigateway.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One entry of a POST /api/batch body.
+ */
+@Data
+public class BatchSubRequest {
+    private String id;
+    private String method = "GET";
+    // Calea din gateway, cu query string opțional: /api/inventory/store/1?page=0
+    private String path;
+    // Suprascriu headerele request-ului batch, ex: alt Authorization
+    private Map<String, String> headers = new HashMap<>();
+    private JsonNode body;
+}
@@ -0,0 +1,267 @@
+package com.footwear.apigateway.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collects status, headers and body of a batch sub-request in memory.
+ * Nothing is read from or written to the batch response it wraps, so a sub-request
+ * that finishes after the batch timed out cannot touch the batch reply.
+ */
+class CapturedResponse extends HttpServletResponseWrapper {
+
+    private int status = SC_OK;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private PrintWriter writer;
+    private boolean committed;
+    private Locale locale = Locale.getDefault();
+
+    CapturedResponse(HttpServletResponse batchResponse) {
+        super(batchResponse);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        status = sc;
+        committed = true;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        status = SC_FOUND;
+        headers.set(HttpHeaders.LOCATION, location);
+        committed = true;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Proxy-ul copiază Set-Cookie ca header; cookie-urile puse direct nu au unde să ajungă
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.set(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(name, value);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.setDate(name, date);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        HttpHeaders formatted = new HttpHeaders();
+        formatted.setDate(name, date);
+        headers.add(name, formatted.getFirst(name));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        headers.set(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        headers.add(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values != null ? new ArrayList<>(values) : new ArrayList<>();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (type != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, type);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // Lungimea reală se calculează din corpul capturat
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        if (locale != null) {
+            this.locale = locale;
+        }
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return body.size();
+    }
+
+    @Override
+    public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+    }
+
+    @Override
+    public Supplier<Map<String, String>> getTrailerFields() {
+        return null;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        committed = true;
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                body.write(buffer, offset, length);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Batch sub-responses are written synchronously");
+            }
+        };
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        committed = true;
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        if (committed) {
+            throw new IllegalStateException("Sub-response already committed");
+        }
+        status = SC_OK;
+        headers.clear();
+        body.reset();
+    }
+
+    @Override
+    public void resetBuffer() {
+        body.reset();
+    }
+
+    HttpHeaders getCapturedHeaders() {
+        return headers;
+    }
+
+    byte[] getCapturedBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,238 @@
+package com.footwear.apigateway.batch;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A batch sub-request presented as a servlet request, so it can go through the
+ * normal proxy path. Method, path, headers, body and attributes are all its own;
+ * connection details (remote address, scheme) are copied from the batch request up front,
+ * because a sub-request may still be running after the batch request was recycled.
+ */
+class SubRequestWrapper extends HttpServletRequestWrapper {
+
+    private final Origin origin;
+    private final String method;
+    private final String requestUri;
+    private final String queryString;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    SubRequestWrapper(HttpServletRequest batchRequest, Origin origin, String method, String path,
+                      HttpHeaders headers, byte[] body) {
+        super(batchRequest);
+        this.origin = origin;
+        int queryStart = path.indexOf('?');
+        this.method = method;
+        this.requestUri = queryStart >= 0 ? path.substring(0, queryStart) : path;
+        this.queryString = queryStart >= 0 ? path.substring(queryStart + 1) : null;
+        this.headers = headers;
+        this.body = body;
+        if (body != null) {
+            headers.setContentLength(body.length);
+        }
+    }
+
+    /**
+     * Connection details of the batch request, read on the thread that received it.
+     */
+    record Origin(String remoteAddr, int remotePort, String scheme, String serverName, int serverPort, boolean secure) {
+
+        static Origin of(HttpServletRequest request) {
+            return new Origin(request.getRemoteAddr(), request.getRemotePort(), request.getScheme(),
+                    request.getServerName(), request.getServerPort(), request.isSecure());
+        }
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return origin.remoteAddr();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return origin.remoteAddr();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return origin.remotePort();
+    }
+
+    @Override
+    public String getScheme() {
+        return origin.scheme();
+    }
+
+    @Override
+    public String getServerName() {
+        return origin.serverName();
+    }
+
+    @Override
+    public int getServerPort() {
+        return origin.serverPort();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return origin.secure();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        // Corpul este serializat de Jackson, întotdeauna UTF-8
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(requestUri);
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestUri;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values != null ? Collections.enumeration(values) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return headers.getFirst(name) != null ? headers.getFirstDate(name) : -1;
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = headers.getFirst(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public int getContentLength() {
+        return body != null ? body.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body != null ? body : new byte[0]);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return in.read(buffer, offset, length);
+            }
+
+            @Override
+            public int available() {
+                return in.available();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Batch sub-requests are read synchronously");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+}
@@ -0,0 +1,67 @@
+package com.footwear.apigateway.cache;
+
+import com.footwear.apigateway.proxy.BufferedResponse;
+
+/**
+ * A cached upstream response plus the validators and freshness windows computed when it was stored.
+ */
+public class CacheEntry {
+
+    // Aproximare pentru overhead-ul de obiect, chei și headere
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final BufferedResponse response;
+    // Varianta gzip precompresată la salvare; null dacă nu merită comprimată
+    private final byte[] gzipBody;
+    private final String etag;
+    private final long lastModified;
+    private final long storedAt;
+    private final long freshUntil;
+    private final long staleWhileRevalidateUntil;
+    private final long staleIfErrorUntil;
+
+    public CacheEntry(BufferedResponse response, byte[] gzipBody, String etag, long lastModified, long storedAt,
+                      long freshUntil, long staleWhileRevalidateUntil, long staleIfErrorUntil) {
+        this.response = response;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.storedAt = storedAt;
+        this.freshUntil = freshUntil;
+        this.staleWhileRevalidateUntil = staleWhileRevalidateUntil;
+        this.staleIfErrorUntil = staleIfErrorUntil;
+    }
+
+    public BufferedResponse getResponse() { return response; }
+    public byte[] getGzipBody() { return gzipBody; }
+    public String getEtag() { return etag; }
+
+    /**
+     * Validator of the gzip representation - it must differ from the identity one.
+     */
+    public String getGzipEtag() {
+        return etag.endsWith("\"") ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag + "-gzip";
+    }
+    public long getLastModified() { return lastModified; }
+    public long getStoredAt() { return storedAt; }
+
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    public boolean isUsableWhileRevalidating(long now) {
+        return now < staleWhileRevalidateUntil;
+    }
+
+    public boolean isUsableOnError(long now) {
+        return now < staleIfErrorUntil;
+    }
+
+    public boolean isDead(long now) {
+        return now >= staleWhileRevalidateUntil && now >= staleIfErrorUntil;
+    }
+
+    public long sizeInBytes() {
+        return response.getBody().length + (gzipBody != null ? gzipBody.length : 0) + ENTRY_OVERHEAD;
+    }
+}
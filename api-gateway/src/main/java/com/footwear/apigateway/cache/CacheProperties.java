@@ -0,0 +1,32 @@
+package com.footwear.apigateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response cache settings (app.cache.*).
+ * Only GET routes listed under {@code routes} are cached; the first matching pattern wins.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        // Ant-style pattern pe calea din gateway, ex: /api/products/public/**
+        private String path;
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private Duration staleIfError = Duration.ZERO;
+    }
+}
@@ -0,0 +1,284 @@
+package com.footwear.apigateway.cache;
+
+import com.footwear.apigateway.coalesce.RequestCoalescer;
+import com.footwear.apigateway.compression.ResponseCompressor;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import com.footwear.apigateway.security.IdentityHeaderSigner;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves configured public GET routes from {@link ResponseCache}.
+ * Handles ETag / Last-Modified validation (304), serves stale entries while a
+ * single background refresh runs, and falls back to stale entries when the
+ * backend fails.
+ */
+@Component
+@Slf4j
+public class CachingProxyHandler {
+
+    @Autowired
+    private CacheProperties properties;
+
+    @Autowired
+    private ResponseCache cache;
+
+    @Autowired
+    private ProxyEngine proxyEngine;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResponseCompressor compressor;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Chei pentru care rulează deja o revalidare în fundal
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor revalidationExecutor = new ThreadPoolExecutor(
+            1, 4, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+            runnable -> {
+                Thread thread = new Thread(runnable, "cache-revalidate");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Handles the request if it targets a cached route.
+     *
+     * @return false when the route is not cacheable and the caller should proxy normally
+     */
+    public boolean handle(String service, URI target, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!properties.isEnabled() || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        CacheProperties.Route route = findRoute(request.getRequestURI());
+        if (route == null) {
+            return false;
+        }
+
+        String key = cacheKey(request);
+        long now = System.currentTimeMillis();
+        CacheEntry entry = cache.get(key);
+
+        if (entry != null && entry.isFresh(now)) {
+            cache.recordHit();
+            serve(entry, "HIT", request, response, now);
+            return true;
+        }
+
+        UpstreamRequest upstream = anonymousSnapshot(service, target, request);
+
+        if (entry != null && entry.isUsableWhileRevalidating(now)) {
+            cache.recordStaleHit();
+            revalidateAsync(key, route, upstream);
+            serve(entry, "STALE", request, response, now);
+            return true;
+        }
+
+        cache.recordMiss();
+        BufferedResponse fresh;
+        try {
+            // Miss-urile simultane pentru aceeași cheie fac un singur apel către backend
+            fresh = coalescer.fetch(upstream);
+        } catch (IOException | RuntimeException e) {
+            if (entry != null && entry.isUsableOnError(now)) {
+                cache.recordStaleOnError();
+                serve(entry, "STALE", request, response, now);
+                return true;
+            }
+            throw e;
+        }
+
+        if (fresh.isServerError() && entry != null && entry.isUsableOnError(now)) {
+            cache.recordStaleOnError();
+            serve(entry, "STALE", request, response, now);
+            return true;
+        }
+
+        CacheEntry stored = store(key, route, fresh);
+        if (stored != null) {
+            serve(stored, "MISS", request, response, System.currentTimeMillis());
+        } else {
+            response.setHeader("X-Cache", "MISS");
+            proxyEngine.write(fresh, request, response);
+        }
+        return true;
+    }
+
+    private CacheProperties.Route findRoute(String path) {
+        for (CacheProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String cacheKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+    }
+
+    /**
+     * Cached responses are shared by every client, so they are always fetched
+     * without credentials and without the client's own validators.
+     */
+    private UpstreamRequest anonymousSnapshot(String service, URI target, HttpServletRequest request) throws IOException {
+        UpstreamRequest snapshot = proxyEngine.snapshot(service, target, request);
+        HttpHeaders headers = snapshot.getHeaders();
+        headers.remove(HttpHeaders.AUTHORIZATION);
+        headers.remove(HttpHeaders.COOKIE);
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        IdentityHeaderSigner.HEADER_NAMES.forEach(headers::remove);
+        return snapshot;
+    }
+
+    private CacheEntry store(String key, CacheProperties.Route route, BufferedResponse fresh) {
+        if (fresh.getStatus() != 200) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(fresh.getHeaders());
+        // Politica de caching pentru client este decisă de gateway, nu de backend
+        headers.remove(HttpHeaders.CACHE_CONTROL);
+        headers.remove(HttpHeaders.PRAGMA);
+        headers.remove(HttpHeaders.EXPIRES);
+        // Timpii backend-ului țin de request-ul care a populat cache-ul, nu de hit-urile ulterioare
+        headers.remove("Server-Timing");
+
+        String etag = headers.getETag();
+        if (etag == null) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(fresh.getBody()) + "\"";
+            headers.setETag(etag);
+        }
+        long lastModified = headers.getLastModified();
+        if (lastModified < 0) {
+            lastModified = now;
+            headers.setLastModified(lastModified);
+        }
+        headers.setCacheControl("no-cache");
+
+        // Comprimăm o singură dată la salvare, nu la fiecare hit
+        byte[] gzipBody = null;
+        if (compressor.isCompressible(fresh.getStatus(), headers, fresh.getBody().length)) {
+            byte[] compressed = compressor.gzip(fresh.getBody());
+            gzipBody = compressed.length < fresh.getBody().length ? compressed : null;
+        }
+
+        long freshUntil = now + route.getTtl().toMillis();
+        CacheEntry entry = new CacheEntry(new BufferedResponse(fresh.getStatus(), headers, fresh.getBody()),
+                gzipBody, etag, lastModified, now, freshUntil,
+                freshUntil + route.getStaleWhileRevalidate().toMillis(),
+                freshUntil + route.getStaleIfError().toMillis());
+        cache.put(key, entry);
+        return entry;
+    }
+
+    private void serve(CacheEntry entry, String cacheStatus, HttpServletRequest request,
+                       HttpServletResponse response, long now) throws IOException {
+        response.setHeader("X-Cache", cacheStatus);
+        response.setHeader(HttpHeaders.AGE, String.valueOf(Math.max(0, (now - entry.getStoredAt()) / 1000)));
+
+        boolean gzip = entry.getGzipBody() != null && compressor.acceptsGzip(request);
+        if (isNotModified(entry, request)) {
+            cache.recordNotModified();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, gzip ? entry.getGzipEtag() : entry.getEtag());
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, entry.getLastModified());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            if (entry.getGzipBody() != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return;
+        }
+        if (gzip) {
+            proxyEngine.writeGzipped(entry.getResponse(), entry.getGzipBody(), entry.getGzipEtag(), response);
+        } else {
+            if (entry.getGzipBody() != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            proxyEngine.writeIdentity(entry.getResponse(), response);
+        }
+    }
+
+    private boolean isNotModified(CacheEntry entry, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Orice reprezentare (identity sau gzip) a aceleiași versiuni este validă
+            return etagMatches(ifNoneMatch, entry.getEtag()) || etagMatches(ifNoneMatch, entry.getGzipEtag());
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // Datele HTTP au rezoluție de o secundă
+            return ifModifiedSince >= 0 && entry.getLastModified() / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        String current = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || stripWeak(trimmed).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private void revalidateAsync(String key, CacheProperties.Route route, UpstreamRequest upstream) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    BufferedResponse fresh = proxyEngine.fetch(upstream);
+                    if (store(key, route, fresh) != null) {
+                        cache.recordRevalidation();
+                    }
+                } catch (Exception e) {
+                    log.debug("Background revalidation failed for {}: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidationExecutor.shutdownNow();
+    }
+}
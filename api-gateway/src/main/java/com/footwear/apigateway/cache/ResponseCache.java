@@ -0,0 +1,111 @@
+package com.footwear.apigateway.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory store for cached responses.
+ * Entries are kept in access order and evicted least-recently-used first until
+ * the total body size fits in {@code app.cache.max-size}. Entries past both their
+ * stale-while-revalidate and stale-if-error windows can no longer be served and are
+ * dropped when they are looked up.
+ */
+@Component
+public class ResponseCache {
+
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder staleOnError = new LongAdder();
+
+    @Autowired
+    private CacheProperties properties;
+
+    public CacheEntry get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.isDead(now)) {
+                // Nu mai poate fi servită nici ca stale - nu are rost să ocupe loc până la evicție
+                entries.remove(key);
+                totalBytes -= entry.sizeInBytes();
+                expired.increment();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    public void put(String key, CacheEntry entry) {
+        long size = entry.sizeInBytes();
+        if (size > properties.getMaxEntrySize().toBytes()) {
+            return;
+        }
+
+        synchronized (entries) {
+            CacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.sizeInBytes();
+            }
+            totalBytes += size;
+
+            long maxBytes = properties.getMaxSize().toBytes();
+            Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CacheEntry> candidate = eldest.next();
+                if (candidate.getValue() == entry) {
+                    continue;
+                }
+                totalBytes -= candidate.getValue().sizeInBytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void remove(String key) {
+        synchronized (entries) {
+            CacheEntry removed = entries.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.sizeInBytes();
+            }
+        }
+    }
+
+    public void recordHit() { hits.increment(); }
+    public void recordStaleHit() { staleHits.increment(); }
+    public void recordMiss() { misses.increment(); }
+    public void recordNotModified() { notModified.increment(); }
+    public void recordRevalidation() { revalidations.increment(); }
+    public void recordStaleOnError() { staleOnError.increment(); }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", properties.getMaxSize().toBytes());
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expired", expired.sum());
+        stats.put("notModified", notModified.sum());
+        stats.put("revalidations", revalidations.sum());
+        stats.put("staleOnError", staleOnError.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,124 @@
+package com.footwear.apigateway.client;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+/**
+ * Lets another thread give up on an upstream call in flight (the losing hedge, a page
+ * fragment past its timeout). Aborting cancels the HTTP request: its connection is closed
+ * instead of going back to the pool and the calling thread gets an IOException, so the
+ * bulkhead slot is released right away.
+ * <p>
+ * The calling thread keeps the handle open around the work; requests created by the pooled
+ * clients of {@link BackendClientRegistry} meanwhile attach to it. Handles opened inside an
+ * open handle are aborted together with it. h2c backends (JDK client) cannot be aborted -
+ * their losing stream finishes in the background.
+ */
+public final class AbortHandle {
+
+    private static final ThreadLocal<AbortHandle> OPEN = new ThreadLocal<>();
+
+    private Cancellable call;
+    private AbortHandle nested;
+    private boolean aborted;
+    private boolean done;
+
+    /**
+     * @return the handle open on the current thread, or null
+     */
+    public static AbortHandle current() {
+        return OPEN.get();
+    }
+
+    /**
+     * Binds the handle to the current thread until the returned scope is closed;
+     * closing it marks the work as done, after which {@link #abort} has no effect.
+     */
+    public Scope open() {
+        AbortHandle outer = OPEN.get();
+        OPEN.set(this);
+        if (outer != null && outer.nest(this)) {
+            abort();
+        }
+        return new Scope(this, outer);
+    }
+
+    public void abort() {
+        Cancellable toCancel;
+        AbortHandle toAbort;
+        synchronized (this) {
+            if (aborted || done) {
+                return;
+            }
+            aborted = true;
+            toCancel = call;
+            toAbort = nested;
+        }
+        if (toCancel != null) {
+            toCancel.cancel();
+        }
+        if (toAbort != null) {
+            toAbort.abort();
+        }
+    }
+
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    // Apelat de factory pe thread-ul care creează request-ul
+    static void attachOpen(Cancellable request) {
+        AbortHandle handle = OPEN.get();
+        if (handle == null) {
+            return;
+        }
+        boolean cancelNow;
+        synchronized (handle) {
+            handle.call = request;
+            cancelNow = handle.aborted;
+        }
+        // Abandonat înainte să existe request-ul - pornește deja anulat
+        if (cancelNow) {
+            request.cancel();
+        }
+    }
+
+    // @return true dacă acest handle e deja abandonat, deci și cel nou trebuie abandonat
+    private synchronized boolean nest(AbortHandle inner) {
+        nested = inner;
+        return aborted;
+    }
+
+    private synchronized void unnest(AbortHandle inner) {
+        if (nested == inner) {
+            nested = null;
+        }
+    }
+
+    private synchronized void finish() {
+        done = true;
+        call = null;
+        nested = null;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final AbortHandle handle;
+        private final AbortHandle outer;
+
+        private Scope(AbortHandle handle, AbortHandle outer) {
+            this.handle = handle;
+            this.outer = outer;
+        }
+
+        @Override
+        public void close() {
+            if (outer != null) {
+                OPEN.set(outer);
+                outer.unnest(handle);
+            } else {
+                OPEN.remove();
+            }
+            handle.finish();
+        }
+    }
+}
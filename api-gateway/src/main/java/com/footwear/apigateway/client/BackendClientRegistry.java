@@ -0,0 +1,193 @@
+package com.footwear.apigateway.client;
+
+import com.footwear.apigateway.config.BackendPoolProperties;
+import com.footwear.apigateway.metrics.UpstreamTimer;
+import com.footwear.common.deadline.Deadline;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one dedicated downstream client per backend service, so a slow or
+ * saturated service can only exhaust its own connections.
+ * HTTP/1.1 backends get a keep-alive pool; backends with {@code h2c: true}
+ * share a single multiplexed HTTP/2 connection.
+ */
+@Component
+@Slf4j
+public class BackendClientRegistry implements DisposableBean {
+
+    @Autowired
+    private BackendPoolProperties poolProperties;
+
+    private final Map<String, BackendClient> clients = new ConcurrentHashMap<>();
+
+    public ClientHttpRequestFactory getRequestFactory(String service) {
+        return clients.computeIfAbsent(service, this::createClient).requestFactory;
+    }
+
+    /**
+     * Pool usage per backend - leased/pending/idle are the numbers to look at when sizing pools.
+     */
+    public Map<String, Map<String, Object>> getPoolStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        clients.forEach((service, client) -> {
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            if (client.connectionManager != null) {
+                PoolStats total = client.connectionManager.getTotalStats();
+                poolStats.put("mode", "http/1.1");
+                poolStats.put("leased", total.getLeased());
+                poolStats.put("pending", total.getPending());
+                poolStats.put("idle", total.getAvailable());
+                poolStats.put("max", total.getMax());
+            } else {
+                poolStats.put("mode", "h2c");
+                poolStats.put("multiplexed", true);
+            }
+            stats.put(service, poolStats);
+        });
+        return stats;
+    }
+
+    private BackendClient createClient(String service) {
+        BackendPoolProperties.Settings settings = poolProperties.resolve(service);
+        log.info("Creating downstream client for {}: maxConnections={}, h2c={}",
+                service, settings.getMaxConnections(), settings.getH2c());
+
+        if (Boolean.TRUE.equals(settings.getH2c())) {
+            return createH2cClient(settings);
+        }
+        return createPooledClient(settings);
+    }
+
+    private BackendClient createPooledClient(BackendPoolProperties.Settings settings) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                // Un singur host per backend, deci limita per rută este aceeași cu cea totală
+                .setMaxConnTotal(settings.getMaxConnections())
+                .setMaxConnPerRoute(settings.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(settings.getConnectTimeout()))
+                        .setSocketTimeout(toTimeout(settings.getReadTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(toTimeout(settings.getAcquireTimeout()))
+                .setResponseTimeout(toTimeout(settings.getReadTimeout()))
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.getIdleTimeout().toMillis()))
+                // The proxy forwards bytes as-is: no transparent gzip, retries, redirects or cookies
+                .disableContentCompression()
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                // Măsoară faza de lease / conectare (vezi GatewayMetrics)
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "connect-timer", (request, scope, chain) -> {
+                    UpstreamTimer.connectStarted();
+                    return chain.proceed(request, scope);
+                })
+                .addExecInterceptorBefore(ChainElement.MAIN_TRANSPORT.name(), "transport-timer", (request, scope, chain) -> {
+                    UpstreamTimer.connected();
+                    return chain.proceed(request, scope);
+                })
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected void postProcessHttpRequest(ClassicHttpRequest request) {
+                // Un AbortHandle deschis pe acest thread poate anula apelul (vezi HedgingProxy)
+                if (request instanceof HttpUriRequestBase cancellable) {
+                    AbortHandle.attachOpen(cancellable);
+                }
+            }
+        };
+        long readTimeoutMillis = settings.getReadTimeout().toMillis();
+        requestFactory.setHttpContextFactory((method, uri) -> deadlineContext(requestConfig, readTimeoutMillis));
+        return new BackendClient(requestFactory, connectionManager, httpClient);
+    }
+
+    private BackendClient createH2cClient(BackendPoolProperties.Settings settings) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(settings.getReadTimeout());
+        return new BackendClient(requestFactory, null, null);
+    }
+
+    /**
+     * Caps the response timeout by what is left of the request's deadline, so the gateway
+     * stops waiting at the same moment the client would. Returns null (client defaults)
+     * outside a request with a deadline.
+     */
+    private static HttpClientContext deadlineContext(RequestConfig defaults, long readTimeoutMillis) {
+        if (!Deadline.isSet()) {
+            return null;
+        }
+        long remaining = Math.max(1, Deadline.remainingMillis());
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.copy(defaults)
+                .setResponseTimeout(Timeout.ofMilliseconds(Math.min(readTimeoutMillis, remaining)))
+                .build());
+        return context;
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (BackendClient client : clients.values()) {
+            if (client.closeable != null) {
+                client.closeable.close();
+            }
+        }
+    }
+
+    private static class BackendClient {
+        private final ClientHttpRequestFactory requestFactory;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final Closeable closeable;
+
+        BackendClient(ClientHttpRequestFactory requestFactory,
+                      PoolingHttpClientConnectionManager connectionManager,
+                      Closeable closeable) {
+            this.requestFactory = requestFactory;
+            this.connectionManager = connectionManager;
+            this.closeable = closeable;
+        }
+    }
+}
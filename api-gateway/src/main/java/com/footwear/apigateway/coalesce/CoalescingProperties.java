@@ -0,0 +1,22 @@
+package com.footwear.apigateway.coalesce;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request coalescing settings (app.coalescing.*).
+ * {@code routes} are Ant-style patterns on the gateway path; only GET requests are coalesced.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+    // Cât așteaptă un request care s-a alăturat unui apel deja în curs
+    private Duration maxWait = Duration.ofSeconds(5);
+    private List<String> routes = new ArrayList<>();
+}
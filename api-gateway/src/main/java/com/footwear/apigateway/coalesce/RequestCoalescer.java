@@ -0,0 +1,168 @@
+package com.footwear.apigateway.coalesce;
+
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.hedge.HedgingProxy;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight execution of identical idempotent requests.
+ * The first request for a key (method, upstream URI with query, Accept and
+ * Accept-Encoding, auth scope) becomes the leader and performs the upstream call; concurrent requests with
+ * the same key wait for the leader and receive the same response.
+ * Cache misses are always coalesced, other routes only when listed in
+ * {@code app.coalescing.routes}.
+ */
+@Component
+public class RequestCoalescer {
+
+    @Autowired
+    private CoalescingProperties properties;
+
+    @Autowired
+    private ProxyEngine proxyEngine;
+
+    // Liderul poate fi hedged - de câștig beneficiază toți cei care așteaptă după el
+    @Autowired
+    private HedgingProxy hedgingProxy;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public boolean appliesTo(HttpServletRequest request) {
+        if (!properties.isEnabled() || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI();
+        for (String route : properties.getRoutes()) {
+            if (pathMatcher.match(route, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void forward(String service, URI target, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BufferedResponse shared = fetch(proxyEngine.snapshot(service, target, request));
+        proxyEngine.write(shared, request, response);
+    }
+
+    /**
+     * Fetches through the single-flight table. The returned response may be shared
+     * with other callers and must not be modified.
+     */
+    public BufferedResponse fetch(UpstreamRequest upstream) throws IOException {
+        if (!properties.isEnabled()) {
+            return hedgingProxy.fetch(upstream);
+        }
+
+        String key = coalescingKey(upstream);
+        CompletableFuture<BufferedResponse> call = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            coalesced.increment();
+            return awaitLeader(existing, upstream);
+        }
+
+        leaders.increment();
+        try {
+            BufferedResponse response = hedgingProxy.fetch(upstream);
+            call.complete(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            AbortHandle abort = AbortHandle.current();
+            if (abort != null && abort.isAborted()) {
+                // Liderul a fost abandonat de propriul request - ceilalți fac apelul singuri
+                call.cancel(false);
+            } else {
+                call.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private BufferedResponse awaitLeader(CompletableFuture<BufferedResponse> leader, UpstreamRequest upstream) throws IOException {
+        try {
+            return leader.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Liderul este prea lent - facem propriul apel în loc să așteptăm la nesfârșit
+            waitTimeouts.increment();
+            return hedgingProxy.fetch(upstream);
+        } catch (CancellationException e) {
+            return hedgingProxy.fetch(upstream);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for coalesced request", e);
+        }
+    }
+
+    // Accept și Accept-Encoding merg la backend - de ele depind formatul și codificarea răspunsului partajat
+    private String coalescingKey(UpstreamRequest upstream) {
+        HttpHeaders headers = upstream.getHeaders();
+        return upstream.getMethod().name() + " " + upstream.getUri()
+                + "\n" + String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT))
+                + "\n" + String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING))
+                + "\n" + authScope(headers.getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    // Token-ul nu este păstrat în cheie, doar un hash al lui
+    private String authScope(String authorization) {
+        if (authorization == null || authorization.isEmpty()) {
+            return "anonymous";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(authorization.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("upstreamCalls", leaders.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("waitTimeouts", waitTimeouts.sum());
+        return stats;
+    }
+}
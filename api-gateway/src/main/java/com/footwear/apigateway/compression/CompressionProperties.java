@@ -0,0 +1,23 @@
+package com.footwear.apigateway.compression;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response compression settings (app.compression.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+    // Sub acest prag compresia costă mai mult decât economisește
+    private DataSize minSize = DataSize.ofBytes(1024);
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/problem+json", "text/plain", "text/html", "text/css",
+            "application/javascript"));
+}
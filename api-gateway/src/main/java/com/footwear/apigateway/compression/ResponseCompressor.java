@@ -0,0 +1,121 @@
+package com.footwear.apigateway.compression;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip content negotiation for proxied responses.
+ * Only gzip is offered: there is no pure-Java Brotli encoder, and native codecs
+ * are not worth the deployment cost for the gateway.
+ */
+@Component
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    @Autowired
+    private CompressionProperties properties;
+
+    private final LongAdder compressedResponses = new LongAdder();
+
+    /**
+     * True when the client sent {@code Accept-Encoding} with gzip (or *) and a non-zero q-value.
+     */
+    public boolean acceptsGzip(HttpServletRequest request) {
+        if (!properties.isEnabled() || "HEAD".equals(request.getMethod())) {
+            return false;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (GZIP.equalsIgnoreCase(name) || "*".equals(name)) {
+                return !hasZeroQuality(parts);
+            }
+        }
+        return false;
+    }
+
+    private boolean hasZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param contentLength body length, or -1 when unknown (chunked upstream response)
+     */
+    public boolean isCompressible(int status, HttpHeaders headers, long contentLength) {
+        if (!properties.isEnabled() || status < 200 || status == 204 || status == 304) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        if (contentLength >= 0 && contentLength < properties.getMinSize().toBytes()) {
+            return false;
+        }
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        for (String mimeType : properties.getMimeTypes()) {
+            if (contentType.regionMatches(true, 0, mimeType, 0, mimeType.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the response as gzip encoded. Must be called before the body is written.
+     */
+    public void prepare(HttpServletResponse response) {
+        compressedResponses.increment();
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Streaming encoder; with sync flush every flush() pushes the compressed bytes
+     * produced so far, so event streams are not held back.
+     */
+    public GZIPOutputStream streaming(OutputStream out, int bufferSize) throws IOException {
+        return new GZIPOutputStream(out, bufferSize, true);
+    }
+
+    public byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // ByteArrayOutputStream nu aruncă IOException
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.sum();
+    }
+}
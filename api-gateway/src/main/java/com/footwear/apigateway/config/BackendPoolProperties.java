@@ -0,0 +1,49 @@
+package com.footwear.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for the downstream services (app.pool.*).
+ * Values under {@code services.<name>} override {@code defaults} field by field.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.pool")
+public class BackendPoolProperties {
+
+    private Settings defaults = new Settings();
+    private Map<String, Settings> services = new HashMap<>();
+
+    @Data
+    public static class Settings {
+        private Integer maxConnections;
+        private Duration idleTimeout;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration acquireTimeout;
+        private Boolean h2c;
+    }
+
+    public Settings resolve(String service) {
+        Settings override = services.getOrDefault(service, new Settings());
+        Settings resolved = new Settings();
+        resolved.setMaxConnections(pick(override.getMaxConnections(), defaults.getMaxConnections(), 100));
+        resolved.setIdleTimeout(pick(override.getIdleTimeout(), defaults.getIdleTimeout(), Duration.ofSeconds(30)));
+        resolved.setConnectTimeout(pick(override.getConnectTimeout(), defaults.getConnectTimeout(), Duration.ofSeconds(2)));
+        resolved.setReadTimeout(pick(override.getReadTimeout(), defaults.getReadTimeout(), Duration.ofSeconds(30)));
+        resolved.setAcquireTimeout(pick(override.getAcquireTimeout(), defaults.getAcquireTimeout(), Duration.ofSeconds(1)));
+        resolved.setH2c(pick(override.getH2c(), defaults.getH2c(), false));
+        return resolved;
+    }
+
+    private static <T> T pick(T override, T fallback, T builtIn) {
+        if (override != null) {
+            return override;
+        }
+        return fallback != null ? fallback : builtIn;
+    }
+}
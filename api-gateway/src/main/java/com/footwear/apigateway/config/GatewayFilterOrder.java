@@ -0,0 +1,22 @@
+package com.footwear.apigateway.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Order of the servlet filters in front of {@code GatewayController}.
+ * CORS runs first so that early rejections (429/503) still carry CORS headers;
+ * tracing comes next so the Server-Timing total covers every other filter.
+ * Priority lanes run after the rate limits, so throttled clients never hold a lane slot.
+ */
+public final class GatewayFilterOrder {
+
+    public static final int CORS = Ordered.HIGHEST_PRECEDENCE;
+    public static final int TRACING = Ordered.HIGHEST_PRECEDENCE + 10;
+    public static final int METRICS = Ordered.HIGHEST_PRECEDENCE + 50;
+    public static final int RATE_LIMIT = Ordered.HIGHEST_PRECEDENCE + 100;
+    public static final int PRIORITY = Ordered.HIGHEST_PRECEDENCE + 150;
+    public static final int EDGE_AUTH = Ordered.HIGHEST_PRECEDENCE + 200;
+
+    private GatewayFilterOrder() {
+    }
+}
@@ -0,0 +1,39 @@
+package com.footwear.apigateway.config;
+
+import com.footwear.common.tracing.SpanExporter;
+import com.footwear.common.tracing.TracingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Trace context + Server-Timing, with the same filter the services use.
+ * Each proxied call is an OUTBOUND span and its id is the parent sent downstream.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    // Fișier JSON lines cu span-uri; gol = doar buffer-ul din memorie (/traces)
+    @Value("${app.tracing.file:}")
+    private String file;
+
+    @Value("${app.tracing.buffer-size:2000}")
+    private int bufferSize;
+
+    @Bean
+    public SpanExporter spanExporter() {
+        return new SpanExporter(serviceName, bufferSize, file);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(SpanExporter spanExporter) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(serviceName, spanExporter));
+        registration.setOrder(GatewayFilterOrder.TRACING);
+        return registration;
+    }
+}
@@ -1,16 +1,51 @@
 package com.footwear.apigateway.controller;
 
+import com.footwear.apigateway.accesslog.AccessLogger;
+import com.footwear.apigateway.aggregate.ProductPageAggregator;
+import com.footwear.apigateway.batch.BatchExecutor;
+import com.footwear.apigateway.batch.BatchSubRequest;
+import com.footwear.apigateway.cache.CachingProxyHandler;
+import com.footwear.apigateway.cache.ResponseCache;
+import com.footwear.apigateway.client.BackendClientRegistry;
+import com.footwear.apigateway.coalesce.RequestCoalescer;
 import com.footwear.apigateway.factory.ResponseFactory;
 import com.footwear.apigateway.factory.ResponseType;
+import com.footwear.apigateway.hedge.HedgingProxy;
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import com.footwear.apigateway.loadbalancer.ServiceInstance;
+import com.footwear.apigateway.metrics.GatewayMetrics;
+import com.footwear.apigateway.priority.PriorityLanes;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.ratelimit.RateLimitFilter;
+import com.footwear.apigateway.resilience.BackendGuard;
+import com.footwear.apigateway.resilience.BackendRejectedException;
+import com.footwear.apigateway.routing.GatewayRouter;
+import com.footwear.apigateway.routing.Route;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import com.footwear.common.deadline.Deadline;
+import com.footwear.common.deadline.DeadlineExceededException;
+import com.footwear.common.tracing.Span;
+import com.footwear.common.tracing.SpanExporter;
+import com.footwear.common.tracing.SpanLayer;
+import com.footwear.common.tracing.Tracer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -19,154 +54,113 @@ public class GatewayController {
     @Autowired
     private RestTemplate restTemplate;
 
-    @Value("${app.services.user}")
-    private String userServiceUrl;
+    @Autowired
+    private ProxyEngine proxyEngine;
 
-    @Value("${app.services.product}")
-    private String productServiceUrl;
+    @Autowired
+    private BackendClientRegistry clientRegistry;
 
-    @Value("${app.services.inventory}")
-    private String inventoryServiceUrl;
+    @Autowired
+    private CachingProxyHandler cachingProxyHandler;
 
-    // Health check fyrir gateway
-    @GetMapping("/health")
-    public ResponseEntity<String> health() {
-        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-        return factory.createResponse("API Gateway is running",
-                "{\"service\":\"api-gateway\",\"version\":\"1.0\",\"timestamp\":\"" + System.currentTimeMillis() + "\"}");
-    }
+    @Autowired
+    private ResponseCache responseCache;
 
-    // ==========================================
-    // AUTH ROUTES (login, register, validate)
-    // ==========================================
+    @Autowired
+    private RequestCoalescer coalescer;
 
-    @PostMapping("/api/auth/login")
-    public ResponseEntity<String> login(@RequestBody String body) {
-        return forwardToUserService("/api/users/login", "POST", body, null);
-    }
+    @Autowired
+    private EdgeJwtVerifier edgeJwtVerifier;
 
-    @PostMapping("/api/auth/register")
-    public ResponseEntity<String> register(@RequestBody String body) {
-        return forwardToUserService("/api/users/register", "POST", body, null);
-    }
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
 
-    @PostMapping("/api/auth/validate-token")
-    public ResponseEntity<String> validateToken(@RequestBody String body) {
-        return forwardToUserService("/api/users/validate-token", "POST", body, null);
-    }
+    @Autowired
+    private PriorityLanes priorityLanes;
 
-    // ==========================================
-    // USER ROUTES
-    // ==========================================
+    @Autowired
+    private AccessLogger accessLogger;
 
-    @GetMapping("/api/users/**")
-    public ResponseEntity<String> getUsersGet(HttpServletRequest request,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToUserService("/api/users" + path, "GET", null, token);
-    }
+    @Autowired
+    private BackendGuard backendGuard;
 
-    @PostMapping("/api/users/**")
-    public ResponseEntity<String> getUsersPost(HttpServletRequest request,
-                                               @RequestBody String body,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "POST", body, token);
-    }
+    @Autowired
+    private ProductPageAggregator productPageAggregator;
 
-    @PutMapping("/api/users/**")
-    public ResponseEntity<String> getUsersPut(HttpServletRequest request,
-                                              @RequestBody String body,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "PUT", body, token);
-    }
+    @Autowired
+    private BatchExecutor batchExecutor;
 
-    @DeleteMapping("/api/users/**")
-    public ResponseEntity<String> getUsersDelete(HttpServletRequest request,
-                                                 @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/users");
-        return forwardToUserService("/api/users" + path, "DELETE", null, token);
-    }
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
 
-    // ==========================================
-    // PRODUCT ROUTES - COMPLETE
-    // ==========================================
+    @Autowired
+    private GatewayRouter gatewayRouter;
 
-    @GetMapping("/api/products/**")
-    public ResponseEntity<String> getProducts(HttpServletRequest request,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/products");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToProductService("/api/products" + path, "GET", null, token);
-    }
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    @PostMapping("/api/products/**")
-    public ResponseEntity<String> postProducts(HttpServletRequest request,
-                                               @RequestBody String body,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/products");
-        return forwardToProductService("/api/products" + path, "POST", body, token);
-    }
+    @Autowired
+    private LoadBalancer loadBalancer;
 
-    @PutMapping("/api/products/**")
-    public ResponseEntity<String> putProducts(HttpServletRequest request,
-                                              @RequestBody String body,
-                                              @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/products");
-        return forwardToProductService("/api/products" + path, "PUT", body, token);
-    }
+    @Autowired
+    private HedgingProxy hedgingProxy;
+
+    @Autowired
+    private SpanExporter spanExporter;
 
-    @DeleteMapping("/api/products/**")
-    public ResponseEntity<String> deleteProducts(HttpServletRequest request,
-                                                 @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/products");
-        return forwardToProductService("/api/products" + path, "DELETE", null, token);
+    @Value("${app.deadline.enabled:true}")
+    private boolean deadlineEnabled;
+
+    // Pentru rutele fără timeout propriu
+    @Value("${app.deadline.default-budget:10s}")
+    private Duration defaultBudget;
+
+    // Health check fyrir gateway
+    @GetMapping("/health")
+    public ResponseEntity<String> health() {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("API Gateway is running",
+                "{\"service\":\"api-gateway\",\"version\":\"1.0\",\"timestamp\":\"" + System.currentTimeMillis() + "\"}");
     }
 
     // ==========================================
-    // INVENTORY ROUTES
+    // PROXY ROUTES - definite în app.routing.routes
     // ==========================================
 
-    @GetMapping("/api/inventory/**")
-    public ResponseEntity<String> getInventory(HttpServletRequest request,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/inventory");
-        String queryString = request.getQueryString();
-        if (queryString != null) {
-            path += "?" + queryString;
-        }
-        return forwardToInventoryService("/api/inventory" + path, "GET", null, token);
+    @RequestMapping(value = "/api/**", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+    public void proxy(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        dispatch(request, response);
     }
 
-    @PostMapping("/api/inventory/**")
-    public ResponseEntity<String> postInventory(HttpServletRequest request,
-                                                @RequestBody String body,
-                                                @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/inventory");
-        return forwardToInventoryService("/api/inventory" + path, "POST", body, token);
-    }
+    // ==========================================
+    // BATCH
+    // ==========================================
 
-    @PutMapping("/api/inventory/**")
-    public ResponseEntity<String> putInventory(HttpServletRequest request,
-                                               @RequestBody String body,
-                                               @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/inventory");
-        return forwardToInventoryService("/api/inventory" + path, "PUT", body, token);
+    @PostMapping("/api/batch")
+    public ResponseEntity<String> batch(@RequestBody List<BatchSubRequest> subRequests,
+                                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (subRequests.isEmpty() || subRequests.size() > batchExecutor.getMaxRequests()) {
+            return ResponseFactory.getFactory(ResponseType.VALIDATION_ERROR).createResponse(
+                    "Batch must contain between 1 and " + batchExecutor.getMaxRequests() + " requests", null);
+        }
+        List<Map<String, Object>> responses = batchExecutor.execute(subRequests, request, response, this::dispatch);
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Batch completed", objectMapper.writeValueAsString(responses));
     }
 
-    @DeleteMapping("/api/inventory/**")
-    public ResponseEntity<String> deleteInventory(HttpServletRequest request,
-                                                  @RequestHeader(value = "Authorization", required = false) String token) {
-        String path = extractPath(request, "/api/inventory");
-        return forwardToInventoryService("/api/inventory" + path, "DELETE", null, token);
+    // ==========================================
+    // STOREFRONT COMPOSITION
+    // ==========================================
+
+    @GetMapping("/api/storefront/products/{id}")
+    public ResponseEntity<String> getProductPage(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        Map<String, Object> page = productPageAggregator.productPage(id, request);
+        if (page == null) {
+            return ResponseFactory.getFactory(ResponseType.SERVICE_UNAVAILABLE)
+                    .createResponse("Product page unavailable", "AGGREGATION_FAILED");
+        }
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Product page", objectMapper.writeValueAsString(page));
     }
 
     // ==========================================
@@ -176,7 +170,7 @@ public class GatewayController {
     @GetMapping("/test/user")
     public ResponseEntity<String> testUserService() {
         try {
-            String url = userServiceUrl + "/api/users/test";
+            String url = loadBalancer.choose("user").getBaseUrl() + "/api/users/test";
             String response = restTemplate.getForObject(url, String.class);
             ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
             return factory.createResponse("User service test completed",
@@ -188,22 +182,14 @@ public class GatewayController {
     }
 
     @GetMapping("/test/user/health")
-    public ResponseEntity<String> testUserServiceHealth() {
-        try {
-            String url = userServiceUrl + "/api/users/health";
-            String response = restTemplate.getForObject(url, String.class);
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-            return factory.createResponse("User service health check completed", response);
-        } catch (Exception e) {
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("User service health check failed", "HEALTH_CHECK_FAILED");
-        }
+    public ResponseEntity<String> testUserServiceHealth() throws JsonProcessingException {
+        return instancesHealth("user", "/api/users/health", "User service");
     }
 
     @GetMapping("/test/product")
     public ResponseEntity<String> testProductService() {
         try {
-            String url = productServiceUrl + "/api/products/test";
+            String url = loadBalancer.choose("product").getBaseUrl() + "/api/products/test";
             String response = restTemplate.getForObject(url, String.class);
             ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
             return factory.createResponse("Product service test completed",
@@ -215,22 +201,14 @@ public class GatewayController {
     }
 
     @GetMapping("/test/product/health")
-    public ResponseEntity<String> testProductServiceHealth() {
-        try {
-            String url = productServiceUrl + "/api/products/health";
-            String response = restTemplate.getForObject(url, String.class);
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-            return factory.createResponse("Product service health check completed", response);
-        } catch (Exception e) {
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("Product service health check failed", "HEALTH_CHECK_FAILED");
-        }
+    public ResponseEntity<String> testProductServiceHealth() throws JsonProcessingException {
+        return instancesHealth("product", "/api/products/health", "Product service");
     }
 
     @GetMapping("/test/inventory")
     public ResponseEntity<String> testInventoryService() {
         try {
-            String url = inventoryServiceUrl + "/api/inventory/test";
+            String url = loadBalancer.choose("inventory").getBaseUrl() + "/api/inventory/test";
             String response = restTemplate.getForObject(url, String.class);
             ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
             return factory.createResponse("Inventory service test completed",
@@ -242,83 +220,211 @@ public class GatewayController {
     }
 
     @GetMapping("/test/inventory/health")
-    public ResponseEntity<String> testInventoryServiceHealth() {
-        try {
-            String url = inventoryServiceUrl + "/api/inventory/health";
-            String response = restTemplate.getForObject(url, String.class);
-            ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-            return factory.createResponse("Inventory service health check completed", response);
-        } catch (Exception e) {
+    public ResponseEntity<String> testInventoryServiceHealth() throws JsonProcessingException {
+        return instancesHealth("inventory", "/api/inventory/health", "Inventory service");
+    }
+
+    /**
+     * Calls the health endpoint of every instance of {@code service}, not just the one
+     * the load balancer would pick, and reports each next to its balancer state.
+     */
+    private ResponseEntity<String> instancesHealth(String service, String path, String label) throws JsonProcessingException {
+        List<Map<String, Object>> states = loadBalancer.getInstanceStats().getOrDefault(service, List.of());
+        List<ServiceInstance> instances = loadBalancer.getInstances(service);
+        List<Map<String, Object>> report = new ArrayList<>();
+        boolean anyUp = false;
+        for (int i = 0; i < instances.size(); i++) {
+            Map<String, Object> entry = new LinkedHashMap<>(states.get(i));
+            try {
+                entry.put("response", restTemplate.getForObject(instances.get(i).getBaseUrl() + path, String.class));
+                anyUp = true;
+            } catch (Exception e) {
+                entry.put("response", "HEALTH_CHECK_FAILED");
+            }
+            report.add(entry);
+        }
+        if (!anyUp) {
             ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("Inventory service health check failed", "HEALTH_CHECK_FAILED");
+            return factory.createResponse(label + " health check failed", "HEALTH_CHECK_FAILED");
         }
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse(label + " health check completed", objectMapper.writeValueAsString(report));
     }
 
     @GetMapping("/config")
-    public ResponseEntity<String> showConfig() {
+    public ResponseEntity<String> showConfig() throws JsonProcessingException {
         ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
-        String configData = String.format(
-                "{\"userServiceUrl\":\"%s\",\"productServiceUrl\":\"%s\",\"inventoryServiceUrl\":\"%s\"}",
-                userServiceUrl, productServiceUrl, inventoryServiceUrl);
-        return factory.createResponse("Configuration retrieved", configData);
+        return factory.createResponse("Configuration retrieved",
+                objectMapper.writeValueAsString(Map.of("services", loadBalancer.getInstanceStats())));
     }
 
-    // ==========================================
-    // HELPER METHODS
-    // ==========================================
+    @GetMapping("/pools")
+    public ResponseEntity<String> showPools() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Connection pool statistics",
+                objectMapper.writeValueAsString(clientRegistry.getPoolStats()));
+    }
 
-    private ResponseEntity<String> forwardToProductService(String path, String method, String body, String token) {
-        return forwardRequest(productServiceUrl + path, method, body, token);
+    @GetMapping("/traces")
+    public ResponseEntity<String> showTraces(@RequestParam(defaultValue = "100") int limit) throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Recent gateway spans", objectMapper.writeValueAsString(Map.of(
+                "spans", spanExporter.recent(Math.min(limit, 1000)),
+                "dropped", spanExporter.getDropped())));
     }
 
-    private ResponseEntity<String> forwardToUserService(String path, String method, String body, String token) {
-        return forwardRequest(userServiceUrl + path, method, body, token);
+    @GetMapping("/hedging/stats")
+    public ResponseEntity<String> showHedgingStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Request hedging statistics",
+                objectMapper.writeValueAsString(hedgingProxy.getStats()));
     }
 
-    private ResponseEntity<String> forwardToInventoryService(String path, String method, String body, String token) {
-        return forwardRequest(inventoryServiceUrl + path, method, body, token);
+    @GetMapping("/cache/stats")
+    public ResponseEntity<String> showCacheStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Response cache statistics",
+                objectMapper.writeValueAsString(responseCache.getStats()));
     }
 
-    private ResponseEntity<String> forwardRequest(String url, String method, String body, String token) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    @GetMapping("/coalescing/stats")
+    public ResponseEntity<String> showCoalescingStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Request coalescing statistics",
+                objectMapper.writeValueAsString(coalescer.getStats()));
+    }
 
-            if (token != null && !token.isEmpty()) {
-                headers.set("Authorization", token);
-            }
+    @GetMapping("/edge-auth/stats")
+    public ResponseEntity<String> showEdgeAuthStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Edge authentication statistics",
+                objectMapper.writeValueAsString(edgeJwtVerifier.getStats()));
+    }
+
+    @GetMapping("/rate-limit/stats")
+    public ResponseEntity<String> showRateLimitStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Rate limiting statistics",
+                objectMapper.writeValueAsString(rateLimitFilter.getStats()));
+    }
+
+    @GetMapping("/priority/stats")
+    public ResponseEntity<String> showPriorityStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Priority lane statistics",
+                objectMapper.writeValueAsString(priorityLanes.getStats()));
+    }
+
+    @GetMapping("/access-log/stats")
+    public ResponseEntity<String> showAccessLogStats() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Access log statistics",
+                objectMapper.writeValueAsString(accessLogger.getStats()));
+    }
+
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4")
+    public String scrapeMetrics() {
+        return gatewayMetrics.scrape();
+    }
 
-            HttpEntity<String> entity = new HttpEntity<>(body, headers);
+    @GetMapping("/circuits")
+    public ResponseEntity<String> showCircuits() throws JsonProcessingException {
+        ResponseFactory factory = ResponseFactory.getFactory(ResponseType.SUCCESS);
+        return factory.createResponse("Circuit breaker and bulkhead status",
+                objectMapper.writeValueAsString(backendGuard.getStats()));
+    }
+
+    // ==========================================
+    // HELPER METHODS
+    // ==========================================
 
-            HttpMethod httpMethod = switch (method.toUpperCase()) {
-                case "GET" -> HttpMethod.GET;
-                case "POST" -> HttpMethod.POST;
-                case "PUT" -> HttpMethod.PUT;
-                case "DELETE" -> HttpMethod.DELETE;
-                default -> HttpMethod.GET;
-            };
+    /**
+     * Resolves the request against the compiled route table and forwards it.
+     * Also used for batch sub-requests, which do not go through the DispatcherServlet.
+     */
+    private void dispatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Route route = gatewayRouter.match(request);
+        if (route == null) {
+            ResponseFactory.getFactory(ResponseType.NOT_FOUND)
+                    .writeResponse(response, "No route for " + request.getMethod() + " " + request.getRequestURI(), "NO_ROUTE");
+            return;
+        }
+        forwardRequest(route, request, response);
+    }
 
-            ResponseEntity<String> response = restTemplate.exchange(url, httpMethod, entity, String.class);
+    private void forwardRequest(Route route, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long start = System.nanoTime();
+        // Span-ul rutei; apelul către backend (ProxyEngine) este copilul lui și pleacă cu traceparent
+        try (Span span = Tracer.start("route " + route.getId(), SpanLayer.CONTROLLER);
+             Deadline.Scope deadline = deadlineEnabled ? Deadline.enter(budgetFor(route, request)) : null) {
+            forwardRequest(route, span, request, response);
+        } finally {
+            accessLogger.record(route, request, response, start);
+        }
+    }
 
-            return ResponseEntity.status(response.getStatusCode())
-                    .headers(response.getHeaders())
-                    .body(response.getBody());
+    /**
+     * The route's budget; a client may ask for less with its own deadline header, never for more.
+     */
+    private long budgetFor(Route route, HttpServletRequest request) {
+        long budget = route.getBudgetMillis() > 0 ? route.getBudgetMillis() : defaultBudget.toMillis();
+        long requested = Deadline.parse(request.getHeader(Deadline.HEADER));
+        return requested >= 0 ? Math.min(budget, requested) : budget;
+    }
 
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            return ResponseEntity.status(e.getStatusCode())
-                    .body(e.getResponseBodyAsString());
+    private void forwardRequest(Route route, Span span, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String service = route.getService();
+        // Headerele puse deja de filtre (CORS, traceparent); răspunsul de eroare le păstrează
+        List<String[]> filterHeaders = headersOf(response);
+        try {
+            URI target = route.target(request.getRequestURI(), request.getQueryString());
+            if (cachingProxyHandler.handle(service, target, request, response)) {
+                return;
+            }
+            if (coalescer.appliesTo(request)) {
+                coalescer.forward(service, target, request, response);
+            } else if (hedgingProxy.appliesTo(request)) {
+                hedgingProxy.forward(service, target, request, response);
+            } else {
+                proxyEngine.forward(service, target, request, response);
+            }
         } catch (Exception e) {
+            span.markError();
+            // Dacă răspunsul a început deja să fie trimis, nu mai putem schimba statusul
+            if (response.isCommitted()) {
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            // reset() scoate și headerele copiate de la backend, apoi le punem la loc doar pe ale gateway-ului
+            response.reset();
+            for (String[] header : filterHeaders) {
+                response.addHeader(header[0], header[1]);
+            }
+            if (e instanceof DeadlineExceededException || Deadline.isExpired()) {
+                // Bugetul rutei s-a consumat (inclusiv timeout-ul de răspuns plafonat de deadline)
+                ResponseFactory.getFactory(ResponseType.GATEWAY_TIMEOUT)
+                        .writeResponse(response, "Deadline exceeded for route " + route.getId(), "DEADLINE_EXCEEDED");
+                return;
+            }
+            if (e instanceof BackendRejectedException rejected) {
+                // Circuit deschis, bulkhead plin sau limită de concurență atinsă - răspuns imediat, fără apel către backend
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()));
+                ResponseFactory.getFactory(ResponseType.SERVICE_UNAVAILABLE)
+                        .writeResponse(response, "Service unavailable: " + e.getMessage(), rejected.getErrorCode());
+                return;
+            }
             ResponseFactory factory = ResponseFactory.getFactory(ResponseType.ERROR);
-            return factory.createResponse("Service unavailable: " + e.getMessage(), "GATEWAY_ERROR");
+            factory.writeResponse(response, "Service unavailable: " + e.getMessage(), "GATEWAY_ERROR");
         }
     }
 
-    private String extractPath(HttpServletRequest request, String prefix) {
-        String requestURI = request.getRequestURI();
-        if (requestURI.startsWith(prefix)) {
-            String path = requestURI.substring(prefix.length());
-            return path.isEmpty() ? "" : path;
+    private static List<String[]> headersOf(HttpServletResponse response) {
+        List<String[]> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            for (String value : response.getHeaders(name)) {
+                headers.add(new String[]{name, value});
+            }
         }
-        return "";
+        return headers;
     }
+
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.footwear.apigateway.factory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal JSON writer that encodes straight to UTF-8 bytes in a pooled buffer.
+ * String values are escaped per RFC 8259; raw values are copied as they are and
+ * must already be valid JSON.
+ * <p>
+ * Obtain one with {@link #acquire()} and release it with {@link #close()} (try-with-resources).
+ * Each thread reuses its own buffer; a nested acquire on the same thread gets a fresh one.
+ */
+public final class JsonWriter implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 512;
+    // Buffer-ele crescute peste această limită nu sunt păstrate în pool
+    private static final int MAX_POOLED_CAPACITY = 16 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<JsonWriter> POOL = ThreadLocal.withInitial(JsonWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean inUse;
+    // true după '{' sau la început - următorul câmp nu are nevoie de virgulă
+    private boolean firstField = true;
+
+    private JsonWriter() {
+    }
+
+    public static JsonWriter acquire() {
+        JsonWriter pooled = POOL.get();
+        JsonWriter writer = pooled.inUse ? new JsonWriter() : pooled;
+        writer.inUse = true;
+        writer.size = 0;
+        writer.firstField = true;
+        return writer;
+    }
+
+    @Override
+    public void close() {
+        inUse = false;
+        if (buffer.length > MAX_POOLED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    public JsonWriter beginObject() {
+        writeByte('{');
+        firstField = true;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        writeByte('}');
+        firstField = false;
+        return this;
+    }
+
+    /**
+     * Writes {@code "name":"value"} with the value escaped; null is written as JSON null.
+     */
+    public JsonWriter field(String name, CharSequence value) {
+        name(name);
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes {@code "name":value} where value is an already serialized JSON fragment.
+     */
+    public JsonWriter rawField(String name, CharSequence json) {
+        name(name);
+        writeUtf8(json != null ? json : "null", false);
+        return this;
+    }
+
+    /**
+     * Ends a JSON Lines record; the next object starts on a new line.
+     */
+    public JsonWriter newLine() {
+        writeByte('\n');
+        firstField = true;
+        return this;
+    }
+
+    /**
+     * Discards what was written but keeps the buffer, for a writer that is held across batches.
+     */
+    public void reset() {
+        size = 0;
+        firstField = true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void name(String name) {
+        if (!firstField) {
+            writeByte(',');
+        }
+        firstField = false;
+        writeString(name);
+        writeByte(':');
+    }
+
+    private void writeString(CharSequence value) {
+        writeByte('"');
+        writeUtf8(value, true);
+        writeByte('"');
+    }
+
+    private void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeUtf8(CharSequence value, boolean escape) {
+        int length = value.length();
+        // Cazul obișnuit (ASCII fără escape) are nevoie de exact un byte per caracter
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c < 0x20 || c == '"' || c == '\\')) {
+                    writeEscaped(c);
+                } else {
+                    ensure(1);
+                    buffer[size++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surogat fără pereche - nu poate fi codat în UTF-8
+                ensure(1);
+                buffer[size++] = '?';
+            } else if (escape && (c == '\u2028' || c == '\u2029')) {
+                // Valide în JSON, dar rup JavaScript-ul care face eval/JSONP pe răspuns
+                writeUnicodeEscape(c);
+            } else {
+                ensure(3);
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeEscaped(char c) {
+        switch (c) {
+            case '"' -> writeAscii("\\\"");
+            case '\\' -> writeAscii("\\\\");
+            case '\n' -> writeAscii("\\n");
+            case '\r' -> writeAscii("\\r");
+            case '\t' -> writeAscii("\\t");
+            case '\b' -> writeAscii("\\b");
+            case '\f' -> writeAscii("\\f");
+            default -> writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensure(6);
+        buffer[size++] = '\\';
+        buffer[size++] = 'u';
+        buffer[size++] = HEX[(c >> 12) & 0xF];
+        buffer[size++] = HEX[(c >> 8) & 0xF];
+        buffer[size++] = HEX[(c >> 4) & 0xF];
+        buffer[size++] = HEX[c & 0xF];
+    }
+
+    private void writeByte(char c) {
+        ensure(1);
+        buffer[size++] = (byte) c;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
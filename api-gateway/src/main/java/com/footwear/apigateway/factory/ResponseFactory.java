@@ -1,16 +1,45 @@
 // api-gateway/src/main/java/com/footwear/apigateway/factory/ResponseFactory.java
 package com.footwear.apigateway.factory;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+
 /**
  * Factory Method Pattern Implementation
- * Creates different types of HTTP responses based on the outcome
+ * Creates different types of HTTP responses based on the outcome.
+ * Envelopes are serialized with {@link JsonWriter}: the message and error codes are
+ * escaped, {@code data} / {@code field_errors} are embedded as already serialized JSON.
  */
 public abstract class ResponseFactory {
 
-    public abstract ResponseEntity<String> createResponse(String message, Object data);
+    public ResponseEntity<String> createResponse(String message, Object data) {
+        try (JsonWriter json = JsonWriter.acquire()) {
+            writeEnvelope(json, message, data);
+            return ResponseEntity.status(getStatus()).body(json.toString());
+        }
+    }
+
+    /**
+     * Writes the envelope directly to a servlet response - used on the proxy path,
+     * where handlers stream to the client instead of returning a ResponseEntity.
+     */
+    public void writeResponse(HttpServletResponse response, String message, Object data) throws IOException {
+        try (JsonWriter json = JsonWriter.acquire()) {
+            writeEnvelope(json, message, data);
+            response.setStatus(getStatus().value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(json.size());
+            json.writeTo(response.getOutputStream());
+        }
+    }
+
+    protected abstract HttpStatus getStatus();
+
+    protected abstract void writeEnvelope(JsonWriter json, String message, Object data);
 
     public static ResponseFactory getFactory(ResponseType type) {
         switch (type) {
@@ -20,48 +49,139 @@ public abstract class ResponseFactory {
                 return new ErrorResponseFactory();
             case VALIDATION_ERROR:
                 return new ValidationErrorResponseFactory();
+            case NOT_FOUND:
+                return new NotFoundResponseFactory();
+            case RATE_LIMITED:
+                return new RateLimitedResponseFactory();
+            case SERVICE_UNAVAILABLE:
+                return new ServiceUnavailableResponseFactory();
+            case GATEWAY_TIMEOUT:
+                return new GatewayTimeoutResponseFactory();
             default:
                 return new SuccessResponseFactory();
         }
     }
+
+    // data este deja JSON serializat (String produs de ObjectMapper sau literal)
+    static CharSequence rawJson(Object data, String fallback) {
+        if (data == null) {
+            return fallback;
+        }
+        return data instanceof CharSequence chars ? chars : data.toString();
+    }
 }
 
 
 // Success Response Factory
 class SuccessResponseFactory extends ResponseFactory {
     @Override
-    public ResponseEntity<String> createResponse(String message, Object data) {
-        String jsonResponse = String.format(
-                "{\"status\":\"success\",\"message\":\"%s\",\"data\":%s}",
-                message,
-                data != null ? data.toString() : "null"
-        );
-        return ResponseEntity.ok(jsonResponse);
+    protected HttpStatus getStatus() {
+        return HttpStatus.OK;
     }
-}
 
-// Error Response Factory  
-class ErrorResponseFactory extends ResponseFactory {
     @Override
-    public ResponseEntity<String> createResponse(String message, Object data) {
-        String jsonResponse = String.format(
-                "{\"status\":\"error\",\"message\":\"%s\",\"error_code\":\"%s\"}",
-                message,
-                data != null ? data.toString() : "UNKNOWN_ERROR"
-        );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(jsonResponse);
+    protected void writeEnvelope(JsonWriter json, String message, Object data) {
+        json.beginObject()
+                .field("status", "success")
+                .field("message", message)
+                .rawField("data", rawJson(data, "null"))
+                .endObject();
     }
 }
 
 // Validation Error Response Factory
 class ValidationErrorResponseFactory extends ResponseFactory {
     @Override
-    public ResponseEntity<String> createResponse(String message, Object data) {
-        String jsonResponse = String.format(
-                "{\"status\":\"validation_error\",\"message\":\"%s\",\"field_errors\":%s}",
-                message,
-                data != null ? data.toString() : "[]"
-        );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(jsonResponse);
-    }
-}
\ No newline at end of file
+    protected HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @Override
+    protected void writeEnvelope(JsonWriter json, String message, Object data) {
+        json.beginObject()
+                .field("status", "validation_error")
+                .field("message", message)
+                .rawField("field_errors", rawJson(data, "[]"))
+                .endObject();
+    }
+}
+
+// Envelope comun pentru erorile cu error_code
+abstract class ErrorCodeResponseFactory extends ResponseFactory {
+
+    protected abstract String getDefaultErrorCode();
+
+    @Override
+    protected void writeEnvelope(JsonWriter json, String message, Object data) {
+        json.beginObject()
+                .field("status", "error")
+                .field("message", message)
+                .field("error_code", data != null ? data.toString() : getDefaultErrorCode())
+                .endObject();
+    }
+}
+
+// Error Response Factory
+class ErrorResponseFactory extends ErrorCodeResponseFactory {
+    @Override
+    protected HttpStatus getStatus() {
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    @Override
+    protected String getDefaultErrorCode() {
+        return "UNKNOWN_ERROR";
+    }
+}
+
+// Not Found Response Factory
+class NotFoundResponseFactory extends ErrorCodeResponseFactory {
+    @Override
+    protected HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    protected String getDefaultErrorCode() {
+        return "NOT_FOUND";
+    }
+}
+
+// Rate Limited Response Factory
+class RateLimitedResponseFactory extends ErrorCodeResponseFactory {
+    @Override
+    protected HttpStatus getStatus() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    @Override
+    protected String getDefaultErrorCode() {
+        return "RATE_LIMITED";
+    }
+}
+
+// Service Unavailable Response Factory
+class ServiceUnavailableResponseFactory extends ErrorCodeResponseFactory {
+    @Override
+    protected HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    protected String getDefaultErrorCode() {
+        return "SERVICE_UNAVAILABLE";
+    }
+}
+
+// Gateway Timeout Response Factory
+class GatewayTimeoutResponseFactory extends ErrorCodeResponseFactory {
+    @Override
+    protected HttpStatus getStatus() {
+        return HttpStatus.GATEWAY_TIMEOUT;
+    }
+
+    @Override
+    protected String getDefaultErrorCode() {
+        return "DEADLINE_EXCEEDED";
+    }
+}
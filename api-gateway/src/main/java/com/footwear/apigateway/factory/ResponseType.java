@@ -1,5 +1,5 @@
 package com.footwear.apigateway.factory;
 
 public enum ResponseType {
-    SUCCESS, ERROR, VALIDATION_ERROR
+    SUCCESS, ERROR, VALIDATION_ERROR, NOT_FOUND, RATE_LIMITED, SERVICE_UNAVAILABLE, GATEWAY_TIMEOUT
 }
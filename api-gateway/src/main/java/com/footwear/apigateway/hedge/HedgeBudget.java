@@ -0,0 +1,49 @@
+package com.footwear.apigateway.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged attempts to a fraction of eligible requests.
+ * Every eligible request deposits {@code percent / 100} of a token, every hedge
+ * withdraws a whole one; the balance never exceeds {@code burst} tokens.
+ * Kept in thousandths of a token so a single AtomicLong is enough.
+ */
+class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    HedgeBudget(double percent, int burst) {
+        this.deposit = Math.round(percent * TOKEN / 100);
+        this.capacity = Math.max(1, burst) * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    void onRequest() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    double available() {
+        return (double) balance.get() / TOKEN;
+    }
+}
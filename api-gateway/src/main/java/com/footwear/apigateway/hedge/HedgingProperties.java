@@ -0,0 +1,33 @@
+package com.footwear.apigateway.hedge;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request hedging settings (app.hedging.*).
+ * {@code routes} are Ant-style patterns on the upstream path; only GET requests are hedged,
+ * and only for services with more than one instance.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+    private List<String> routes = new ArrayList<>();
+    // Al doilea apel pleacă după ce primul depășește această percentilă a latenței recente
+    private double percentile = 0.95;
+    // Limite pentru întârzierea calculată, ca să nu trimitem dublu la fiecare sughiț de 1ms
+    private Duration minDelay = Duration.ofMillis(10);
+    private Duration maxDelay = Duration.ofSeconds(1);
+    // Fereastra peste care se calculează percentila și câte măsurători trebuie să conțină
+    private Duration window = Duration.ofSeconds(30);
+    private int minSamples = 50;
+    // Maxim de hedge-uri ca procent din request-urile eligibile, plus o rezervă inițială
+    private double budgetPercent = 10;
+    private int budgetBurst = 10;
+    private int maxThreads = 64;
+}
@@ -0,0 +1,314 @@
+package com.footwear.apigateway.hedge;
+
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import com.footwear.apigateway.loadbalancer.ServiceInstance;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import com.footwear.common.deadline.Deadline;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged GETs: when the first attempt has not answered within the recent latency
+ * percentile of its service, a second attempt goes to another instance and the
+ * first successful reply wins. Hedges are limited by a {@link HedgeBudget}.
+ * <p>
+ * The first attempt runs on the request thread, so it keeps the request's deadline
+ * and its span stays under the route span. Only the hedge is handed to a pool thread,
+ * which re-enters what is left of the deadline; the request trace is single-threaded,
+ * so the hedge records no span of its own, but its upstream call still carries the
+ * route's traceparent from the snapshot.
+ * <p>
+ * The losing attempt is aborted: its HTTP request is cancelled, which closes its
+ * connection and gives back its bulkhead and limiter slot without counting as a
+ * backend failure (see {@link AbortHandle}).
+ */
+@Component
+@Slf4j
+public class HedgingProxy {
+
+    @Autowired
+    private HedgingProperties properties;
+
+    @Autowired
+    private ProxyEngine proxyEngine;
+
+    @Autowired
+    private LoadBalancer loadBalancer;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, RecentLatency> latencies = new ConcurrentHashMap<>();
+
+    private HedgeBudget budget;
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService timer;
+
+    private final LongAdder eligible = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        budget = new HedgeBudget(properties.getBudgetPercent(), properties.getBudgetBurst());
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Doar decide pornirea hedge-ului; apelul propriu-zis rulează pe executor
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean appliesTo(HttpServletRequest request) {
+        return properties.isEnabled() && "GET".equals(request.getMethod()) && matches(request.getRequestURI());
+    }
+
+    public void forward(String service, URI target, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BufferedResponse buffered = fetch(proxyEngine.snapshot(service, target, request));
+        proxyEngine.write(buffered, request, response);
+    }
+
+    /**
+     * Fetches the request, hedging it when the route and the service allow it.
+     * Falls back to a plain {@link ProxyEngine#fetch} otherwise.
+     */
+    public BufferedResponse fetch(UpstreamRequest upstream) throws IOException {
+        if (!isHedgeable(upstream)) {
+            return proxyEngine.fetch(upstream);
+        }
+        String service = upstream.getService();
+        RecentLatency latency = latencies.computeIfAbsent(service, name -> new RecentLatency(properties));
+        eligible.increment();
+        budget.onRequest();
+
+        ServiceInstance primary = loadBalancer.choose(service);
+        long delay = latency.delayNanos();
+        if (delay < 0) {
+            return timed(upstream, primary, latency, null);
+        }
+
+        Race race = new Race(upstream, primary, latency);
+        ScheduledFuture<?> hedgeTimer;
+        try {
+            hedgeTimer = timer.schedule(race::startHedge, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            return timed(upstream, primary, latency, null);
+        }
+        BufferedResponse response = null;
+        Exception error = null;
+        try {
+            response = timed(upstream, primary, latency, race.first);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        }
+        hedgeTimer.cancel(false);
+        return race.finish(response, error);
+    }
+
+    private boolean isHedgeable(UpstreamRequest upstream) {
+        return properties.isEnabled()
+                && upstream.getMethod() == HttpMethod.GET
+                && loadBalancer.getInstances(upstream.getService()).size() > 1
+                && matches(upstream.getUri().getPath());
+    }
+
+    private boolean matches(String path) {
+        for (String route : properties.getRoutes()) {
+            if (pathMatcher.match(route, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BufferedResponse timed(UpstreamRequest upstream, ServiceInstance instance, RecentLatency latency,
+                                   AbortHandle abort) throws IOException {
+        long start = System.nanoTime();
+        BufferedResponse response = proxyEngine.fetch(upstream, instance, abort);
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * One hedged request: the first attempt on the request thread, the hedge (if any) on the pool.
+     * Whichever of the timer and the first attempt gets to {@code decided} first settles
+     * whether a hedge exists at all.
+     */
+    private final class Race {
+
+        private final UpstreamRequest upstream;
+        private final ServiceInstance primary;
+        private final RecentLatency latency;
+        private final boolean hasDeadline;
+        private final long deadlineNanos;
+        private final AbortHandle first = new AbortHandle();
+        private final AbortHandle second = new AbortHandle();
+        // Răspunsul hedge-ului; null dacă nu a mai fost trimis
+        private final CompletableFuture<BufferedResponse> hedge = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        Race(UpstreamRequest upstream, ServiceInstance primary, RecentLatency latency) {
+            this.upstream = upstream;
+            this.primary = primary;
+            this.latency = latency;
+            this.hasDeadline = Deadline.isSet();
+            this.deadlineNanos = hasDeadline ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Deadline.remainingMillis()) : 0;
+        }
+
+        // Pe thread-ul timer-ului: primul apel a depășit percentila - încercăm o altă instanță
+        void startHedge() {
+            if (!decided.compareAndSet(false, true)) {
+                return;
+            }
+            ServiceInstance other = loadBalancer.chooseOther(upstream.getService(), primary);
+            if (other == null) {
+                hedge.complete(null);
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                hedge.complete(null);
+                return;
+            }
+            try {
+                executor.execute(() -> runHedge(other));
+                hedged.increment();
+            } catch (RejectedExecutionException e) {
+                hedge.complete(null);
+            }
+        }
+
+        private void runHedge(ServiceInstance other) {
+            try (Deadline.Scope ignored = hasDeadline ? Deadline.enter(remainingMillis()) : null) {
+                BufferedResponse response = timed(upstream, other, latency, second);
+                if (!response.isServerError()) {
+                    // Hedge-ul a câștigat - apelul de pe thread-ul request-ului e abandonat
+                    first.abort();
+                }
+                hedge.complete(response);
+            } catch (Throwable t) {
+                hedge.completeExceptionally(t);
+            }
+        }
+
+        private long remainingMillis() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        }
+
+        /**
+         * Picks the outcome once the first attempt is over: its own if it succeeded or no hedge
+         * was sent, otherwise the hedge's. If both fail, a real backend response (5xx) is preferred
+         * over an I/O error.
+         */
+        BufferedResponse finish(BufferedResponse response, Exception error) throws IOException {
+            if (decided.compareAndSet(false, true)) {
+                return outcome(response, error);
+            }
+            if (error == null && !response.isServerError()) {
+                second.abort();
+                return response;
+            }
+            BufferedResponse hedged;
+            try {
+                hedged = await(hedge);
+            } catch (IOException | RuntimeException hedgeError) {
+                return outcome(response, error);
+            }
+            if (hedged == null) {
+                return outcome(response, error);
+            }
+            if (!hedged.isServerError()) {
+                hedgeWins.increment();
+                return hedged;
+            }
+            return response != null ? response : hedged;
+        }
+    }
+
+    private static BufferedResponse outcome(BufferedResponse response, Exception error) throws IOException {
+        if (error instanceof IOException io) {
+            throw io;
+        }
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return response;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for upstream response", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("eligible", eligible.sum());
+        stats.put("hedged", hedged.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("budgetExhausted", budgetExhausted.sum());
+        stats.put("budgetAvailable", budget.available());
+        Map<String, Object> delays = new LinkedHashMap<>();
+        latencies.forEach((service, latency) -> delays.put(service,
+                latency.delayNanos() < 0 ? "WARMING_UP" : TimeUnit.NANOSECONDS.toMillis(latency.delayNanos()) + "ms"));
+        stats.put("hedgeDelay", delays);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.footwear.apigateway.hedge;
+
+import com.footwear.apigateway.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of one service over a tumbling window. The hedge delay is taken from the
+ * last complete window (or from the first one as soon as it has enough samples),
+ * so reading it costs a volatile load.
+ */
+class RecentLatency {
+
+    private final long windowNanos;
+    private final int minSamples;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    // -1 până când avem suficiente măsurători
+    private volatile long delayNanos = -1;
+
+    RecentLatency(HedgingProperties properties) {
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minSamples = properties.getMinSamples();
+        this.percentile = properties.getPercentile();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+    }
+
+    void record(long nanos) {
+        LatencyHistogram histogram = current;
+        histogram.recordNanos(nanos);
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        boolean windowOver = now - start >= windowNanos;
+        boolean bootstrap = delayNanos < 0 && histogram.getCount() >= minSamples;
+        if ((windowOver || bootstrap) && windowStart.compareAndSet(start, now)) {
+            if (histogram.getCount() >= minSamples) {
+                long quantile = TimeUnit.MICROSECONDS.toNanos(histogram.valueAtQuantile(percentile));
+                delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, quantile));
+            }
+            if (windowOver) {
+                current = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * @return how long to wait for the first attempt before hedging, or -1 if not known yet
+     */
+    long delayNanos() {
+        return delayNanos;
+    }
+}
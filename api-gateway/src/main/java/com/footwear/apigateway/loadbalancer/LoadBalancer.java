@@ -0,0 +1,234 @@
+package com.footwear.apigateway.loadbalancer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side load balancer over the instances listed in app.services.
+ * A service can be a single URL or a list of URLs. Requests go to the less loaded
+ * of two random healthy instances (or the least loaded overall), where load is
+ * outstanding requests divided by the slow-start weight. Instances are actively
+ * probed on their /health endpoint and ejected after consecutive failures.
+ */
+@Component
+@Slf4j
+public class LoadBalancer {
+
+    @Autowired
+    private LoadBalancerProperties properties;
+
+    @Autowired
+    private Environment environment;
+
+    private Map<String, ServiceInstance[]> instances;
+
+    private HttpClient healthClient;
+    private ScheduledExecutorService healthChecker;
+
+    @PostConstruct
+    void init() {
+        Map<String, String[]> urls = Binder.get(environment)
+                .bind("app.services", Bindable.mapOf(String.class, String[].class))
+                .orElse(Map.of());
+
+        Map<String, ServiceInstance[]> compiled = new LinkedHashMap<>();
+        urls.forEach((service, list) -> compiled.put(service, Arrays.stream(list)
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new ServiceInstance(service, url))
+                .toArray(ServiceInstance[]::new)));
+        instances = Map.copyOf(compiled);
+        compiled.forEach((service, list) -> log.info("Service {} has {} instance(s): {}", service, list.length,
+                Arrays.stream(list).map(ServiceInstance::getBaseUrl).toList()));
+
+        healthClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getHealthCheckTimeout())
+                .build();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lb-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Set<String> getServices() {
+        return instances.keySet();
+    }
+
+    /**
+     * Picks the instance for the next call to {@code service}.
+     * When every instance is ejected the balancer ignores health (panic mode),
+     * so a flapping health endpoint cannot take the whole service offline.
+     */
+    public ServiceInstance choose(String service) {
+        ServiceInstance[] candidates = instances.get(service);
+        if (candidates == null || candidates.length == 0) {
+            throw new IllegalStateException("Unknown service " + service);
+        }
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+
+        long now = System.currentTimeMillis();
+        long slowStart = properties.getSlowStart().toMillis();
+        int healthy = 0;
+        for (ServiceInstance instance : candidates) {
+            if (instance.isHealthy()) {
+                healthy++;
+            }
+        }
+        boolean panic = healthy == 0;
+        int eligible = panic ? candidates.length : healthy;
+
+        if (properties.getStrategy() == LoadBalancerProperties.Strategy.LEAST_OUTSTANDING) {
+            ServiceInstance best = null;
+            double bestLoad = Double.MAX_VALUE;
+            for (ServiceInstance instance : candidates) {
+                if (panic || instance.isHealthy()) {
+                    double load = load(instance, now, slowStart);
+                    if (load < bestLoad) {
+                        best = instance;
+                        bestLoad = load;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // Power of two choices: două instanțe distincte la întâmplare, o alegem pe cea mai puțin încărcată
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ServiceInstance first = nthEligible(candidates, random.nextInt(eligible), panic);
+        if (eligible == 1) {
+            return first;
+        }
+        int second = random.nextInt(eligible - 1);
+        ServiceInstance other = nthEligible(candidates, second, panic);
+        if (other == first) {
+            other = nthEligible(candidates, eligible - 1, panic);
+        }
+        return load(first, now, slowStart) <= load(other, now, slowStart) ? first : other;
+    }
+
+    /**
+     * Picks an instance other than {@code exclude}, e.g. for a hedged attempt.
+     *
+     * @return null when the service has no other usable instance
+     */
+    public ServiceInstance chooseOther(String service, ServiceInstance exclude) {
+        ServiceInstance[] candidates = instances.get(service);
+        if (candidates == null || candidates.length < 2) {
+            return null;
+        }
+        for (int attempt = 0; attempt < 3; attempt++) {
+            ServiceInstance candidate = choose(service);
+            if (candidate != exclude) {
+                return candidate;
+            }
+        }
+        for (ServiceInstance candidate : candidates) {
+            if (candidate != exclude && candidate.isHealthy()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Per-instance state for every service, for /config and the health endpoints.
+     */
+    public Map<String, List<Map<String, Object>>> getInstanceStats() {
+        long now = System.currentTimeMillis();
+        long slowStart = properties.getSlowStart().toMillis();
+        Map<String, List<Map<String, Object>>> stats = new LinkedHashMap<>();
+        instances.forEach((service, list) -> stats.put(service,
+                Arrays.stream(list).map(instance -> instance.describe(now, slowStart)).toList()));
+        return stats;
+    }
+
+    public List<ServiceInstance> getInstances(String service) {
+        ServiceInstance[] list = instances.get(service);
+        return list != null ? List.of(list) : List.of();
+    }
+
+    private static double load(ServiceInstance instance, long now, long slowStart) {
+        return (instance.getOutstanding() + 1) / instance.weight(now, slowStart);
+    }
+
+    private static ServiceInstance nthEligible(ServiceInstance[] candidates, int n, boolean panic) {
+        if (panic) {
+            return candidates[n];
+        }
+        for (ServiceInstance instance : candidates) {
+            if (instance.isHealthy() && n-- == 0) {
+                return instance;
+            }
+        }
+        // Starea s-a schimbat între numărare și selecție
+        return candidates[0];
+    }
+
+    private void checkAll() {
+        instances.forEach((service, list) -> {
+            String path = properties.getHealthPaths().get(service);
+            if (path == null) {
+                return;
+            }
+            for (ServiceInstance instance : list) {
+                check(instance, path);
+            }
+        });
+    }
+
+    private void check(ServiceInstance instance, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(instance.getBaseUrl() + path))
+                .timeout(properties.getHealthCheckTimeout())
+                .GET()
+                .build();
+        healthClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    boolean wasHealthy = instance.isHealthy();
+                    boolean success = error == null && response.statusCode() < 500;
+                    String detail = error != null ? error.getClass().getSimpleName() : "HTTP " + response.statusCode();
+                    synchronized (instance) {
+                        instance.recordCheck(success, detail, properties.getUnhealthyThreshold(),
+                                properties.getHealthyThreshold(), System.currentTimeMillis());
+                    }
+                    if (wasHealthy != instance.isHealthy()) {
+                        if (instance.isHealthy()) {
+                            log.info("Instance {} of {} is healthy again, slow start over {}",
+                                    instance.getBaseUrl(), instance.getService(), properties.getSlowStart());
+                        } else {
+                            log.warn("Ejecting instance {} of {} after failed health checks ({})",
+                                    instance.getBaseUrl(), instance.getService(), detail);
+                        }
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        healthChecker.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.footwear.apigateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side load balancing and active health check settings (app.load-balancer.*).
+ * Instances themselves are listed under app.services.<name>.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.load-balancer")
+public class LoadBalancerProperties {
+
+    public enum Strategy {
+        POWER_OF_TWO_CHOICES, LEAST_OUTSTANDING
+    }
+
+    private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+    // Eșecuri consecutive după care instanța este scoasă din rotație
+    private int unhealthyThreshold = 2;
+    // Succese consecutive după care instanța este readmisă
+    private int healthyThreshold = 2;
+    // După readmitere, ponderea crește liniar de la 10% la 100% în acest interval
+    private Duration slowStart = Duration.ofSeconds(30);
+    // Calea de health check per serviciu, ex: user -> /api/users/health
+    private Map<String, String> healthPaths = new HashMap<>();
+}
@@ -0,0 +1,98 @@
+package com.footwear.apigateway.loadbalancer;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One backend instance: its base URL, the number of requests currently outstanding
+ * on it and its health-check state. Health fields are written only by the health
+ * check thread and read by request threads.
+ */
+public class ServiceInstance {
+
+    private static final double MIN_WEIGHT = 0.1;
+
+    private final String service;
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+
+    private volatile boolean healthy = true;
+    private volatile long readmittedAt;
+    private volatile String lastCheck = "PENDING";
+    private int consecutiveFailures;
+    private int consecutiveSuccesses;
+
+    ServiceInstance(String service, String baseUrl) {
+        this.service = service;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public String getService() { return service; }
+    public String getBaseUrl() { return baseUrl; }
+    public boolean isHealthy() { return healthy; }
+    public int getOutstanding() { return outstanding.get(); }
+
+    /**
+     * Resolves a service-relative target ({@code /api/users/1?x=y}) against this instance.
+     */
+    public URI resolve(URI relative) {
+        return relative.isAbsolute() ? relative : URI.create(baseUrl + relative);
+    }
+
+    public void begin() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    public void end() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Slow start: a freshly readmitted instance gets a growing share of the traffic.
+     */
+    double weight(long nowMillis, long slowStartMillis) {
+        long since = readmittedAt;
+        if (since == 0 || slowStartMillis <= 0) {
+            return 1.0;
+        }
+        double ramp = (double) (nowMillis - since) / slowStartMillis;
+        if (ramp >= 1.0) {
+            readmittedAt = 0;
+            return 1.0;
+        }
+        return Math.max(MIN_WEIGHT, ramp);
+    }
+
+    void recordCheck(boolean success, String detail, int unhealthyThreshold, int healthyThreshold, long nowMillis) {
+        lastCheck = detail;
+        if (success) {
+            consecutiveFailures = 0;
+            if (!healthy && ++consecutiveSuccesses >= healthyThreshold) {
+                healthy = true;
+                readmittedAt = nowMillis;
+            }
+        } else {
+            consecutiveSuccesses = 0;
+            if (healthy && ++consecutiveFailures >= unhealthyThreshold) {
+                healthy = false;
+                readmittedAt = 0;
+            }
+        }
+    }
+
+    Map<String, Object> describe(long nowMillis, long slowStartMillis) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("url", baseUrl);
+        state.put("state", healthy ? (readmittedAt != 0 ? "WARMING_UP" : "HEALTHY") : "EJECTED");
+        state.put("weight", Math.round(weight(nowMillis, slowStartMillis) * 100) / 100.0);
+        state.put("outstanding", outstanding.get());
+        state.put("requests", requests.sum());
+        state.put("lastCheck", lastCheck);
+        return state;
+    }
+}
@@ -0,0 +1,48 @@
+package com.footwear.apigateway.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the calls the gateway makes to one backend service.
+ * connect = leasing / opening the pooled connection, response = until the status
+ * line and headers arrived, total = until the body was fully transferred.
+ */
+public class BackendMetrics {
+
+    final LatencyHistogram connect = new LatencyHistogram();
+    final LatencyHistogram response = new LatencyHistogram();
+    final LatencyHistogram total = new LatencyHistogram();
+    final AtomicLongArray statusCounts = new AtomicLongArray(600);
+    final AtomicInteger inFlight = new AtomicInteger();
+    final LongAdder bytesSent = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    public void started() {
+        inFlight.incrementAndGet();
+        UpstreamTimer.reset();
+    }
+
+    public void headersReceived(int status, long elapsedNanos) {
+        long connectNanos = UpstreamTimer.connectNanos();
+        if (connectNanos >= 0) {
+            connect.recordNanos(connectNanos);
+        }
+        response.recordNanos(elapsedNanos);
+        if (status >= 100 && status < 600) {
+            statusCounts.incrementAndGet(status);
+        }
+    }
+
+    public void finished(long elapsedNanos, long sent, long received, boolean failed) {
+        inFlight.decrementAndGet();
+        total.recordNanos(elapsedNanos);
+        bytesSent.add(sent);
+        bytesReceived.add(received);
+        if (failed) {
+            errors.increment();
+        }
+    }
+}
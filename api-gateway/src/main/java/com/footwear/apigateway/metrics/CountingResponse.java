@@ -0,0 +1,69 @@
+package com.footwear.apigateway.metrics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Counts the body bytes written to the client. {@link MetricsFilter} publishes the
+ * wrapper as a request attribute so code further down (the access log) can read the count.
+ */
+public class CountingResponse extends HttpServletResponseWrapper {
+
+    public static final String REQUEST_ATTRIBUTE = CountingResponse.class.getName();
+
+    private long bytesWritten;
+    private ServletOutputStream outputStream;
+
+    public CountingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream delegate = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    delegate.write(b);
+                    bytesWritten++;
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    delegate.write(buffer, offset, length);
+                    bytesWritten += length;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    delegate.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    delegate.close();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return delegate.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    delegate.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+}
@@ -0,0 +1,121 @@
+package com.footwear.apigateway.metrics;
+
+import com.footwear.apigateway.resilience.AdaptiveConcurrencyLimiter;
+import com.footwear.apigateway.resilience.BackendGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registry of route-group and backend metrics, rendered in the Prometheus text
+ * format by {@link #scrape()}. Entries are created on first use; looking up an
+ * existing one on the hot path allocates nothing.
+ */
+@Component
+public class GatewayMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @Autowired
+    private BackendGuard backendGuard;
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, BackendMetrics> backends = new ConcurrentHashMap<>();
+
+    /**
+     * @param group route group from the route table (app.routing.routes[*].group)
+     */
+    public RouteMetrics route(String group) {
+        RouteMetrics metrics = routes.get(group);
+        return metrics != null ? metrics : routes.computeIfAbsent(group, g -> new RouteMetrics());
+    }
+
+    public BackendMetrics backend(String service) {
+        BackendMetrics metrics = backends.get(service);
+        return metrics != null ? metrics : backends.computeIfAbsent(service, s -> new BackendMetrics());
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        help(out, "gateway_request_duration_seconds", "summary", "Total time spent by the gateway per route group");
+        routes.forEach((group, metrics) -> summary(out, "gateway_request_duration_seconds", "route", group, metrics.total));
+        help(out, "gateway_requests_total", "counter", "Requests per route group and status code");
+        routes.forEach((group, metrics) -> statuses(out, "gateway_requests_total", "route", group, metrics.statusCounts));
+        help(out, "gateway_requests_in_flight", "gauge", "Requests currently being processed");
+        routes.forEach((group, metrics) -> sample(out, "gateway_requests_in_flight", "route", group, metrics.inFlight.get()));
+        help(out, "gateway_request_bytes_total", "counter", "Request body bytes received from clients");
+        routes.forEach((group, metrics) -> sample(out, "gateway_request_bytes_total", "route", group, metrics.bytesIn.sum()));
+        help(out, "gateway_response_bytes_total", "counter", "Response body bytes sent to clients");
+        routes.forEach((group, metrics) -> sample(out, "gateway_response_bytes_total", "route", group, metrics.bytesOut.sum()));
+
+        help(out, "gateway_upstream_connect_seconds", "summary", "Time to lease or open a backend connection");
+        backends.forEach((service, metrics) -> summary(out, "gateway_upstream_connect_seconds", "backend", service, metrics.connect));
+        help(out, "gateway_upstream_response_seconds", "summary", "Time until the backend response headers arrived");
+        backends.forEach((service, metrics) -> summary(out, "gateway_upstream_response_seconds", "backend", service, metrics.response));
+        help(out, "gateway_upstream_duration_seconds", "summary", "Time until the backend response body was transferred");
+        backends.forEach((service, metrics) -> summary(out, "gateway_upstream_duration_seconds", "backend", service, metrics.total));
+        help(out, "gateway_upstream_responses_total", "counter", "Backend responses per status code");
+        backends.forEach((service, metrics) -> statuses(out, "gateway_upstream_responses_total", "backend", service, metrics.statusCounts));
+        help(out, "gateway_upstream_errors_total", "counter", "Backend calls that failed without a response");
+        backends.forEach((service, metrics) -> sample(out, "gateway_upstream_errors_total", "backend", service, metrics.errors.sum()));
+        help(out, "gateway_upstream_in_flight", "gauge", "Backend calls currently open");
+        backends.forEach((service, metrics) -> sample(out, "gateway_upstream_in_flight", "backend", service, metrics.inFlight.get()));
+        help(out, "gateway_upstream_sent_bytes_total", "counter", "Request body bytes sent to backends");
+        backends.forEach((service, metrics) -> sample(out, "gateway_upstream_sent_bytes_total", "backend", service, metrics.bytesSent.sum()));
+        help(out, "gateway_upstream_received_bytes_total", "counter", "Response body bytes received from backends");
+        backends.forEach((service, metrics) -> sample(out, "gateway_upstream_received_bytes_total", "backend", service, metrics.bytesReceived.sum()));
+
+        Map<String, AdaptiveConcurrencyLimiter> limiters = backendGuard.getLimiters();
+        help(out, "gateway_backend_concurrency_limit", "gauge", "Current adaptive concurrency limit per backend");
+        limiters.forEach((service, limiter) -> sample(out, "gateway_backend_concurrency_limit", "backend", service, limiter.getLimit()));
+        help(out, "gateway_backend_concurrency_in_flight", "gauge", "Backend calls holding a concurrency limit slot");
+        limiters.forEach((service, limiter) -> sample(out, "gateway_backend_concurrency_in_flight", "backend", service, limiter.getInFlight()));
+        help(out, "gateway_backend_concurrency_queued", "gauge", "Calls waiting for a concurrency limit slot");
+        limiters.forEach((service, limiter) -> sample(out, "gateway_backend_concurrency_queued", "backend", service, limiter.getQueued()));
+        help(out, "gateway_backend_concurrency_rejections_total", "counter", "Calls rejected by the adaptive concurrency limit");
+        limiters.forEach((service, limiter) -> sample(out, "gateway_backend_concurrency_rejections_total", "backend", service, limiter.getRejected()));
+
+        return out.toString();
+    }
+
+    private static void help(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summary(StringBuilder out, String name, String label, String value, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            out.append(name).append('{').append(label).append("=\"").append(value)
+                    .append("\",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(histogram.valueAtQuantile(quantile))).append('\n');
+        }
+        out.append(name).append("_sum{").append(label).append("=\"").append(value).append("\"} ")
+                .append(seconds(histogram.getSumMicros())).append('\n');
+        out.append(name).append("_count{").append(label).append("=\"").append(value).append("\"} ")
+                .append(histogram.getCount()).append('\n');
+        out.append(name).append("_max{").append(label).append("=\"").append(value).append("\"} ")
+                .append(seconds(histogram.getMaxMicros())).append('\n');
+    }
+
+    private static void statuses(StringBuilder out, String name, String label, String value, AtomicLongArray counts) {
+        for (int status = 100; status < counts.length(); status++) {
+            long count = counts.get(status);
+            if (count > 0) {
+                out.append(name).append('{').append(label).append("=\"").append(value)
+                        .append("\",status=\"").append(status).append("\"} ").append(count).append('\n');
+            }
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String value, long sample) {
+        out.append(name).append('{').append(label).append("=\"").append(value).append("\"} ").append(sample).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.footwear.apigateway.metrics;
+
+import com.footwear.apigateway.config.GatewayFilterOrder;
+import com.footwear.apigateway.routing.GatewayRouter;
+import com.footwear.apigateway.routing.Route;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records total latency, status, in-flight count and bytes for every /api/** request.
+ * Runs ahead of admission control so rejected (429/503) requests are counted too.
+ */
+@Component
+@Order(GatewayFilterOrder.METRICS)
+public class MetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private GatewayMetrics metrics;
+
+    @Autowired
+    private GatewayRouter router;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteMetrics route = metrics.route(groupOf(request));
+        CountingResponse counting = new CountingResponse(response);
+        request.setAttribute(CountingResponse.REQUEST_ATTRIBUTE, counting);
+        long start = System.nanoTime();
+        route.started();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, counting);
+            status = counting.getStatus();
+        } finally {
+            route.finished(status, System.nanoTime() - start, request.getContentLengthLong(), counting.getBytesWritten());
+        }
+    }
+
+    private String groupOf(HttpServletRequest request) {
+        Route route = router.match(request);
+        if (route != null) {
+            return route.getGroup();
+        }
+        // Endpoint-uri proprii gateway-ului, fără rută către un backend
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/batch")) {
+            return "batch";
+        } else if (path.startsWith("/api/storefront")) {
+            return "storefront";
+        }
+        return "unmatched";
+    }
+}
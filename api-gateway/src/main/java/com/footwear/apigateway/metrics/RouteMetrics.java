@@ -0,0 +1,34 @@
+package com.footwear.apigateway.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one gateway route group, as seen by the client.
+ */
+public class RouteMetrics {
+
+    final LatencyHistogram total = new LatencyHistogram();
+    // Contoare indexate direct după codul HTTP (100-599)
+    final AtomicLongArray statusCounts = new AtomicLongArray(600);
+    final AtomicInteger inFlight = new AtomicInteger();
+    final LongAdder bytesIn = new LongAdder();
+    final LongAdder bytesOut = new LongAdder();
+
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    public void finished(int status, long durationNanos, long requestBytes, long responseBytes) {
+        inFlight.decrementAndGet();
+        total.recordNanos(durationNanos);
+        if (status >= 100 && status < 600) {
+            statusCounts.incrementAndGet(status);
+        }
+        if (requestBytes > 0) {
+            bytesIn.add(requestBytes);
+        }
+        bytesOut.add(responseBytes);
+    }
+}
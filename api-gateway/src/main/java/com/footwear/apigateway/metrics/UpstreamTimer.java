@@ -0,0 +1,36 @@
+package com.footwear.apigateway.metrics;
+
+/**
+ * Per-thread timestamps of the current upstream call's connection phase.
+ * Filled in by the HTTP client's exec chain (see BackendClientRegistry), which
+ * runs on the calling thread; one array per thread, nothing allocated per call.
+ */
+public final class UpstreamTimer {
+
+    private static final ThreadLocal<long[]> PHASES = ThreadLocal.withInitial(() -> new long[2]);
+
+    private UpstreamTimer() {
+    }
+
+    public static void reset() {
+        long[] phases = PHASES.get();
+        phases[0] = 0;
+        phases[1] = 0;
+    }
+
+    public static void connectStarted() {
+        PHASES.get()[0] = System.nanoTime();
+    }
+
+    public static void connected() {
+        PHASES.get()[1] = System.nanoTime();
+    }
+
+    /**
+     * @return nanoseconds spent leasing / opening the connection, or -1 if the client did not report it
+     */
+    public static long connectNanos() {
+        long[] phases = PHASES.get();
+        return phases[0] != 0 && phases[1] >= phases[0] ? phases[1] - phases[0] : -1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.footwear.apigateway.priority;
+
+import com.footwear.apigateway.config.GatewayFilterOrder;
+import com.footwear.apigateway.factory.ResponseFactory;
+import com.footwear.apigateway.factory.ResponseType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits proxied requests through their priority lane (see {@link PriorityLanes}),
+ * so store sales keep flowing while catalog browsing is shed during a spike.
+ */
+@Component
+@Order(GatewayFilterOrder.PRIORITY)
+public class PriorityFilter extends OncePerRequestFilter {
+
+    // Atributul de request cu numele benzii, pentru loguri și metrici
+    public static final String LANE_ATTRIBUTE = PriorityFilter.class.getName() + ".lane";
+
+    @Autowired
+    private PriorityLanes priorityLanes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !priorityLanes.isEnabled()
+                || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        PriorityLanes.Lane lane = priorityLanes.classify(request);
+        request.setAttribute(LANE_ATTRIBUTE, lane.getName());
+        if (!priorityLanes.acquire(lane)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ResponseFactory.getFactory(ResponseType.SERVICE_UNAVAILABLE)
+                    .writeResponse(response, "Gateway overloaded, " + lane.getName() + " requests are shed", "LOAD_SHED");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            priorityLanes.release(lane);
+        }
+    }
+}
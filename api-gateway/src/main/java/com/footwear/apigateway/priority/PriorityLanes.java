@@ -0,0 +1,329 @@
+package com.footwear.apigateway.priority;
+
+import com.footwear.apigateway.security.EdgeIdentity;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Splits the gateway's concurrent request slots between priority lanes.
+ * <p>
+ * A lane may always use its reserved share; beyond it, it may use any free slot
+ * except the unused reservations of higher lanes, and only when no higher lane has
+ * requests waiting. Requests that find no slot wait in their lane's queue, and
+ * released slots go to the highest lane with waiters first.
+ * <p>
+ * Shedding follows the queueing delay of each lane (CoDel-style): when every request
+ * admitted from a lane during the last interval waited longer than the lane's target,
+ * new arrivals that would have to queue are rejected at once. Lower lanes have
+ * shorter targets, so they are shed first.
+ */
+@Component
+@Slf4j
+public class PriorityLanes {
+
+    @Autowired
+    private PriorityProperties properties;
+
+    @Autowired
+    private EdgeJwtVerifier edgeJwtVerifier;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Lane[] lanes;
+    private int maxConcurrent;
+    private long intervalNanos;
+    // Protejat de lock
+    private int inFlight;
+
+    @PostConstruct
+    void init() {
+        maxConcurrent = Math.max(1, properties.getMaxConcurrent());
+        intervalNanos = properties.getInterval().toNanos();
+        List<PriorityProperties.Lane> configured = properties.getLanes().isEmpty()
+                ? List.of(defaultLane())
+                : properties.getLanes();
+        lanes = new Lane[configured.size()];
+        int reserved = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, configured.get(i));
+            reserved += lanes[i].reserved;
+            if (i < lanes.length - 1 && lanes[i].roles.isEmpty()) {
+                // Oricine, inclusiv un apel anonim, poate intra în banda asta peste cele de după ea
+                log.warn("Priority lane {} has no roles - unauthenticated requests can use it", lanes[i].name);
+            }
+        }
+        if (reserved > maxConcurrent) {
+            log.warn("Priority lanes reserve {} slots, more than max-concurrent {}", reserved, maxConcurrent);
+        }
+        log.info("Priority lanes {}: {}", properties.isEnabled() ? "enabled" : "disabled",
+                List.of(lanes).stream().map(lane -> lane.name + "(" + lane.reserved + "/" + lane.limit + ")").toList());
+    }
+
+    private static PriorityProperties.Lane defaultLane() {
+        PriorityProperties.Lane lane = new PriorityProperties.Lane();
+        lane.setName("default");
+        return lane;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @return the first lane matching the request's path, method and caller role; the last lane otherwise
+     */
+    public Lane classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        String role = null;
+        boolean roleResolved = false;
+        for (int i = 0; i < lanes.length - 1; i++) {
+            Lane lane = lanes[i];
+            if (!lane.matchesRequest(method, path)) {
+                continue;
+            }
+            if (lane.roles.isEmpty()) {
+                return lane;
+            }
+            if (!roleResolved) {
+                // Verificat o singură dată pe request, rezultatul îl folosește și EdgeAuthenticationFilter
+                EdgeIdentity identity = edgeJwtVerifier.verify(request);
+                role = identity != null ? identity.getRole() : null;
+                roleResolved = true;
+            }
+            if (role != null && lane.roles.contains(role.toUpperCase())) {
+                return lane;
+            }
+        }
+        return lanes[lanes.length - 1];
+    }
+
+    /**
+     * Takes a slot in the lane, waiting in its queue if necessary.
+     *
+     * @return false if the request was shed; otherwise {@link #release} must follow
+     */
+    public boolean acquire(Lane lane) {
+        long arrival = System.nanoTime();
+        lock.lock();
+        try {
+            // Fără să sară peste request-urile care așteaptă deja în aceeași bandă
+            if (lane.waiting == 0 && tryTake(lane)) {
+                lane.admitted(0, arrival);
+                return true;
+            }
+            if (lane.waiting >= lane.maxQueued || lane.isOverloaded(arrival)) {
+                lane.shed.increment();
+                return false;
+            }
+            lane.waiting++;
+            lane.queued.increment();
+            try {
+                long remaining = lane.maxWaitNanos;
+                while (remaining > 0) {
+                    remaining = lane.available.awaitNanos(remaining);
+                    if (tryTake(lane)) {
+                        long now = System.nanoTime();
+                        lane.admitted(now - arrival, now);
+                        return true;
+                    }
+                }
+                long now = System.nanoTime();
+                lane.recordDelay(now - arrival, now);
+                lane.shed.increment();
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.shed.increment();
+                return false;
+            } finally {
+                lane.waiting--;
+                if (lane.waiting == 0) {
+                    // Benzile inferioare puteau fi blocate doar de coada acestei benzi
+                    signalNext();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Lane lane) {
+        lock.lock();
+        try {
+            lane.inFlight--;
+            inFlight--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Slotul liber merge la cea mai prioritară bandă care are request-uri în așteptare
+    private void signalNext() {
+        for (Lane candidate : lanes) {
+            if (candidate.waiting > 0 && canTake(candidate)) {
+                candidate.available.signal();
+                return;
+            }
+        }
+    }
+
+    private boolean tryTake(Lane lane) {
+        if (!canTake(lane)) {
+            return false;
+        }
+        lane.inFlight++;
+        inFlight++;
+        return true;
+    }
+
+    private boolean canTake(Lane lane) {
+        if (inFlight >= maxConcurrent || lane.inFlight >= lane.limit) {
+            return false;
+        }
+        if (lane.inFlight < lane.reserved) {
+            return true;
+        }
+        int keptForHigherLanes = 0;
+        for (int i = 0; i < lane.index; i++) {
+            Lane higher = lanes[i];
+            if (higher.waiting > 0) {
+                return false;
+            }
+            keptForHigherLanes += Math.max(0, higher.reserved - higher.inFlight);
+        }
+        return inFlight + keptForHigherLanes < maxConcurrent;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("maxConcurrent", maxConcurrent);
+        Map<String, Object> laneStats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("inFlight", inFlight);
+            long now = System.nanoTime();
+            for (Lane lane : lanes) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("reserved", lane.reserved);
+                values.put("limit", lane.limit);
+                values.put("inFlight", lane.inFlight);
+                values.put("waiting", lane.waiting);
+                values.put("overloaded", lane.isOverloaded(now));
+                values.put("admitted", lane.admittedCount.sum());
+                values.put("queued", lane.queued.sum());
+                values.put("shed", lane.shed.sum());
+                values.put("maxQueueDelayMs", TimeUnit.NANOSECONDS.toMillis(lane.maxDelayNanos));
+                laneStats.put(lane.name, values);
+            }
+        } finally {
+            lock.unlock();
+        }
+        stats.put("lanes", laneStats);
+        return stats;
+    }
+
+    /**
+     * One priority lane. Mutable state is guarded by the {@link PriorityLanes} lock.
+     */
+    public final class Lane {
+
+        private final int index;
+        private final String name;
+        private final List<String> paths;
+        private final List<String> methods;
+        private final List<String> roles;
+        private final int reserved;
+        private final int limit;
+        private final long targetDelayNanos;
+        private final long maxWaitNanos;
+        private final int maxQueued;
+        private final Condition available = lock.newCondition();
+
+        private int inFlight;
+        private int waiting;
+        // Minimul întârzierii din coadă pe intervalul curent (CoDel)
+        private long intervalStart;
+        private long intervalMinDelay = Long.MAX_VALUE;
+        private boolean overloaded;
+        private long maxDelayNanos;
+
+        private final LongAdder admittedCount = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+
+        private Lane(int index, PriorityProperties.Lane settings) {
+            this.index = index;
+            this.name = settings.getName() != null ? settings.getName() : "lane-" + index;
+            this.paths = List.copyOf(settings.getPaths());
+            this.methods = settings.getMethods().stream().map(String::toUpperCase).toList();
+            this.roles = settings.getRoles().stream().map(String::toUpperCase).toList();
+            this.reserved = maxConcurrent * Math.max(0, settings.getShare()) / 100;
+            this.limit = Math.max(1, maxConcurrent * Math.min(100, settings.getLimit()) / 100);
+            this.targetDelayNanos = settings.getTargetDelay().toNanos();
+            this.maxWaitNanos = settings.getMaxWait().toNanos();
+            this.maxQueued = settings.getMaxQueued();
+            this.intervalStart = System.nanoTime();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private boolean matchesRequest(String method, String path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            if (paths.isEmpty()) {
+                return true;
+            }
+            for (String pattern : paths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void admitted(long delayNanos, long now) {
+            admittedCount.increment();
+            recordDelay(delayNanos, now);
+        }
+
+        private void recordDelay(long delayNanos, long now) {
+            rollInterval(now);
+            intervalMinDelay = Math.min(intervalMinDelay, delayNanos);
+            maxDelayNanos = Math.max(maxDelayNanos, delayNanos);
+        }
+
+        private boolean isOverloaded(long now) {
+            rollInterval(now);
+            return overloaded;
+        }
+
+        private void rollInterval(long now) {
+            if (now - intervalStart < intervalNanos) {
+                return;
+            }
+            // Un interval fără niciun request servit nu spune nimic despre coadă
+            overloaded = intervalMinDelay != Long.MAX_VALUE && intervalMinDelay > targetDelayNanos;
+            intervalMinDelay = Long.MAX_VALUE;
+            intervalStart = now;
+        }
+    }
+}
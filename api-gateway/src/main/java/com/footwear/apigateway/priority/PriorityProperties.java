@@ -0,0 +1,44 @@
+package com.footwear.apigateway.priority;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority lanes for the proxied routes (app.priority.*).
+ * Lanes are listed from the highest priority to the lowest; a request goes to the
+ * first lane whose paths, methods and roles all match, or to the last lane.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.priority")
+public class PriorityProperties {
+
+    private boolean enabled = true;
+    // Request-uri /api/** în lucru simultan, împărțite între benzi
+    private int maxConcurrent = 400;
+    // Fereastra pe care se urmărește întârzierea minimă din coada unei benzi
+    private Duration interval = Duration.ofMillis(100);
+    private List<Lane> lanes = new ArrayList<>();
+
+    @Data
+    public static class Lane {
+        private String name;
+        // Ant-style pattern-uri pe calea din gateway; gol = orice cale
+        private List<String> paths = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        // Roluri din JWT verificat (CLIENT, EMPLOYEE, MANAGER, ADMIN); gol = oricine, inclusiv anonim -
+        // benzile de prioritate mare ar trebui să le aibă mereu
+        private List<String> roles = new ArrayList<>();
+        // Procent din max-concurrent rezervat benzii (benzile de prioritate mai mică nu-l pot folosi)
+        private int share = 0;
+        // Procent maxim din max-concurrent pe care banda îl poate ocupa
+        private int limit = 100;
+        // Dacă toate request-urile din interval au așteptat mai mult de atât, sosirile noi sunt respinse
+        private Duration targetDelay = Duration.ofMillis(50);
+        private Duration maxWait = Duration.ofMillis(500);
+        private int maxQueued = 100;
+    }
+}
@@ -0,0 +1,28 @@
+package com.footwear.apigateway.proxy;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Fully read upstream response. Only used where the bytes must outlive a single
+ * client exchange (cache entries, coalesced calls); the normal proxy path streams.
+ */
+public class BufferedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public BufferedResponse(int status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public int getStatus() { return status; }
+    public HttpHeaders getHeaders() { return headers; }
+    public byte[] getBody() { return body; }
+
+    public boolean isServerError() {
+        return status >= 500;
+    }
+}
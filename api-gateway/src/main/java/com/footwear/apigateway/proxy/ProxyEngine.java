@@ -0,0 +1,399 @@
+package com.footwear.apigateway.proxy;
+
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.client.BackendClientRegistry;
+import com.footwear.apigateway.compression.ResponseCompressor;
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import com.footwear.apigateway.loadbalancer.ServiceInstance;
+import com.footwear.apigateway.metrics.BackendMetrics;
+import com.footwear.apigateway.metrics.GatewayMetrics;
+import com.footwear.apigateway.resilience.BackendGuard;
+import com.footwear.common.deadline.Deadline;
+import com.footwear.common.tracing.Span;
+import com.footwear.common.tracing.SpanLayer;
+import com.footwear.common.tracing.TraceContext;
+import com.footwear.common.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming reverse proxy core.
+ * Request and response bodies are copied as raw bytes between the servlet
+ * streams and the downstream connection - nothing is decoded into a String.
+ */
+@Component
+public class ProxyEngine {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final List<String> STREAMING_TYPES = List.of(
+            MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE);
+
+    // Hop-by-hop headers (RFC 7230, section 6.1) - valabile doar pe o singură conexiune
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade");
+
+    @Autowired
+    private BackendClientRegistry clientRegistry;
+
+    @Autowired
+    private BackendGuard backendGuard;
+
+    @Autowired
+    private GatewayMetrics metrics;
+
+    @Autowired
+    private ResponseCompressor compressor;
+
+    @Autowired
+    private LoadBalancer loadBalancer;
+
+    /**
+     * Forwards the current servlet request to the given service-relative URI of {@code service}
+     * and streams the upstream status, headers and body back to the client.
+     * The service's bulkhead slot and the instance's outstanding count are held until
+     * the body has been copied. Nothing is sent once the request's deadline has passed.
+     */
+    public void forward(String service, URI target, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Deadline.check("call to " + service);
+        try (BackendGuard.Permit permit = backendGuard.acquire(service)) {
+            forward(permit, target, request, response);
+        }
+    }
+
+    private void forward(BackendGuard.Permit permit, URI target, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String service = permit.getService();
+        BackendMetrics backend = metrics.backend(service);
+        ServiceInstance instance = loadBalancer.choose(service);
+        long start = System.nanoTime();
+        long[] sent = new long[1];
+        long received = 0;
+        boolean failed = true;
+        instance.begin();
+        backend.started();
+        Span span = Tracer.start(service + " " + request.getMethod(), SpanLayer.OUTBOUND);
+        try {
+            ClientHttpRequest upstreamRequest = clientRegistry.getRequestFactory(service)
+                    .createRequest(instance.resolve(target), HttpMethod.valueOf(request.getMethod()));
+            copyRequestHeaders(request, upstreamRequest.getHeaders());
+
+            if (hasBody(request)) {
+                if (upstreamRequest.getHeaders().getContentType() == null) {
+                    upstreamRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                }
+                if (upstreamRequest instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(out -> sent[0] = copy(request.getInputStream(), out, false));
+                } else {
+                    sent[0] = copy(request.getInputStream(), upstreamRequest.getBody(), false);
+                }
+            }
+
+            try (ClientHttpResponse upstreamResponse = upstreamRequest.execute()) {
+                int status = upstreamResponse.getStatusCode().value();
+                backend.headersReceived(status, System.nanoTime() - start);
+                permit.recordStatus(status);
+                failed = false;
+
+                HttpHeaders upstreamHeaders = upstreamResponse.getHeaders();
+                boolean compress = compressor.acceptsGzip(request)
+                        && compressor.isCompressible(status, upstreamHeaders, upstreamHeaders.getContentLength());
+                boolean streaming = isStreaming(upstreamHeaders);
+                response.setStatus(status);
+                copyResponseHeaders(upstreamHeaders, response, compress);
+
+                InputStream body = upstreamResponse.getBody();
+                if (compress) {
+                    compressor.prepare(response);
+                    GZIPOutputStream gzip = compressor.streaming(response.getOutputStream(), BUFFER_SIZE);
+                    received = copy(body, gzip, streaming);
+                    gzip.finish();
+                    response.getOutputStream().flush();
+                } else {
+                    received = copy(body, response.getOutputStream(), streaming);
+                }
+            }
+        } finally {
+            if (failed) {
+                span.markError();
+            }
+            span.close();
+            instance.end();
+            backend.finished(System.nanoTime() - start, sent[0], received, failed);
+        }
+    }
+
+    /**
+     * Captures the servlet request as a replayable {@link UpstreamRequest}.
+     * The body, if any, is read into memory - callers only snapshot small requests.
+     */
+    public UpstreamRequest snapshot(String service, URI target, HttpServletRequest request) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        copyRequestHeaders(request, headers);
+        byte[] body = hasBody(request) ? request.getInputStream().readAllBytes() : null;
+        return new UpstreamRequest(service, HttpMethod.valueOf(request.getMethod()), target, headers, body);
+    }
+
+    /**
+     * Executes a detached request and reads the whole response into memory.
+     */
+    public BufferedResponse fetch(UpstreamRequest request) throws IOException {
+        return fetch(request, loadBalancer.choose(request.getService()));
+    }
+
+    /**
+     * Same as {@link #fetch(UpstreamRequest)}, against a specific instance of the service.
+     */
+    public BufferedResponse fetch(UpstreamRequest request, ServiceInstance instance) throws IOException {
+        return fetch(request, instance, null);
+    }
+
+    /**
+     * Same as {@link #fetch(UpstreamRequest, ServiceInstance)}, abortable from another thread through
+     * {@code abort}. Without one, the call can still be aborted through the handle open on this thread.
+     * An aborted call fails with an IOException and is not counted against the backend.
+     */
+    public BufferedResponse fetch(UpstreamRequest request, ServiceInstance instance, AbortHandle abort) throws IOException {
+        Deadline.check("call to " + request.getService());
+        AbortHandle effective = abort != null ? abort : AbortHandle.current();
+        try (BackendGuard.Permit permit = backendGuard.acquire(request.getService())) {
+            BufferedResponse response;
+            try {
+                response = execute(request, instance, abort, effective);
+            } catch (IOException e) {
+                if (effective != null && effective.isAborted()) {
+                    permit.recordCancelled();
+                }
+                throw e;
+            }
+            permit.recordStatus(response.getStatus());
+            return response;
+        }
+    }
+
+    private BufferedResponse execute(UpstreamRequest request, ServiceInstance instance, AbortHandle abort,
+                                     AbortHandle effective) throws IOException {
+        BackendMetrics backend = metrics.backend(request.getService());
+        long start = System.nanoTime();
+        byte[] body = request.getBody();
+        byte[] responseBody = null;
+        instance.begin();
+        backend.started();
+        Span span = Tracer.start(request.getService() + " " + request.getMethod().name(), SpanLayer.OUTBOUND);
+        try (AbortHandle.Scope ignored = abort != null ? abort.open() : null) {
+            ClientHttpRequest upstreamRequest = clientRegistry.getRequestFactory(request.getService())
+                    .createRequest(instance.resolve(request.getUri()), request.getMethod());
+            upstreamRequest.getHeaders().putAll(request.getHeaders());
+            // Pe thread-ul request-ului părintele devine span-ul acestui apel; altfel rămâne cel din snapshot
+            String traceparent = Tracer.currentTraceparent();
+            if (traceparent != null) {
+                upstreamRequest.getHeaders().set(TraceContext.HEADER, traceparent);
+            }
+            // La fel pentru buget: cel rămas acum, nu cel din momentul snapshot-ului
+            if (Deadline.isSet()) {
+                upstreamRequest.getHeaders().set(Deadline.HEADER, Deadline.headerValue());
+            }
+
+            if (body != null) {
+                if (upstreamRequest.getHeaders().getContentType() == null) {
+                    upstreamRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                }
+                upstreamRequest.getHeaders().setContentLength(body.length);
+                if (upstreamRequest instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(out -> out.write(body));
+                } else {
+                    upstreamRequest.getBody().write(body);
+                }
+            }
+
+            try (ClientHttpResponse upstreamResponse = upstreamRequest.execute()) {
+                int status = upstreamResponse.getStatusCode().value();
+                backend.headersReceived(status, System.nanoTime() - start);
+                HttpHeaders headers = new HttpHeaders();
+                upstreamResponse.getHeaders().forEach((name, values) -> {
+                    if (isForwardableResponseHeader(name)) {
+                        headers.addAll(name, values);
+                    }
+                });
+                // Corpul este complet în memorie, lungimea se recalculează la scriere
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                responseBody = upstreamResponse.getBody().readAllBytes();
+                return new BufferedResponse(status, headers, responseBody);
+            }
+        } finally {
+            // Un apel abandonat de gateway nu e o eroare a backend-ului
+            boolean failed = responseBody == null && (effective == null || !effective.isAborted());
+            if (failed) {
+                span.markError();
+            }
+            span.close();
+            instance.end();
+            backend.finished(System.nanoTime() - start, body != null ? body.length : 0,
+                    responseBody != null ? responseBody.length : 0, failed);
+        }
+    }
+
+    /**
+     * Writes a buffered response to the client, gzip encoded if the client accepts it.
+     */
+    public void write(BufferedResponse buffered, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = buffered.getBody();
+        if (compressor.acceptsGzip(request)
+                && compressor.isCompressible(buffered.getStatus(), buffered.getHeaders(), body.length)) {
+            writeGzipped(buffered, compressor.gzip(body), null, response);
+            return;
+        }
+        writeIdentity(buffered, response);
+    }
+
+    /**
+     * Writes a buffered response as-is, without content negotiation.
+     */
+    public void writeIdentity(BufferedResponse buffered, HttpServletResponse response) throws IOException {
+        response.setStatus(buffered.getStatus());
+        copyResponseHeaders(buffered.getHeaders(), response, false);
+        response.setContentLength(buffered.getBody().length);
+        response.getOutputStream().write(buffered.getBody());
+    }
+
+    /**
+     * Writes an already compressed body, e.g. the gzip variant kept in the response cache.
+     *
+     * @param etag validator of the gzip representation, or null to keep the original headers
+     */
+    public void writeGzipped(BufferedResponse buffered, byte[] gzipBody, String etag, HttpServletResponse response) throws IOException {
+        response.setStatus(buffered.getStatus());
+        copyResponseHeaders(buffered.getHeaders(), response, true);
+        compressor.prepare(response);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        response.setContentLength(gzipBody.length);
+        response.getOutputStream().write(gzipBody);
+    }
+
+    private void copyRequestHeaders(HttpServletRequest request, HttpHeaders headers) {
+        Enumeration<String> names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            // Host și Expect țin de conexiunea cu clientul, nu de cea cu backend-ul
+            if (isHopByHop(name) || "host".equalsIgnoreCase(name) || "expect".equalsIgnoreCase(name)) {
+                continue;
+            }
+            if (TraceContext.HEADER.equalsIgnoreCase(name) && Tracer.currentTraceparent() != null) {
+                continue;
+            }
+            if (Deadline.HEADER.equalsIgnoreCase(name) && Deadline.isSet()) {
+                continue;
+            }
+            Enumeration<String> values = request.getHeaders(name);
+            while (values.hasMoreElements()) {
+                headers.add(name, values.nextElement());
+            }
+        }
+
+        // Backend-ul continuă trace-ul din span-ul curent al gateway-ului
+        String traceparent = Tracer.currentTraceparent();
+        if (traceparent != null) {
+            headers.set(TraceContext.HEADER, traceparent);
+        }
+        // Bugetul rămas din deadline-ul rutei; serviciile îl aplică pe JPA și pe apelurile lor
+        if (Deadline.isSet()) {
+            headers.set(Deadline.HEADER, Deadline.headerValue());
+        }
+
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        headers.set("X-Forwarded-For", forwardedFor != null ? forwardedFor + ", " + remoteAddr : remoteAddr);
+        headers.set("X-Forwarded-Proto", request.getScheme());
+        if (request.getHeader("Host") != null) {
+            headers.set("X-Forwarded-Host", request.getHeader("Host"));
+        }
+    }
+
+    /**
+     * @param reencoded the body will be compressed by the gateway, so the upstream length no longer applies
+     */
+    private void copyResponseHeaders(HttpHeaders headers, HttpServletResponse response, boolean reencoded) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey();
+            if (!isForwardableResponseHeader(name)
+                    || (reencoded && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name))) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                response.addHeader(name, value);
+            }
+        }
+    }
+
+    // CORS este gestionat de gateway (CorsConfig), nu de serviciile din spate
+    private boolean isForwardableResponseHeader(String name) {
+        return !isHopByHop(name) && !name.regionMatches(true, 0, "Access-Control-", 0, 15);
+    }
+
+    /**
+     * Event streams must reach the client event by event. Any other body is only flushed
+     * when the servlet buffer fills up and at the end: flushing on every short read would
+     * send tiny chunks and, under gzip, a sync marker each time.
+     */
+    private static boolean isStreaming(HttpHeaders headers) {
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        for (String streamingType : STREAMING_TYPES) {
+            if (contentType.regionMatches(true, 0, streamingType, 0, streamingType.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+    }
+
+    private boolean isHopByHop(String headerName) {
+        return HOP_BY_HOP_HEADERS.contains(headerName.toLowerCase());
+    }
+
+    /**
+     * Copies bytes with a single fixed buffer. When {@code flushOnStall} is set the
+     * output is flushed whenever the input has nothing buffered, so streamed upstream
+     * responses reach the client as they are produced.
+     *
+     * @return the number of bytes copied
+     */
+    private static long copy(InputStream in, OutputStream out, boolean flushOnStall) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
+            if (flushOnStall && in.available() == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return total;
+    }
+}
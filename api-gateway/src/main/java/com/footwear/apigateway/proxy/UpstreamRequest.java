@@ -0,0 +1,34 @@
+package com.footwear.apigateway.proxy;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+
+/**
+ * Detached copy of a request to a backend service. Unlike the servlet request
+ * it can be replayed after the client exchange is over (background revalidation,
+ * shared upstream calls, batch sub-requests).
+ */
+public class UpstreamRequest {
+
+    private final String service;
+    private final HttpMethod method;
+    private final URI uri;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public UpstreamRequest(String service, HttpMethod method, URI uri, HttpHeaders headers, byte[] body) {
+        this.service = service;
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getService() { return service; }
+    public HttpMethod getMethod() { return method; }
+    public URI getUri() { return uri; }
+    public HttpHeaders getHeaders() { return headers; }
+    public byte[] getBody() { return body; }
+}
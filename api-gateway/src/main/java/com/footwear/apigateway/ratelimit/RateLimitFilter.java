@@ -0,0 +1,86 @@
+package com.footwear.apigateway.ratelimit;
+
+import com.footwear.apigateway.config.GatewayFilterOrder;
+import com.footwear.apigateway.factory.ResponseFactory;
+import com.footwear.apigateway.factory.ResponseType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control in front of the proxy routes: token-bucket limits (429) and
+ * a cap on concurrent in-flight requests (503). Both are rejected before any
+ * backend connection or thread is used.
+ */
+@Component
+@Order(GatewayFilterOrder.RATE_LIMIT)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Doar rutele proxy; /health, /config și statisticile rămân mereu accesibile
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(request);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            ResponseFactory.getFactory(ResponseType.RATE_LIMITED)
+                    .writeResponse(response, "Too many requests", "RATE_LIMITED");
+            return;
+        }
+
+        int maxConcurrent = properties.getMaxConcurrent();
+        if (maxConcurrent <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ResponseFactory.getFactory(ResponseType.SERVICE_UNAVAILABLE)
+                    .writeResponse(response, "Gateway overloaded", "LOAD_SHED");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(rateLimiter.getStats());
+        stats.put("inFlight", inFlight.get());
+        stats.put("maxConcurrent", properties.getMaxConcurrent());
+        stats.put("shed", shed.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,45 @@
+package com.footwear.apigateway.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admission control settings (app.rate-limit.*).
+ * Every rule whose path (and method, if set) matches the request must admit it.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Numărul maxim de bucket-uri ținute în memorie, pentru toate regulile
+    private int maxKeys = 100_000;
+    // Header-ul cu cheia API a terminalelor POS / integrărilor
+    private String clientHeader = "X-Api-Key";
+    // Clienții cunoscuți: nume -> cheie API. O cheie necunoscută nu contează ca identitate
+    private Map<String, String> clients = new LinkedHashMap<>();
+    // Load shedding: request-uri /api/** în lucru simultan, 0 = fără limită
+    private int maxConcurrent = 0;
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum KeyType {
+        IP, CLIENT, USER, ROUTE
+    }
+
+    @Data
+    public static class Rule {
+        private String name;
+        // Ant-style pattern pe calea din gateway
+        private String path = "/**";
+        private List<String> methods = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        // Burst maxim și rata de reumplere
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
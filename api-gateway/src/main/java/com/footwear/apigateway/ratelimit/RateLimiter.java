@@ -0,0 +1,206 @@
+package com.footwear.apigateway.ratelimit;
+
+import com.footwear.apigateway.security.EdgeIdentity;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import com.footwear.common.security.GatewayIdentityVerifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per route / client / IP / user token buckets for the gateway.
+ * Memory is bounded by {@code app.rate-limit.max-keys}: when the table is full,
+ * buckets that have fully refilled are swept; if that is not enough, new keys of
+ * a rule share one overflow bucket until space frees up.
+ * <p>
+ * CLIENT rules only count callers that present an API key listed in
+ * {@code app.rate-limit.clients}. Everyone else - made-up keys included - is left to the
+ * USER and IP rules, so a JWT caller is not charged twice under the same user key and a
+ * made-up client header never gets a fresh bucket.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private EdgeJwtVerifier edgeJwtVerifier;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private List<CompiledRule> rules = List.of();
+    // SHA-256 al cheii API -> numele clientului; cheile nu sunt ținute în clar
+    private Map<String, String> clientsByKeyHash = Map.of();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        List<CompiledRule> compiled = new ArrayList<>();
+        long now = System.nanoTime();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (rule.getCapacity() <= 0 || rule.getRefillPerSecond() <= 0) {
+                log.warn("Ignoring rate limit rule {} with non-positive capacity or refill", rule.getName());
+                continue;
+            }
+            compiled.add(new CompiledRule(rule, now));
+        }
+        rules = List.copyOf(compiled);
+
+        Map<String, String> clients = new ConcurrentHashMap<>();
+        properties.getClients().forEach((name, apiKey) -> {
+            if (apiKey == null || apiKey.isBlank()) {
+                log.warn("Ignoring rate limit client {} without an API key", name);
+                return;
+            }
+            clients.put(GatewayIdentityVerifier.tokenHash(apiKey), name);
+        });
+        clientsByKeyHash = Map.copyOf(clients);
+        log.info("Rate limiting {} with {} rules", properties.isEnabled() ? "enabled" : "disabled", rules.size());
+    }
+
+    /**
+     * Takes one token from every bucket that applies to the request.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds the client should wait
+     */
+    public long tryAcquire(HttpServletRequest request) {
+        if (!properties.isEnabled() || rules.isEmpty()) {
+            return 0;
+        }
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        long now = System.nanoTime();
+
+        for (CompiledRule rule : rules) {
+            if (!rule.matches(method, path)) {
+                continue;
+            }
+            TokenBucket bucket = bucketFor(rule, request, now);
+            if (bucket == null) {
+                continue;
+            }
+            long wait = bucket.tryAcquire(now, rule.interval, rule.burst);
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    // @return null dacă regula nu se aplică acestui apelant
+    private TokenBucket bucketFor(CompiledRule rule, HttpServletRequest request, long now) {
+        if (rule.key == RateLimitProperties.KeyType.ROUTE) {
+            return rule.overflow;
+        }
+        String client = clientKey(rule.key, request);
+        if (client == null) {
+            return null;
+        }
+        String key = rule.name + ':' + client;
+
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxKeys()) {
+            sweep(now);
+            if (buckets.size() >= properties.getMaxKeys()) {
+                // Tabela plină de clienți activi - cheile noi împart bucket-ul regulii
+                overflowed.increment();
+                return rule.overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+
+    private String clientKey(RateLimitProperties.KeyType type, HttpServletRequest request) {
+        if (type == RateLimitProperties.KeyType.CLIENT) {
+            String apiKey = request.getHeader(properties.getClientHeader());
+            String client = apiKey != null && !apiKey.isBlank()
+                    ? clientsByKeyHash.get(GatewayIdentityVerifier.tokenHash(apiKey))
+                    : null;
+            // Cheie lipsă sau necunoscută - apelantul rămâne pe regulile USER / IP
+            return client != null ? "c" + client : null;
+        }
+        if (type == RateLimitProperties.KeyType.USER) {
+            EdgeIdentity identity = edgeJwtVerifier.verify(request);
+            if (identity != null && identity.getUserId() != null) {
+                return "u" + identity.getUserId();
+            }
+        }
+        // Fără identitate - cădem pe adresa IP (X-Forwarded-For poate fi falsificat de client)
+        return "ip" + request.getRemoteAddr();
+    }
+
+    /**
+     * Drops buckets that have refilled completely. Runs at most once per second,
+     * on one thread at a time.
+     */
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("rules", rules.size());
+        stats.put("clients", clientsByKeyHash.size());
+        stats.put("trackedKeys", buckets.size());
+        stats.put("maxKeys", properties.getMaxKeys());
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("overflowed", overflowed.sum());
+        return stats;
+    }
+
+    private class CompiledRule {
+        private final String name;
+        private final String path;
+        private final List<String> methods;
+        private final RateLimitProperties.KeyType key;
+        private final long interval;
+        private final long burst;
+        // Folosit pentru regulile ROUTE și când tabela de chei este plină
+        private final TokenBucket overflow;
+
+        CompiledRule(RateLimitProperties.Rule rule, long now) {
+            this.name = rule.getName() != null ? rule.getName() : rule.getPath();
+            this.path = rule.getPath();
+            this.methods = rule.getMethods().stream().map(String::toUpperCase).toList();
+            this.key = rule.getKey();
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond()));
+            this.burst = interval * rule.getCapacity();
+            this.overflow = new TokenBucket(now);
+        }
+
+        boolean matches(String method, String requestPath) {
+            return (methods.isEmpty() || methods.contains(method)) && pathMatcher.match(path, requestPath);
+        }
+    }
+}
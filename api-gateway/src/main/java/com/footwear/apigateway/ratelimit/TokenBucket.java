@@ -0,0 +1,40 @@
+package com.footwear.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as GCRA: the whole state is one
+ * "theoretical arrival time" updated with CAS. A bucket whose arrival time is in
+ * the past is full, which makes it indistinguishable from a new one and safe to evict.
+ */
+class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @param interval nanoseconds needed to refill one token
+     * @param burst    nanoseconds of credit the bucket can hold (capacity * interval)
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long now, long interval, long burst) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long overdraft = next - now - burst;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
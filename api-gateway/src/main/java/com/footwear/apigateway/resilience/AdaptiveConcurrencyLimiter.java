@@ -0,0 +1,204 @@
+package com.footwear.apigateway.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-style adaptive concurrency limit for one backend.
+ * <p>
+ * Every {@code windowSize} completed calls the average RTT of the window is compared
+ * with a slow exponential average (the "no queueing" baseline):
+ * {@code gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)} and
+ * {@code newLimit = limit * gradient + sqrt(limit)}. While latency is stable the
+ * gradient is 1 and the limit grows by its square root; when the backend starts
+ * queueing, RTT rises and the limit shrinks. Calls that fail without a response
+ * cut the limit multiplicatively.
+ * <p>
+ * Calls above the limit wait up to {@code maxQueueWait} for a slot (at most
+ * {@code maxQueued} of them), the rest are rejected immediately. A release wakes
+ * as many waiters as there are free slots, so a limit that grows lets the queue in
+ * at once instead of one waiter per completed call.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+    // Media lungă se adaptează lent - aproximativ ultimele 500 de ferestre
+    private static final double LONG_RTT_SMOOTHING = 1.0 / 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final long maxQueueWaitNanos;
+    private final int maxQueued;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private volatile int limit;
+    // Starea ferestrei curente - actualizată sub sampleLock
+    private final Object sampleLock = new Object();
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queuedCalls = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, int windowSize, long maxQueueWaitNanos, int maxQueued) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSize = Math.max(1, windowSize);
+        this.maxQueueWaitNanos = maxQueueWaitNanos;
+        this.maxQueued = maxQueued;
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return false if no slot became free within the queue wait; the caller must reject the call
+     */
+    public boolean tryAcquire() {
+        if (tryIncrement()) {
+            return true;
+        }
+        if (maxQueueWaitNanos <= 0 || queued.incrementAndGet() > maxQueued) {
+            if (maxQueueWaitNanos > 0) {
+                queued.decrementAndGet();
+            }
+            rejected.increment();
+            return false;
+        }
+        queuedCalls.increment();
+        try {
+            long remaining = maxQueueWaitNanos;
+            lock.lock();
+            try {
+                while (!tryIncrement()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private boolean tryIncrement() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases the slot and feeds the measurement into the limit.
+     *
+     * @param rttNanos time until the backend answered
+     * @param dropped  the call failed without a response (timeout, connection error)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        sample(rttNanos, inFlightAtRelease, dropped);
+        signalWaiters();
+    }
+
+    /**
+     * Gives the slot back without a measurement (the call never reached the backend).
+     */
+    public void releaseUnused() {
+        inFlight.decrementAndGet();
+        signalWaiters();
+    }
+
+    // Câte un semnal pentru fiecare loc liber - după o creștere a limitei pot fi mai multe
+    private void signalWaiters() {
+        int waiters = Math.min(queued.get(), limit - inFlight.get());
+        if (waiters <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (int i = 0; i < waiters; i++) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long rttNanos, int inFlightAtRelease, boolean dropped) {
+        synchronized (sampleLock) {
+            if (dropped) {
+                estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF);
+                limit = (int) estimatedLimit;
+                return;
+            }
+            windowRttSum += rttNanos;
+            windowCount++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+            if (windowCount < windowSize) {
+                return;
+            }
+
+            double shortRtt = (double) windowRttSum / windowCount;
+            longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) * LONG_RTT_SMOOTHING;
+            // După o perioadă lungă de latență mare, baza urcă prea sus - o lăsăm să coboare mai repede
+            if (longRttNanos / shortRtt > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            // Nu creștem limita dacă traficul nici nu a folosit-o pe jumătate
+            if (newLimit > estimatedLimit && windowMaxInFlight < estimatedLimit / 2) {
+                newLimit = estimatedLimit;
+            }
+            estimatedLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+            limit = (int) estimatedLimit;
+
+            windowRttSum = 0;
+            windowCount = 0;
+            windowMaxInFlight = 0;
+        }
+    }
+
+    public int getLimit() { return limit; }
+    public int getInFlight() { return inFlight.get(); }
+    public int getQueued() { return queued.get(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getQueuedCalls() { return queuedCalls.sum(); }
+
+    public double getLongRttMillis() {
+        synchronized (sampleLock) {
+            return longRttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
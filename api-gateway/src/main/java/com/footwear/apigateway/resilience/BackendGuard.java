@@ -0,0 +1,192 @@
+package com.footwear.apigateway.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead + circuit breaker per downstream service.
+ * Every upstream call takes a {@link Permit} first; when the service's circuit is
+ * open or all its slots are busy the call fails immediately with
+ * {@link BackendRejectedException} instead of holding a Tomcat worker.
+ * <p>
+ * Below the fixed bulkhead an {@link AdaptiveConcurrencyLimiter} follows the backend's
+ * latency: calls over the current limit wait briefly for a slot, then are rejected
+ * with CONCURRENCY_LIMIT.
+ */
+@Component
+@Slf4j
+public class BackendGuard {
+
+    @Autowired
+    private ResilienceProperties properties;
+
+    private final Map<String, ServiceGuard> guards = new ConcurrentHashMap<>();
+
+    public Permit acquire(String service) {
+        ServiceGuard guard = guards.computeIfAbsent(service, this::createGuard);
+        long now = System.nanoTime();
+
+        if (!guard.circuitBreaker.tryAcquirePermission(now)) {
+            guard.circuitRejections.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(guard.circuitBreaker.remainingOpenNanos(now)));
+            throw new BackendRejectedException("Circuit open for " + service, "CIRCUIT_OPEN", retryAfter);
+        }
+        if (guard.limiter != null && !guard.limiter.tryAcquire()) {
+            guard.circuitBreaker.releaseUnused();
+            throw new BackendRejectedException("Concurrency limit reached for " + service, "CONCURRENCY_LIMIT", 1);
+        }
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.circuitBreaker.releaseUnused();
+            if (guard.limiter != null) {
+                guard.limiter.releaseUnused();
+            }
+            guard.bulkheadRejections.increment();
+            throw new BackendRejectedException("Too many concurrent calls to " + service, "BULKHEAD_FULL", 1);
+        }
+        return new Permit(service, guard, System.nanoTime());
+    }
+
+    private ServiceGuard createGuard(String service) {
+        ResilienceProperties.Settings settings = properties.resolve(service);
+        log.info("Creating bulkhead for {}: maxConcurrentCalls={}, adaptiveLimit={}, failureRateThreshold={}%",
+                service, settings.getMaxConcurrentCalls(), settings.getAdaptiveLimit(), settings.getFailureRateThreshold());
+        return new ServiceGuard(settings);
+    }
+
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        guards.forEach((service, guard) -> {
+            Map<String, Object> serviceStats = new LinkedHashMap<>(guard.circuitBreaker.getStats());
+            serviceStats.put("activeCalls", guard.maxConcurrentCalls - guard.bulkhead.availablePermits());
+            serviceStats.put("maxConcurrentCalls", guard.maxConcurrentCalls);
+            serviceStats.put("circuitRejections", guard.circuitRejections.sum());
+            serviceStats.put("bulkheadRejections", guard.bulkheadRejections.sum());
+            if (guard.limiter != null) {
+                serviceStats.put("concurrencyLimit", guard.limiter.getLimit());
+                serviceStats.put("limitInFlight", guard.limiter.getInFlight());
+                serviceStats.put("limitQueued", guard.limiter.getQueued());
+                serviceStats.put("limitQueuedCalls", guard.limiter.getQueuedCalls());
+                serviceStats.put("limitRejections", guard.limiter.getRejected());
+                serviceStats.put("baselineRttMs", Math.round(guard.limiter.getLongRttMillis() * 10) / 10.0);
+            }
+            stats.put(service, serviceStats);
+        });
+        return stats;
+    }
+
+    /**
+     * Adaptive limiter per service, for the Prometheus gauges; services without one are left out.
+     */
+    public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+        guards.forEach((service, guard) -> {
+            if (guard.limiter != null) {
+                limiters.put(service, guard.limiter);
+            }
+        });
+        return limiters;
+    }
+
+    /**
+     * One admitted call. Report the outcome with {@link #recordStatus}, {@link #recordFailure}
+     * or {@link #recordCancelled}; closing a permit without an outcome counts as a failure.
+     */
+    public static class Permit implements AutoCloseable {
+
+        private final String service;
+        private final ServiceGuard guard;
+        private final long startNanos;
+        private long rttNanos;
+        private boolean dropped;
+        private boolean cancelled;
+        private boolean recorded;
+        private boolean released;
+
+        private Permit(String service, ServiceGuard guard, long startNanos) {
+            this.service = service;
+            this.guard = guard;
+            this.startNanos = startNanos;
+        }
+
+        public void recordStatus(int status) {
+            // 5xx de la backend înseamnă că serviciul are probleme; 4xx sunt erori ale clientului
+            record(status < 500, false);
+        }
+
+        public void recordFailure() {
+            record(false, true);
+        }
+
+        /**
+         * The gateway gave up on the call (e.g. the losing hedge) - it says nothing about the backend,
+         * so neither the circuit breaker nor the adaptive limit sees it.
+         */
+        public void recordCancelled() {
+            if (!recorded) {
+                recorded = true;
+                cancelled = true;
+                guard.circuitBreaker.releaseUnused();
+            }
+        }
+
+        private void record(boolean success, boolean noResponse) {
+            if (!recorded) {
+                recorded = true;
+                long now = System.nanoTime();
+                // RTT-ul pentru limită e timpul până la răspuns, nu până la sfârșitul stream-ului
+                rttNanos = now - startNanos;
+                dropped = noResponse;
+                guard.circuitBreaker.onResult(success, now);
+            }
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            record(false, true);
+            guard.bulkhead.release();
+            if (guard.limiter != null) {
+                if (cancelled) {
+                    guard.limiter.releaseUnused();
+                } else {
+                    guard.limiter.release(rttNanos, dropped);
+                }
+            }
+        }
+    }
+
+    private static class ServiceGuard {
+        private final int maxConcurrentCalls;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker circuitBreaker;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final LongAdder circuitRejections = new LongAdder();
+        private final LongAdder bulkheadRejections = new LongAdder();
+
+        ServiceGuard(ResilienceProperties.Settings settings) {
+            this.maxConcurrentCalls = settings.getMaxConcurrentCalls();
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+            this.circuitBreaker = new CircuitBreaker(settings);
+            this.limiter = settings.getAdaptiveLimit()
+                    ? new AdaptiveConcurrencyLimiter(settings.getInitialLimit(), settings.getMinLimit(), maxConcurrentCalls,
+                            settings.getLimitTolerance(), settings.getLimitSmoothing(), settings.getLimitWindow(),
+                            settings.getMaxQueueWait().toNanos(), settings.getMaxQueued())
+                    : null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.footwear.apigateway.resilience;
+
+/**
+ * Thrown when a call to a backend is refused locally, without touching the network:
+ * the circuit is open or the service's bulkhead is full.
+ */
+public class BackendRejectedException extends RuntimeException {
+
+    private final String errorCode;
+    private final long retryAfterSeconds;
+
+    public BackendRejectedException(String message, String errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
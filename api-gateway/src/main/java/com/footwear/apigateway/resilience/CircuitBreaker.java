@@ -0,0 +1,128 @@
+package com.footwear.apigateway.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker.
+ * CLOSED: the last {@code slidingWindowSize} outcomes are tracked and the circuit
+ * opens once the failure rate reaches the threshold. OPEN: calls are rejected for
+ * {@code openDuration}. HALF_OPEN: a few probe calls are let through; the circuit
+ * closes if they all succeed and opens again on the first failure.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(ResilienceProperties.Settings settings) {
+        this.window = new boolean[settings.getSlidingWindowSize()];
+        this.minimumCalls = Math.min(settings.getMinimumCalls(), window.length);
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenProbes = Math.max(1, settings.getHalfOpenProbes());
+    }
+
+    synchronized boolean tryAcquirePermission(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onResult(boolean success, long now) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!success) {
+                    open(now);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                // Fereastră circulară: suprascriem cel mai vechi rezultat
+                if (recorded == window.length) {
+                    if (window[position]) {
+                        failures--;
+                    }
+                } else {
+                    recorded++;
+                }
+                window[position] = !success;
+                if (!success) {
+                    failures++;
+                }
+                position = (position + 1) % window.length;
+
+                if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                    open(now);
+                }
+            }
+            case OPEN -> {
+                // Rezultate întârziate ale apelurilor pornite înainte de deschidere
+            }
+        }
+    }
+
+    /**
+     * Returns a permission that was acquired but never used for a call.
+     */
+    synchronized void releaseUnused() {
+        if (state == State.HALF_OPEN && probesStarted > 0) {
+            probesStarted--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized long remainingOpenNanos(long now) {
+        return state == State.OPEN ? Math.max(0, openNanos - (now - openedAt)) : 0;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("calls", recorded);
+        stats.put("failures", failures);
+        stats.put("failureRate", recorded == 0 ? 0 : failures * 100 / recorded);
+        return stats;
+    }
+}
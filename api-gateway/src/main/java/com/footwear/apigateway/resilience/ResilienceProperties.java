@@ -0,0 +1,71 @@
+package com.footwear.apigateway.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkhead, adaptive concurrency limit and circuit breaker settings per downstream service (app.resilience.*).
+ * Values under {@code services.<name>} override {@code defaults} field by field.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.resilience")
+public class ResilienceProperties {
+
+    private Settings defaults = new Settings();
+    private Map<String, Settings> services = new HashMap<>();
+
+    @Data
+    public static class Settings {
+        // Bulkhead: apeluri simultane permise către serviciu
+        private Integer maxConcurrentCalls;
+        // Circuit breaker: fereastra cu ultimele N apeluri
+        private Integer slidingWindowSize;
+        private Integer minimumCalls;
+        private Integer failureRateThreshold;
+        private Duration openDuration;
+        private Integer halfOpenProbes;
+        // Limită adaptivă de concurență (sub maxConcurrentCalls), ajustată după RTT
+        private Boolean adaptiveLimit;
+        private Integer initialLimit;
+        private Integer minLimit;
+        // Cât de mult poate crește RTT-ul față de bază înainte ca limita să scadă (2.0 = dublu)
+        private Double limitTolerance;
+        private Double limitSmoothing;
+        // Numărul de apeluri după care se recalculează limita
+        private Integer limitWindow;
+        // Apelurile peste limită așteaptă atât după un slot liber, apoi sunt respinse
+        private Duration maxQueueWait;
+        private Integer maxQueued;
+    }
+
+    public Settings resolve(String service) {
+        Settings override = services.getOrDefault(service, new Settings());
+        Settings resolved = new Settings();
+        resolved.setMaxConcurrentCalls(pick(override.getMaxConcurrentCalls(), defaults.getMaxConcurrentCalls(), 50));
+        resolved.setSlidingWindowSize(pick(override.getSlidingWindowSize(), defaults.getSlidingWindowSize(), 20));
+        resolved.setMinimumCalls(pick(override.getMinimumCalls(), defaults.getMinimumCalls(), 10));
+        resolved.setFailureRateThreshold(pick(override.getFailureRateThreshold(), defaults.getFailureRateThreshold(), 50));
+        resolved.setOpenDuration(pick(override.getOpenDuration(), defaults.getOpenDuration(), Duration.ofSeconds(10)));
+        resolved.setHalfOpenProbes(pick(override.getHalfOpenProbes(), defaults.getHalfOpenProbes(), 1));
+        resolved.setAdaptiveLimit(pick(override.getAdaptiveLimit(), defaults.getAdaptiveLimit(), true));
+        resolved.setInitialLimit(pick(override.getInitialLimit(), defaults.getInitialLimit(), 20));
+        resolved.setMinLimit(pick(override.getMinLimit(), defaults.getMinLimit(), 5));
+        resolved.setLimitTolerance(pick(override.getLimitTolerance(), defaults.getLimitTolerance(), 1.5));
+        resolved.setLimitSmoothing(pick(override.getLimitSmoothing(), defaults.getLimitSmoothing(), 0.2));
+        resolved.setLimitWindow(pick(override.getLimitWindow(), defaults.getLimitWindow(), 20));
+        resolved.setMaxQueueWait(pick(override.getMaxQueueWait(), defaults.getMaxQueueWait(), Duration.ofMillis(50)));
+        resolved.setMaxQueued(pick(override.getMaxQueued(), defaults.getMaxQueued(), 20));
+        return resolved;
+    }
+
+    private static <T> T pick(T override, T fallback, T builtIn) {
+        if (override != null) {
+            return override;
+        }
+        return fallback != null ? fallback : builtIn;
+    }
+}
@@ -0,0 +1,42 @@
+package com.footwear.apigateway.routing;
+
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles app.routing.routes against the services in app.services once at startup.
+ */
+@Component
+@Slf4j
+public class GatewayRouter {
+
+    @Autowired
+    private RoutingProperties properties;
+
+    @Autowired
+    private LoadBalancer loadBalancer;
+
+    private RouteTable table;
+
+    @PostConstruct
+    void init() {
+        table = new RouteTable(properties.getRoutes(), loadBalancer.getServices());
+        log.info("Compiled {} gateway routes for services {}", table.getRoutes().size(), loadBalancer.getServices());
+    }
+
+    public Route match(HttpServletRequest request) {
+        return table.match(request.getMethod(), request.getRequestURI());
+    }
+
+    public Route match(String method, String path) {
+        return table.match(method, path);
+    }
+
+    public RouteTable getTable() {
+        return table;
+    }
+}
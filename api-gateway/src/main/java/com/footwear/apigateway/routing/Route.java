@@ -0,0 +1,66 @@
+package com.footwear.apigateway.routing;
+
+import java.net.URI;
+
+/**
+ * A compiled route: the upstream service and the prebuilt upstream path prefix,
+ * so resolving a request only appends the path remainder and the query string.
+ * Targets are service-relative; the instance is picked per call by the load balancer.
+ */
+public final class Route {
+
+    private final String id;
+    private final String service;
+    private final String group;
+    private final String[] methods;
+    private final boolean prefix;
+    private final int matchedLength;
+    private final String upstreamPrefix;
+    private final long budgetMillis;
+
+    Route(String id, String service, String group, String[] methods, boolean prefix,
+          int matchedLength, String upstreamPrefix, long budgetMillis) {
+        this.id = id;
+        this.service = service;
+        this.group = group;
+        this.methods = methods;
+        this.prefix = prefix;
+        this.matchedLength = matchedLength;
+        this.upstreamPrefix = upstreamPrefix;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public String getId() { return id; }
+    public String getService() { return service; }
+    public String getGroup() { return group; }
+    public boolean isPrefix() { return prefix; }
+    public String getUpstreamPrefix() { return upstreamPrefix; }
+    // 0 = ruta nu are buget propriu
+    public long getBudgetMillis() { return budgetMillis; }
+
+    boolean allows(String method) {
+        if (methods.length == 0) {
+            return true;
+        }
+        for (String allowed : methods) {
+            if (allowed.equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the service-relative upstream URI for a request path that matched this route.
+     */
+    public URI target(String path, String query) {
+        int remainder = path.length() - matchedLength;
+        StringBuilder url = new StringBuilder(upstreamPrefix.length() + remainder
+                + (query != null ? query.length() + 1 : 0));
+        url.append(upstreamPrefix).append(path, matchedLength, path.length());
+        if (query != null) {
+            url.append('?').append(query);
+        }
+        return URI.create(url.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.footwear.apigateway.routing;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One proxied route (app.routing.routes[*]).
+ * {@code path} is either exact ({@code /api/auth/login}) or a prefix ending in
+ * {@code /**} ({@code /api/users/**}); the remainder after the prefix is appended
+ * to {@code upstreamPath} on the target service.
+ */
+@Data
+public class RouteDefinition {
+    private String id;
+    private String path;
+    // Gol = orice metodă
+    private List<String> methods = new ArrayList<>();
+    // Numele serviciului din app.services
+    private String service;
+    // Implicit: aceeași cale ca în gateway
+    private String upstreamPath;
+    // Grupul sub care apar metricile rutei; implicit id-ul
+    private String group;
+    // Bugetul de timp al request-ului, trimis mai departe ca deadline; implicit app.deadline.default-budget
+    private Duration timeout;
+}
@@ -0,0 +1,150 @@
+package com.footwear.apigateway.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable character trie over route paths.
+ * Lookups walk the request path once, character by character, and allocate nothing:
+ * the deepest prefix route seen at a segment boundary wins unless an exact route
+ * matches the whole path.
+ */
+public final class RouteTable {
+
+    private static final String PREFIX_SUFFIX = "/**";
+
+    private final Node root = new Node();
+    private final List<Route> routes;
+
+    /**
+     * @param services known service names; instances are resolved per call by the load balancer
+     */
+    public RouteTable(List<RouteDefinition> definitions, Set<String> services) {
+        Route[] compiled = new Route[definitions.size()];
+        for (int i = 0; i < definitions.size(); i++) {
+            RouteDefinition definition = definitions.get(i);
+            compiled[i] = compile(definition, services);
+            insert(definition.getPath(), compiled[i]);
+        }
+        this.routes = List.of(compiled);
+    }
+
+    private static Route compile(RouteDefinition definition, Set<String> services) {
+        String path = definition.getPath();
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Route " + definition.getId() + " needs an absolute path");
+        }
+        if (!services.contains(definition.getService())) {
+            throw new IllegalArgumentException("Route " + definition.getId() + " targets unknown service " + definition.getService());
+        }
+
+        boolean prefix = path.endsWith(PREFIX_SUFFIX);
+        String matched = prefix ? path.substring(0, path.length() - PREFIX_SUFFIX.length()) : path;
+        String upstreamPath = definition.getUpstreamPath() != null ? definition.getUpstreamPath() : matched;
+
+        String[] methods = definition.getMethods().stream().map(String::toUpperCase).toArray(String[]::new);
+        String id = definition.getId() != null ? definition.getId() : path;
+        String group = definition.getGroup() != null ? definition.getGroup() : id;
+        long budgetMillis = definition.getTimeout() != null ? definition.getTimeout().toMillis() : 0;
+        return new Route(id, definition.getService(), group, methods, prefix, matched.length(), upstreamPath, budgetMillis);
+    }
+
+    private void insert(String path, Route route) {
+        boolean prefix = path.endsWith(PREFIX_SUFFIX);
+        String key = prefix ? path.substring(0, path.length() - PREFIX_SUFFIX.length()) : path;
+
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        if (prefix) {
+            node.prefixRoutes = append(node.prefixRoutes, route);
+        } else {
+            node.exactRoutes = append(node.exactRoutes, route);
+        }
+    }
+
+    /**
+     * @return the route for the request, or null when no route allows this method on this path
+     */
+    public Route match(String method, String path) {
+        Node node = root;
+        Route best = null;
+        int length = path.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            // Un prefix se potrivește doar pe o graniță de segment: /api/users nu acoperă /api/usersx
+            if (c == '/' && node.prefixRoutes != null) {
+                Route candidate = pick(node.prefixRoutes, method);
+                if (candidate != null) {
+                    best = candidate;
+                }
+            }
+            node = node.child(c);
+            if (node == null) {
+                return best;
+            }
+        }
+
+        Route exact = node.exactRoutes != null ? pick(node.exactRoutes, method) : null;
+        if (exact != null) {
+            return exact;
+        }
+        Route whole = node.prefixRoutes != null ? pick(node.prefixRoutes, method) : null;
+        return whole != null ? whole : best;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    private static Route pick(Route[] candidates, String method) {
+        for (Route route : candidates) {
+            if (route.allows(method)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static Route[] append(Route[] existing, Route route) {
+        if (existing == null) {
+            return new Route[] {route};
+        }
+        Route[] grown = Arrays.copyOf(existing, existing.length + 1);
+        grown[existing.length] = route;
+        return grown;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Route[] exactRoutes;
+        private Route[] prefixRoutes;
+
+        Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.footwear.apigateway.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway route table (app.routing.*). Compiled into a {@link RouteTable} at startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.routing")
+public class RoutingProperties {
+
+    private List<RouteDefinition> routes = new ArrayList<>();
+}
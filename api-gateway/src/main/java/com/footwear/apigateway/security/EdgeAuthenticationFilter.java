@@ -0,0 +1,117 @@
+package com.footwear.apigateway.security;
+
+import com.footwear.apigateway.config.GatewayFilterOrder;
+import com.footwear.common.tracing.Span;
+import com.footwear.common.tracing.SpanLayer;
+import com.footwear.common.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the caller's JWT at the edge and replaces it, for the backends, with
+ * signed identity headers (see {@link IdentityHeaderSigner}).
+ * Identity headers sent by clients are always dropped. Requests with a missing or
+ * invalid token are forwarded without identity headers, so the backend still
+ * rejects them with its usual error.
+ */
+@Component
+@Order(GatewayFilterOrder.EDGE_AUTH)
+public class EdgeAuthenticationFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private EdgeJwtVerifier verifier;
+
+    @Autowired
+    private IdentityHeaderSigner signer;
+
+    @Value("${app.edge-auth.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Map<String, String> identityHeaders = Collections.emptyMap();
+        if (enabled) {
+            try (Span span = Tracer.start("edge-auth", SpanLayer.SERVICE)) {
+                // De obicei deja verificat de rate limiter sau de benzile de prioritate
+                EdgeIdentity identity = verifier.verify(request);
+                if (identity != null) {
+                    identityHeaders = signer.sign(identity);
+                }
+            }
+        }
+        filterChain.doFilter(new IdentityRequestWrapper(request, identityHeaders), response);
+    }
+
+    /**
+     * Hides client-supplied identity headers and exposes the ones signed by the gateway.
+     */
+    private static class IdentityRequestWrapper extends HttpServletRequestWrapper {
+
+        private final Map<String, String> identityHeaders;
+
+        IdentityRequestWrapper(HttpServletRequest request, Map<String, String> identityHeaders) {
+            super(request);
+            this.identityHeaders = identityHeaders;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isIdentityHeader(name)) {
+                return findIdentityHeader(name);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isIdentityHeader(name)) {
+                String value = findIdentityHeader(name);
+                return value != null ? Collections.enumeration(List.of(value)) : Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            Enumeration<String> original = super.getHeaderNames();
+            while (original.hasMoreElements()) {
+                String name = original.nextElement();
+                if (!isIdentityHeader(name)) {
+                    names.add(name);
+                }
+            }
+            names.addAll(identityHeaders.keySet());
+            return Collections.enumeration(names);
+        }
+
+        private String findIdentityHeader(String name) {
+            for (Map.Entry<String, String> header : identityHeaders.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+
+        private static boolean isIdentityHeader(String name) {
+            return IdentityHeaderSigner.HEADER_NAMES.contains(name.toLowerCase());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.footwear.apigateway.security;
+
+/**
+ * Caller identity extracted from a JWT verified at the edge.
+ */
+public class EdgeIdentity {
+
+    // Atributul de request sub care filtrul publică identitatea verificată
+    public static final String REQUEST_ATTRIBUTE = EdgeIdentity.class.getName();
+
+    private final Long userId;
+    private final String role;
+    private final Long storeId;
+    private final long expiresAt;
+    // SHA-256 al token-ului - intră în semnătura headerelor de identitate
+    private final String tokenHash;
+
+    public EdgeIdentity(Long userId, String role, Long storeId, long expiresAt, String tokenHash) {
+        this.userId = userId;
+        this.role = role;
+        this.storeId = storeId;
+        this.expiresAt = expiresAt;
+        this.tokenHash = tokenHash;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Long getStoreId() { return storeId; }
+    public long getExpiresAt() { return expiresAt; }
+    public String getTokenHash() { return tokenHash; }
+}
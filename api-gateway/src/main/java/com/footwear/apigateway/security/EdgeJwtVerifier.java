@@ -0,0 +1,158 @@
+package com.footwear.apigateway.security;
+
+import com.footwear.common.security.GatewayIdentityVerifier;
+import com.footwear.common.security.JwtConfigurationManager;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies JWTs once at the edge and remembers the result until the token expires.
+ * Entries are keyed by a SHA-256 hash of the token; invalid tokens are never cached
+ * across requests, but within a request the outcome - valid or not - is kept as a
+ * request attribute, so the filters that need the caller pay for one check at most.
+ * Expired entries are swept in one batch on a daemon thread, not on the request path;
+ * while the cache is full, new tokens are verified without being remembered.
+ */
+@Component
+public class EdgeJwtVerifier {
+
+    private static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+    // Marchează request-ul ca verificat, inclusiv când token-ul lipsește sau e invalid
+    private static final String VERIFIED_ATTRIBUTE = EdgeJwtVerifier.class.getName() + ".verified";
+
+    // Parser-ul jjwt este thread-safe, îl construim o singură dată
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(JwtConfigurationManager.getInstance().getSigningKey())
+            .build();
+
+    private final Map<String, EdgeIdentity> verified = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Value("${app.edge-auth.cache-size:10000}")
+    private int maxEntries;
+
+    @Value("${app.edge-auth.sweep-interval:30s}")
+    private Duration sweepInterval;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void startSweeper() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edge-jwt-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifies the request's Authorization header the first time it is asked and
+     * publishes the identity under {@link EdgeIdentity#REQUEST_ATTRIBUTE}; later calls
+     * for the same request only read the attribute.
+     *
+     * @return the caller identity, or null when the header is missing or the token is invalid
+     */
+    public EdgeIdentity verify(HttpServletRequest request) {
+        if (request.getAttribute(VERIFIED_ATTRIBUTE) != null) {
+            return (EdgeIdentity) request.getAttribute(EdgeIdentity.REQUEST_ATTRIBUTE);
+        }
+        EdgeIdentity identity = verify(request.getHeader(HttpHeaders.AUTHORIZATION));
+        request.setAttribute(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+        if (identity != null) {
+            request.setAttribute(EdgeIdentity.REQUEST_ATTRIBUTE, identity);
+        }
+        return identity;
+    }
+
+    /**
+     * @return the caller identity, or null when the header is missing or the token is invalid
+     */
+    public EdgeIdentity verify(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return null;
+        }
+        String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        String key = GatewayIdentityVerifier.tokenHash(token);
+        long now = System.currentTimeMillis();
+
+        EdgeIdentity cached = verified.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAt() > now) {
+                cacheHits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+
+        verifications.increment();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            long expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().getTime()
+                    : now + DEFAULT_TTL_MILLIS;
+            EdgeIdentity identity = new EdgeIdentity(
+                    claims.get("userId", Long.class),
+                    claims.get("role", String.class),
+                    claims.get("storeId", Long.class),
+                    expiresAt,
+                    key);
+            remember(key, identity);
+            return identity;
+        } catch (JwtException | IllegalArgumentException e) {
+            failures.increment();
+            return null;
+        }
+    }
+
+    private void remember(String key, EdgeIdentity identity) {
+        if (verified.size() >= maxEntries) {
+            // Cache plin - verificăm fără să memorăm până la următorul sweep
+            return;
+        }
+        verified.put(key, identity);
+    }
+
+    void evictExpired() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(entry -> entry.getExpiresAt() <= now);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedTokens", verified.size());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("verifications", verifications.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+}
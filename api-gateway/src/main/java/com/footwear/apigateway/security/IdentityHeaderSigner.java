@@ -0,0 +1,84 @@
+package com.footwear.apigateway.security;
+
+import com.footwear.common.security.GatewayIdentityVerifier;
+import com.footwear.common.security.JwtConfigurationManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Signs the identity headers the gateway forwards to the backend services.
+ * The HMAC key is derived from the JWT secret, so services that already share
+ * the JWT key can check the headers without parsing the token again.
+ * Format: HMAC-SHA256(key, "userId|role|storeId|expiresAt|tokenHash"), base64url without padding;
+ * the services check it with {@link GatewayIdentityVerifier}.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    public static final String USER_ID = GatewayIdentityVerifier.USER_ID;
+    public static final String USER_ROLE = GatewayIdentityVerifier.USER_ROLE;
+    public static final String STORE_ID = GatewayIdentityVerifier.STORE_ID;
+    public static final String EXPIRES = GatewayIdentityVerifier.EXPIRES;
+    public static final String SIGNATURE = GatewayIdentityVerifier.SIGNATURE;
+
+    public static final Set<String> HEADER_NAMES = Set.of(
+            USER_ID.toLowerCase(), USER_ROLE.toLowerCase(), STORE_ID.toLowerCase(),
+            EXPIRES.toLowerCase(), SIGNATURE.toLowerCase());
+
+    private final byte[] identityKey;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    // Headerele sunt valabile doar cât timp request-ul este în zbor
+    @Value("${app.edge-auth.identity-ttl-ms:30000}")
+    private long identityTtlMillis;
+
+    public IdentityHeaderSigner() {
+        this(JwtConfigurationManager.getInstance().getSecretKey());
+    }
+
+    IdentityHeaderSigner(String secret) {
+        this.identityKey = GatewayIdentityVerifier.deriveKey(secret);
+    }
+
+    /**
+     * @return the headers for this identity, valid only next to the token it was verified from
+     */
+    public Map<String, String> sign(EdgeIdentity identity) {
+        long expiresAt = Math.min(identity.getExpiresAt(), System.currentTimeMillis() + identityTtlMillis);
+        String userId = identity.getUserId() != null ? identity.getUserId().toString() : "";
+        String role = identity.getRole() != null ? identity.getRole() : "";
+        String storeId = identity.getStoreId() != null ? identity.getStoreId().toString() : "";
+
+        String payload = GatewayIdentityVerifier.payload(
+                userId, role, storeId, String.valueOf(expiresAt), identity.getTokenHash());
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(USER_ID, userId);
+        headers.put(USER_ROLE, role);
+        headers.put(STORE_ID, storeId);
+        headers.put(EXPIRES, String.valueOf(expiresAt));
+        headers.put(SIGNATURE, Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        return headers;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(new SecretKeySpec(identityKey, "HmacSHA256"));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
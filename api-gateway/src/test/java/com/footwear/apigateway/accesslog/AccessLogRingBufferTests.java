@@ -0,0 +1,152 @@
+package com.footwear.apigateway.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogRingBufferTests {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new AccessLogRingBuffer(8).capacity());
+        assertEquals(16, new AccessLogRingBuffer(9).capacity());
+        assertEquals(1024, new AccessLogRingBuffer(1000).capacity());
+    }
+
+    @Test
+    void entriesAreDrainedInOrderAndCleared() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            record(ring, i);
+        }
+        assertEquals(5, ring.size());
+
+        List<Long> drained = new ArrayList<>();
+        assertEquals(3, ring.drain(entry -> drained.add(entry.timestampMillis), 3));
+        assertEquals(2, ring.drain(entry -> drained.add(entry.timestampMillis), 10));
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), drained);
+        assertEquals(0, ring.size());
+        // Slotul golit nu mai ține referința la calea request-ului
+        assertNull(ring.entry(0).path);
+    }
+
+    @Test
+    void fullRingRejectsProducersUntilTheConsumerCatchesUp() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            record(ring, i);
+        }
+
+        assertEquals(-1, ring.claim(0));
+        assertEquals(-1, ring.claim(100));
+
+        assertEquals(1, ring.drain(entry -> { }, 1));
+        long position = ring.claim(0);
+        assertEquals(4, position);
+        // Poziția 4 refolosește slotul 0
+        assertSame(ring.entry(0), ring.entry(position));
+    }
+
+    @Test
+    void consumerStopsAtAnUnpublishedSlot() {
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(8);
+        long first = ring.claim(0);
+        record(ring, 1);
+
+        // Primul slot e revendicat dar încă nepublicat - nici cel de după nu poate fi citit
+        assertEquals(0, ring.drain(entry -> { }, 10));
+
+        ring.entry(first).timestampMillis = 0;
+        ring.publish(first);
+        List<Long> drained = new ArrayList<>();
+        assertEquals(2, ring.drain(entry -> drained.add(entry.timestampMillis), 10));
+        assertEquals(List.of(0L, 1L), drained);
+    }
+
+    @Test
+    void concurrentProducersNeverLoseOrDuplicateEntries() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        AccessLogRingBuffer ring = new AccessLogRingBuffer(64);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int dropped = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        long position = ring.claim(1_000);
+                        if (position < 0) {
+                            dropped++;
+                            continue;
+                        }
+                        ring.entry(position).timestampMillis = (long) producer * perProducer + i;
+                        ring.publish(position);
+                    }
+                    return dropped;
+                }));
+            }
+
+            boolean[] seen = new boolean[producers * perProducer];
+            long[] lastPerProducer = new long[producers];
+            Arrays.fill(lastPerProducer, -1);
+            Consumer<AccessLogEntry> check = entry -> {
+                int value = (int) entry.timestampMillis;
+                assertFalse(seen[value], "entry drained twice: " + value);
+                seen[value] = true;
+                // Ordinea fiecărui producător se păstrează
+                int producer = value / perProducer;
+                assertTrue(value > lastPerProducer[producer]);
+                lastPerProducer[producer] = value;
+            };
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            int drained = 0;
+            int dropped = -1;
+            while (System.nanoTime() < deadline) {
+                boolean finished = results.stream().allMatch(Future::isDone);
+                drained += ring.drain(check, 256);
+                if (finished && ring.size() == 0) {
+                    dropped = 0;
+                    for (Future<Integer> result : results) {
+                        dropped += result.get();
+                    }
+                    break;
+                }
+            }
+
+            assertTrue(dropped >= 0, "producers did not finish");
+            assertEquals(producers * perProducer, drained + dropped);
+            assertEquals(0, ring.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void record(AccessLogRingBuffer ring, long timestamp) {
+        long position = ring.claim(0);
+        assertTrue(position >= 0);
+        AccessLogEntry entry = ring.entry(position);
+        entry.timestampMillis = timestamp;
+        entry.path = "/api/products/" + timestamp;
+        ring.publish(position);
+    }
+}
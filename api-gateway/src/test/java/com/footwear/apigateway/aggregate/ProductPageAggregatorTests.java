@@ -0,0 +1,167 @@
+package com.footwear.apigateway.aggregate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.coalesce.RequestCoalescer;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import com.footwear.common.deadline.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductPageAggregatorTests {
+
+    private static final String PRODUCT = "/api/products/1";
+    private static final String AVAILABILITY = "/api/inventory/public/product/1/availability";
+    private static final String STORES = "/api/inventory/public/stores";
+
+    private final ProxyEngine proxyEngine = mock(ProxyEngine.class);
+    private final RequestCoalescer coalescer = mock(RequestCoalescer.class);
+    private final AggregationProperties properties = new AggregationProperties();
+    private ProductPageAggregator aggregator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(proxyEngine.snapshot(anyString(), any(URI.class), any())).thenAnswer(invocation ->
+                new UpstreamRequest(invocation.getArgument(0), HttpMethod.GET, invocation.getArgument(1), new HttpHeaders(), null));
+
+        aggregator = new ProductPageAggregator();
+        ReflectionTestUtils.setField(aggregator, "proxyEngine", proxyEngine);
+        ReflectionTestUtils.setField(aggregator, "coalescer", coalescer);
+        ReflectionTestUtils.setField(aggregator, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(aggregator, "properties", properties);
+        aggregator.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    void allPartsMakeACompletePage() throws Exception {
+        answer(PRODUCT, 200, "{\"id\":1}");
+        answer(AVAILABILITY, 200, "{\"stores\":[]}");
+        answer(STORES, 200, "[]");
+
+        Map<String, Object> page = aggregator.productPage(1L, new MockHttpServletRequest());
+
+        assertEquals(true, page.get("complete"));
+        assertTrue(page.containsKey("product"));
+        assertTrue(page.containsKey("availability"));
+        assertTrue(page.containsKey("stores"));
+    }
+
+    @Test
+    void failedPartsAreReportedAndLeftOut() throws Exception {
+        answer(PRODUCT, 200, "{\"id\":1}");
+        answer(AVAILABILITY, 500, "{}");
+        answer(STORES, 200, "not json");
+
+        Map<String, Object> page = aggregator.productPage(1L, new MockHttpServletRequest());
+
+        assertEquals(false, page.get("complete"));
+        assertTrue(page.containsKey("product"));
+        assertFalse(page.containsKey("availability"));
+        assertFalse(page.containsKey("stores"));
+        Map<?, ?> parts = (Map<?, ?>) page.get("parts");
+        assertEquals("ERROR", part(parts, "availability").get("status"));
+        assertEquals(500, part(parts, "availability").get("httpStatus"));
+        assertEquals("INVALID_BODY", part(parts, "stores").get("status"));
+    }
+
+    @Test
+    void slowPartTimesOutAndIsAborted() throws Exception {
+        properties.setTimeout(Duration.ofMillis(100));
+        answer(PRODUCT, 200, "{\"id\":1}");
+        answer(AVAILABILITY, 200, "{\"stores\":[]}");
+        AtomicLong budgetSeen = new AtomicLong(-1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        when(coalescer.fetch(upstream(STORES))).thenAnswer(invocation -> {
+            budgetSeen.set(Deadline.isSet() ? Deadline.remainingMillis() : -1);
+            AbortHandle abort = AbortHandle.current();
+            try {
+                long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (!abort.isAborted() && System.nanoTime() < giveUp) {
+                    Thread.sleep(5);
+                }
+                throw new IOException("aborted");
+            } finally {
+                stopped.countDown();
+            }
+        });
+
+        long start = System.nanoTime();
+        Map<String, Object> page = aggregator.productPage(1L, new MockHttpServletRequest());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(false, page.get("complete"));
+        assertEquals("TIMEOUT", part((Map<?, ?>) page.get("parts"), "stores").get("status"));
+        assertTrue(page.containsKey("product"));
+        // Apelul lent a fost abandonat odată cu pagina, nu a rămas să ruleze în fundal
+        assertTrue(stopped.await(1, TimeUnit.SECONDS));
+        assertTrue(budgetSeen.get() >= 0 && budgetSeen.get() <= 100);
+    }
+
+    @Test
+    void partsNeverWaitPastTheRequestDeadline() throws Exception {
+        AtomicLong budgetSeen = new AtomicLong(-1);
+        when(coalescer.fetch(any())).thenAnswer(invocation -> {
+            budgetSeen.accumulateAndGet(Deadline.remainingMillis(), Math::max);
+            return new BufferedResponse(200, new HttpHeaders(), "{}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        try (Deadline.Scope ignored = Deadline.enter(50)) {
+            aggregator.productPage(1L, new MockHttpServletRequest());
+        }
+
+        assertTrue(budgetSeen.get() <= 50);
+    }
+
+    @Test
+    void noPageWithoutAnyPart() throws Exception {
+        answer(PRODUCT, 503, "{}");
+        answer(AVAILABILITY, 503, "{}");
+        answer(STORES, 503, "{}");
+
+        assertNull(aggregator.productPage(1L, new MockHttpServletRequest()));
+    }
+
+    private void answer(String path, int status, String body) throws IOException {
+        when(coalescer.fetch(upstream(path))).thenReturn(
+                new BufferedResponse(status, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static UpstreamRequest upstream(String path) {
+        return argThat(request -> request != null && request.getUri().getPath().equals(path));
+    }
+
+    private static Map<?, ?> part(Map<?, ?> parts, String name) {
+        return (Map<?, ?>) parts.get(name);
+    }
+}
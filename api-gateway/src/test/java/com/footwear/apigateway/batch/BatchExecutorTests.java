@@ -0,0 +1,247 @@
+package com.footwear.apigateway.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwear.apigateway.ratelimit.RateLimiter;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import com.footwear.apigateway.security.IdentityHeaderSigner;
+import com.footwear.common.deadline.Deadline;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BatchExecutorTests {
+
+    private final BatchProperties properties = new BatchProperties();
+    private final HttpServletResponse batchResponse = mock(HttpServletResponse.class);
+    private BatchExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void everySubRequestRunsOnThePoolInRequestOrder() {
+        startExecutor(Duration.ofSeconds(5), 4, 8);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        List<Map<String, Object>> responses = executor.execute(subRequests(6), batchRequest(), batchResponse,
+                (request, response) -> {
+                    threads.add(Thread.currentThread());
+                    response.setStatus(200);
+                    response.getWriter().write(request.getRequestURI());
+                });
+
+        assertEquals(6, responses.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(String.valueOf(i), responses.get(i).get("id"));
+            assertEquals(200, responses.get(i).get("status"));
+            assertEquals("/api/items/" + i, responses.get(i).get("body"));
+        }
+        // Thread-ul apelant doar așteaptă
+        assertFalse(threads.contains(Thread.currentThread()));
+        verifyNoInteractions(batchResponse);
+    }
+
+    @Test
+    void lateSubRequestsAreAnsweredWithTimeoutAndDropped() throws Exception {
+        startExecutor(Duration.ofMillis(200), 2, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        List<Map<String, Object>> responses = executor.execute(subRequests(2), batchRequest(), batchResponse,
+                (request, response) -> {
+                    if (request.getRequestURI().endsWith("/1")) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        response.setStatus(201);
+                        response.setLocale(Locale.FRENCH);
+                        response.getWriter().write("late");
+                        response.flushBuffer();
+                        finished.countDown();
+                    } else {
+                        response.setStatus(200);
+                    }
+                });
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(200, responses.get(0).get("status"));
+        assertEquals(504, responses.get(1).get("status"));
+        assertTrue(elapsed < 2000, "batch waited " + elapsed + " ms");
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        // Rezultatul întârziat nu înlocuiește 504-ul și nu ajunge în răspunsul batch
+        assertEquals(504, responses.get(1).get("status"));
+        verifyNoInteractions(batchResponse);
+    }
+
+    @Test
+    void timeoutCountsFromEntryAcrossTheWholeBatch() {
+        startExecutor(Duration.ofMillis(250), 1, 8);
+        AtomicInteger dispatched = new AtomicInteger();
+
+        List<Map<String, Object>> responses = executor.execute(subRequests(4), batchRequest(), batchResponse,
+                (request, response) -> {
+                    dispatched.incrementAndGet();
+                    try {
+                        Thread.sleep(150);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setStatus(200);
+                });
+
+        assertEquals(200, responses.get(0).get("status"));
+        for (int i = 1; i < 4; i++) {
+            assertEquals(504, responses.get(i).get("status"));
+        }
+        sleep(300);
+        // Worker-ul se oprește după timeout - restul sub-request-urilor nu mai pleacă
+        assertEquals(2, dispatched.get());
+    }
+
+    @Test
+    void subRequestsCannotOutliveTheBatchDeadline() {
+        startExecutor(Duration.ofSeconds(5), 2, 8);
+        List<BatchSubRequest> subRequests = subRequests(2);
+        subRequests.get(1).getHeaders().put(Deadline.HEADER, "100");
+        Map<String, String> deadlines = new ConcurrentHashMap<>();
+
+        executor.execute(subRequests, batchRequest(), batchResponse, (request, response) ->
+                deadlines.put(request.getRequestURI(), request.getHeader(Deadline.HEADER)));
+
+        long inherited = Long.parseLong(deadlines.get("/api/items/0"));
+        assertTrue(inherited > 4000 && inherited <= 5000, "deadline " + inherited);
+        assertEquals("100", deadlines.get("/api/items/1"));
+    }
+
+    @Test
+    void batchRequestDetailsAreCopiedUpFront() {
+        startExecutor(Duration.ofSeconds(5), 1, 8);
+        MockHttpServletRequest batchRequest = batchRequest();
+        batchRequest.addHeader("X-User-Id", "1");
+        Map<String, Object> seen = new ConcurrentHashMap<>();
+
+        executor.execute(subRequests(1), batchRequest, batchResponse, (request, response) -> {
+            seen.put("remoteAddr", request.getRemoteAddr());
+            seen.put("scheme", request.getScheme());
+            seen.put("accept", request.getHeader("Accept"));
+            seen.put("userId", String.valueOf(request.getHeader("X-User-Id")));
+        });
+
+        assertEquals("10.0.0.9", seen.get("remoteAddr"));
+        assertEquals("https", seen.get("scheme"));
+        assertEquals("application/json", seen.get("accept"));
+        // Headerele de identitate nu se moștenesc - doar gateway-ul le semnează
+        assertEquals("null", seen.get("userId"));
+    }
+
+    @Test
+    void busyPoolRejectsTheBatchInsteadOfRunningItOnTheCaller() throws Exception {
+        startExecutor(Duration.ofSeconds(5), 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Map<String, Object>>> first = caller.submit(() ->
+                    executor.execute(subRequests(1), batchRequest(), batchResponse, (request, response) -> {
+                        running.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger dispatched = new AtomicInteger();
+            List<Map<String, Object>> rejected = executor.execute(subRequests(2), batchRequest(), batchResponse,
+                    (request, response) -> dispatched.incrementAndGet());
+
+            assertEquals(503, rejected.get(0).get("status"));
+            assertEquals(503, rejected.get(1).get("status"));
+            assertEquals(0, dispatched.get());
+
+            release.countDown();
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).get(0).get("status"));
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private void startExecutor(Duration timeout, int parallelism, int maxThreads) {
+        properties.setTimeout(timeout);
+        properties.setParallelism(parallelism);
+        properties.setMaxThreads(maxThreads);
+
+        RateLimiter rateLimiter = mock(RateLimiter.class);
+        when(rateLimiter.tryAcquire(any())).thenReturn(0L);
+
+        executor = new BatchExecutor();
+        ReflectionTestUtils.setField(executor, "properties", properties);
+        ReflectionTestUtils.setField(executor, "edgeJwtVerifier", mock(EdgeJwtVerifier.class));
+        ReflectionTestUtils.setField(executor, "identityHeaderSigner", mock(IdentityHeaderSigner.class));
+        ReflectionTestUtils.setField(executor, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(executor, "objectMapper", new ObjectMapper());
+        executor.init();
+    }
+
+    private static MockHttpServletRequest batchRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/batch");
+        request.setRemoteAddr("10.0.0.9");
+        request.setScheme("https");
+        request.addHeader("Accept", "application/json");
+        request.addHeader("Content-Type", "application/json");
+        return request;
+    }
+
+    private static List<BatchSubRequest> subRequests(int count) {
+        List<BatchSubRequest> subRequests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BatchSubRequest subRequest = new BatchSubRequest();
+            subRequest.setPath("/api/items/" + i);
+            subRequests.add(subRequest);
+        }
+        return subRequests;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
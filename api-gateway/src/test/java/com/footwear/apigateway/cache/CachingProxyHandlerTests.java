@@ -0,0 +1,175 @@
+package com.footwear.apigateway.cache;
+
+import com.footwear.apigateway.coalesce.RequestCoalescer;
+import com.footwear.apigateway.compression.ResponseCompressor;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingProxyHandlerTests {
+
+    private static final URI TARGET = URI.create("/api/products/public/search");
+
+    private final ProxyEngine proxyEngine = mock(ProxyEngine.class);
+    private final RequestCoalescer coalescer = mock(RequestCoalescer.class);
+    private final ResponseCompressor compressor = mock(ResponseCompressor.class);
+    private final ResponseCache cache = new ResponseCache();
+    private CachingProxyHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.Route route = new CacheProperties.Route();
+        route.setPath("/api/products/public/**");
+        route.setTtl(Duration.ofMinutes(1));
+        properties.setRoutes(List.of(route));
+        ReflectionTestUtils.setField(cache, "properties", properties);
+
+        handler = new CachingProxyHandler();
+        ReflectionTestUtils.setField(handler, "properties", properties);
+        ReflectionTestUtils.setField(handler, "cache", cache);
+        ReflectionTestUtils.setField(handler, "proxyEngine", proxyEngine);
+        ReflectionTestUtils.setField(handler, "coalescer", coalescer);
+        ReflectionTestUtils.setField(handler, "compressor", compressor);
+
+        // Snapshot-ul real copiază toate headerele clientului
+        when(proxyEngine.snapshot(any(), any(), any())).thenAnswer(invocation -> {
+            HttpServletRequest request = invocation.getArgument(2);
+            HttpHeaders headers = new HttpHeaders();
+            for (String name : Collections.list(request.getHeaderNames())) {
+                headers.addAll(name, Collections.list(request.getHeaders(name)));
+            }
+            return new UpstreamRequest(invocation.getArgument(0), HttpMethod.GET, invocation.getArgument(1), headers, null);
+        });
+
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        upstreamHeaders.set(HttpHeaders.CACHE_CONTROL, "private, max-age=600");
+        upstreamHeaders.set(HttpHeaders.PRAGMA, "no-cache");
+        upstreamHeaders.set("Server-Timing", "db;dur=12");
+        when(coalescer.fetch(any())).thenReturn(
+                new BufferedResponse(200, upstreamHeaders, "[]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void cacheFillsAreFetchedWithoutTheClientsCredentialsOrValidators() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        request.addHeader(HttpHeaders.COOKIE, "session=1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"old\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 21 Oct 2015 07:28:00 GMT");
+        request.addHeader("X-User-Id", "7");
+        request.addHeader("X-User-Role", "ADMIN");
+        request.addHeader("X-Identity-Signature", "signature");
+        request.addHeader(HttpHeaders.ACCEPT_LANGUAGE, "ro");
+
+        assertTrue(handler.handle("product", TARGET, request, new MockHttpServletResponse()));
+
+        ArgumentCaptor<UpstreamRequest> upstream = ArgumentCaptor.forClass(UpstreamRequest.class);
+        verify(coalescer).fetch(upstream.capture());
+        HttpHeaders headers = upstream.getValue().getHeaders();
+        assertNull(headers.get(HttpHeaders.AUTHORIZATION));
+        assertNull(headers.get(HttpHeaders.COOKIE));
+        assertNull(headers.get(HttpHeaders.IF_NONE_MATCH));
+        assertNull(headers.get(HttpHeaders.IF_MODIFIED_SINCE));
+        assertNull(headers.get("X-User-Id"));
+        assertNull(headers.get("X-User-Role"));
+        assertNull(headers.get("X-Identity-Signature"));
+        assertEquals("ro", headers.getFirst(HttpHeaders.ACCEPT_LANGUAGE));
+    }
+
+    @Test
+    void storedEntryUsesTheGatewayCachePolicy() throws Exception {
+        MockHttpServletResponse miss = new MockHttpServletResponse();
+        handler.handle("product", TARGET, request(), miss);
+
+        assertEquals("MISS", miss.getHeader("X-Cache"));
+        CacheEntry entry = cache.get("/api/products/public/search?name=runner");
+        assertNotNull(entry);
+        HttpHeaders headers = entry.getResponse().getHeaders();
+        assertEquals("no-cache", headers.getCacheControl());
+        assertNull(headers.get(HttpHeaders.PRAGMA));
+        assertNull(headers.get("Server-Timing"));
+        assertNotNull(headers.getETag());
+        assertTrue(headers.getLastModified() > 0);
+        verify(proxyEngine).writeIdentity(eq(entry.getResponse()), eq(miss));
+    }
+
+    @Test
+    void freshEntryIsServedWithoutCallingTheBackend() throws Exception {
+        handler.handle("product", TARGET, request(), new MockHttpServletResponse());
+
+        MockHttpServletResponse hit = new MockHttpServletResponse();
+        handler.handle("product", TARGET, request(), hit);
+
+        assertEquals("HIT", hit.getHeader("X-Cache"));
+        verify(coalescer, times(1)).fetch(any());
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void matchingValidatorIsAnsweredWithNotModified() throws Exception {
+        handler.handle("product", TARGET, request(), new MockHttpServletResponse());
+        String etag = cache.get("/api/products/public/search?name=runner").getEtag();
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handle("product", TARGET, conditional, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(1L, cache.getStats().get("notModified"));
+    }
+
+    @Test
+    void otherRoutesAndMethodsAreNotHandled() throws Exception {
+        MockHttpServletRequest post = request();
+        post.setMethod("POST");
+        assertFalse(handler.handle("product", TARGET, post, new MockHttpServletResponse()));
+
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/products/42");
+        assertFalse(handler.handle("product", URI.create("/api/products/42"), other, new MockHttpServletResponse()));
+        verify(coalescer, never()).fetch(any());
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/public/search");
+        request.setQueryString("name=runner");
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.footwear.apigateway.cache;
+
+import com.footwear.apigateway.proxy.BufferedResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResponseCacheTests {
+
+    // 100 de octeți de corp + 512 overhead
+    private static final long ENTRY_SIZE = 612;
+
+    private final CacheProperties properties = new CacheProperties();
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedFirst() {
+        ResponseCache cache = cache(3 * ENTRY_SIZE, 1024);
+        cache.put("a", entry(100));
+        cache.put("b", entry(100));
+        cache.put("c", entry(100));
+
+        // "a" devine cea mai recent folosită
+        assertNotNull(cache.get("a"));
+        cache.put("d", entry(100));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+        assertEquals(3, cache.getStats().get("entries"));
+        assertEquals(3 * ENTRY_SIZE, cache.getStats().get("bytes"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void entriesAboveTheEntryLimitAreNotStored() {
+        ResponseCache cache = cache(10 * ENTRY_SIZE, 600);
+
+        cache.put("big", entry(100));
+
+        assertNull(cache.get("big"));
+        assertEquals(0L, cache.getStats().get("bytes"));
+    }
+
+    @Test
+    void replacingAnEntryAccountsForTheNewSize() {
+        ResponseCache cache = cache(10 * ENTRY_SIZE, 4096);
+        cache.put("a", entry(100));
+        CacheEntry replacement = entry(300);
+
+        cache.put("a", replacement);
+
+        assertSame(replacement, cache.get("a"));
+        assertEquals(812L, cache.getStats().get("bytes"));
+        assertEquals(0L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void newEntryIsKeptEvenIfEverythingElseMustGo() {
+        ResponseCache cache = cache(2 * ENTRY_SIZE, 4096);
+        cache.put("a", entry(100));
+        cache.put("b", entry(100));
+        CacheEntry large = entry(700);
+
+        cache.put("large", large);
+
+        assertSame(large, cache.get("large"));
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1212L, cache.getStats().get("bytes"));
+    }
+
+    @Test
+    void removeFreesTheEntrySize() {
+        ResponseCache cache = cache(10 * ENTRY_SIZE, 4096);
+        cache.put("a", entry(100));
+
+        cache.remove("a");
+        cache.remove("missing");
+
+        assertNull(cache.get("a"));
+        assertEquals(0L, cache.getStats().get("bytes"));
+    }
+
+    @Test
+    void deadEntriesAreDroppedOnLookup() {
+        ResponseCache cache = cache(10 * ENTRY_SIZE, 4096);
+        long past = System.currentTimeMillis() - 10_000;
+        BufferedResponse response = new BufferedResponse(200, new HttpHeaders(), new byte[100]);
+        // Expirată, iar ferestrele stale-while-revalidate și stale-if-error au trecut și ele
+        cache.put("dead", new CacheEntry(response, null, "\"etag\"", past, past, past, past + 1000, past + 2000));
+        // Expirată, dar încă utilizabilă la erori
+        cache.put("stale", new CacheEntry(response, null, "\"etag\"", past, past, past, past, past + 60_000));
+
+        assertNull(cache.get("dead"));
+        assertNotNull(cache.get("stale"));
+        assertEquals(1, cache.getStats().get("entries"));
+        assertEquals(ENTRY_SIZE, cache.getStats().get("bytes"));
+        assertEquals(1L, cache.getStats().get("expired"));
+    }
+
+    private ResponseCache cache(long maxBytes, long maxEntryBytes) {
+        properties.setMaxSize(DataSize.ofBytes(maxBytes));
+        properties.setMaxEntrySize(DataSize.ofBytes(maxEntryBytes));
+        ResponseCache cache = new ResponseCache();
+        ReflectionTestUtils.setField(cache, "properties", properties);
+        return cache;
+    }
+
+    private static CacheEntry entry(int bodySize) {
+        BufferedResponse response = new BufferedResponse(200, new HttpHeaders(), new byte[bodySize]);
+        long now = System.currentTimeMillis();
+        return new CacheEntry(response, null, "\"etag\"", now, now, now + 1000, now + 1000, now + 1000);
+    }
+}
@@ -0,0 +1,225 @@
+package com.footwear.apigateway.coalesce;
+
+import com.footwear.apigateway.client.AbortHandle;
+import com.footwear.apigateway.hedge.HedgingProxy;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescerTests {
+
+    private static final URI TARGET = URI.create("/api/products/public/1");
+
+    private final HedgingProxy hedgingProxy = mock(HedgingProxy.class);
+    private final CoalescingProperties properties = new CoalescingProperties();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "properties", properties);
+        ReflectionTestUtils.setField(coalescer, "proxyEngine", mock(ProxyEngine.class));
+        ReflectionTestUtils.setField(coalescer, "hedgingProxy", hedgingProxy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void identicalRequestsShareOneUpstreamCall() throws Exception {
+        whenFetchedWaitForRelease();
+
+        Future<BufferedResponse> leader = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> upstreamCalls.get() == 1);
+        Future<BufferedResponse> waiter1 = callers.submit(() -> coalescer.fetch(request(null)));
+        Future<BufferedResponse> waiter2 = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> stat("coalesced") == 2);
+        release.countDown();
+
+        BufferedResponse response = leader.get(2, TimeUnit.SECONDS);
+        assertSame(response, waiter1.get(2, TimeUnit.SECONDS));
+        assertSame(response, waiter2.get(2, TimeUnit.SECONDS));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0L, stat("inFlight"));
+    }
+
+    @Test
+    void callersWithDifferentTokensAreNotCoalesced() throws Exception {
+        whenFetchedWaitForRelease();
+
+        Future<BufferedResponse> first = callers.submit(() -> coalescer.fetch(request("Bearer a")));
+        Future<BufferedResponse> second = callers.submit(() -> coalescer.fetch(request("Bearer b")));
+        awaitTrue(() -> upstreamCalls.get() == 2);
+        release.countDown();
+
+        first.get(2, TimeUnit.SECONDS);
+        second.get(2, TimeUnit.SECONDS);
+        assertEquals(0L, stat("coalesced"));
+    }
+
+    @Test
+    void callersAcceptingDifferentRepresentationsAreNotCoalesced() throws Exception {
+        whenFetchedWaitForRelease();
+        UpstreamRequest gzip = request(null);
+        gzip.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        UpstreamRequest xml = request(null);
+        xml.getHeaders().set(HttpHeaders.ACCEPT, "application/xml");
+
+        // Răspunsul liderului ar putea fi gzip sau XML - nu îl primește cine nu l-a cerut
+        Future<BufferedResponse> plain = callers.submit(() -> coalescer.fetch(request(null)));
+        Future<BufferedResponse> compressed = callers.submit(() -> coalescer.fetch(gzip));
+        Future<BufferedResponse> other = callers.submit(() -> coalescer.fetch(xml));
+        awaitTrue(() -> upstreamCalls.get() == 3);
+        release.countDown();
+
+        plain.get(2, TimeUnit.SECONDS);
+        compressed.get(2, TimeUnit.SECONDS);
+        other.get(2, TimeUnit.SECONDS);
+        assertEquals(0L, stat("coalesced"));
+    }
+
+    @Test
+    void waiterGivesUpOnASlowLeaderAndFetchesItself() throws Exception {
+        properties.setMaxWait(Duration.ofMillis(50));
+        whenFetchedWaitForRelease();
+
+        Future<BufferedResponse> leader = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> upstreamCalls.get() == 1);
+        Future<BufferedResponse> waiter = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> stat("waitTimeouts") == 1);
+        release.countDown();
+
+        waiter.get(2, TimeUnit.SECONDS);
+        leader.get(2, TimeUnit.SECONDS);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void leaderFailureIsSharedWithTheWaiters() throws Exception {
+        when(hedgingProxy.fetch(any())).thenAnswer(invocation -> {
+            upstreamCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IOException("connection refused");
+        });
+
+        Future<BufferedResponse> leader = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> upstreamCalls.get() == 1);
+        Future<BufferedResponse> waiter = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> stat("coalesced") == 1);
+        release.countDown();
+
+        assertFailsWithIOException(leader);
+        assertFailsWithIOException(waiter);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void waitersRefetchWhenTheLeaderIsAborted() throws Exception {
+        BufferedResponse own = response("own");
+        when(hedgingProxy.fetch(any())).thenAnswer(invocation -> {
+            if (upstreamCalls.incrementAndGet() > 1) {
+                return own;
+            }
+            release.await(5, TimeUnit.SECONDS);
+            throw new IOException("aborted");
+        });
+        AbortHandle abort = new AbortHandle();
+
+        Future<BufferedResponse> leader = callers.submit(() -> {
+            try (AbortHandle.Scope ignored = abort.open()) {
+                return coalescer.fetch(request(null));
+            }
+        });
+        awaitTrue(() -> upstreamCalls.get() == 1);
+        Future<BufferedResponse> waiter = callers.submit(() -> coalescer.fetch(request(null)));
+        awaitTrue(() -> stat("coalesced") == 1);
+        // Request-ul liderului a renunțat (ex. fragment de pagină expirat) - eroarea lui nu e a celorlalți
+        abort.abort();
+        release.countDown();
+
+        assertFailsWithIOException(leader);
+        assertSame(own, waiter.get(2, TimeUnit.SECONDS));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void disabledCoalescingCallsThrough() throws Exception {
+        properties.setEnabled(false);
+        BufferedResponse response = response("direct");
+        when(hedgingProxy.fetch(any())).thenReturn(response);
+
+        assertSame(response, coalescer.fetch(request(null)));
+        assertEquals(0L, stat("upstreamCalls"));
+    }
+
+    private void whenFetchedWaitForRelease() throws IOException {
+        when(hedgingProxy.fetch(any())).thenAnswer(invocation -> {
+            upstreamCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return response("shared");
+        });
+    }
+
+    private long stat(String name) {
+        return ((Number) coalescer.getStats().get(name)).longValue();
+    }
+
+    private static UpstreamRequest request(String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return new UpstreamRequest("product-service", HttpMethod.GET, TARGET, headers, null);
+    }
+
+    private static BufferedResponse response(String body) {
+        return new BufferedResponse(200, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertFailsWithIOException(Future<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.footwear.apigateway.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCompressorTests {
+
+    private final CompressionProperties properties = new CompressionProperties();
+    private final ResponseCompressor compressor = new ResponseCompressor();
+
+    ResponseCompressorTests() {
+        ReflectionTestUtils.setField(compressor, "properties", properties);
+    }
+
+    @Test
+    void gzipIsNegotiatedFromAcceptEncoding() {
+        assertTrue(compressor.acceptsGzip(request("GET", "gzip, deflate, br")));
+        assertTrue(compressor.acceptsGzip(request("GET", "br;q=1.0, GZIP;q=0.5")));
+        assertTrue(compressor.acceptsGzip(request("GET", "*")));
+        assertFalse(compressor.acceptsGzip(request("GET", "gzip;q=0")));
+        assertFalse(compressor.acceptsGzip(request("GET", "gzip;q=0.0, identity")));
+        assertFalse(compressor.acceptsGzip(request("GET", "gzip;q=abc")));
+        assertFalse(compressor.acceptsGzip(request("GET", "br, deflate")));
+        assertFalse(compressor.acceptsGzip(request("GET", null)));
+        // HEAD nu are corp de comprimat
+        assertFalse(compressor.acceptsGzip(request("HEAD", "gzip")));
+    }
+
+    @Test
+    void disabledCompressionNegotiatesNothing() {
+        properties.setEnabled(false);
+
+        assertFalse(compressor.acceptsGzip(request("GET", "gzip")));
+        assertFalse(compressor.isCompressible(200, json(), 4096));
+    }
+
+    @Test
+    void onlyLargeEnoughTextualBodiesAreCompressible() {
+        assertTrue(compressor.isCompressible(200, json(), 4096));
+        // Lungime necunoscută (chunked) - nu știm că e mic, deci comprimăm
+        assertTrue(compressor.isCompressible(200, json(), -1));
+        assertFalse(compressor.isCompressible(200, json(), 100));
+
+        HttpHeaders image = new HttpHeaders();
+        image.set(HttpHeaders.CONTENT_TYPE, "image/png");
+        assertFalse(compressor.isCompressible(200, image, 4096));
+        assertFalse(compressor.isCompressible(200, new HttpHeaders(), 4096));
+
+        HttpHeaders encoded = json();
+        encoded.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        assertFalse(compressor.isCompressible(200, encoded, 4096));
+    }
+
+    @Test
+    void bodilessStatusesAreNotCompressible() {
+        assertFalse(compressor.isCompressible(204, json(), -1));
+        assertFalse(compressor.isCompressible(304, json(), -1));
+        assertFalse(compressor.isCompressible(101, json(), -1));
+        assertTrue(compressor.isCompressible(500, json(), 4096));
+    }
+
+    @Test
+    void prepareMarksTheResponseAsGzipEncoded() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        compressor.prepare(response);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals(1, compressor.getCompressedResponses());
+    }
+
+    @Test
+    void gzipRoundTrips() throws IOException {
+        byte[] body = "{\"name\":\"sneaker\"}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = compressor.gzip(body);
+
+        assertTrue(compressed.length < body.length);
+        assertArrayEquals(body, gunzip(compressed));
+    }
+
+    @Test
+    void streamingEncoderPushesDataOnFlush() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = compressor.streaming(out, 8192);
+        gzip.write("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+        int beforeFlush = out.size();
+
+        gzip.flush();
+
+        // Sync flush: octeții evenimentului ajung în ieșire înainte de finish()
+        assertTrue(out.size() > beforeFlush);
+        gzip.finish();
+        assertEquals("data: 1\n\n", new String(gunzip(out.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletRequest request(String method, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/products");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    private static HttpHeaders json() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+        return headers;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
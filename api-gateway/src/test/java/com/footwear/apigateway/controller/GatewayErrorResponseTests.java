@@ -0,0 +1,34 @@
+package com.footwear.apigateway.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Error responses written by the gateway itself, with no backend running.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class GatewayErrorResponseTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void errorResponsesKeepTheFilterHeaders() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/profile")
+                        .header("Origin", "http://localhost:3000"))
+                .andReturn();
+
+        assertTrue(result.getResponse().getStatus() >= 500);
+        assertEquals("application/json", result.getResponse().getContentType());
+        assertEquals("http://localhost:3000", result.getResponse().getHeader("Access-Control-Allow-Origin"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.footwear.apigateway.factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envelope serialization to the response stream: pooled {@link JsonWriter} versus the
+ * previous String.format + getBytes implementation. Run with -prof gc to compare allocations.
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.footwear.apigateway.factory.ResponseFactoryBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFactoryBenchmark {
+
+    @Param({"error", "success"})
+    private String envelope;
+
+    private String message;
+    private String data;
+    private OutputStream sink;
+    private long written;
+
+    @Setup
+    public void setUp() {
+        if ("error".equals(envelope)) {
+            message = "Service unavailable: Connect to localhost:8082 failed: Connection refused";
+            data = "GATEWAY_ERROR";
+        } else {
+            message = "Connection pool statistics";
+            data = "{\"user\":{\"mode\":\"http/1.1\",\"leased\":3,\"pending\":0,\"idle\":17,\"max\":50},"
+                    + "\"product\":{\"mode\":\"http/1.1\",\"leased\":12,\"pending\":1,\"idle\":38,\"max\":50}}";
+        }
+        // Ca ServletOutputStream: consumă byte-ii fără să-i copieze
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len + b[off];
+            }
+        };
+    }
+
+    @Benchmark
+    public int jsonWriter() throws IOException {
+        try (JsonWriter json = JsonWriter.acquire()) {
+            if ("error".equals(envelope)) {
+                json.beginObject()
+                        .field("status", "error")
+                        .field("message", message)
+                        .field("error_code", data)
+                        .endObject();
+            } else {
+                json.beginObject()
+                        .field("status", "success")
+                        .field("message", message)
+                        .rawField("data", data)
+                        .endObject();
+            }
+            json.writeTo(sink);
+            return json.size();
+        }
+    }
+
+    @Benchmark
+    public int legacyFormat() throws IOException {
+        String body;
+        if ("error".equals(envelope)) {
+            body = String.format("{\"status\":\"error\",\"message\":\"%s\",\"error_code\":\"%s\"}", message, data);
+        } else {
+            body = String.format("{\"status\":\"success\",\"message\":\"%s\",\"data\":%s}", message, data);
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        sink.write(bytes, 0, bytes.length);
+        return bytes.length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseFactoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,226 @@
+package com.footwear.apigateway.hedge;
+
+import com.footwear.apigateway.client.BackendClientRegistry;
+import com.footwear.apigateway.compression.ResponseCompressor;
+import com.footwear.apigateway.config.BackendPoolProperties;
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import com.footwear.apigateway.loadbalancer.ServiceInstance;
+import com.footwear.apigateway.metrics.GatewayMetrics;
+import com.footwear.apigateway.proxy.BufferedResponse;
+import com.footwear.apigateway.proxy.ProxyEngine;
+import com.footwear.apigateway.proxy.UpstreamRequest;
+import com.footwear.apigateway.resilience.BackendGuard;
+import com.footwear.apigateway.resilience.ResilienceProperties;
+import com.footwear.common.deadline.Deadline;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hedging against two local backends: one that stalls and one that answers at once.
+ */
+class HedgingProxyTests {
+
+    private static final String SERVICE = "product-service";
+    private static final URI TARGET = URI.create("/api/products/public/1");
+
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    // Header-ul X-Deadline-Ms primit de fiecare backend
+    private final Map<String, String> deadlines = new ConcurrentHashMap<>();
+    private HttpServer slowServer;
+    private HttpServer fastServer;
+
+    private BackendClientRegistry clientRegistry;
+    private BackendGuard backendGuard;
+    private HedgingProxy hedgingProxy;
+    private ServiceInstance slow;
+    private ServiceInstance fast;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        slowServer = server("slow", () -> {
+            stalled.await(10, TimeUnit.SECONDS);
+            return "slow";
+        });
+        fastServer = server("fast", () -> "fast");
+        slow = instance(slowServer);
+        fast = instance(fastServer);
+
+        LoadBalancer loadBalancer = mock(LoadBalancer.class);
+        when(loadBalancer.getInstances(SERVICE)).thenReturn(List.of(slow, fast));
+        when(loadBalancer.choose(SERVICE)).thenReturn(slow);
+        when(loadBalancer.chooseOther(SERVICE, slow)).thenReturn(fast);
+
+        clientRegistry = new BackendClientRegistry();
+        ReflectionTestUtils.setField(clientRegistry, "poolProperties", new BackendPoolProperties());
+        backendGuard = new BackendGuard();
+        ReflectionTestUtils.setField(backendGuard, "properties", new ResilienceProperties());
+        GatewayMetrics metrics = new GatewayMetrics();
+        ReflectionTestUtils.setField(metrics, "backendGuard", backendGuard);
+
+        ProxyEngine proxyEngine = new ProxyEngine();
+        ReflectionTestUtils.setField(proxyEngine, "clientRegistry", clientRegistry);
+        ReflectionTestUtils.setField(proxyEngine, "backendGuard", backendGuard);
+        ReflectionTestUtils.setField(proxyEngine, "metrics", metrics);
+        ReflectionTestUtils.setField(proxyEngine, "compressor", mock(ResponseCompressor.class));
+        ReflectionTestUtils.setField(proxyEngine, "loadBalancer", loadBalancer);
+
+        HedgingProperties properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setRoutes(List.of("/api/products/public/**"));
+        properties.setMinSamples(1);
+        properties.setMinDelay(Duration.ofMillis(50));
+        hedgingProxy = new HedgingProxy();
+        ReflectionTestUtils.setField(hedgingProxy, "properties", properties);
+        ReflectionTestUtils.setField(hedgingProxy, "proxyEngine", proxyEngine);
+        ReflectionTestUtils.setField(hedgingProxy, "loadBalancer", loadBalancer);
+        hedgingProxy.init();
+
+        // Latența recentă e deja cunoscută, deci hedge-ul pleacă după minDelay
+        RecentLatency latency = new RecentLatency(properties);
+        latency.record(TimeUnit.MILLISECONDS.toNanos(1));
+        latencies().put(SERVICE, latency);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stalled.countDown();
+        hedgingProxy.shutdown();
+        clientRegistry.destroy();
+        slowServer.stop(0);
+        fastServer.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void hedgeAnswersWhenTheFirstInstanceStalls() throws Exception {
+        long start = System.nanoTime();
+        BufferedResponse response = hedgingProxy.fetch(request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("fast", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1L, hedgingProxy.getStats().get("hedgeWins"));
+    }
+
+    @Test
+    void losingAttemptReleasesItsConnectionAndPermit() throws Exception {
+        hedgingProxy.fetch(request());
+
+        // Apelul blocat a fost anulat: conexiunea lui nu mai e în pool, iar bulkhead-ul e liber
+        awaitTrue(() -> leasedConnections() == 0 && activeCalls() == 0);
+        assertEquals(0, guardStats().get("failures"));
+        assertEquals(1, stalled.getCount());
+    }
+
+    @Test
+    void bothAttemptsCarryTheRequestDeadline() throws Exception {
+        try (Deadline.Scope ignored = Deadline.enter(3000)) {
+            hedgingProxy.fetch(request());
+        }
+
+        awaitTrue(() -> deadlines.containsKey("slow") && deadlines.containsKey("fast"));
+        assertTrue(Long.parseLong(deadlines.get("slow")) <= 3000);
+        assertTrue(Long.parseLong(deadlines.get("fast")) <= 3000);
+    }
+
+    @Test
+    void firstAttemptStopsWaitingAtTheDeadline() throws Exception {
+        long start = System.nanoTime();
+        try (Deadline.Scope ignored = Deadline.enter(20)) {
+            // Timeout-ul de răspuns e limitat de deadline, deci primul apel eșuează înainte de hedge
+            assertThrows(IOException.class, () -> hedgingProxy.fetch(request()));
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0L, hedgingProxy.getStats().get("hedged"));
+        awaitTrue(() -> activeCalls() == 0);
+    }
+
+    private UpstreamRequest request() {
+        return new UpstreamRequest(SERVICE, HttpMethod.GET, TARGET, new HttpHeaders(), null);
+    }
+
+    private int leasedConnections() {
+        return (Integer) clientRegistry.getPoolStats().get(SERVICE).get("leased");
+    }
+
+    private int activeCalls() {
+        return (Integer) guardStats().get("activeCalls");
+    }
+
+    private Map<String, Object> guardStats() {
+        return backendGuard.getStats().get(SERVICE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, RecentLatency> latencies() {
+        return (Map<String, RecentLatency>) ReflectionTestUtils.getField(hedgingProxy, "latencies");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Body {
+        String get() throws Exception;
+    }
+
+    private HttpServer server(String name, Body body) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            String deadline = exchange.getRequestHeaders().getFirst(Deadline.HEADER);
+            if (deadline != null) {
+                deadlines.put(name, deadline);
+            }
+            try (OutputStream out = exchange.getResponseBody()) {
+                byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                out.write(bytes);
+            } catch (Exception e) {
+                // Clientul a închis conexiunea
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static ServiceInstance instance(HttpServer server) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        ServiceInstance instance = mock(ServiceInstance.class);
+        when(instance.resolve(any())).thenAnswer(invocation -> URI.create(baseUrl + invocation.getArgument(0)));
+        return instance;
+    }
+}
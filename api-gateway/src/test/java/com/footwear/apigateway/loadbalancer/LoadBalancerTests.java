@@ -0,0 +1,198 @@
+package com.footwear.apigateway.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadBalancerTests {
+
+    private static final String SERVICE = "product-service";
+
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private LoadBalancer loadBalancer;
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (loadBalancer != null) {
+            loadBalancer.shutdown();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void powerOfTwoChoicesNeverPicksTheBusiestInstance() {
+        List<ServiceInstance> instances = balance("http://a", "http://b", "http://c");
+        ServiceInstance busy = instances.get(0);
+        for (int i = 0; i < 10; i++) {
+            busy.begin();
+        }
+
+        // Două instanțe distincte la fiecare alegere - cea ocupată pierde mereu comparația
+        Set<ServiceInstance> chosen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ServiceInstance instance = loadBalancer.choose(SERVICE);
+            assertNotSame(busy, instance);
+            chosen.add(instance);
+        }
+        assertEquals(2, chosen.size());
+    }
+
+    @Test
+    void leastOutstandingPicksTheIdlestInstance() {
+        properties.setStrategy(LoadBalancerProperties.Strategy.LEAST_OUTSTANDING);
+        List<ServiceInstance> instances = balance("http://a", "http://b", "http://c");
+        instances.get(0).begin();
+        instances.get(0).begin();
+        instances.get(2).begin();
+
+        assertSame(instances.get(1), loadBalancer.choose(SERVICE));
+    }
+
+    @Test
+    void ejectedInstancesAreSkippedUntilEveryInstanceIsDown() {
+        List<ServiceInstance> instances = balance("http://a", "http://b");
+        eject(instances.get(0));
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(instances.get(1), loadBalancer.choose(SERVICE));
+        }
+
+        // Panic mode: fără nicio instanță sănătoasă, sănătatea este ignorată
+        eject(instances.get(1));
+        Set<ServiceInstance> chosen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            chosen.add(loadBalancer.choose(SERVICE));
+        }
+        assertEquals(2, chosen.size());
+    }
+
+    @Test
+    void chooseOtherNeverReturnsTheExcludedInstance() {
+        List<ServiceInstance> instances = balance("http://a", "http://b");
+        for (int i = 0; i < 100; i++) {
+            assertSame(instances.get(1), loadBalancer.chooseOther(SERVICE, instances.get(0)));
+        }
+
+        eject(instances.get(1));
+        assertNull(loadBalancer.chooseOther(SERVICE, instances.get(0)));
+    }
+
+    @Test
+    void singleAndUnknownServices() {
+        List<ServiceInstance> instances = balance("http://a/");
+
+        assertEquals("http://a", instances.get(0).getBaseUrl());
+        assertSame(instances.get(0), loadBalancer.choose(SERVICE));
+        assertNull(loadBalancer.chooseOther(SERVICE, instances.get(0)));
+        assertThrows(IllegalStateException.class, () -> loadBalancer.choose("unknown"));
+    }
+
+    @Test
+    void readmittedInstancesRampUpOverTheSlowStart() {
+        ServiceInstance instance = new ServiceInstance(SERVICE, "http://a");
+        instance.recordCheck(false, "HTTP 503", 1, 2, 0);
+        instance.recordCheck(true, "HTTP 200", 1, 2, 1_000);
+        assertFalse(instance.isHealthy());
+        instance.recordCheck(true, "HTTP 200", 1, 2, 2_000);
+        assertTrue(instance.isHealthy());
+
+        assertEquals(0.1, instance.weight(2_000, 10_000), 1e-9);
+        assertEquals(0.5, instance.weight(7_000, 10_000), 1e-9);
+        assertEquals(1.0, instance.weight(12_000, 10_000), 1e-9);
+        assertEquals("HEALTHY", instance.describe(12_000, 10_000).get("state"));
+    }
+
+    @Test
+    void warmingUpInstancesGetLessTraffic() {
+        properties.setStrategy(LoadBalancerProperties.Strategy.LEAST_OUTSTANDING);
+        properties.setSlowStart(Duration.ofMinutes(10));
+        List<ServiceInstance> instances = balance("http://a", "http://b");
+        ServiceInstance readmitted = instances.get(0);
+        eject(readmitted);
+        readmit(readmitted);
+        instances.get(1).begin();
+
+        // Ponderea de 10% face ca o instanță liberă, abia readmisă, să pară mai încărcată
+        assertSame(instances.get(1), loadBalancer.choose(SERVICE));
+        assertEquals("WARMING_UP", describe(readmitted).get("state"));
+    }
+
+    @Test
+    void healthChecksEjectAndReadmitInstances() throws Exception {
+        AtomicInteger status = new AtomicInteger(200);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/health", exchange -> {
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        properties.setHealthCheckInterval(Duration.ofMillis(20));
+        properties.setHealthPaths(Map.of(SERVICE, "/health"));
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        ServiceInstance instance = balance(url, "http://127.0.0.1:1").get(0);
+
+        awaitTrue(() -> "HTTP 200".equals(describe(instance).get("lastCheck")));
+        assertTrue(instance.isHealthy());
+
+        status.set(503);
+        awaitTrue(() -> !instance.isHealthy());
+        assertEquals("EJECTED", describe(instance).get("state"));
+
+        status.set(200);
+        awaitTrue(instance::isHealthy);
+        assertEquals("WARMING_UP", describe(instance).get("state"));
+    }
+
+    private List<ServiceInstance> balance(String... urls) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.services." + SERVICE, String.join(",", urls));
+        loadBalancer = new LoadBalancer();
+        ReflectionTestUtils.setField(loadBalancer, "properties", properties);
+        ReflectionTestUtils.setField(loadBalancer, "environment", environment);
+        loadBalancer.init();
+        return loadBalancer.getInstances(SERVICE);
+    }
+
+    private Map<String, Object> describe(ServiceInstance instance) {
+        return instance.describe(System.currentTimeMillis(), properties.getSlowStart().toMillis());
+    }
+
+    private static void eject(ServiceInstance instance) {
+        instance.recordCheck(false, "HTTP 503", 1, 1, System.currentTimeMillis());
+    }
+
+    private static void readmit(ServiceInstance instance) {
+        instance.recordCheck(true, "HTTP 200", 1, 1, System.currentTimeMillis());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
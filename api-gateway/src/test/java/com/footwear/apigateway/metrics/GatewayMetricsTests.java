@@ -0,0 +1,71 @@
+package com.footwear.apigateway.metrics;
+
+import com.footwear.apigateway.resilience.BackendGuard;
+import com.footwear.apigateway.resilience.ResilienceProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayMetricsTests {
+
+    private final GatewayMetrics metrics = new GatewayMetrics();
+
+    GatewayMetricsTests() {
+        BackendGuard backendGuard = new BackendGuard();
+        ReflectionTestUtils.setField(backendGuard, "properties", new ResilienceProperties());
+        ReflectionTestUtils.setField(metrics, "backendGuard", backendGuard);
+    }
+
+    @Test
+    void routeMetricsAreRenderedAsPrometheusText() {
+        RouteMetrics route = metrics.route("catalog");
+        route.started();
+        route.finished(200, TimeUnit.MILLISECONDS.toNanos(2), 0, 512);
+        route.started();
+        route.finished(503, TimeUnit.MILLISECONDS.toNanos(2), 10, 64);
+
+        String text = metrics.scrape();
+
+        assertTrue(text.contains("# TYPE gateway_request_duration_seconds summary\n"));
+        assertTrue(text.contains("gateway_request_duration_seconds{route=\"catalog\",quantile=\"0.99\"} 0.002\n"));
+        assertTrue(text.contains("gateway_request_duration_seconds_sum{route=\"catalog\"} 0.004\n"));
+        assertTrue(text.contains("gateway_request_duration_seconds_count{route=\"catalog\"} 2\n"));
+        assertTrue(text.contains("gateway_requests_total{route=\"catalog\",status=\"200\"} 1\n"));
+        assertTrue(text.contains("gateway_requests_total{route=\"catalog\",status=\"503\"} 1\n"));
+        assertTrue(text.contains("gateway_requests_in_flight{route=\"catalog\"} 0\n"));
+        assertTrue(text.contains("gateway_request_bytes_total{route=\"catalog\"} 10\n"));
+        assertTrue(text.contains("gateway_response_bytes_total{route=\"catalog\"} 576\n"));
+        // Doar codurile întâlnite apar
+        assertFalse(text.contains("status=\"404\""));
+    }
+
+    @Test
+    void backendMetricsAreRenderedPerService() {
+        BackendMetrics backend = metrics.backend("product-service");
+        backend.started();
+        backend.headersReceived(200, TimeUnit.MILLISECONDS.toNanos(1));
+        backend.finished(TimeUnit.MILLISECONDS.toNanos(3), 0, 2048, false);
+
+        String text = metrics.scrape();
+
+        assertTrue(text.contains("gateway_upstream_responses_total{backend=\"product-service\",status=\"200\"} 1\n"));
+        assertTrue(text.contains("gateway_upstream_duration_seconds_count{backend=\"product-service\"} 1\n"));
+        assertTrue(text.contains("gateway_upstream_received_bytes_total{backend=\"product-service\"} 2048\n"));
+        assertTrue(text.contains("gateway_upstream_errors_total{backend=\"product-service\"} 0\n"));
+    }
+
+    @Test
+    void everyLineIsACommentOrASample() {
+        metrics.route("catalog").finished(200, 1_000, 0, 0);
+        metrics.backend("product-service").finished(1_000, 0, 0, true);
+
+        for (String line : metrics.scrape().split("\n")) {
+            assertTrue(line.startsWith("# HELP ") || line.startsWith("# TYPE ")
+                    || line.matches("[a-z_]+\\{[a-z]+=\"[^\"]+\"(,[a-z]+=\"[^\"]+\")?} -?[0-9.]+(E-?[0-9]+)?"), line);
+        }
+    }
+}
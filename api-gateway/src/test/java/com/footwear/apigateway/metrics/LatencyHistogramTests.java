@@ -0,0 +1,81 @@
+package com.footwear.apigateway.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperBoundOf((int) value));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndCoverEveryValue() {
+        // Limitele consecutive nu lasă goluri: bucket-ul i+1 începe imediat după limita lui i
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT - 1; index++) {
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertEquals(index, LatencyHistogram.indexOf(upper));
+            assertEquals(index + 1, LatencyHistogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    void bucketWidthStaysWithinThreePercent() {
+        for (int index = 64; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            long lower = LatencyHistogram.upperBoundOf(index - 1) + 1;
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertTrue((double) (upper - lower) / lower <= 1.0 / 32, "bucket " + index);
+        }
+    }
+
+    @Test
+    void largestValueFitsTheLastBucket() {
+        long largest = LatencyHistogram.upperBoundOf(LatencyHistogram.BUCKET_COUNT - 1);
+
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(largest));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertEquals(largest, histogram.getMaxMicros());
+        assertEquals(2, histogram.getCount());
+        assertEquals(largest, histogram.getSumMicros());
+    }
+
+    @Test
+    void quantilesReportTheBucketBoundCappedByTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        long median = histogram.valueAtQuantile(0.5);
+        assertTrue(median >= 50_000 && median <= 50_000 * 33 / 32, "p50 " + median);
+        long p99 = histogram.valueAtQuantile(0.99);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000, "p99 " + p99);
+        assertEquals(100_000, histogram.valueAtQuantile(1.0));
+        assertEquals(5_050_000, histogram.getSumMicros());
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.valueAtQuantile(0.99));
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void nanosAreRecordedAsMicros() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1_500_000);
+
+        assertEquals(1_500, histogram.getSumMicros());
+    }
+}
@@ -0,0 +1,219 @@
+package com.footwear.apigateway.priority;
+
+import com.footwear.apigateway.security.EdgeIdentity;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriorityLanesTests {
+
+    private final EdgeJwtVerifier edgeJwtVerifier = mock(EdgeJwtVerifier.class);
+
+    PriorityLanesTests() {
+        // Memorarea pe request e reală, doar verificarea token-ului e simulată
+        when(edgeJwtVerifier.verify(any(HttpServletRequest.class))).thenCallRealMethod();
+    }
+
+    @Test
+    void salesLaneNeedsAStaffToken() {
+        when(edgeJwtVerifier.verify("Bearer employee")).thenReturn(identity("EMPLOYEE"));
+        when(edgeJwtVerifier.verify("Bearer client")).thenReturn(identity("CLIENT"));
+        PriorityLanes lanes = lanes(10, Duration.ofMillis(100),
+                lane("sales", 40, 100, List.of("/api/inventory/sale", "/api/inventory/holds/*/commit"),
+                        List.of("POST"), List.of("EMPLOYEE", "MANAGER", "ADMIN")),
+                lane("staff", 25, 80, List.of(), List.of(), List.of("EMPLOYEE", "MANAGER", "ADMIN")),
+                lane("orders", 10, 30, List.of("/api/inventory/holds/*/commit"), List.of("POST"), List.of("CLIENT")),
+                lane("public", 10, 50, List.of(), List.of(), List.of()));
+
+        assertEquals("sales", lanes.classify(request("POST", "/api/inventory/sale", "employee")).getName());
+        assertEquals("sales", lanes.classify(request("POST", "/api/inventory/holds/h1/commit", "employee")).getName());
+        assertEquals("staff", lanes.classify(request("GET", "/api/inventory/store/1", "employee")).getName());
+        assertEquals("orders", lanes.classify(request("POST", "/api/inventory/holds/h1/commit", "client")).getName());
+
+        // Fără token verificat, căile de vânzare nu dau prioritate
+        assertEquals("public", lanes.classify(request("POST", "/api/inventory/sale", null)).getName());
+        assertEquals("public", lanes.classify(request("POST", "/api/inventory/holds/h1/commit", "forged")).getName());
+        assertEquals("public", lanes.classify(request("POST", "/api/inventory/sale", "client")).getName());
+    }
+
+    @Test
+    void lowerLanesCannotUseTheReservedShareOfHigherLanes() {
+        PriorityLanes lanes = lanes(10, Duration.ofMillis(100),
+                lane("high", 40, 100, List.of("/api/high/**"), List.of(), List.of()),
+                lane("low", 0, 100, List.of(), List.of(), List.of()));
+        PriorityLanes.Lane high = lanes.classify(request("GET", "/api/high/x", null));
+        PriorityLanes.Lane low = lanes.classify(request("GET", "/api/low", null));
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(lanes.acquire(low));
+        }
+        // Cele 4 sloturi rămase sunt rezervate benzii high
+        assertFalse(lanes.acquire(low));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(lanes.acquire(high));
+        }
+        assertFalse(lanes.acquire(high));
+        assertEquals(10, lanes.getStats().get("inFlight"));
+        assertEquals(1L, laneStats(lanes, "low").get("shed"));
+    }
+
+    @Test
+    void higherLanesMayBorrowFreeSlotsUpToTheirLimit() {
+        PriorityLanes lanes = lanes(10, Duration.ofMillis(100),
+                lane("high", 20, 50, List.of("/api/high/**"), List.of(), List.of()),
+                lane("low", 20, 100, List.of(), List.of(), List.of()));
+        PriorityLanes.Lane high = lanes.classify(request("GET", "/api/high/x", null));
+        PriorityLanes.Lane low = lanes.classify(request("GET", "/api/low", null));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(lanes.acquire(high));
+        }
+        assertFalse(lanes.acquire(high));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(lanes.acquire(low));
+        }
+        assertFalse(lanes.acquire(low));
+    }
+
+    @Test
+    void releasedSlotGoesToTheHighestWaitingLane() throws Exception {
+        PriorityLanes lanes = lanes(2, Duration.ofSeconds(10),
+                lane("high", 0, 100, List.of("/api/high/**"), List.of(), List.of(), Duration.ofSeconds(5)),
+                lane("low", 0, 100, List.of(), List.of(), List.of(), Duration.ofSeconds(5)));
+        PriorityLanes.Lane high = lanes.classify(request("GET", "/api/high/x", null));
+        PriorityLanes.Lane low = lanes.classify(request("GET", "/api/low", null));
+        assertTrue(lanes.acquire(low));
+        assertTrue(lanes.acquire(low));
+
+        CompletableFuture<Boolean> lowWaiter = CompletableFuture.supplyAsync(() -> lanes.acquire(low));
+        awaitTrue(() -> (int) laneStats(lanes, "low").get("waiting") == 1);
+        CompletableFuture<Boolean> highWaiter = CompletableFuture.supplyAsync(() -> lanes.acquire(high));
+        awaitTrue(() -> (int) laneStats(lanes, "high").get("waiting") == 1);
+
+        lanes.release(low);
+        assertTrue(highWaiter.get(5, TimeUnit.SECONDS));
+        assertFalse(lowWaiter.isDone());
+
+        lanes.release(low);
+        assertTrue(lowWaiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void laneOverTargetDelayShedsNewArrivalsWithoutQueueing() throws Exception {
+        PriorityLanes lanes = lanes(1, Duration.ofMillis(50),
+                lane("only", 0, 100, List.of(), List.of(), List.of(), Duration.ofMillis(100), Duration.ofMillis(10)));
+        PriorityLanes.Lane lane = lanes.classify(request("GET", "/api/x", null));
+        assertTrue(lanes.acquire(lane));
+
+        // Așteaptă 100 ms, peste ținta de 10 ms, apoi e respins
+        assertFalse(lanes.acquire(lane));
+        Thread.sleep(60);
+
+        long start = System.nanoTime();
+        assertFalse(lanes.acquire(lane));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50), "overloaded lane still queued");
+        assertEquals(true, laneStats(lanes, "only").get("overloaded"));
+        assertEquals(1L, laneStats(lanes, "only").get("queued"));
+
+        // Un slot liber se dă imediat chiar și în suprasarcină, iar intervalul fără coadă o încheie
+        lanes.release(lane);
+        assertTrue(lanes.acquire(lane));
+        lanes.release(lane);
+        Thread.sleep(60);
+        assertEquals(false, laneStats(lanes, "only").get("overloaded"));
+    }
+
+    @Test
+    void fullQueueShedsImmediately() {
+        PriorityProperties.Lane settings = lane("only", 0, 100, List.of(), List.of(), List.of());
+        settings.setMaxQueued(0);
+        PriorityLanes lanes = lanes(1, Duration.ofMillis(100), settings);
+        PriorityLanes.Lane lane = lanes.classify(request("GET", "/api/x", null));
+
+        assertTrue(lanes.acquire(lane));
+        long start = System.nanoTime();
+        assertFalse(lanes.acquire(lane));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0L, laneStats(lanes, "only").get("queued"));
+    }
+
+    private PriorityLanes lanes(int maxConcurrent, Duration interval, PriorityProperties.Lane... lanes) {
+        PriorityProperties properties = new PriorityProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setInterval(interval);
+        properties.setLanes(new ArrayList<>(List.of(lanes)));
+
+        PriorityLanes priorityLanes = new PriorityLanes();
+        ReflectionTestUtils.setField(priorityLanes, "properties", properties);
+        ReflectionTestUtils.setField(priorityLanes, "edgeJwtVerifier", edgeJwtVerifier);
+        priorityLanes.init();
+        return priorityLanes;
+    }
+
+    private static PriorityProperties.Lane lane(String name, int share, int limit, List<String> paths,
+                                                List<String> methods, List<String> roles) {
+        return lane(name, share, limit, paths, methods, roles, Duration.ofMillis(20));
+    }
+
+    private static PriorityProperties.Lane lane(String name, int share, int limit, List<String> paths,
+                                                List<String> methods, List<String> roles, Duration maxWait) {
+        return lane(name, share, limit, paths, methods, roles, maxWait, Duration.ofSeconds(1));
+    }
+
+    private static PriorityProperties.Lane lane(String name, int share, int limit, List<String> paths,
+                                                List<String> methods, List<String> roles, Duration maxWait,
+                                                Duration targetDelay) {
+        PriorityProperties.Lane lane = new PriorityProperties.Lane();
+        lane.setName(name);
+        lane.setShare(share);
+        lane.setLimit(limit);
+        lane.setPaths(paths);
+        lane.setMethods(methods);
+        lane.setRoles(roles);
+        lane.setMaxWait(maxWait);
+        lane.setTargetDelay(targetDelay);
+        return lane;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static EdgeIdentity identity(String role) {
+        return new EdgeIdentity(1L, role, null, Long.MAX_VALUE, "hash");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> laneStats(PriorityLanes lanes, String name) {
+        return ((Map<String, Map<String, Object>>) lanes.getStats().get("lanes")).get(name);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.footwear.apigateway.proxy;
+
+import com.footwear.apigateway.client.BackendClientRegistry;
+import com.footwear.apigateway.compression.ResponseCompressor;
+import com.footwear.apigateway.config.BackendPoolProperties;
+import com.footwear.apigateway.loadbalancer.LoadBalancer;
+import com.footwear.apigateway.loadbalancer.ServiceInstance;
+import com.footwear.apigateway.metrics.GatewayMetrics;
+import com.footwear.apigateway.resilience.BackendGuard;
+import com.footwear.apigateway.resilience.ResilienceProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Streaming a chunked upstream response through the proxy, against a local backend.
+ */
+class ProxyEngineTests {
+
+    private static final String SERVICE = "product-service";
+    private static final int EVENTS = 5;
+
+    private HttpServer server;
+    private BackendClientRegistry clientRegistry;
+    private ProxyEngine proxyEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/json", exchange -> chunked(exchange, "application/json"));
+        server.createContext("/events", exchange -> chunked(exchange, "text/event-stream"));
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        ServiceInstance instance = mock(ServiceInstance.class);
+        when(instance.resolve(any())).thenAnswer(invocation -> URI.create(baseUrl + invocation.getArgument(0)));
+        LoadBalancer loadBalancer = mock(LoadBalancer.class);
+        when(loadBalancer.choose(SERVICE)).thenReturn(instance);
+
+        clientRegistry = new BackendClientRegistry();
+        ReflectionTestUtils.setField(clientRegistry, "poolProperties", new BackendPoolProperties());
+        BackendGuard backendGuard = new BackendGuard();
+        ReflectionTestUtils.setField(backendGuard, "properties", new ResilienceProperties());
+        GatewayMetrics metrics = new GatewayMetrics();
+        ReflectionTestUtils.setField(metrics, "backendGuard", backendGuard);
+
+        proxyEngine = new ProxyEngine();
+        ReflectionTestUtils.setField(proxyEngine, "clientRegistry", clientRegistry);
+        ReflectionTestUtils.setField(proxyEngine, "backendGuard", backendGuard);
+        ReflectionTestUtils.setField(proxyEngine, "metrics", metrics);
+        ReflectionTestUtils.setField(proxyEngine, "compressor", mock(ResponseCompressor.class));
+        ReflectionTestUtils.setField(proxyEngine, "loadBalancer", loadBalancer);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clientRegistry.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void regularBodiesAreFlushedOnceAtTheEnd() throws Exception {
+        FlushCountingResponse response = forward("/json");
+
+        assertEquals(200, response.getStatus());
+        assertEquals(body(), response.getContentAsString());
+        assertEquals(1, response.flushes);
+    }
+
+    @Test
+    void eventStreamsAreFlushedAsEventsArrive() throws Exception {
+        FlushCountingResponse response = forward("/events");
+
+        assertEquals(body(), response.getContentAsString());
+        assertTrue(response.flushes > 1);
+    }
+
+    private FlushCountingResponse forward(String path) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        FlushCountingResponse response = new FlushCountingResponse();
+        proxyEngine.forward(SERVICE, URI.create(path), request, response);
+        return response;
+    }
+
+    // Câte un fragment mic pe rând, cu o pauză între ele - ca un backend care produce pe măsură ce calculează
+    private static void chunked(HttpExchange exchange, String contentType) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < EVENTS; i++) {
+                out.write(event(i).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(20);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String event(int i) {
+        return "data: " + i + "\n\n";
+    }
+
+    private static String body() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < EVENTS; i++) {
+            body.append(event(i));
+        }
+        return body.toString();
+    }
+
+    private static class FlushCountingResponse extends MockHttpServletResponse {
+
+        private int flushes;
+        private ServletOutputStream counting;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (counting == null) {
+                ServletOutputStream target = super.getOutputStream();
+                counting = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        flushes++;
+                        target.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+                };
+            }
+            return counting;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.footwear.apigateway.ratelimit;
+
+import com.footwear.apigateway.security.EdgeIdentity;
+import com.footwear.apigateway.security.EdgeJwtVerifier;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTests {
+
+    private static final String API_KEY = "pos-secret";
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final EdgeJwtVerifier edgeJwtVerifier = mock(EdgeJwtVerifier.class);
+
+    RateLimiterTests() {
+        // Memorarea pe request e reală, doar verificarea token-ului e simulată
+        when(edgeJwtVerifier.verify(any(HttpServletRequest.class))).thenCallRealMethod();
+    }
+
+    @Test
+    void unknownClientHeadersAreLeftToTheOtherRules() {
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.CLIENT, 1);
+
+        // Un id inventat la fiecare request nu primește bucket nou
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", "made-up-1", null)));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", "made-up-2", null)));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null, null)));
+        assertEquals(0, limiter.getStats().get("trackedKeys"));
+    }
+
+    @Test
+    void registeredApiKeysShareOneBucketAcrossAddresses() {
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.CLIENT, 2);
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", API_KEY, null)));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.2", API_KEY, null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.3", API_KEY, null)) > 0);
+
+        // Aceeași adresă fără cheie nu intră sub regula CLIENT
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null, null)));
+    }
+
+    @Test
+    void jwtCallersWithoutAnApiKeyAreCountedOnce() {
+        when(edgeJwtVerifier.verify("Bearer token"))
+                .thenReturn(new EdgeIdentity(7L, "CLIENT", null, Long.MAX_VALUE, "hash"));
+        RateLimiter limiter = limiter(List.of(
+                rule("per-client", RateLimitProperties.KeyType.CLIENT, 1),
+                rule("per-user", RateLimitProperties.KeyType.USER, 2)));
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", "made-up", "Bearer token")));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.2", null, "Bearer token")));
+        assertTrue(limiter.tryAcquire(request("10.0.0.1", null, "Bearer token")) > 0);
+        // Doar bucket-ul regulii USER
+        assertEquals(1, limiter.getStats().get("trackedKeys"));
+    }
+
+    @Test
+    void userRulesFallBackToTheIpAddress() {
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.USER, 1);
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null, null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.1", null, "Bearer not.verified")) > 0);
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.2", null, null)));
+    }
+
+    @Test
+    void userRulesIgnoreTheClientHeader() {
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.USER, 1);
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", API_KEY, null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.1", API_KEY, null)) > 0);
+    }
+
+    @Test
+    void routeRulesShareOneBucket() {
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.ROUTE, 1);
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null, null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.2", null, null)) > 0);
+        assertEquals(1L, limiter.getStats().get("allowed"));
+        assertEquals(1L, limiter.getStats().get("rejected"));
+    }
+
+    @Test
+    void fullKeyTableSendsNewKeysToTheOverflowBucket() {
+        properties.setMaxKeys(1);
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.IP, 1);
+
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null, null)));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.2", null, null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.3", null, null)) > 0);
+        assertEquals(1, limiter.getStats().get("trackedKeys"));
+        assertEquals(2L, limiter.getStats().get("overflowed"));
+    }
+
+    @Test
+    void blankApiKeysAreNotRegistered() {
+        properties.setClients(Map.of("pos", API_KEY, "unset", ""));
+        RateLimiter limiter = limiter(RateLimitProperties.KeyType.CLIENT, 1);
+
+        assertEquals(1, limiter.getStats().get("clients"));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", "", null)));
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", "", null)));
+        assertEquals(0, limiter.getStats().get("trackedKeys"));
+    }
+
+    private RateLimiter limiter(RateLimitProperties.KeyType key, int capacity) {
+        return limiter(List.of(rule("test", key, capacity)));
+    }
+
+    private RateLimiter limiter(List<RateLimitProperties.Rule> rules) {
+        properties.setRules(rules);
+        if (properties.getClients().isEmpty()) {
+            properties.setClients(Map.of("pos", API_KEY));
+        }
+
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "properties", properties);
+        ReflectionTestUtils.setField(limiter, "edgeJwtVerifier", edgeJwtVerifier);
+        limiter.init();
+        return limiter;
+    }
+
+    private static RateLimitProperties.Rule rule(String name, RateLimitProperties.KeyType key, int capacity) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setPath("/api/**");
+        rule.setKey(key);
+        rule.setCapacity(capacity);
+        // Practic fără reumplere pe durata testului
+        rule.setRefillPerSecond(0.001);
+        return rule;
+    }
+
+    private MockHttpServletRequest request(String remoteAddr, String apiKey, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader(properties.getClientHeader(), apiKey);
+        }
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+}
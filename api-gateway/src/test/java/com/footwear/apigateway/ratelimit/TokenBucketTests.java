@@ -0,0 +1,70 @@
+package com.footwear.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+    private static final long INTERVAL = 100;
+    private static final long BURST = 3 * INTERVAL;
+
+    @Test
+    void newBucketAllowsAFullBurst() {
+        TokenBucket bucket = new TokenBucket(1_000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(1_000, INTERVAL, BURST));
+        }
+        // Al patrulea token vine abia după un interval
+        assertEquals(INTERVAL, bucket.tryAcquire(1_000, INTERVAL, BURST));
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1_000);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(1_000, INTERVAL, BURST);
+        }
+
+        assertEquals(40, bucket.tryAcquire(1_060, INTERVAL, BURST));
+        assertEquals(0, bucket.tryAcquire(1_100, INTERVAL, BURST));
+        assertEquals(INTERVAL, bucket.tryAcquire(1_100, INTERVAL, BURST));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1_000);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(1_000, INTERVAL, BURST);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryAcquire(1_000, INTERVAL, BURST) > 0);
+        }
+
+        assertEquals(0, bucket.tryAcquire(1_100, INTERVAL, BURST));
+    }
+
+    @Test
+    void idleTimeNeverBuildsMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(1_000);
+
+        long now = 1_000_000;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now, INTERVAL, BURST));
+        }
+        assertTrue(bucket.tryAcquire(now, INTERVAL, BURST) > 0);
+    }
+
+    @Test
+    void bucketIsFullOnceItsDebtIsPaid() {
+        TokenBucket bucket = new TokenBucket(1_000);
+        assertTrue(bucket.isFull(1_000));
+
+        bucket.tryAcquire(1_000, INTERVAL, BURST);
+        assertFalse(bucket.isFull(1_050));
+        assertTrue(bucket.isFull(1_100));
+    }
+}
@@ -0,0 +1,175 @@
+package com.footwear.apigateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void callsAboveTheLimitAreRejectedWithoutAQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(3, 0, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.releaseUnused();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStableAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+
+        fullWindow(limiter, RTT);
+
+        // 10 * 1 + sqrt(10)
+        assertEquals(13, limiter.getLimit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenTrafficUsesLessThanHalfOfIt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(RTT, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenTheBackendStartsQueueing() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(RTT, false);
+        }
+
+        // RTT de 10 ori mai mare: gradientul cade la minimul 0.5 -> 10 * 0.5 + sqrt(10)
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * RTT, false);
+        }
+
+        assertEquals(8, limiter.getLimit());
+        assertTrue(limiter.getLongRttMillis() < 1.1);
+    }
+
+    @Test
+    void droppedCallsCutTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(RTT, true);
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(RTT, true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void queuedCallGetsTheReleasedSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, TimeUnit.SECONDS.toNanos(5), 1);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(limiter::tryAcquire);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() == 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+        // Coada are un singur loc
+        assertFalse(limiter.tryAcquire());
+
+        limiter.releaseUnused();
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getQueuedCalls());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void growingLimitWakesEveryWaiterItMakesRoomFor() throws Exception {
+        // Fereastră de un singur apel: fiecare release recalculează limita
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(4, 2, 100, 1.5, 1.0, 1, TimeUnit.SECONDS.toNanos(5), 5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<CompletableFuture<Boolean>> waiters = List.of(
+                    CompletableFuture.supplyAsync(limiter::tryAcquire, pool),
+                    CompletableFuture.supplyAsync(limiter::tryAcquire, pool),
+                    CompletableFuture.supplyAsync(limiter::tryAcquire, pool));
+            awaitQueued(limiter, 3);
+
+            // 4 * 1 + sqrt(4): un loc eliberat și două adăugate
+            limiter.release(RTT, false);
+            assertEquals(6, limiter.getLimit());
+
+            // Toți trei intră acum, nu abia după ce expiră așteptarea de 5s
+            for (CompletableFuture<Boolean> waiter : waiters) {
+                assertTrue(waiter.get(1, TimeUnit.SECONDS));
+            }
+            assertEquals(6, limiter.getInFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void queuedCallIsRejectedAfterTheQueueWait() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, TimeUnit.MILLISECONDS.toNanos(20), 5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        long start = System.nanoTime();
+        assertFalse(limiter.tryAcquire());
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < expected) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void fullWindow(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, long maxQueueWaitNanos, int maxQueued) {
+        // Netezire 1.0 - fiecare fereastră aplică direct limita calculată
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 100, 1.5, 1.0, 10, maxQueueWaitNanos, maxQueued);
+    }
+}
@@ -0,0 +1,147 @@
+package com.footwear.apigateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+
+    private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        CircuitBreaker breaker = breaker(2);
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(false, 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onResult(false, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        CircuitBreaker breaker = breaker(2);
+
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(false, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 2 din 4 = 50%
+        breaker.onResult(false, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheSlidingWindow() {
+        CircuitBreaker breaker = breaker(2);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, 0);
+        }
+        // 3 din 7 - sub prag
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(false, 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        for (int i = 0; i < 8; i++) {
+            breaker.onResult(true, 0);
+        }
+        assertEquals(0, breaker.getStats().get("failures"));
+        assertEquals(8, breaker.getStats().get("calls"));
+
+        // Fereastra de 8 are acum un singur eșec
+        breaker.onResult(false, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getStats().get("failures"));
+    }
+
+    @Test
+    void openCircuitRejectsCallsUntilTheOpenDurationPasses() {
+        CircuitBreaker breaker = breaker(2);
+        trip(breaker, 1_000);
+
+        assertFalse(breaker.tryAcquirePermission(1_000 + OPEN_NANOS - 1));
+        assertEquals(1, breaker.remainingOpenNanos(1_000 + OPEN_NANOS - 1));
+
+        assertTrue(breaker.tryAcquirePermission(1_000 + OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(0, breaker.remainingOpenNanos(1_000 + OPEN_NANOS));
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheProbesThroughAndClosesWhenTheyAllSucceed() {
+        CircuitBreaker breaker = breaker(2);
+        trip(breaker, 0);
+
+        assertTrue(breaker.tryAcquirePermission(OPEN_NANOS));
+        assertTrue(breaker.tryAcquirePermission(OPEN_NANOS));
+        assertFalse(breaker.tryAcquirePermission(OPEN_NANOS));
+
+        breaker.onResult(true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStats().get("calls"));
+    }
+
+    @Test
+    void failedProbeOpensTheCircuitAgain() {
+        CircuitBreaker breaker = breaker(2);
+        trip(breaker, 0);
+        assertTrue(breaker.tryAcquirePermission(OPEN_NANOS));
+
+        breaker.onResult(false, OPEN_NANOS + 5);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(OPEN_NANOS, breaker.remainingOpenNanos(OPEN_NANOS + 5));
+        assertFalse(breaker.tryAcquirePermission(OPEN_NANOS + 6));
+    }
+
+    @Test
+    void unusedProbePermissionIsReturned() {
+        CircuitBreaker breaker = breaker(1);
+        trip(breaker, 0);
+        assertTrue(breaker.tryAcquirePermission(OPEN_NANOS));
+        assertFalse(breaker.tryAcquirePermission(OPEN_NANOS));
+
+        breaker.releaseUnused();
+
+        assertTrue(breaker.tryAcquirePermission(OPEN_NANOS));
+    }
+
+    @Test
+    void lateResultsWhileOpenAreIgnored() {
+        CircuitBreaker breaker = breaker(1);
+        trip(breaker, 0);
+
+        breaker.onResult(true, 1);
+        breaker.onResult(true, 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission(2));
+    }
+
+    private static void trip(CircuitBreaker breaker, long now) {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(false, now);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static CircuitBreaker breaker(int halfOpenProbes) {
+        ResilienceProperties.Settings settings = new ResilienceProperties.Settings();
+        settings.setSlidingWindowSize(8);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setOpenDuration(Duration.ofSeconds(10));
+        settings.setHalfOpenProbes(halfOpenProbes);
+        return new CircuitBreaker(settings);
+    }
+}
@@ -0,0 +1,123 @@
+package com.footwear.apigateway.routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AntPathMatcher;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route match + upstream URL build: compiled {@link RouteTable} versus the previous
+ * per-handler approach (pattern match, extractPath, string concatenation).
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.footwear.apigateway.routing.RouteTableBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTableBenchmark {
+
+    private static final Map<String, String> SERVICES = Map.of(
+            "user", "http://localhost:8081",
+            "product", "http://localhost:8082",
+            "inventory", "http://localhost:8083");
+
+    // Ordinea handler-elor vechi din GatewayController
+    private static final String[][] LEGACY_ROUTES = {
+            {"/api/auth/login", "user", "/api/users/login"},
+            {"/api/auth/register", "user", "/api/users/register"},
+            {"/api/auth/validate-token", "user", "/api/users/validate-token"},
+            {"/api/users/**", "user", "/api/users"},
+            {"/api/products/**", "product", "/api/products"},
+            {"/api/inventory/**", "inventory", "/api/inventory"},
+    };
+
+    @Param({
+            "/api/products/public/search",
+            "/api/inventory/public/product/42/availability",
+            "/api/auth/login"
+    })
+    private String path;
+
+    private final String method = "GET";
+    private final String query = "name=runner&page=0";
+
+    private RouteTable table;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Setup
+    public void setUp() {
+        table = new RouteTable(List.of(
+                route("auth-login", "/api/auth/login", "user", "/api/users/login"),
+                route("auth-register", "/api/auth/register", "user", "/api/users/register"),
+                route("auth-validate-token", "/api/auth/validate-token", "user", "/api/users/validate-token"),
+                route("users", "/api/users/**", "user", null),
+                route("products", "/api/products/**", "product", null),
+                route("inventory", "/api/inventory/**", "inventory", null)), SERVICES.keySet());
+    }
+
+    private static RouteDefinition route(String id, String path, String service, String upstreamPath) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setPath(path);
+        definition.setService(service);
+        definition.setUpstreamPath(upstreamPath);
+        return definition;
+    }
+
+    @Benchmark
+    public Route trieMatch() {
+        return table.match(method, path);
+    }
+
+    @Benchmark
+    public URI trieMatchAndBuild() {
+        return table.match(method, path).target(path, query);
+    }
+
+    @Benchmark
+    public URI legacyMatchAndBuild() {
+        for (String[] route : LEGACY_ROUTES) {
+            if (pathMatcher.match(route[0], path)) {
+                String url = SERVICES.get(route[1]) + route[2];
+                if (route[0].endsWith("/**")) {
+                    url += extractPath(path, route[2]);
+                }
+                url += "?" + query;
+                return URI.create(url);
+            }
+        }
+        return null;
+    }
+
+    private static String extractPath(String requestURI, String prefix) {
+        if (requestURI.startsWith(prefix)) {
+            String remainder = requestURI.substring(prefix.length());
+            return remainder.isEmpty() ? "" : remainder;
+        }
+        return "";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteTableBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.footwear.apigateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteTableTests {
+
+    private static final Set<String> SERVICES = Set.of("user", "product", "inventory");
+
+    private final RouteTable table = new RouteTable(List.of(
+            route("login", "/api/auth/login", "user", "/api/users/login", "POST"),
+            route("users", "/api/users/**", "user", null),
+            route("products-read", "/api/products/**", "product", null, "GET"),
+            route("products-write", "/api/products/**", "product", "/api/products/admin", "POST", "PUT"),
+            route("search", "/api/products/public/search", "product", null),
+            route("public", "/api/products/public/**", "product", null, "GET"),
+            route("inventory", "/api/inventory/**", "inventory", null)), SERVICES);
+
+    @Test
+    void exactRouteMatchesOnlyTheWholePathAndItsMethods() {
+        assertEquals("login", table.match("POST", "/api/auth/login").getId());
+        assertNull(table.match("GET", "/api/auth/login"));
+        assertNull(table.match("POST", "/api/auth/login/extra"));
+        assertNull(table.match("POST", "/api/auth"));
+    }
+
+    @Test
+    void prefixRouteMatchesOnSegmentBoundariesOnly() {
+        assertEquals("users", table.match("GET", "/api/users").getId());
+        assertEquals("users", table.match("GET", "/api/users/").getId());
+        assertEquals("users", table.match("DELETE", "/api/users/7/roles").getId());
+        assertNull(table.match("GET", "/api/usersx"));
+        assertNull(table.match("GET", "/api/unknown/1"));
+    }
+
+    @Test
+    void deepestPrefixAllowingTheMethodWins() {
+        assertEquals("public", table.match("GET", "/api/products/public/featured").getId());
+        assertEquals("products-read", table.match("GET", "/api/products/42").getId());
+        // Ruta public permite doar GET - POST cade pe prefixul mai scurt
+        assertEquals("products-write", table.match("POST", "/api/products/public/featured").getId());
+        assertNull(table.match("DELETE", "/api/products/42"));
+    }
+
+    @Test
+    void exactRouteBeatsAPrefixOnTheSamePath() {
+        assertEquals("search", table.match("GET", "/api/products/public/search").getId());
+        assertEquals("public", table.match("GET", "/api/products/public/search/suggest").getId());
+    }
+
+    @Test
+    void targetReplacesTheMatchedPrefixAndKeepsTheQuery() {
+        Route login = table.match("POST", "/api/auth/login");
+        assertEquals(URI.create("/api/users/login"), login.target("/api/auth/login", null));
+
+        Route write = table.match("PUT", "/api/products/42");
+        assertEquals(URI.create("/api/products/admin/42?force=true"), write.target("/api/products/42", "force=true"));
+
+        Route inventory = table.match("GET", "/api/inventory");
+        assertEquals(URI.create("/api/inventory"), inventory.target("/api/inventory", null));
+    }
+
+    @Test
+    void routeSettingsAreCompiled() {
+        RouteDefinition definition = route(null, "/api/inventory/sale", "inventory", null, "post");
+        definition.setGroup("sales");
+        definition.setTimeout(Duration.ofMillis(1500));
+        RouteTable single = new RouteTable(List.of(definition), SERVICES);
+
+        Route route = single.match("POST", "/api/inventory/sale");
+        assertEquals("/api/inventory/sale", route.getId());
+        assertEquals("sales", route.getGroup());
+        assertEquals(1500, route.getBudgetMillis());
+        assertFalse(route.isPrefix());
+        assertEquals(1, single.getRoutes().size());
+    }
+
+    @Test
+    void invalidRoutesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteTable(List.of(route("relative", "api/users/**", "user", null)), SERVICES));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteTable(List.of(route("orders", "/api/orders/**", "orders", null)), SERVICES));
+    }
+
+    private static RouteDefinition route(String id, String path, String service, String upstreamPath, String... methods) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setPath(path);
+        definition.setService(service);
+        definition.setUpstreamPath(upstreamPath);
+        definition.setMethods(List.of(methods));
+        return definition;
+    }
+}
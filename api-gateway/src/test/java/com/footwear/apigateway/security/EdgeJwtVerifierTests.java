@@ -0,0 +1,122 @@
+package com.footwear.apigateway.security;
+
+import com.footwear.common.security.GatewayIdentityVerifier;
+import com.footwear.common.security.JwtConfigurationManager;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EdgeJwtVerifierTests {
+
+    private final EdgeJwtVerifier verifier = new EdgeJwtVerifier();
+
+    EdgeJwtVerifierTests() {
+        ReflectionTestUtils.setField(verifier, "maxEntries", 2);
+    }
+
+    @Test
+    void validTokensAreVerifiedOnceAndCached() {
+        String token = token(7L, "EMPLOYEE", 3L);
+
+        EdgeIdentity first = verifier.verify("Bearer " + token);
+        EdgeIdentity second = verifier.verify("Bearer " + token);
+
+        assertNotNull(first);
+        assertEquals(7L, first.getUserId());
+        assertEquals("EMPLOYEE", first.getRole());
+        assertEquals(3L, first.getStoreId());
+        assertEquals(GatewayIdentityVerifier.tokenHash(token), first.getTokenHash());
+        assertSame(first, second);
+        assertEquals(1L, verifier.getStats().get("verifications"));
+        assertEquals(1L, verifier.getStats().get("cacheHits"));
+    }
+
+    @Test
+    void invalidTokensAreRejectedAndNotCached() {
+        assertNull(verifier.verify("Bearer not.a.token"));
+        assertNull(verifier.verify((String) null));
+        assertNull(verifier.verify(" "));
+
+        assertEquals(0, verifier.getStats().get("cachedTokens"));
+        assertEquals(1L, verifier.getStats().get("failures"));
+    }
+
+    @Test
+    void eachRequestIsVerifiedOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token(7L, "CLIENT", null));
+
+        EdgeIdentity first = verifier.verify(request);
+        EdgeIdentity second = verifier.verify(request);
+
+        assertSame(first, second);
+        assertSame(first, request.getAttribute(EdgeIdentity.REQUEST_ATTRIBUTE));
+        assertEquals(1L, verifier.getStats().get("verifications"));
+        assertEquals(0L, verifier.getStats().get("cacheHits"));
+    }
+
+    @Test
+    void invalidTokensAreVerifiedOncePerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer not.a.token");
+
+        assertNull(verifier.verify(request));
+        assertNull(verifier.verify(request));
+
+        assertNull(request.getAttribute(EdgeIdentity.REQUEST_ATTRIBUTE));
+        assertEquals(1L, verifier.getStats().get("failures"));
+    }
+
+    @Test
+    void fullCacheStillVerifiesWithoutRemembering() {
+        verifier.verify("Bearer " + token(1L, "CLIENT", null));
+        verifier.verify("Bearer " + token(2L, "CLIENT", null));
+
+        String third = token(3L, "CLIENT", null);
+        assertNotNull(verifier.verify("Bearer " + third));
+        assertNotNull(verifier.verify("Bearer " + third));
+
+        assertEquals(2, verifier.getStats().get("cachedTokens"));
+        assertEquals(4L, verifier.getStats().get("verifications"));
+    }
+
+    @Test
+    void sweepDropsOnlyExpiredEntries() {
+        verifier.verify("Bearer " + token(1L, "CLIENT", null));
+        Map<String, EdgeIdentity> verified = cache();
+        verified.put("expired", new EdgeIdentity(2L, "CLIENT", null, System.currentTimeMillis() - 1, "expired"));
+
+        verifier.evictExpired();
+
+        assertEquals(1, verified.size());
+        assertNull(verified.get("expired"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, EdgeIdentity> cache() {
+        return (Map<String, EdgeIdentity>) ReflectionTestUtils.getField(verifier, "verified");
+    }
+
+    private static String token(Long userId, String role, Long storeId) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject("user" + userId)
+                .claim("userId", userId)
+                .claim("role", role)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(JwtConfigurationManager.getInstance().getSigningKey());
+        if (storeId != null) {
+            builder.claim("storeId", storeId);
+        }
+        return builder.compact();
+    }
+}
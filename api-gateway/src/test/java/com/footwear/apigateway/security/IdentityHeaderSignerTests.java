@@ -0,0 +1,88 @@
+package com.footwear.apigateway.security;
+
+import com.footwear.common.security.GatewayIdentity;
+import com.footwear.common.security.GatewayIdentityVerifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Headers signed by the gateway, checked with the verifier the services use.
+ */
+class IdentityHeaderSignerTests {
+
+    private static final String SECRET = "testSecretKeyForGatewayIdentityHeadersLongEnough";
+    private static final String TOKEN = "header.payload.signature";
+
+    private final IdentityHeaderSigner signer = new IdentityHeaderSigner(SECRET);
+    private final GatewayIdentityVerifier verifier = new GatewayIdentityVerifier(SECRET);
+
+    IdentityHeaderSignerTests() {
+        ReflectionTestUtils.setField(signer, "identityTtlMillis", 30_000L);
+    }
+
+    @Test
+    void servicesAcceptTheSignedHeaders() {
+        Map<String, String> headers = signer.sign(identity(TOKEN, System.currentTimeMillis() + 3_600_000));
+
+        GatewayIdentity identity = verifier.verify(request(headers, "Bearer " + TOKEN));
+
+        assertNotNull(identity);
+        assertEquals(7L, identity.getUserId());
+        assertEquals("EMPLOYEE", identity.getRole());
+        assertEquals(2L, identity.getStoreId());
+    }
+
+    @Test
+    void headersExpireWithTheIdentityTtl() {
+        long now = System.currentTimeMillis();
+        Map<String, String> headers = signer.sign(identity(TOKEN, now + 3_600_000));
+
+        long expiresAt = Long.parseLong(headers.get(IdentityHeaderSigner.EXPIRES));
+        assertTrue(expiresAt <= System.currentTimeMillis() + 30_000);
+        assertTrue(expiresAt >= now + 30_000);
+    }
+
+    @Test
+    void headersNeverOutliveTheToken() {
+        long tokenExpiry = System.currentTimeMillis() + 5_000;
+        Map<String, String> headers = signer.sign(identity(TOKEN, tokenExpiry));
+
+        assertEquals(String.valueOf(tokenExpiry), headers.get(IdentityHeaderSigner.EXPIRES));
+    }
+
+    @Test
+    void headersCannotBeReplayedWithAnotherToken() {
+        Map<String, String> headers = signer.sign(identity(TOKEN, System.currentTimeMillis() + 3_600_000));
+
+        assertNull(verifier.verify(request(headers, "Bearer another.valid.token")));
+    }
+
+    @Test
+    void tamperedHeadersAreRejected() {
+        Map<String, String> headers = new HashMap<>(
+                signer.sign(identity(TOKEN, System.currentTimeMillis() + 3_600_000)));
+        headers.put(IdentityHeaderSigner.STORE_ID, "9");
+
+        assertNull(verifier.verify(request(headers, "Bearer " + TOKEN)));
+    }
+
+    private static EdgeIdentity identity(String token, long expiresAt) {
+        return new EdgeIdentity(7L, "EMPLOYEE", 2L, expiresAt, GatewayIdentityVerifier.tokenHash(token));
+    }
+
+    private static MockHttpServletRequest request(Map<String, String> headers, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        headers.forEach(request::addHeader);
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.footwear.common.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of the current request, propagated between services in the
+ * {@value #HEADER} header as the remaining milliseconds. The value is relative
+ * so the hosts' clocks do not have to agree; each hop re-computes what is left.
+ * <p>
+ * {@link DeadlineFilter} (or the gateway's router) enters the deadline for the
+ * request thread; JPA transactions and outbound calls below it read it from here.
+ * Outside such a request there is no deadline and nothing is limited.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private Deadline() {
+    }
+
+    /**
+     * Starts a deadline {@code budgetMillis} from now on the current thread, keeping an
+     * earlier one if it expires sooner. Close the returned scope to restore the previous state.
+     */
+    public static Scope enter(long budgetMillis) {
+        Long previous = CURRENT.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        CURRENT.set(previous != null ? Math.min(previous, deadline) : deadline);
+        return new Scope(previous);
+    }
+
+    /**
+     * @return the budget announced in a {@value #HEADER} header, or -1 if missing or malformed
+     */
+    public static long parse(String header) {
+        if (header == null || header.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static boolean isSet() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return milliseconds left (0 when spent), or {@link Long#MAX_VALUE} without a deadline
+     */
+    public static long remainingMillis() {
+        Long deadline = CURRENT.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    public static boolean isExpired() {
+        Long deadline = CURRENT.get();
+        return deadline != null && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Gives up before starting more work for a request whose caller is no longer waiting.
+     *
+     * @param operation what was about to start, for the exception message
+     */
+    public static void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + operation);
+        }
+    }
+
+    /**
+     * @return the header value for an outbound call, or null without a deadline
+     */
+    public static String headerValue() {
+        return isSet() ? String.valueOf(remainingMillis()) : null;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Long previous;
+
+        private Scope(Long previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.footwear.common.deadline;
+
+/**
+ * The request's time budget ran out; the work was abandoned because nobody waits for the result.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.footwear.common.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Enters the deadline announced by the caller in {@link Deadline#HEADER}.
+ * A request that arrives with its budget already spent is answered with 504
+ * without running the controller.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    // Folosit când apelantul nu trimite header-ul; 0 = fără termen
+    private final long defaultBudgetMillis;
+
+    public DeadlineFilter(long defaultBudgetMillis) {
+        this.defaultBudgetMillis = defaultBudgetMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long budget = Deadline.parse(request.getHeader(Deadline.HEADER));
+        if (budget < 0) {
+            budget = defaultBudgetMillis > 0 ? defaultBudgetMillis : -1;
+        }
+        if (budget < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (budget == 0) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Deadline exceeded");
+            return;
+        }
+        try (Deadline.Scope scope = Deadline.enter(budget)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
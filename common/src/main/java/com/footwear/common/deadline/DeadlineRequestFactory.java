@@ -0,0 +1,47 @@
+package com.footwear.common.deadline;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * RestTemplate request factory that fits each outbound call into the current deadline:
+ * the connect and read timeouts are capped by the remaining budget, the budget is
+ * forwarded in {@link Deadline#HEADER}, and no call is started once it is spent.
+ */
+public class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    /**
+     * @param connectTimeoutMillis timeout without a deadline (0 = infinite, like the default factory)
+     * @param readTimeoutMillis    timeout without a deadline (0 = infinite)
+     */
+    public DeadlineRequestFactory(int connectTimeoutMillis, int readTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        setConnectTimeout(connectTimeoutMillis);
+        setReadTimeout(readTimeoutMillis);
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        if (!Deadline.isSet()) {
+            return;
+        }
+        Deadline.check(httpMethod + " " + connection.getURL().getHost());
+        long remaining = Deadline.remainingMillis();
+        connection.setConnectTimeout(cap(connectTimeoutMillis, remaining));
+        connection.setReadTimeout(cap(readTimeoutMillis, remaining));
+        connection.setRequestProperty(Deadline.HEADER, String.valueOf(remaining));
+    }
+
+    // 0 înseamnă fără limită pentru HttpURLConnection, deci bugetul rămas devine limita
+    private static int cap(int configured, long remaining) {
+        int budget = (int) Math.max(1, Math.min(Integer.MAX_VALUE, remaining));
+        return configured > 0 ? Math.min(configured, budget) : budget;
+    }
+}
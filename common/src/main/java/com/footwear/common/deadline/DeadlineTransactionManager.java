@@ -0,0 +1,37 @@
+package com.footwear.common.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager that bounds each transaction by the request's deadline.
+ * Spring applies the transaction timeout to every query created inside it
+ * ({@code jakarta.persistence.query.timeout}), so the database stops working on a
+ * request the caller has given up on. Transactions are not started at all once the
+ * budget is spent. JDBC query timeouts have second granularity, so the remaining
+ * budget is rounded up.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    public DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Deadline.check(definition.getName() != null ? definition.getName() : "transaction");
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        if (!Deadline.isSet()) {
+            return configured;
+        }
+        long remainingSeconds = Math.max(1, (Deadline.remainingMillis() + 999) / 1000);
+        int budget = (int) Math.min(Integer.MAX_VALUE, remainingSeconds);
+        return configured == TransactionDefinition.TIMEOUT_DEFAULT ? budget : Math.min(configured, budget);
+    }
+}
@@ -0,0 +1,31 @@
+package com.footwear.common.security;
+
+/**
+ * Caller identity asserted by the API gateway through signed headers.
+ * It is only valid together with the Authorization header it was issued for.
+ */
+public class GatewayIdentity {
+
+    private final Long userId;
+    private final String role;
+    private final Long storeId;
+    private final long expiresAt;
+    private final String token;
+
+    public GatewayIdentity(Long userId, String role, Long storeId, long expiresAt, String token) {
+        this.userId = userId;
+        this.role = role;
+        this.storeId = storeId;
+        this.expiresAt = expiresAt;
+        this.token = token;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Long getStoreId() { return storeId; }
+    public long getExpiresAt() { return expiresAt; }
+
+    public boolean isFor(String authorization) {
+        return token != null && token.equals(GatewayIdentityVerifier.stripBearer(authorization));
+    }
+}
@@ -0,0 +1,33 @@
+package com.footwear.common.security;
+
+/**
+ * Holds the gateway identity of the request being processed on the current thread.
+ * Set and cleared by {@link GatewayIdentityFilter}.
+ */
+public final class GatewayIdentityContext {
+
+    private static final ThreadLocal<GatewayIdentity> CURRENT = new ThreadLocal<>();
+
+    private GatewayIdentityContext() {
+    }
+
+    /**
+     * @return the verified identity if it was issued for this token, otherwise null
+     *         and the caller must verify the JWT itself
+     */
+    public static GatewayIdentity forToken(String authorization) {
+        GatewayIdentity identity = CURRENT.get();
+        if (identity == null || authorization == null || !identity.isFor(authorization)) {
+            return null;
+        }
+        return identity.getExpiresAt() > System.currentTimeMillis() ? identity : null;
+    }
+
+    static void set(GatewayIdentity identity) {
+        CURRENT.set(identity);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.footwear.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Publishes the gateway-asserted identity for the duration of the request,
+ * so services can skip re-verifying the JWT signature.
+ */
+public class GatewayIdentityFilter extends OncePerRequestFilter {
+
+    private final GatewayIdentityVerifier verifier;
+
+    public GatewayIdentityFilter(GatewayIdentityVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        GatewayIdentity identity = verifier.verify(request);
+        if (identity == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        GatewayIdentityContext.set(identity);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            GatewayIdentityContext.clear();
+        }
+    }
+}
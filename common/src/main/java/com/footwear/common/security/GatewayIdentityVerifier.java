@@ -0,0 +1,138 @@
+package com.footwear.common.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Checks the identity headers signed by the API gateway.
+ * Signature: HMAC-SHA256 over "userId|role|storeId|expiresAt|tokenHash" with a key derived
+ * from the shared JWT secret - the same scheme as the gateway's IdentityHeaderSigner.
+ * tokenHash is the SHA-256 of the bearer token, so the headers are only valid next to
+ * the Authorization header they were signed for.
+ */
+public class GatewayIdentityVerifier {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_ROLE = "X-User-Role";
+    public static final String STORE_ID = "X-Store-Id";
+    public static final String EXPIRES = "X-Identity-Expires";
+    public static final String SIGNATURE = "X-Identity-Signature";
+
+    private static final String KEY_PURPOSE = "gateway-identity";
+
+    private final byte[] identityKey;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    /**
+     * @param secret the JWT secret shared with the gateway (see {@link JwtConfigurationManager})
+     */
+    public GatewayIdentityVerifier(String secret) {
+        this.identityKey = deriveKey(secret);
+    }
+
+    /**
+     * @return the identity carried by the request, or null if the headers are missing,
+     *         expired, not signed by the gateway or signed for another token
+     */
+    public GatewayIdentity verify(HttpServletRequest request) {
+        String signature = request.getHeader(SIGNATURE);
+        String expires = request.getHeader(EXPIRES);
+        String authorization = request.getHeader("Authorization");
+        if (signature == null || expires == null || authorization == null) {
+            return null;
+        }
+
+        String userId = valueOrEmpty(request.getHeader(USER_ID));
+        String role = valueOrEmpty(request.getHeader(USER_ROLE));
+        String storeId = valueOrEmpty(request.getHeader(STORE_ID));
+
+        try {
+            long expiresAt = Long.parseLong(expires);
+            if (expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+
+            // Hash-ul e recalculat din Authorization-ul primit - headerele nu pot fi mutate pe alt token
+            String token = stripBearer(authorization);
+            byte[] expected = mac.get().doFinal(
+                    payload(userId, role, storeId, expires, tokenHash(token)).getBytes(StandardCharsets.UTF_8));
+            byte[] actual = Base64.getUrlDecoder().decode(signature);
+            // Comparație în timp constant
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+
+            return new GatewayIdentity(
+                    userId.isEmpty() ? null : Long.valueOf(userId),
+                    role.isEmpty() ? null : role,
+                    storeId.isEmpty() ? null : Long.valueOf(storeId),
+                    expiresAt,
+                    token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The signed string; empty values stand for missing claims.
+     */
+    public static String payload(String userId, String role, String storeId, String expiresAt, String tokenHash) {
+        return userId + "|" + role + "|" + storeId + "|" + expiresAt + "|" + tokenHash;
+    }
+
+    /**
+     * @param token the bearer token, without the "Bearer " prefix
+     * @return hex SHA-256 of the token
+     */
+    public static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The HMAC key for the identity headers, derived from the JWT secret.
+     */
+    public static byte[] deriveKey(String secret) {
+        try {
+            Mac derivation = Mac.getInstance("HmacSHA256");
+            derivation.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return derivation.doFinal(KEY_PURPOSE.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive identity key", e);
+        }
+    }
+
+    static String stripBearer(String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        return authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(new SecretKeySpec(identityKey, "HmacSHA256"));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.footwear.common.security;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+
+/**
+ * Singleton Pattern Implementation
+ * Manages JWT configuration globally across the application
+ * Thread-safe implementation using double-checked locking
+ * <p>
+ * The secret is shared by user-service (which issues tokens), the gateway and the other
+ * services (which verify them). It comes from the {@code app.jwt.secret} system property or
+ * the {@code JWT_SECRET} environment variable; the built-in value is for local development only.
+ */
+public class JwtConfigurationManager {
+
+    public static final String SECRET_PROPERTY = "app.jwt.secret";
+    public static final String SECRET_ENV = "JWT_SECRET";
+
+    private static final String DEVELOPMENT_SECRET = "mySecretKeyForFootwearApplicationThatIsLongEnough";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static volatile JwtConfigurationManager instance;
+    private static final Object lock = new Object();
+
+    private final String secretKey;
+    private final long expirationTime;
+    private final Key signingKey;
+
+    // Private constructor to prevent instantiation
+    private JwtConfigurationManager() {
+        this.secretKey = resolveSecret();
+        this.expirationTime = 86400000; // 24 hours
+        this.signingKey = hmacKey(secretKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Același algoritm pe care l-ar alege jjwt (Keys.hmacShaKeyFor) după lungimea cheii
+    private static Key hmacKey(byte[] secret) {
+        int bits = secret.length * 8;
+        String algorithm = bits >= 512 ? "HmacSHA512" : bits >= 384 ? "HmacSHA384" : "HmacSHA256";
+        return new SecretKeySpec(secret, algorithm);
+    }
+
+    private static String resolveSecret() {
+        String secret = System.getProperty(SECRET_PROPERTY);
+        if (secret == null || secret.isBlank()) {
+            secret = System.getenv(SECRET_ENV);
+        }
+        if (secret == null || secret.isBlank()) {
+            return DEVELOPMENT_SECRET;
+        }
+        if (secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("JWT secret must have at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        return secret;
+    }
+
+    // Thread-safe singleton instance getter
+    public static JwtConfigurationManager getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new JwtConfigurationManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public String getSecretKey() {
+        return secretKey;
+    }
+
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    // Configuration validation
+    public boolean isConfigurationValid() {
+        return secretKey != null &&
+                secretKey.length() >= MIN_SECRET_LENGTH &&
+                expirationTime > 0;
+    }
+
+    // Get token expiration in hours for display
+    public long getExpirationInHours() {
+        return expirationTime / (1000 * 60 * 60);
+    }
+}
@@ -0,0 +1,97 @@
+package com.footwear.common.tracing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Spans of the request being handled on the current thread.
+ * Keeps the open-span stack for parent ids and per-layer totals for Server-Timing;
+ * a span nested in another span of the same layer is exported but not added twice.
+ */
+class RequestTrace {
+
+    private static final SpanLayer[] LAYERS = SpanLayer.values();
+
+    private final TraceContext context;
+    private final SpanExporter exporter;
+    private final Deque<Span> open = new ArrayDeque<>();
+    private final int[] openPerLayer = new int[LAYERS.length];
+    private final long[] nanosPerLayer = new long[LAYERS.length];
+    private final int[] countPerLayer = new int[LAYERS.length];
+
+    RequestTrace(TraceContext context, SpanExporter exporter) {
+        this.context = context;
+        this.exporter = exporter;
+    }
+
+    TraceContext getContext() {
+        return context;
+    }
+
+    Span start(String name, SpanLayer layer) {
+        Span parent = open.peek();
+        String parentId = parent != null ? parent.getSpanId() : context.getSpanId();
+        boolean nested = openPerLayer[layer.ordinal()]++ > 0;
+        Span span = new Span(this, name, layer, TraceContext.newSpanId(), parentId,
+                System.currentTimeMillis() * 1000, nested);
+        open.push(span);
+        return span;
+    }
+
+    void finish(Span span) {
+        // De obicei span-ul este în vârful stivei; remove acoperă și închiderile în altă ordine
+        if (open.peek() == span) {
+            open.pop();
+        } else {
+            open.remove(span);
+        }
+        int layer = span.getLayer().ordinal();
+        openPerLayer[layer]--;
+        if (!span.isNested()) {
+            nanosPerLayer[layer] += span.getDurationNanos();
+        }
+        countPerLayer[layer]++;
+        if (exporter != null && context.isSampled()) {
+            exporter.export(span);
+        }
+    }
+
+    /**
+     * @return the id to use as parent for an outbound call made right now
+     */
+    String currentSpanId() {
+        Span current = open.peek();
+        return current != null ? current.getSpanId() : context.getSpanId();
+    }
+
+    /**
+     * Server-Timing value, e.g. {@code ctrl;dur=12.4;desc="user-service", db;dur=7.9;desc="user-service, 3 calls"}.
+     * The service name tells entries apart once the gateway adds its own.
+     * HTTP is left out - the filter reports it as the total.
+     */
+    String serverTiming(String service) {
+        StringBuilder header = new StringBuilder(96);
+        for (SpanLayer layer : LAYERS) {
+            int i = layer.ordinal();
+            if (layer == SpanLayer.HTTP || countPerLayer[i] == 0) {
+                continue;
+            }
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(layer.getMetricName()).append(";dur=").append(millis(nanosPerLayer[i]))
+                    .append(";desc=\"").append(service);
+            if (countPerLayer[i] > 1) {
+                header.append(", ").append(countPerLayer[i]).append(" calls");
+            }
+            header.append('"');
+        }
+        return header.toString();
+    }
+
+    static String millis(long nanos) {
+        // O zecimală este suficientă pentru DevTools
+        long tenths = Math.round(nanos / 100_000.0);
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+}
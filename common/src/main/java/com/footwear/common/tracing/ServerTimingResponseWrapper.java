@@ -0,0 +1,70 @@
+package com.footwear.common.tracing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.function.Supplier;
+
+/**
+ * Adds the Server-Timing header right before the body starts, which is the last
+ * moment headers can still change. By then the controller has returned, so every
+ * layer below it is already measured.
+ */
+class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    static final String HEADER = "Server-Timing";
+
+    private final Supplier<String> timing;
+    private boolean added;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, Supplier<String> timing) {
+        super(response);
+        this.timing = timing;
+    }
+
+    void addTimingHeader() {
+        if (!added && !isCommitted()) {
+            added = true;
+            addHeader(HEADER, timing.get());
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        addTimingHeader();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        addTimingHeader();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        addTimingHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        addTimingHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        addTimingHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        added = false;
+    }
+}
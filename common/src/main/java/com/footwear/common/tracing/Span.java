@@ -0,0 +1,57 @@
+package com.footwear.common.tracing;
+
+/**
+ * One timed operation. Closing the span records it in the current request trace.
+ */
+public class Span implements AutoCloseable {
+
+    // Returnat când nu există un request urmărit pe thread-ul curent
+    static final Span NOOP = new Span(null, null, null, null, null, 0, false) {
+        @Override
+        public void close() {
+        }
+    };
+
+    private final RequestTrace trace;
+    private final String name;
+    private final SpanLayer layer;
+    private final String spanId;
+    private final String parentSpanId;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final boolean nested;
+    private long durationNanos;
+    private boolean error;
+
+    Span(RequestTrace trace, String name, SpanLayer layer, String spanId, String parentSpanId,
+         long startEpochMicros, boolean nested) {
+        this.trace = trace;
+        this.name = name;
+        this.layer = layer;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.startEpochMicros = startEpochMicros;
+        this.startNanos = System.nanoTime();
+        this.nested = nested;
+    }
+
+    public void markError() {
+        error = true;
+    }
+
+    public String getSpanId() { return spanId; }
+    public String getName() { return name; }
+    public SpanLayer getLayer() { return layer; }
+    public String getParentSpanId() { return parentSpanId; }
+    public long getStartEpochMicros() { return startEpochMicros; }
+    public long getDurationNanos() { return durationNanos; }
+    public boolean isError() { return error; }
+    String getTraceId() { return trace.getContext().getTraceId(); }
+    boolean isNested() { return nested; }
+
+    @Override
+    public void close() {
+        durationNanos = System.nanoTime() - startNanos;
+        trace.finish(this);
+    }
+}
@@ -0,0 +1,162 @@
+package com.footwear.common.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most recent spans in memory and, when a file is configured, appends
+ * every span to it as one JSON line. File writes happen on a background thread;
+ * spans are dropped (and counted) rather than blocking a request when it falls behind.
+ */
+@Slf4j
+public class SpanExporter implements AutoCloseable {
+
+    private static final int FILE_QUEUE_SIZE = 8192;
+
+    private final String service;
+    private final Map<String, Object>[] recent;
+    private int next;
+    private long exported;
+
+    private final BlockingQueue<String> fileQueue;
+    private final Thread fileWriter;
+    private final LongAdder dropped = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public SpanExporter(String service, int bufferSize, String file) {
+        this.service = service;
+        this.recent = new Map[Math.max(1, bufferSize)];
+        if (file != null && !file.isBlank()) {
+            fileQueue = new ArrayBlockingQueue<>(FILE_QUEUE_SIZE);
+            fileWriter = new Thread(() -> writeLoop(Path.of(file)), "span-exporter");
+            fileWriter.setDaemon(true);
+            fileWriter.start();
+        } else {
+            fileQueue = null;
+            fileWriter = null;
+        }
+    }
+
+    void export(Span span) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("traceId", span.getTraceId());
+        record.put("spanId", span.getSpanId());
+        record.put("parentId", span.getParentSpanId());
+        record.put("service", service);
+        record.put("name", span.getName());
+        record.put("layer", span.getLayer().name());
+        record.put("startMicros", span.getStartEpochMicros());
+        record.put("durationMicros", span.getDurationNanos() / 1000);
+        record.put("error", span.isError());
+
+        synchronized (recent) {
+            recent[next] = record;
+            next = (next + 1) % recent.length;
+            exported++;
+        }
+        if (fileQueue != null && !fileQueue.offer(toJson(record))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} spans, newest first
+     */
+    public List<Map<String, Object>> recent(int limit) {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        synchronized (recent) {
+            int available = (int) Math.min(exported, recent.length);
+            for (int i = 1; i <= Math.min(limit, available); i++) {
+                spans.add(recent[(next - i + recent.length) % recent.length]);
+            }
+        }
+        return spans;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void writeLoop(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                while (!Thread.currentThread().isInterrupted()) {
+                    String line = fileQueue.poll(1, TimeUnit.SECONDS);
+                    if (line == null) {
+                        continue;
+                    }
+                    writer.write(line);
+                    writer.newLine();
+                    // Scriem în batch tot ce s-a adunat, apoi un singur flush
+                    while ((line = fileQueue.poll()) != null) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                    writer.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Span file exporter stopped: {}", e.getMessage());
+        }
+    }
+
+    private static String toJson(Map<String, Object> record) {
+        StringBuilder json = new StringBuilder(256).append('{');
+        record.forEach((key, value) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(key).append("\":");
+            if (value == null) {
+                json.append("null");
+            } else if (value instanceof String text) {
+                json.append('"');
+                appendEscaped(json, text);
+                json.append('"');
+            } else {
+                json.append(value);
+            }
+        });
+        return json.append('}').toString();
+    }
+
+    private static void appendEscaped(StringBuilder json, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (fileWriter != null) {
+            fileWriter.interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.footwear.common.tracing;
+
+/**
+ * Layer of a span; also the metric name used in the Server-Timing summary.
+ */
+public enum SpanLayer {
+    HTTP("app"),
+    CONTROLLER("ctrl"),
+    SERVICE("svc"),
+    REPOSITORY("db"),
+    OUTBOUND("ext");
+
+    private final String metricName;
+
+    SpanLayer(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,109 @@
+package com.footwear.common.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace context ({@code traceparent: 00-<trace-id>-<parent-id>-<flags>}).
+ * Plain Java, so the gateway and the services share the same format.
+ */
+public final class TraceContext {
+
+    public static final String HEADER = "traceparent";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    private TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    public static TraceContext newRoot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(hex(random.nextLong(), random.nextLong()), newSpanId(), true);
+    }
+
+    /**
+     * @return the parsed context, or null when the header is missing or malformed
+     */
+    public static TraceContext parse(String header) {
+        if (header == null || header.length() != 55) {
+            return null;
+        }
+        String value = header.toLowerCase();
+        if (value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-' || value.startsWith("ff")) {
+            return null;
+        }
+        String traceId = value.substring(3, 35);
+        String spanId = value.substring(36, 52);
+        if (!isHex(value, 0, 2) || !isHex(traceId, 0, 32) || !isHex(spanId, 0, 16) || !isHex(value, 53, 55)
+                || isZero(traceId) || isZero(spanId)) {
+            return null;
+        }
+        int flags = Character.digit(value.charAt(54), 16);
+        return new TraceContext(traceId, spanId, (flags & 1) == 1);
+    }
+
+    /**
+     * Continues the incoming trace if there is one, otherwise starts a new one.
+     */
+    public static TraceContext childOf(String header) {
+        TraceContext parent = parse(header);
+        return parent != null ? parent.child() : newRoot();
+    }
+
+    public TraceContext child() {
+        return new TraceContext(traceId, newSpanId(), sampled);
+    }
+
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public boolean isSampled() { return sampled; }
+
+    public String toHeader() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return hex(id);
+    }
+
+    private static String hex(long... values) {
+        char[] out = new char[values.length * 16];
+        int position = 0;
+        for (long value : values) {
+            for (int shift = 60; shift >= 0; shift -= 4) {
+                out[position++] = HEX[(int) (value >>> shift) & 0xF];
+            }
+        }
+        return new String(out);
+    }
+
+    // Doar hex ASCII - Character.digit ar accepta și cifre Unicode
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
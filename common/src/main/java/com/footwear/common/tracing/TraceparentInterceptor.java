@@ -0,0 +1,37 @@
+package com.footwear.common.tracing;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Records outbound RestTemplate calls as OUTBOUND spans and propagates the trace
+ * with a traceparent header whose parent is that span.
+ */
+public class TraceparentInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        try (Span span = Tracer.start(request.getMethod() + " " + request.getURI().getHost()
+                + request.getURI().getPath(), SpanLayer.OUTBOUND)) {
+            String traceparent = Tracer.currentTraceparent();
+            if (traceparent != null) {
+                request.getHeaders().set(TraceContext.HEADER, traceparent);
+            }
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().is5xxServerError()) {
+                    span.markError();
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                span.markError();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.footwear.common.tracing;
+
+/**
+ * Entry point for recording spans on the current request.
+ * {@link TracingFilter} opens the request trace; code anywhere below it can call
+ * {@code try (Span span = Tracer.start("name", SpanLayer.OUTBOUND)) { ... }}.
+ * Outside a traced request spans are no-ops.
+ */
+public final class Tracer {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    public static Span start(String name, SpanLayer layer) {
+        RequestTrace trace = CURRENT.get();
+        return trace != null ? trace.start(name, layer) : Span.NOOP;
+    }
+
+    /**
+     * @return the traceparent to send on an outbound call from the current span, or null outside a request
+     */
+    public static String currentTraceparent() {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return null;
+        }
+        TraceContext context = trace.getContext();
+        return "00-" + context.getTraceId() + "-" + trace.currentSpanId() + (context.isSampled() ? "-01" : "-00");
+    }
+
+    static RequestTrace begin(TraceContext context, SpanExporter exporter) {
+        RequestTrace trace = new RequestTrace(context, exporter);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,55 @@
+package com.footwear.common.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps controller, service and Spring Data repository calls in spans.
+ * Register it as a bean in each service (see TracingConfig).
+ */
+@Aspect
+public class TracingAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, SpanLayer.CONTROLLER);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, SpanLayer.SERVICE);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, SpanLayer.REPOSITORY);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, SpanLayer layer) throws Throwable {
+        try (Span span = Tracer.start(typeName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName(), layer)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable t) {
+                span.markError();
+                throw t;
+            }
+        }
+    }
+
+    // Repository-urile Spring Data sunt proxy-uri JDK - numele util este al interfeței
+    private static String typeName(Object target) {
+        if (target == null) {
+            return "?";
+        }
+        Class<?> type = target.getClass();
+        if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+            return type.getInterfaces()[0].getSimpleName();
+        }
+        String name = type.getSimpleName();
+        int cglib = name.indexOf("$$");
+        return cglib > 0 ? name.substring(0, cglib) : name;
+    }
+}
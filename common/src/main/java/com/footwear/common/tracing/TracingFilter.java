@@ -0,0 +1,55 @@
+package com.footwear.common.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Continues the caller's trace (or starts one), records the request as the HTTP span
+ * and reports per-layer timings to the client in a Server-Timing header.
+ * Registered ahead of the security filters so JWT checks are part of the measured time.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final String service;
+    private final SpanExporter exporter;
+
+    public TracingFilter(String service, SpanExporter exporter) {
+        this.service = service;
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTrace trace = Tracer.begin(TraceContext.childOf(request.getHeader(TraceContext.HEADER)), exporter);
+        long start = System.nanoTime();
+        ServerTimingResponseWrapper timed = new ServerTimingResponseWrapper(response, () -> timing(trace, start));
+        Span span = trace.start(request.getMethod() + " " + request.getRequestURI(), SpanLayer.HTTP);
+        try {
+            filterChain.doFilter(request, timed);
+            // Răspuns fără corp (ex. 204) - header-ul se adaugă acum, dacă mai e posibil
+            timed.addTimingHeader();
+            if (timed.getStatus() >= 500) {
+                span.markError();
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.markError();
+            throw e;
+        } finally {
+            span.close();
+            Tracer.end();
+        }
+    }
+
+    private String timing(RequestTrace trace, long start) {
+        String layers = trace.serverTiming(service);
+        String total = SpanLayer.HTTP.getMetricName() + ";dur=" + RequestTrace.millis(System.nanoTime() - start)
+                + ";desc=\"" + service + "\"";
+        return layers.isEmpty() ? total : layers + ", " + total;
+    }
+}
@@ -0,0 +1,114 @@
+package com.footwear.common.deadline;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbound calls through the factory against a local server.
+ */
+class DeadlineRequestFactoryTests {
+
+    private final AtomicReference<String> deadlineHeader = new AtomicReference<>();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/fast", exchange -> {
+            deadlineHeader.set(exchange.getRequestHeaders().getFirst(Deadline.HEADER));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                stalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalled.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void remainingBudgetIsForwarded() throws IOException {
+        DeadlineRequestFactory factory = new DeadlineRequestFactory(1_000, 5_000);
+
+        try (Deadline.Scope ignored = Deadline.enter(800)) {
+            call(factory, "/fast");
+        }
+
+        long forwarded = Long.parseLong(deadlineHeader.get());
+        assertTrue(forwarded > 0 && forwarded <= 800, "forwarded " + forwarded);
+    }
+
+    @Test
+    void noHeaderWithoutADeadline() throws IOException {
+        call(new DeadlineRequestFactory(1_000, 5_000), "/fast");
+
+        assertNull(deadlineHeader.get());
+    }
+
+    @Test
+    void readTimeoutIsCappedByTheDeadline() {
+        // Fără deadline, timeout-ul de citire ar fi infinit (0)
+        DeadlineRequestFactory factory = new DeadlineRequestFactory(0, 0);
+        long start = System.nanoTime();
+
+        try (Deadline.Scope ignored = Deadline.enter(100)) {
+            assertThrows(SocketTimeoutException.class, () -> call(factory, "/slow"));
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void spentBudgetStartsNoCall() {
+        DeadlineRequestFactory factory = new DeadlineRequestFactory(1_000, 5_000);
+
+        try (Deadline.Scope ignored = Deadline.enter(0)) {
+            assertThrows(DeadlineExceededException.class,
+                    () -> factory.createRequest(URI.create(baseUrl + "/fast"), HttpMethod.GET));
+        }
+        assertNull(deadlineHeader.get());
+    }
+
+    private void call(DeadlineRequestFactory factory, String path) throws IOException {
+        ClientHttpRequest request = factory.createRequest(URI.create(baseUrl + path), HttpMethod.GET);
+        try (ClientHttpResponse response = request.execute()) {
+            assertEquals(200, response.getStatusCode().value());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.footwear.common.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTests {
+
+    @Test
+    void noDeadlineOutsideAScope() {
+        assertFalse(Deadline.isSet());
+        assertFalse(Deadline.isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.remainingMillis());
+        assertNull(Deadline.headerValue());
+        assertDoesNotThrow(() -> Deadline.check("anything"));
+    }
+
+    @Test
+    void scopeSetsAndRestoresTheDeadline() {
+        try (Deadline.Scope ignored = Deadline.enter(1_000)) {
+            assertTrue(Deadline.isSet());
+            long remaining = Deadline.remainingMillis();
+            assertTrue(remaining > 900 && remaining <= 1_000, "remaining " + remaining);
+            assertTrue(Long.parseLong(Deadline.headerValue()) <= remaining);
+        }
+        assertFalse(Deadline.isSet());
+    }
+
+    @Test
+    void nestedScopesNeverExtendTheDeadline() {
+        try (Deadline.Scope outer = Deadline.enter(100)) {
+            try (Deadline.Scope inner = Deadline.enter(10_000)) {
+                assertTrue(Deadline.remainingMillis() <= 100);
+            }
+            try (Deadline.Scope inner = Deadline.enter(10)) {
+                assertTrue(Deadline.remainingMillis() <= 10);
+            }
+            // Scope-ul interior mai scurt nu rămâne activ după închidere
+            assertTrue(Deadline.remainingMillis() > 10);
+        }
+    }
+
+    @Test
+    void spentBudgetIsExpired() {
+        try (Deadline.Scope ignored = Deadline.enter(0)) {
+            assertTrue(Deadline.isExpired());
+            assertEquals(0, Deadline.remainingMillis());
+            DeadlineExceededException error = assertThrows(DeadlineExceededException.class,
+                    () -> Deadline.check("call to product-service"));
+            assertEquals("Deadline exceeded before call to product-service", error.getMessage());
+        }
+    }
+
+    @Test
+    void headerValuesAreParsedLeniently() {
+        assertEquals(250, Deadline.parse("250"));
+        assertEquals(250, Deadline.parse(" 250 "));
+        assertEquals(0, Deadline.parse("-5"));
+        assertEquals(-1, Deadline.parse("soon"));
+        assertEquals(-1, Deadline.parse(""));
+        assertEquals(-1, Deadline.parse(null));
+    }
+}
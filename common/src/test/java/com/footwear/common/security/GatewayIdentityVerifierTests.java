@@ -0,0 +1,137 @@
+package com.footwear.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayIdentityVerifierTests {
+
+    private static final String SECRET = "testSecretKeyForGatewayIdentityHeadersLongEnough";
+    private static final String TOKEN = "header.payload.signature";
+
+    private final GatewayIdentityVerifier verifier = new GatewayIdentityVerifier(SECRET);
+
+    @Test
+    void validHeadersCarryTheIdentity() {
+        long expiresAt = System.currentTimeMillis() + 30_000;
+        MockHttpServletRequest request = signed("42", "EMPLOYEE", "3", expiresAt, TOKEN, "Bearer " + TOKEN);
+
+        GatewayIdentity identity = verifier.verify(request);
+
+        assertNotNull(identity);
+        assertEquals(42L, identity.getUserId());
+        assertEquals("EMPLOYEE", identity.getRole());
+        assertEquals(3L, identity.getStoreId());
+        assertEquals(expiresAt, identity.getExpiresAt());
+        assertTrue(identity.isFor("Bearer " + TOKEN));
+    }
+
+    @Test
+    void missingClaimsAreSignedAsEmpty() {
+        MockHttpServletRequest request = signed("42", "CLIENT", "", System.currentTimeMillis() + 30_000,
+                TOKEN, "Bearer " + TOKEN);
+
+        GatewayIdentity identity = verifier.verify(request);
+
+        assertNotNull(identity);
+        assertNull(identity.getStoreId());
+    }
+
+    @Test
+    void tamperedHeadersAreRejected() {
+        MockHttpServletRequest request = signed("42", "CLIENT", "", System.currentTimeMillis() + 30_000,
+                TOKEN, "Bearer " + TOKEN);
+        request.removeHeader(GatewayIdentityVerifier.USER_ROLE);
+        request.addHeader(GatewayIdentityVerifier.USER_ROLE, "ADMIN");
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    void extendedExpiryIsRejected() {
+        long expiresAt = System.currentTimeMillis() + 30_000;
+        MockHttpServletRequest request = signed("42", "CLIENT", "", expiresAt, TOKEN, "Bearer " + TOKEN);
+        request.removeHeader(GatewayIdentityVerifier.EXPIRES);
+        request.addHeader(GatewayIdentityVerifier.EXPIRES, String.valueOf(expiresAt + 3_600_000));
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    void expiredHeadersAreRejected() {
+        MockHttpServletRequest request = signed("42", "CLIENT", "", System.currentTimeMillis() - 1,
+                TOKEN, "Bearer " + TOKEN);
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    void headersSignedForAnotherTokenAreRejected() {
+        // Headere valide, reluate lângă un alt Authorization
+        MockHttpServletRequest request = signed("42", "ADMIN", "", System.currentTimeMillis() + 30_000,
+                TOKEN, "Bearer other.token.value");
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    void headersWithoutAuthorizationAreRejected() {
+        MockHttpServletRequest request = signed("42", "ADMIN", "", System.currentTimeMillis() + 30_000, TOKEN, null);
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    void headersSignedWithAnotherKeyAreRejected() {
+        MockHttpServletRequest request = signed("42", "ADMIN", "", System.currentTimeMillis() + 30_000,
+                TOKEN, "Bearer " + TOKEN);
+
+        assertNull(new GatewayIdentityVerifier("anotherSecretKeyThatIsAlsoLongEnoughForHmac").verify(request));
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        MockHttpServletRequest request = signed("42", "ADMIN", "", System.currentTimeMillis() + 30_000,
+                TOKEN, "Bearer " + TOKEN);
+        request.removeHeader(GatewayIdentityVerifier.SIGNATURE);
+        request.addHeader(GatewayIdentityVerifier.SIGNATURE, "not base64!");
+
+        assertNull(verifier.verify(request));
+    }
+
+    // Semnează ca IdentityHeaderSigner din gateway
+    private static MockHttpServletRequest signed(String userId, String role, String storeId, long expiresAt,
+                                                 String signedToken, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(GatewayIdentityVerifier.USER_ID, userId);
+        request.addHeader(GatewayIdentityVerifier.USER_ROLE, role);
+        request.addHeader(GatewayIdentityVerifier.STORE_ID, storeId);
+        request.addHeader(GatewayIdentityVerifier.EXPIRES, String.valueOf(expiresAt));
+        request.addHeader(GatewayIdentityVerifier.SIGNATURE, sign(GatewayIdentityVerifier.payload(
+                userId, role, storeId, String.valueOf(expiresAt), GatewayIdentityVerifier.tokenHash(signedToken))));
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    private static String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(GatewayIdentityVerifier.deriveKey(SECRET), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.footwear.common.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceContextTests {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+    private static final String HEADER = "00-" + TRACE_ID + "-" + SPAN_ID + "-01";
+
+    @Test
+    void validHeaderIsParsed() {
+        TraceContext context = TraceContext.parse(HEADER);
+
+        assertNotNull(context);
+        assertEquals(TRACE_ID, context.getTraceId());
+        assertEquals(SPAN_ID, context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(HEADER, context.toHeader());
+    }
+
+    @Test
+    void flagsOtherThanSampledAreIgnored() {
+        assertFalse(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-00").isSampled());
+        assertTrue(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-03").isSampled());
+        assertFalse(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-02").isSampled());
+    }
+
+    @Test
+    void upperCaseHexIsNormalised() {
+        TraceContext context = TraceContext.parse(HEADER.toUpperCase());
+
+        assertNotNull(context);
+        assertEquals(TRACE_ID, context.getTraceId());
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse(""));
+        assertNull(TraceContext.parse(HEADER + "-extra"));
+        assertNull(TraceContext.parse(HEADER.substring(1)));
+        assertNull(TraceContext.parse(HEADER.replace('-', '_')));
+        // Versiunea ff este interzisă de specificație
+        assertNull(TraceContext.parse("ff" + HEADER.substring(2)));
+        assertNull(TraceContext.parse("00-" + TRACE_ID.replace('a', 'g') + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-0z"));
+    }
+
+    @Test
+    void dashesAndUnicodeDigitsInsideIdsAreRejected() {
+        assertNull(TraceContext.parse("00-" + TRACE_ID.substring(0, 10) + "-" + TRACE_ID.substring(11) + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID.substring(0, 15) + "-" + "-01"));
+        // Cifră arabă-indiană: Character.digit o acceptă, W3C nu
+        assertNull(TraceContext.parse("00-" + TRACE_ID.substring(0, 31) + "٣" + "-" + SPAN_ID + "-01"));
+    }
+
+    @Test
+    void allZeroIdsAreRejected() {
+        assertNull(TraceContext.parse("00-" + "0".repeat(32) + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + "0".repeat(16) + "-01"));
+    }
+
+    @Test
+    void childKeepsTheTraceWithANewSpan() {
+        TraceContext child = TraceContext.childOf(HEADER);
+
+        assertEquals(TRACE_ID, child.getTraceId());
+        assertNotEquals(SPAN_ID, child.getSpanId());
+        assertTrue(child.isSampled());
+        assertEquals(child.toHeader(), TraceContext.parse(child.toHeader()).toHeader());
+    }
+
+    @Test
+    void missingParentStartsANewRoot() {
+        TraceContext root = TraceContext.childOf("garbage");
+
+        assertEquals(32, root.getTraceId().length());
+        assertEquals(16, root.getSpanId().length());
+        assertNotNull(TraceContext.parse(root.toHeader()));
+    }
+}
@@ -1,6 +1,10 @@
 // inventory-service/src/main/java/com/footwear/inventoryservice/adapter/ExternalServiceAdapter.java
 package com.footwear.inventoryservice.adapter;
 
+import com.footwear.common.deadline.DeadlineRequestFactory;
+import com.footwear.common.tracing.Span;
+import com.footwear.common.tracing.SpanLayer;
+import com.footwear.common.tracing.Tracer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
@@ -33,7 +37,8 @@ class ExternalEmailService {
 
 // Adaptee - External SMS Service with different interface  
 class ExternalSMSGateway {
-    private RestTemplate restTemplate = new RestTemplate();
+    // Fiecare apel se încadrează în bugetul rămas al request-ului
+    private RestTemplate restTemplate = new RestTemplate(new DeadlineRequestFactory(2000, 5000));
 
     public String sendSMS(String phoneNumber, String text) {
         // Simulate external SMS gateway
@@ -58,6 +63,17 @@ public class ExternalServiceAdapter implements NotificationService {
 
     @Override
     public boolean sendNotification(String recipient, String message, NotificationType type) {
+        // Fiecare apel către un serviciu extern este un span OUTBOUND
+        try (Span span = Tracer.start("notification." + type.name().toLowerCase(), SpanLayer.OUTBOUND)) {
+            boolean sent = deliver(recipient, message, type);
+            if (!sent) {
+                span.markError();
+            }
+            return sent;
+        }
+    }
+
+    private boolean deliver(String recipient, String message, NotificationType type) {
         try {
             switch (type) {
                 case EMAIL:
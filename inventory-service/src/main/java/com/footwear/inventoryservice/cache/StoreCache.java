@@ -0,0 +1,157 @@
+package com.footwear.inventoryservice.cache;
+
+import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.repository.StoreRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near-cache of all stores. Stores change rarely and there are few of them, so the
+ * whole table is kept in memory and reloaded every {@code app.store-cache.refresh-interval};
+ * store writes in this service evict their entry through {@link StoreCacheListener}.
+ * <p>
+ * The cached entities are detached and shared between threads - treat them as read-only.
+ */
+@Component
+@Slf4j
+public class StoreCache {
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Value("${app.store-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.store-cache.refresh-interval:10m}")
+    private Duration refreshInterval;
+
+    private final Map<Long, Store> stores = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Store cache disabled - stores are read from the database");
+            return;
+        }
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "store-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replaces the cached stores with the current table content, in one query.
+     */
+    public void refresh() {
+        try {
+            List<Store> loaded = storeRepository.findAll();
+            Set<Long> ids = new HashSet<>();
+            for (Store store : loaded) {
+                stores.put(store.getId(), store);
+                ids.add(store.getId());
+            }
+            stores.keySet().retainAll(ids);
+            log.debug("Store cache loaded: {} stores", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Store cache refresh failed, keeping {} cached stores: {}", stores.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return the store, or null if it does not exist
+     */
+    public Store find(Long storeId) {
+        if (storeId == null) {
+            return null;
+        }
+        if (!enabled) {
+            return storeRepository.findById(storeId).orElse(null);
+        }
+        Store store = stores.get(storeId);
+        if (store == null) {
+            // Magazin adăugat după ultima reîncărcare
+            store = storeRepository.findById(storeId).orElse(null);
+            if (store != null) {
+                stores.put(storeId, store);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Resolves several stores at once; the ones not cached are loaded with a single query.
+     */
+    public Map<Long, Store> findAll(Collection<Long> storeIds) {
+        Map<Long, Store> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long storeId : new HashSet<>(storeIds)) {
+            Store store = enabled && storeId != null ? stores.get(storeId) : null;
+            if (store != null) {
+                found.put(storeId, store);
+            } else if (storeId != null) {
+                missing.add(storeId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Store store : storeRepository.findAllById(missing)) {
+                found.put(store.getId(), store);
+                if (enabled) {
+                    stores.put(store.getId(), store);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the active stores, served from memory once the cache is loaded
+     */
+    public List<Store> findActive() {
+        if (!enabled || stores.isEmpty()) {
+            return storeRepository.findByActiveTrue();
+        }
+        List<Store> active = new ArrayList<>();
+        for (Store store : stores.values()) {
+            if (store.isActive()) {
+                active.add(store);
+            }
+        }
+        active.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return active;
+    }
+
+    public void evict(Long storeId) {
+        if (storeId != null) {
+            stores.remove(storeId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.footwear.inventoryservice.cache;
+
+import com.footwear.inventoryservice.entity.Store;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link Store}: evicts the written store from the {@link StoreCache}
+ * after the transaction commits, so the next read loads the new version.
+ * Hibernate obtains it from the Spring context, hence the injected cache.
+ */
+@Component
+public class StoreCacheListener {
+
+    // Lazy - listener-ul e creat odată cu EntityManagerFactory, înaintea repository-urilor
+    @Autowired
+    @Lazy
+    private StoreCache storeCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void storeWritten(Store store) {
+        Long storeId = store.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // Și la rollback - intrarea din cache poate fi deja cea nouă, încărcată în tranzacție
+                    storeCache.evict(storeId);
+                }
+            });
+        } else {
+            storeCache.evict(storeId);
+        }
+    }
+}
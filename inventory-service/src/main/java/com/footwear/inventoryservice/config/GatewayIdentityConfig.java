@@ -0,0 +1,18 @@
+package com.footwear.inventoryservice.config;
+
+import com.footwear.common.security.GatewayIdentityFilter;
+import com.footwear.common.security.GatewayIdentityVerifier;
+import com.footwear.common.security.JwtConfigurationManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GatewayIdentityConfig {
+
+    // Identitatea semnată de gateway - evită re-verificarea JWT-ului la fiecare apel
+    @Bean
+    public GatewayIdentityFilter gatewayIdentityFilter() {
+        return new GatewayIdentityFilter(
+                new GatewayIdentityVerifier(JwtConfigurationManager.getInstance().getSecretKey()));
+    }
+}
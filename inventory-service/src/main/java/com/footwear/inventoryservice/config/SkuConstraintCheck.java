@@ -0,0 +1,36 @@
+package com.footwear.inventoryservice.config;
+
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The uk_inventory_sku constraint is added by {@code ddl-auto: update}, which only logs a
+ * warning when existing rows violate it and carries on without the constraint. Checked here
+ * at startup instead: with duplicate SKU rows the service refuses to start until they are
+ * merged with {@code db/dedupe-inventory-sku.sql}.
+ */
+@Component
+@Slf4j
+public class SkuConstraintCheck {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @PostConstruct
+    void check() {
+        List<Object[]> duplicates = inventoryRepository.findDuplicateSkus();
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        duplicates.stream().limit(20).forEach(row ->
+                log.error("Duplicate inventory rows (productId, storeId, color, size, count): {}", Arrays.toString(row)));
+        throw new IllegalStateException(duplicates.size() + " SKUs have more than one inventory row, "
+                + "so uk_inventory_sku cannot be created - merge them with db/dedupe-inventory-sku.sql");
+    }
+}
@@ -2,6 +2,7 @@ package com.footwear.inventoryservice.controller;
 
 import com.footwear.inventoryservice.dto.*;
 import com.footwear.inventoryservice.service.InventoryService;
+import com.footwear.inventoryservice.service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +17,9 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private ReservationService reservationService;
+
     // Test endpoints
     @GetMapping("/test")
     public String test() {
@@ -114,6 +118,72 @@ public class InventoryController {
         }
     }
 
+    // Toate liniile se vând într-o singură tranzacție sau niciuna; 409 cu rezultatul pe linii dacă lipsește stoc
+    @PostMapping("/checkout")
+    public ResponseEntity<CheckoutResultDto> checkout(
+            @RequestBody CheckoutRequest request,
+            @RequestHeader("Authorization") String token) {
+        try {
+            CheckoutResultDto result = inventoryService.checkout(request, token);
+            return result.isSuccess() ? ResponseEntity.ok(result) : ResponseEntity.status(409).body(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    // REZERVĂRI - stoc blocat temporar pentru checkout-ul online
+
+    @PostMapping("/holds")
+    public ResponseEntity<HoldDto> createHold(
+            @RequestBody HoldRequest request,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reservationService.hold(request, token));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<HoldDto> getHold(
+            @PathVariable String holdId,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reservationService.getHold(holdId, token));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/holds/{holdId}/commit")
+    public ResponseEntity<InventoryDto> commitHold(
+            @PathVariable String holdId,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(reservationService.commit(holdId, token));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(403).body(null);
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable String holdId,
+            @RequestHeader("Authorization") String token) {
+        try {
+            reservationService.release(holdId, token);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/update")
     public ResponseEntity<InventoryDto> updateInventory(
             @RequestBody UpdateInventoryRequest request,
@@ -0,0 +1,16 @@
+package com.footwear.inventoryservice.dto;
+
+import lombok.Data;
+
+@Data
+public class CheckoutLineResultDto {
+    private Long productId;
+    private Long storeId;
+    private String color;
+    private Integer size;
+    private Integer quantity;
+    private boolean sold;
+    // Stocul rămas după vânzare, sau cel disponibil pentru liniile care au eșuat
+    private Integer availableQuantity;
+    private String error;
+}
@@ -0,0 +1,11 @@
+package com.footwear.inventoryservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CheckoutRequest {
+    // Fiecare linie e o vânzare de pe un SKU; liniile pot fi din magazine diferite
+    private List<SaleRequest> lines;
+}
@@ -0,0 +1,12 @@
+package com.footwear.inventoryservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CheckoutResultDto {
+    // true doar dacă toate liniile s-au vândut; altfel nu s-a vândut nimic
+    private boolean success;
+    private List<CheckoutLineResultDto> lines;
+}
@@ -0,0 +1,16 @@
+package com.footwear.inventoryservice.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class HoldDto {
+    private String id;
+    private Long productId;
+    private Long storeId;
+    private String color;
+    private Integer size;
+    private Integer quantity;
+    private Instant expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.footwear.inventoryservice.dto;
+
+import lombok.Data;
+
+@Data
+public class HoldRequest {
+    private Long productId;
+    private Long storeId;
+    private String color;
+    private Integer size;
+    private Integer quantity;
+    // Opțional - fără valoare se folosește app.reservations.default-ttl
+    private Integer ttlSeconds;
+}
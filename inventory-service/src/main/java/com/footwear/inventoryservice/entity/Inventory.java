@@ -6,7 +6,9 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "inventory")
+// Un singur rând pe SKU - vânzarea condiționată și checkout-ul caută după aceste coloane
+@Table(name = "inventory", uniqueConstraints = @UniqueConstraint(
+        name = "uk_inventory_sku", columnNames = {"product_id", "store_id", "color", "size"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,47 @@
+package com.footwear.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_stock_holds_sku", columnList = "product_id, store_id, size")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+    // UUID generat în aplicație - clientul primește id-ul fără un round trip în plus și nu îl poate ghici
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(nullable = false)
+    private String color;
+
+    @Column(nullable = false)
+    private Integer size;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
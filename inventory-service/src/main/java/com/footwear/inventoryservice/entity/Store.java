@@ -1,5 +1,6 @@
 package com.footwear.inventoryservice.entity;
 
+import com.footwear.inventoryservice.cache.StoreCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.AllArgsConstructor;
 
 @Entity
 @Table(name = "stores")
+@EntityListeners(StoreCacheListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
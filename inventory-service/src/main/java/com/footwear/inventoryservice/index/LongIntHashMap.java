@@ -0,0 +1,95 @@
+package com.footwear.inventoryservice.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to int values with linear probing.
+ * No boxing and no per-entry objects. Keys must not be {@code -1} (the empty marker).
+ * Not thread-safe: {@link StockIndex} guards it with its lock.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+    private static final long EMPTY = -1L;
+
+    // Cheile și valorile sunt înlocuite împreună la creștere, ca un cititor să vadă mereu o pereche consistentă
+    private Table table;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        table = new Table(capacity);
+    }
+
+    int get(long key) {
+        Table current = table;
+        long[] keys = current.keys;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            long existing = keys[i];
+            if (existing == key) {
+                return current.values[i];
+            }
+            if (existing == EMPTY) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        // Factor de încărcare maxim 0.5 - sondajele rămân scurte
+        if ((size + 1) * 2 > table.keys.length) {
+            grow();
+        }
+        if (insert(table, key, value)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        Table old = table;
+        Table grown = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != EMPTY) {
+                insert(grown, old.keys[i], old.values[i]);
+            }
+        }
+        table = grown;
+    }
+
+    private static boolean insert(Table table, long key, int value) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        boolean added = keys[i] == EMPTY;
+        // Valoarea înaintea cheii: cine găsește cheia găsește și valoarea
+        table.values[i] = value;
+        keys[i] = key;
+        return added;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final int[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.footwear.inventoryservice.index;
+
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-process stock index for the public availability reads.
+ * <p>
+ * Every (productId, storeId, color, size) is packed into one long key
+ * (31 | 13 | 12 | 8 bits; colors are numbered through a dictionary) and mapped to a
+ * slot of parallel primitive arrays in an open-addressing map. A second map chains
+ * the slots of each product, so a product's stock is read without touching MySQL
+ * or hydrating entities.
+ * <p>
+ * Loaded at startup, updated after commit by the write paths of {@code InventoryService},
+ * and fully reloaded every {@code app.stock-index.refresh-interval} to pick up writes made
+ * by other instances. Readers use optimistic {@link StampedLock} reads and never block on
+ * writers. While the index is not loaded the callers fall back to the database.
+ */
+@Component
+@Slf4j
+public class StockIndex {
+
+    private static final int STORE_BITS = 13;
+    private static final int COLOR_BITS = 12;
+    private static final int SIZE_BITS = 8;
+    private static final long MAX_PRODUCT_ID = (1L << (64 - STORE_BITS - COLOR_BITS - SIZE_BITS)) - 1;
+    // Ultimul id de culoare nu se folosește, ca nicio cheie să nu fie -1 (marcajul de slot gol)
+    private static final int MAX_COLORS = (1 << COLOR_BITS) - 1;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Value("${app.stock-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stock-index.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    private final StampedLock lock = new StampedLock();
+    private ScheduledExecutorService refresher;
+
+    // Protejate de lock
+    private Index current;
+    private List<StockRow> replay;
+
+    /**
+     * Total stock of one SKU across stores, counting only stores that have it.
+     */
+    public record StockTotals(int totalQuantity, int storeCount) {
+    }
+
+    /**
+     * One SKU with stock in one store.
+     */
+    public record StoreStock(long storeId, String color, int size, int quantity, int minStock) {
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Stock index disabled - public stock checks go to the database");
+            return;
+        }
+        reload();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rebuilds the index from the database without blocking readers. Writes that commit
+     * while the rows are loading are replayed onto the new index before it is published.
+     */
+    public void reload() {
+        long stamp = lock.writeLock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        Index loaded = null;
+        try {
+            List<StockRow> rows = inventoryRepository.findStockRows();
+            loaded = new Index(rows.size());
+            for (StockRow row : rows) {
+                if (!loaded.put(row)) {
+                    loaded = null;
+                    break;
+                }
+            }
+            if (loaded != null) {
+                log.info("Stock index loaded: {} SKUs, {} products, {} colors",
+                        loaded.skuSlots.size(), loaded.productHeads.size(), loaded.colorIds.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stock index reload failed, keeping the previous state: {}", e.getMessage());
+            loaded = current;
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                if (loaded != null && loaded != current) {
+                    for (StockRow row : replay) {
+                        if (!loaded.put(row)) {
+                            loaded = null;
+                            break;
+                        }
+                    }
+                }
+                current = loaded;
+                replay = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * @return the totals for the SKU, or null when the index is not loaded (ask the database)
+     */
+    public StockTotals checkStock(Long productId, String color, Integer size) {
+        return checkStock(productId, color, size, Collections.emptyMap());
+    }
+
+    /**
+     * Same as {@link #checkStock(Long, String, Integer)}, with {@code heldByStore} (quantity held
+     * per store) subtracted from each store's stock.
+     */
+    public StockTotals checkStock(Long productId, String color, Integer size, Map<Long, Integer> heldByStore) {
+        if (productId == null || color == null || size == null) {
+            return new StockTotals(0, 0);
+        }
+        long stamp = lock.tryOptimisticRead();
+        StockTotals totals = null;
+        try {
+            totals = totals(current, productId, color, size, heldByStore);
+        } catch (RuntimeException e) {
+            // Citire optimistă peste o scriere în curs - se reia sub read lock
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                totals = totals(current, productId, color, size, heldByStore);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return the product's SKUs with stock, in load order, or null when the index is not loaded
+     */
+    public List<StoreStock> productAvailability(Long productId) {
+        long stamp = lock.tryOptimisticRead();
+        List<StoreStock> stock = null;
+        try {
+            stock = availability(current, productId);
+        } catch (RuntimeException e) {
+            // Citire optimistă peste o scriere în curs - se reia sub read lock
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                stock = availability(current, productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return stock;
+    }
+
+    /**
+     * Writes the item's current stock to the index once the surrounding transaction
+     * commits (immediately when there is none); a rolled back change never shows up.
+     */
+    public void updateAfterCommit(Inventory item) {
+        afterCommit(toRow(item), null);
+    }
+
+    /**
+     * Subtracts a committed sale from the SKU. Unlike {@link #updateAfterCommit}, concurrent
+     * sales of one SKU commute here, whatever order their commits are reported in.
+     *
+     * @param item the row as read after the decrement, used if the SKU is not indexed yet
+     */
+    public void saleAfterCommit(Inventory item, int sold) {
+        afterCommit(toRow(item), -sold);
+    }
+
+    private void afterCommit(StockRow row, Integer delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(row, delta);
+                }
+            });
+        } else {
+            apply(row, delta);
+        }
+    }
+
+    private static StockRow toRow(Inventory item) {
+        return new StockRow(item.getProductId(), item.getStoreId(), item.getColor(), item.getSize(),
+                item.getQuantity(), item.getMinStock());
+    }
+
+    private void apply(StockRow row, Integer delta) {
+        long stamp = lock.writeLock();
+        try {
+            if (replay != null) {
+                // Reîncărcarea poate conține deja vânzarea - se reia valoarea absolută, nu delta
+                replay.add(row);
+            }
+            if (current != null && !(delta != null ? current.add(row, delta) : current.put(row))) {
+                // SKU în afara limitelor cheii - indexul nu mai e complet, citirile merg la baza de date
+                current = null;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static StockTotals totals(Index index, long productId, String color, int size, Map<Long, Integer> held) {
+        if (index == null) {
+            return null;
+        }
+        Integer colorId = index.colorIds.get(normalize(color));
+        if (colorId == null || productId < 0 || productId > MAX_PRODUCT_ID || size < 0 || size >= 1 << SIZE_BITS) {
+            return new StockTotals(0, 0);
+        }
+        int total = 0;
+        int stores = 0;
+        Slots slots = index.slots;
+        for (int slot = index.productHeads.get(productId); slot != LongIntHashMap.MISSING; slot = slots.next[slot]) {
+            long key = slots.sku[slot];
+            if (colorOf(key) == colorId && sizeOf(key) == size) {
+                int available = slots.quantity[slot] - (held.isEmpty() ? 0 : held.getOrDefault(storeOf(key), 0));
+                if (available > 0) {
+                    total += available;
+                    stores++;
+                }
+            }
+        }
+        return new StockTotals(total, stores);
+    }
+
+    private static List<StoreStock> availability(Index index, long productId) {
+        if (index == null) {
+            return null;
+        }
+        List<StoreStock> stock = new ArrayList<>();
+        Slots slots = index.slots;
+        for (int slot = index.productHeads.get(productId); slot != LongIntHashMap.MISSING; slot = slots.next[slot]) {
+            if (slots.quantity[slot] > 0) {
+                long key = slots.sku[slot];
+                stock.add(new StoreStock(storeOf(key), slots.color[slot], sizeOf(key),
+                        slots.quantity[slot], slots.minStock[slot]));
+            }
+        }
+        // Lanțul produsului e construit prin inserare la început
+        Collections.reverse(stock);
+        return stock;
+    }
+
+    private static String normalize(String color) {
+        // Coloana color are colaționare case-insensitive în MySQL
+        return color.toLowerCase(Locale.ROOT);
+    }
+
+    private static long storeOf(long key) {
+        return (key >>> (COLOR_BITS + SIZE_BITS)) & ((1L << STORE_BITS) - 1);
+    }
+
+    private static int colorOf(long key) {
+        return (int) (key >>> SIZE_BITS) & ((1 << COLOR_BITS) - 1);
+    }
+
+    private static int sizeOf(long key) {
+        return (int) key & ((1 << SIZE_BITS) - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Slot arrays, replaced together when they grow.
+     */
+    private static final class Slots {
+        final long[] sku;
+        final int[] next;
+        final int[] quantity;
+        final int[] minStock;
+        // Culoarea cu majusculele din baza de date, pentru răspuns
+        final String[] color;
+
+        Slots(int capacity) {
+            sku = new long[capacity];
+            next = new int[capacity];
+            quantity = new int[capacity];
+            minStock = new int[capacity];
+            color = new String[capacity];
+        }
+
+        Slots(Slots old, int capacity) {
+            sku = Arrays.copyOf(old.sku, capacity);
+            next = Arrays.copyOf(old.next, capacity);
+            quantity = Arrays.copyOf(old.quantity, capacity);
+            minStock = Arrays.copyOf(old.minStock, capacity);
+            color = Arrays.copyOf(old.color, capacity);
+        }
+    }
+
+    private static final class Index {
+        final LongIntHashMap skuSlots;
+        final LongIntHashMap productHeads;
+        final Map<String, Integer> colorIds = new ConcurrentHashMap<>();
+        Slots slots;
+        int used;
+
+        Index(int expectedSkus) {
+            skuSlots = new LongIntHashMap(expectedSkus);
+            productHeads = new LongIntHashMap(Math.max(16, expectedSkus / 8));
+            slots = new Slots(Math.max(16, expectedSkus + expectedSkus / 4));
+        }
+
+        /**
+         * @return false if the row cannot be packed into a key
+         */
+        boolean put(StockRow row) {
+            long key = key(row);
+            if (key < 0) {
+                log.warn("Stock index cannot hold product {} / store {} / color {} / size {}",
+                        row.productId(), row.storeId(), row.color(), row.size());
+                return false;
+            }
+            int slot = skuSlots.get(key);
+            if (slot == LongIntHashMap.MISSING) {
+                if (used == slots.sku.length) {
+                    slots = new Slots(slots, used * 2);
+                }
+                slot = used++;
+                slots.sku[slot] = key;
+                slots.color[slot] = row.color();
+                int head = productHeads.get(row.productId());
+                slots.next[slot] = head;
+                skuSlots.put(key, slot);
+                productHeads.put(row.productId(), slot);
+            }
+            slots.quantity[slot] = row.quantity() != null ? row.quantity() : 0;
+            slots.minStock[slot] = row.minStock() != null ? row.minStock() : 0;
+            return true;
+        }
+
+        /**
+         * Adds {@code delta} to an indexed SKU, or inserts the row as is when it is not indexed.
+         */
+        boolean add(StockRow row, int delta) {
+            long key = key(row);
+            int slot = key < 0 ? LongIntHashMap.MISSING : skuSlots.get(key);
+            if (slot == LongIntHashMap.MISSING) {
+                return put(row);
+            }
+            slots.quantity[slot] += delta;
+            return true;
+        }
+
+        private long key(StockRow row) {
+            if (row.productId() == null || row.storeId() == null || row.color() == null || row.size() == null) {
+                return -1;
+            }
+            long productId = row.productId();
+            long storeId = row.storeId();
+            int size = row.size();
+            if (productId < 0 || productId > MAX_PRODUCT_ID || storeId < 0 || storeId >= 1L << STORE_BITS
+                    || size < 0 || size >= 1 << SIZE_BITS) {
+                return -1;
+            }
+            String color = normalize(row.color());
+            Integer colorId = colorIds.get(color);
+            if (colorId == null) {
+                if (colorIds.size() >= MAX_COLORS) {
+                    return -1;
+                }
+                colorId = colorIds.size();
+                colorIds.put(color, colorId);
+            }
+            return productId << (STORE_BITS + COLOR_BITS + SIZE_BITS)
+                    | storeId << (COLOR_BITS + SIZE_BITS)
+                    | (long) colorId << SIZE_BITS
+                    | size;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.footwear.inventoryservice.index;
+
+/**
+ * Stock of one SKU in one store, as loaded into (or written through to) the {@link StockIndex}.
+ */
+public record StockRow(Long productId, Long storeId, String color, Integer size,
+                       Integer quantity, Integer minStock) {
+}
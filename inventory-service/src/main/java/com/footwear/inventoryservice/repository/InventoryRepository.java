@@ -1,10 +1,15 @@
 package com.footwear.inventoryservice.repository;
 
 import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.index.StockRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +21,9 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     // Găsește inventory pentru un magazin specific
     List<Inventory> findByStoreId(Long storeId);
 
+    // Rândurile candidate pentru liniile unui checkout - potrivirea exactă pe SKU se face în Java
+    List<Inventory> findByProductIdInAndStoreIdIn(Collection<Long> productIds, Collection<Long> storeIds);
+
     // Găsește inventory pentru un produs în un magazin specific
     List<Inventory> findByProductIdAndStoreId(Long productId, Long storeId);
 
@@ -23,6 +31,15 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductIdAndStoreIdAndColorAndSize(
             Long productId, Long storeId, String color, Integer size);
 
+    // Același rând, blocat până la commit (SELECT ... FOR UPDATE) - rezervările se admit sub această blocare
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i " +
+            "WHERE i.productId = :productId AND i.storeId = :storeId AND i.color = :color AND i.size = :size")
+    Optional<Inventory> findForUpdate(@Param("productId") Long productId,
+                                      @Param("storeId") Long storeId,
+                                      @Param("color") String color,
+                                      @Param("size") Integer size);
+
     // Găsește toate articolele cu stoc mic
     @Query("SELECT i FROM Inventory i WHERE i.quantity <= i.minStock AND i.storeId = :storeId")
     List<Inventory> findLowStockItemsByStore(@Param("storeId") Long storeId);
@@ -53,4 +70,27 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> checkAvailabilityAcrossStores(@Param("productId") Long productId,
                                                   @Param("color") String color,
                                                   @Param("size") Integer size);
+
+    // Scade stocul doar dacă ajunge - un singur UPDATE atomic, fără citire și fără lost updates; 0 = nu s-a vândut.
+    // minQuantity = cantitatea vândută + ce e rezervat de alții, ca vânzarea să nu consume rezervările
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity " +
+            "WHERE i.productId = :productId AND i.storeId = :storeId AND i.color = :color AND i.size = :size " +
+            "AND i.quantity >= :minQuantity")
+    int decrementStock(@Param("productId") Long productId,
+                       @Param("storeId") Long storeId,
+                       @Param("color") String color,
+                       @Param("size") Integer size,
+                       @Param("quantity") Integer quantity,
+                       @Param("minQuantity") Integer minQuantity);
+
+    // Doar coloanele necesare indexului de stoc, fără entități gestionate
+    @Query("SELECT new com.footwear.inventoryservice.index.StockRow(i.productId, i.storeId, i.color, i.size, i.quantity, i.minStock) " +
+            "FROM Inventory i ORDER BY i.id")
+    List<StockRow> findStockRows();
+
+    // SKU-uri cu mai multe rânduri - împiedică ddl-auto să creeze uk_inventory_sku
+    @Query("SELECT i.productId, i.storeId, i.color, i.size, COUNT(i) FROM Inventory i " +
+            "GROUP BY i.productId, i.storeId, i.color, i.size HAVING COUNT(i) > 1")
+    List<Object[]> findDuplicateSkus();
 }
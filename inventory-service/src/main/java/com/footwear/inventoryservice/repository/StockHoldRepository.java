@@ -0,0 +1,59 @@
+package com.footwear.inventoryservice.repository;
+
+import com.footwear.inventoryservice.entity.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, String> {
+
+    // Rezervările încă valabile, pentru reconstruirea ledger-ului la pornire
+    List<StockHold> findByExpiresAtAfter(Instant now);
+
+    // Totalul rezervat pe un SKU de toate instanțele. Se citește după blocarea rândului de inventar:
+    // rezervările se admit sub aceeași blocare, deci totalul nu se mai schimbă până la commit
+    @Query("SELECT COALESCE(SUM(h.quantity), 0) FROM StockHold h " +
+            "WHERE h.productId = :productId AND h.storeId = :storeId AND h.color = :color AND h.size = :size " +
+            "AND h.expiresAt > :now")
+    long sumActive(@Param("productId") Long productId,
+                   @Param("storeId") Long storeId,
+                   @Param("color") String color,
+                   @Param("size") Integer size,
+                   @Param("now") Instant now);
+
+    // Cât are deja rezervat un client pe același SKU, indiferent de instanța care a creat rezervările
+    @Query("SELECT COALESCE(SUM(h.quantity), 0) FROM StockHold h " +
+            "WHERE h.userId = :userId AND h.productId = :productId AND h.storeId = :storeId " +
+            "AND h.color = :color AND h.size = :size AND h.expiresAt > :now")
+    long sumActiveByCustomer(@Param("userId") Long userId,
+                             @Param("productId") Long productId,
+                             @Param("storeId") Long storeId,
+                             @Param("color") String color,
+                             @Param("size") Integer size,
+                             @Param("now") Instant now);
+
+    // Rezervarea blocată pentru commit - e o citire cu blocare, deci nu fixează snapshot-ul tranzacției
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.id = :id")
+    Optional<StockHold> findForUpdate(@Param("id") String id);
+
+    // Șterge rezervările expirate cât serviciul a fost oprit
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    // Ștergere fără citire prealabilă; 0 = rezervarea nu mai există
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockHold h WHERE h.id = :id")
+    int deleteHold(@Param("id") String id);
+}
@@ -0,0 +1,59 @@
+package com.footwear.inventoryservice.repository;
+
+import com.footwear.inventoryservice.dto.SaleRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Stock writes that go straight to JDBC, for multi-row operations where JPA would
+ * issue one statement (and one round trip of entity state) per row.
+ * Runs in the surrounding JPA transaction - the connection is shared.
+ */
+@Repository
+public class StockJdbcRepository {
+
+    private static final String DECREMENT_SQL = "UPDATE inventory SET quantity = quantity - ? " +
+            "WHERE product_id = ? AND store_id = ? AND color = ? AND size = ? AND quantity >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs the conditional decrement of every line as one JDBC batch, in the given order.
+     * Callers pass the lines sorted, so concurrent checkouts lock rows in the same order.
+     *
+     * @param minQuantities per line, the stock the row must have for the sale (quantity plus holds)
+     * @return per line, true if the row existed and had enough stock
+     */
+    public boolean[] decrementAll(List<SaleRequest> lines, int[] minQuantities) {
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                SaleRequest line = lines.get(i);
+                statement.setInt(1, line.getQuantity());
+                statement.setLong(2, line.getProductId());
+                statement.setLong(3, line.getStoreId());
+                statement.setString(4, line.getColor());
+                statement.setInt(5, line.getSize());
+                statement.setInt(6, minQuantities[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+        // Fără rewriteBatchedStatements pe conexiune - driverul raportează numărul de rânduri pe fiecare linie
+        boolean[] updated = new boolean[lines.size()];
+        for (int i = 0; i < counts.length; i++) {
+            updated[i] = counts[i] > 0;
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,264 @@
+package com.footwear.inventoryservice.reservation;
+
+import com.footwear.inventoryservice.entity.StockHold;
+import com.footwear.inventoryservice.repository.StockHoldRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory ledger of the active stock holds, with per-SKU held totals for the stock checks.
+ * <p>
+ * A hold is first reserved here (an atomic check of stock minus what is already held),
+ * then persisted by the caller. Callers admit holds while holding the inventory row's lock,
+ * so the stock they pass in cannot be sold underneath them. Expiry is driven by a {@link TimerWheel} ticking on a
+ * daemon thread; expired holds are dropped from memory and deleted from the database.
+ * A hold being committed is "claimed": it still counts as held, but expiry skips it
+ * until the sale either commits ({@link #finish}) or rolls back ({@link #unclaim}).
+ * <p>
+ * The ledger is rebuilt from the database at startup, so holds survive restarts.
+ */
+@Component
+@Slf4j
+public class HoldLedger {
+
+    @Autowired
+    private StockHoldRepository holdRepository;
+
+    @Value("${app.reservations.tick:1s}")
+    private Duration tick;
+
+    @Value("${app.reservations.wheel-size:1024}")
+    private int wheelSize;
+
+    private final Map<String, Entry> holds = new ConcurrentHashMap<>();
+    // (productId, color, size) -> storeId -> cantitate rezervată
+    private final Map<String, Map<Long, Integer>> heldByVariant = new ConcurrentHashMap<>();
+    // (userId, productId, color, size, storeId) -> cantitate rezervată de client
+    private final Map<String, Integer> heldByCustomer = new ConcurrentHashMap<>();
+    private TimerWheel<String> wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimerWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        Instant now = Instant.now();
+        try {
+            int expired = holdRepository.deleteExpired(now);
+            int restored = 0;
+            for (StockHold hold : holdRepository.findByExpiresAtAfter(now)) {
+                add(hold);
+                restored++;
+            }
+            log.info("Hold ledger restored {} active holds, dropped {} expired", restored, expired);
+        } catch (RuntimeException e) {
+            log.warn("Hold ledger could not restore holds: {}", e.getMessage());
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds the hold if the SKU has enough stock left once the other holds are subtracted.
+     *
+     * @param stockQuantity the SKU's current quantity in the database
+     * @return false if the stock is already held by others
+     */
+    public boolean tryHold(StockHold hold, int stockQuantity) {
+        boolean[] reserved = new boolean[1];
+        heldByVariant.computeIfAbsent(variantKey(hold), key -> new ConcurrentHashMap<>())
+                .compute(hold.getStoreId(), (storeId, held) -> {
+                    int current = held != null ? held : 0;
+                    if (stockQuantity - current < hold.getQuantity()) {
+                        return held;
+                    }
+                    reserved[0] = true;
+                    return current + hold.getQuantity();
+                });
+        if (reserved[0]) {
+            addCustomerHold(hold);
+            holds.put(hold.getId(), new Entry(hold, false));
+            wheel.schedule(hold.getId(), hold.getExpiresAt().toEpochMilli());
+        }
+        return reserved[0];
+    }
+
+    /**
+     * Takes an active, unexpired hold for a sale. It keeps counting as held until
+     * {@link #finish} or {@link #unclaim}.
+     *
+     * @return the hold, or null if it does not exist, expired or is already being committed
+     */
+    public StockHold claim(String holdId) {
+        Entry[] claimed = new Entry[1];
+        holds.computeIfPresent(holdId, (id, entry) -> {
+            if (entry.claimed() || !entry.hold().getExpiresAt().isAfter(Instant.now())) {
+                return entry;
+            }
+            claimed[0] = new Entry(entry.hold(), true);
+            return claimed[0];
+        });
+        return claimed[0] != null ? claimed[0].hold() : null;
+    }
+
+    /**
+     * The claimed hold was sold - its quantity is now gone from the stock itself.
+     */
+    public void finish(StockHold hold) {
+        if (holds.remove(hold.getId()) != null) {
+            subtract(hold);
+        }
+    }
+
+    /**
+     * The sale rolled back - the hold is active again (and expires normally).
+     */
+    public void unclaim(StockHold hold) {
+        holds.computeIfPresent(hold.getId(), (id, entry) -> new Entry(entry.hold(), false));
+        wheel.schedule(hold.getId(), hold.getExpiresAt().toEpochMilli());
+    }
+
+    /**
+     * Drops an active hold; the caller deletes the stored row.
+     *
+     * @return the released hold, or null if it does not exist or is being committed
+     */
+    public StockHold release(String holdId) {
+        Entry[] released = new Entry[1];
+        holds.computeIfPresent(holdId, (id, entry) -> {
+            if (entry.claimed()) {
+                return entry;
+            }
+            released[0] = entry;
+            return null;
+        });
+        if (released[0] == null) {
+            return null;
+        }
+        subtract(released[0].hold());
+        return released[0].hold();
+    }
+
+    public StockHold find(String holdId) {
+        Entry entry = holds.get(holdId);
+        return entry != null ? entry.hold() : null;
+    }
+
+    /**
+     * @return the quantity held per store for a (product, color, size); usually empty
+     */
+    public Map<Long, Integer> heldByStore(Long productId, String color, Integer size) {
+        if (productId == null || color == null || size == null) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Integer> held = heldByVariant.get(variantKey(productId, color, size));
+        return held != null ? held : Collections.emptyMap();
+    }
+
+    /**
+     * @return the quantity the hold's user already holds on the hold's SKU
+     */
+    public int heldByCustomer(StockHold hold) {
+        if (hold.getUserId() == null) {
+            return 0;
+        }
+        return heldByCustomer.getOrDefault(customerKey(hold), 0);
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private void add(StockHold hold) {
+        heldByVariant.computeIfAbsent(variantKey(hold), key -> new ConcurrentHashMap<>())
+                .merge(hold.getStoreId(), hold.getQuantity(), Integer::sum);
+        addCustomerHold(hold);
+        holds.put(hold.getId(), new Entry(hold, false));
+        wheel.schedule(hold.getId(), hold.getExpiresAt().toEpochMilli());
+    }
+
+    private void subtract(StockHold hold) {
+        Map<Long, Integer> held = heldByVariant.get(variantKey(hold));
+        if (held != null) {
+            held.computeIfPresent(hold.getStoreId(), (storeId, current) ->
+                    current > hold.getQuantity() ? current - hold.getQuantity() : null);
+        }
+        if (hold.getUserId() != null) {
+            heldByCustomer.computeIfPresent(customerKey(hold), (key, current) ->
+                    current > hold.getQuantity() ? current - hold.getQuantity() : null);
+        }
+    }
+
+    private void addCustomerHold(StockHold hold) {
+        if (hold.getUserId() != null) {
+            heldByCustomer.merge(customerKey(hold), hold.getQuantity(), Integer::sum);
+        }
+    }
+
+    void expireDue() {
+        Instant now = Instant.now();
+        for (String holdId : wheel.advance(now.toEpochMilli())) {
+            Entry[] expired = new Entry[1];
+            holds.computeIfPresent(holdId, (id, entry) -> {
+                // Rezervările în curs de vânzare nu expiră; unclaim le reprogramează
+                if (entry.claimed() || entry.hold().getExpiresAt().isAfter(now)) {
+                    return entry;
+                }
+                expired[0] = entry;
+                return null;
+            });
+            if (expired[0] == null) {
+                continue;
+            }
+            subtract(expired[0].hold());
+            try {
+                holdRepository.deleteHold(holdId);
+                log.debug("Hold {} expired", holdId);
+            } catch (RuntimeException e) {
+                // Rândul rămas în baza de date e șters la următoarea pornire
+                log.warn("Could not delete expired hold {}: {}", holdId, e.getMessage());
+            }
+        }
+    }
+
+    private static String variantKey(StockHold hold) {
+        return variantKey(hold.getProductId(), hold.getColor(), hold.getSize());
+    }
+
+    private static String customerKey(StockHold hold) {
+        return hold.getUserId() + "|" + variantKey(hold) + "|" + hold.getStoreId();
+    }
+
+    // Culoarea e comparată case-insensitive, ca în MySQL
+    private static String variantKey(Long productId, String color, Integer size) {
+        return productId + "|" + color.toLowerCase(Locale.ROOT) + "|" + size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private record Entry(StockHold hold, boolean claimed) {
+    }
+}
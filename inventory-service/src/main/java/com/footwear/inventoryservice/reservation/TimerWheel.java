@@ -0,0 +1,73 @@
+package com.footwear.inventoryservice.reservation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Hashed timer wheel: a ring of buckets, one per tick. Scheduling is O(1) and
+ * each tick only looks at one bucket, so expiring thousands of holds costs no
+ * more than the holds that actually fall due. Deadlines further away than one
+ * turn of the wheel stay in their bucket until the turn they belong to.
+ * <p>
+ * Both operations are synchronized - they are short and run once per hold and once per tick.
+ */
+class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final Queue<Timeout<T>>[] buckets;
+    private final int mask;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    synchronized void schedule(T item, long deadlineMillis) {
+        // Primul tick de la termen încolo (rotunjit în sus - altfel bucket-ul ar fi procesat înainte de termen
+        // și elementul ar aștepta o tură întreagă); un termen deja trecut ajunge în tick-ul următor
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        buckets[(int) (tick & mask)].add(new Timeout<>(item, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}.
+     *
+     * @return the items that fell due, to be handled outside the wheel's lock
+     */
+    synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        // După o pauză lungă (GC, suspendare) o tură completă acoperă toate bucket-urile
+        long firstTick = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Queue<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            for (int pending = bucket.size(); pending > 0; pending--) {
+                Timeout<T> timeout = bucket.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    expired.add(timeout.item());
+                } else {
+                    // Aparține unei ture viitoare
+                    bucket.add(timeout);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+
+    private record Timeout<T>(T item, long deadlineMillis) {
+    }
+}
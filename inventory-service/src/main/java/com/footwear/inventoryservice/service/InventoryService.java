@@ -2,16 +2,29 @@ package com.footwear.inventoryservice.service;
 
 import com.footwear.inventoryservice.adapter.ExternalServiceAdapter;
 import com.footwear.inventoryservice.adapter.NotificationType;
+import com.footwear.inventoryservice.cache.StoreCache;
 import com.footwear.inventoryservice.dto.*;
 import com.footwear.inventoryservice.entity.Inventory;
 import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.index.StockIndex;
+import com.footwear.inventoryservice.reservation.HoldLedger;
 import com.footwear.inventoryservice.repository.InventoryRepository;
-import com.footwear.inventoryservice.repository.StoreRepository;
+import com.footwear.inventoryservice.repository.StockHoldRepository;
+import com.footwear.inventoryservice.repository.StockJdbcRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -21,18 +34,44 @@ public class InventoryService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
-    @Autowired
-    private StoreRepository storeRepository;
-
     @Autowired
     private JwtValidationService jwtValidationService;
 
     @Autowired
     private ExternalServiceAdapter notificationService;
 
+    @Autowired
+    private StockIndex stockIndex;
+
+    @Autowired
+    private StoreCache storeCache;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private HoldLedger holdLedger;
+
+    @Autowired
+    private StockHoldRepository holdRepository;
+
+    private static final int MAX_CHECKOUT_LINES = 100;
+
+    // Ordinea globală de blocare a rândurilor la checkout - două checkout-uri concurente nu se pot bloca reciproc
+    private static final Comparator<SaleRequest> LOCK_ORDER = Comparator
+            .comparing(SaleRequest::getStoreId)
+            .thenComparing(SaleRequest::getProductId)
+            .thenComparing(line -> line.getColor().toLowerCase(Locale.ROOT))
+            .thenComparing(SaleRequest::getSize);
+
     // PUBLIC METHODS - pentru căutări fără autentificare
 
     public ProductAvailabilityDto getProductAvailability(Long productId) {
+        List<StockIndex.StoreStock> indexed = stockIndex.productAvailability(productId);
+        if (indexed != null) {
+            return toProductAvailability(productId, indexed);
+        }
+
         List<Inventory> inventoryItems = inventoryRepository.findByProductId(productId);
 
         ProductAvailabilityDto availability = new ProductAvailabilityDto();
@@ -48,8 +87,10 @@ public class InventoryService {
                     Long storeId = entry.getKey();
                     List<Inventory> storeItems = entry.getValue();
 
-                    Store store = storeRepository.findById(storeId)
-                            .orElseThrow(() -> new RuntimeException("Store not found"));
+                    Store store = storeCache.find(storeId);
+                    if (store == null) {
+                        throw new RuntimeException("Store not found");
+                    }
 
                     StoreAvailabilityDto storeAvailability = new StoreAvailabilityDto();
                     storeAvailability.setStoreId(storeId);
@@ -70,16 +111,40 @@ public class InventoryService {
     }
 
     public StockStatusDto checkStockStatus(StockCheckRequest request) {
+        // Disponibil = stoc - rezervările active, pe fiecare magazin
+        Map<Long, Integer> held = holdLedger.heldByStore(request.getProductId(), request.getColor(), request.getSize());
+        StockIndex.StockTotals totals = stockIndex.checkStock(request.getProductId(), request.getColor(), request.getSize(), held);
+        if (totals != null) {
+            StockStatusDto status = new StockStatusDto();
+            status.setProductId(request.getProductId());
+            status.setColor(request.getColor());
+            status.setSize(request.getSize());
+            status.setAvailable(totals.storeCount() > 0);
+            status.setTotalQuantity(totals.totalQuantity());
+            status.setStoreCount(totals.storeCount());
+            return status;
+        }
+
         List<Inventory> items = inventoryRepository.checkAvailabilityAcrossStores(
                 request.getProductId(), request.getColor(), request.getSize());
 
+        int totalQuantity = 0;
+        int storeCount = 0;
+        for (Inventory item : items) {
+            int available = item.getQuantity() - held.getOrDefault(item.getStoreId(), 0);
+            if (available > 0) {
+                totalQuantity += available;
+                storeCount++;
+            }
+        }
+
         StockStatusDto status = new StockStatusDto();
         status.setProductId(request.getProductId());
         status.setColor(request.getColor());
         status.setSize(request.getSize());
-        status.setAvailable(!items.isEmpty());
-        status.setTotalQuantity(items.stream().mapToInt(Inventory::getQuantity).sum());
-        status.setStoreCount(items.size());
+        status.setAvailable(storeCount > 0);
+        status.setTotalQuantity(totalQuantity);
+        status.setStoreCount(storeCount);
 
         return status;
     }
@@ -98,9 +163,7 @@ public class InventoryService {
         }
 
         List<Inventory> items = inventoryRepository.findByStoreId(storeId);
-        return items.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(items);
     }
 
     public List<InventoryDto> getFilteredStoreInventory(Long storeId, Long productId,
@@ -119,9 +182,7 @@ public class InventoryService {
         List<Inventory> items = inventoryRepository.findInventoryWithFilters(
                 storeId, productId, color, size, minQuantity);
 
-        return items.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(items);
     }
 
     public InventoryDto searchProductInStore(Long productId, String color, Integer size,
@@ -155,37 +216,233 @@ public class InventoryService {
             throw new RuntimeException("Access denied - Can only process sales for your store");
         }
 
+        return sell(request, 0);
+    }
+
+    /**
+     * Sells {@code request.quantity} of a SKU with one conditional UPDATE, leaving the stock held
+     * by reservations untouched. The caller has already checked access.
+     * <p>
+     * The UPDATE uses this instance's ledger as a cheap lower bound; once it holds the row lock the
+     * sale is checked against the holds stored by every instance in {@code stock_holds}.
+     *
+     * @param ownHold quantity of the caller's own hold on this SKU still counted by the ledger
+     */
+    @Transactional
+    public InventoryDto sell(SaleRequest request, int ownHold) {
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new RuntimeException("Invalid sale quantity");
+        }
+
+        // Process the sale - verificarea și scăderea se fac în același UPDATE condiționat.
+        // Nicio citire înainte de UPDATE: snapshot-ul tranzacției se fixează abia după blocarea rândului
+        int heldByOthers = Math.max(0, heldQuantity(request) - ownHold);
+        int sold = inventoryRepository.decrementStock(request.getProductId(), request.getStoreId(),
+                request.getColor(), request.getSize(), request.getQuantity(), request.getQuantity() + heldByOthers);
+        if (sold == 0) {
+            Inventory existing = inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(
+                            request.getProductId(), request.getStoreId(), request.getColor(), request.getSize())
+                    .orElseThrow(() -> new RuntimeException("Product not found in inventory"));
+            throw new RuntimeException("Insufficient stock. Available: " + Math.max(0, existing.getQuantity() - heldByOthers));
+        }
+
+        // Rândul e blocat de UPDATE până la commit, deci citirea vede exact cantitatea rămasă
         Inventory item = inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(
                         request.getProductId(), request.getStoreId(), request.getColor(), request.getSize())
                 .orElseThrow(() -> new RuntimeException("Product not found in inventory"));
-
-        if (item.getQuantity() < request.getQuantity()) {
-            throw new RuntimeException("Insufficient stock. Available: " + item.getQuantity());
+        // Rezervările se admit doar sub blocarea rândului, deci acum totalul rezervat e stabil;
+        // o rezervare admisă (pe orice instanță) înainte de UPDATE anulează vânzarea
+        heldByOthers = heldInDatabase(request);
+        if (item.getQuantity() < heldByOthers) {
+            throw new RuntimeException("Insufficient stock. Available: "
+                    + Math.max(0, item.getQuantity() + request.getQuantity() - heldByOthers));
         }
-
-        // Process the sale
-        item.setQuantity(item.getQuantity() - request.getQuantity());
-        item = inventoryRepository.save(item);
+        stockIndex.saleAfterCommit(item, request.getQuantity());
 
         // Check for low stock and send notification using Adapter Pattern
         if (item.getQuantity() <= item.getMinStock()) {
-            Store store = storeRepository.findById(item.getStoreId()).orElse(null);
-            if (store != null) {
-                String productInfo = String.format("Product ID: %d, Color: %s, Size: %d - Current stock: %d (Min: %d)",
-                        item.getProductId(), item.getColor(), item.getSize(), item.getQuantity(), item.getMinStock());
+            // Notificarea pleacă după commit - apelul extern nu mai ține blocat rândul vândut
+            runAfterCommit(() -> sendLowStockAlert(item));
+        }
+
+        return convertToDto(item);
+    }
+
+    /**
+     * Sells all lines or none of them: one transaction, one JDBC batch of conditional
+     * decrements in {@link #LOCK_ORDER}. When a line cannot be sold the transaction is
+     * rolled back and the result says which lines failed and what stock they have.
+     */
+    @Transactional
+    public CheckoutResultDto checkout(CheckoutRequest request, String token) {
+        jwtValidationService.validateEmployeeRole(token);
+
+        Long employeeStoreId = jwtValidationService.getStoreIdFromToken(token);
+        String role = jwtValidationService.getRoleFromToken(token);
+        boolean anyStore = "MANAGER".equals(role) || "ADMIN".equals(role);
+
+        List<SaleRequest> lines = request.getLines();
+        if (lines == null || lines.isEmpty() || lines.size() > MAX_CHECKOUT_LINES) {
+            throw new RuntimeException("Checkout must have between 1 and " + MAX_CHECKOUT_LINES + " lines");
+        }
+        for (SaleRequest line : lines) {
+            if (line.getProductId() == null || line.getStoreId() == null || line.getColor() == null
+                    || line.getSize() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid checkout line");
+            }
+            if (!anyStore && !line.getStoreId().equals(employeeStoreId)) {
+                throw new RuntimeException("Access denied - Can only process sales for your store");
+            }
+        }
 
-                // Use adapter to send notification
-                boolean notificationSent = notificationService.sendLowStockAlert("manager@" + store.getName().toLowerCase() + ".com", productInfo);
+        // Liniile pe același SKU sunt comasate - un singur UPDATE pe rând
+        Map<String, SaleRequest> bySku = new LinkedHashMap<>();
+        for (SaleRequest line : lines) {
+            bySku.merge(skuKey(line.getProductId(), line.getStoreId(), line.getColor(), line.getSize()),
+                    copyOf(line), (merged, next) -> {
+                        merged.setQuantity(merged.getQuantity() + next.getQuantity());
+                        return merged;
+                    });
+        }
+        List<SaleRequest> ordered = new ArrayList<>(bySku.values());
+        ordered.sort(LOCK_ORDER);
+
+        int[] minQuantities = new int[ordered.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            minQuantities[i] = ordered.get(i).getQuantity() + heldQuantity(ordered.get(i));
+        }
+        boolean[] updated = stockJdbcRepository.decrementAll(ordered, minQuantities);
+
+        // O singură citire pentru stocul rămas / disponibil al tuturor liniilor
+        Map<String, Inventory> rows = new HashMap<>();
+        for (Inventory item : inventoryRepository.findByProductIdInAndStoreIdIn(
+                ordered.stream().map(SaleRequest::getProductId).collect(Collectors.toSet()),
+                ordered.stream().map(SaleRequest::getStoreId).collect(Collectors.toSet()))) {
+            rows.put(skuKey(item.getProductId(), item.getStoreId(), item.getColor(), item.getSize()), item);
+        }
 
-                if (notificationSent) {
-                    System.out.println("Low stock notification sent successfully for store: " + store.getName());
-                } else {
-                    System.out.println("Failed to send low stock notification for store: " + store.getName());
+        // Rândurile scăzute sunt blocate până la commit, deci totalul rezervat nu mai poate crește;
+        // o rezervare admisă înainte de UPDATE (pe orice instanță) face linia insuficientă
+        Map<String, Integer> heldBySku = new HashMap<>();
+        for (SaleRequest line : ordered) {
+            heldBySku.put(skuKey(line.getProductId(), line.getStoreId(), line.getColor(), line.getSize()),
+                    heldInDatabase(line));
+        }
+        Map<String, Boolean> soldBySku = new HashMap<>();
+        Map<String, Integer> stockBefore = new HashMap<>();
+        boolean success = true;
+        for (int i = 0; i < ordered.size(); i++) {
+            SaleRequest line = ordered.get(i);
+            String sku = skuKey(line.getProductId(), line.getStoreId(), line.getColor(), line.getSize());
+            Inventory item = rows.get(sku);
+            boolean sold = updated[i] && item != null && item.getQuantity() >= heldBySku.get(sku);
+            if (item != null) {
+                stockBefore.put(sku, item.getQuantity() + (updated[i] ? line.getQuantity() : 0));
+            }
+            soldBySku.put(sku, sold);
+            success &= sold;
+        }
+        if (!success) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+
+        List<CheckoutLineResultDto> results = new ArrayList<>();
+        for (SaleRequest line : lines) {
+            String sku = skuKey(line.getProductId(), line.getStoreId(), line.getColor(), line.getSize());
+            Inventory item = rows.get(sku);
+            CheckoutLineResultDto result = new CheckoutLineResultDto();
+            result.setProductId(line.getProductId());
+            result.setStoreId(line.getStoreId());
+            result.setColor(line.getColor());
+            result.setSize(line.getSize());
+            result.setQuantity(line.getQuantity());
+            result.setSold(success);
+            if (item == null) {
+                result.setError("Product not found in inventory");
+            } else if (success) {
+                result.setAvailableQuantity(item.getQuantity());
+            } else {
+                // Stocul de dinainte de checkout, fără ce e rezervat
+                int available = Math.max(0, stockBefore.get(sku) - heldBySku.get(sku));
+                result.setAvailableQuantity(available);
+                result.setError(soldBySku.get(sku)
+                        ? "Not sold - checkout rolled back"
+                        : "Insufficient stock. Available: " + available);
+            }
+            results.add(result);
+        }
+
+        if (success) {
+            for (SaleRequest line : ordered) {
+                Inventory item = rows.get(skuKey(line.getProductId(), line.getStoreId(), line.getColor(), line.getSize()));
+                stockIndex.saleAfterCommit(item, line.getQuantity());
+                if (item.getQuantity() <= item.getMinStock()) {
+                    runAfterCommit(() -> sendLowStockAlert(item));
                 }
             }
         }
 
-        return convertToDto(item);
+        CheckoutResultDto checkout = new CheckoutResultDto();
+        checkout.setSuccess(success);
+        checkout.setLines(results);
+        return checkout;
+    }
+
+    // Doar rezervările acestei instanțe - limită inferioară pentru UPDATE-ul condiționat
+    private int heldQuantity(SaleRequest line) {
+        return holdLedger.heldByStore(line.getProductId(), line.getColor(), line.getSize())
+                .getOrDefault(line.getStoreId(), 0);
+    }
+
+    // Rezervările tuturor instanțelor; apelat doar cu rândul de inventar blocat
+    private int heldInDatabase(SaleRequest line) {
+        return (int) holdRepository.sumActive(line.getProductId(), line.getStoreId(),
+                line.getColor(), line.getSize(), Instant.now());
+    }
+
+    // Culoarea e comparată case-insensitive, ca în MySQL
+    private static String skuKey(Long productId, Long storeId, String color, Integer size) {
+        return productId + "|" + storeId + "|" + color.toLowerCase(Locale.ROOT) + "|" + size;
+    }
+
+    private static SaleRequest copyOf(SaleRequest line) {
+        SaleRequest copy = new SaleRequest();
+        copy.setProductId(line.getProductId());
+        copy.setStoreId(line.getStoreId());
+        copy.setColor(line.getColor());
+        copy.setSize(line.getSize());
+        copy.setQuantity(line.getQuantity());
+        return copy;
+    }
+
+    private void sendLowStockAlert(Inventory item) {
+        Store store = storeCache.find(item.getStoreId());
+        if (store != null) {
+            String productInfo = String.format("Product ID: %d, Color: %s, Size: %d - Current stock: %d (Min: %d)",
+                    item.getProductId(), item.getColor(), item.getSize(), item.getQuantity(), item.getMinStock());
+
+            // Use adapter to send notification
+            boolean notificationSent = notificationService.sendLowStockAlert("manager@" + store.getName().toLowerCase() + ".com", productInfo);
+
+            if (notificationSent) {
+                System.out.println("Low stock notification sent successfully for store: " + store.getName());
+            } else {
+                System.out.println("Failed to send low stock notification for store: " + store.getName());
+            }
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     @Transactional
@@ -215,10 +472,11 @@ public class InventoryService {
         item.setMinStock(request.getMinStock());
 
         item = inventoryRepository.save(item);
+        stockIndex.updateAfterCommit(item);
 
         // Send restock notification if stock was increased significantly
         if (request.getQuantity() > previousQuantity + 10) {
-            Store store = storeRepository.findById(item.getStoreId()).orElse(null);
+            Store store = storeCache.find(item.getStoreId());
             if (store != null) {
                 String restockInfo = String.format("Product ID: %d, Color: %s, Size: %d - Restocked from %d to %d units",
                         item.getProductId(), item.getColor(), item.getSize(), previousQuantity, item.getQuantity());
@@ -258,9 +516,10 @@ public class InventoryService {
         item.setMinStock(request.getMinStock());
 
         item = inventoryRepository.save(item);
+        stockIndex.updateAfterCommit(item);
 
         // Send notification about new inventory item
-        Store store = storeRepository.findById(item.getStoreId()).orElse(null);
+        Store store = storeCache.find(item.getStoreId());
         if (store != null) {
             String newItemInfo = String.format("New inventory item created - Product ID: %d, Color: %s, Size: %d, Quantity: %d",
                     item.getProductId(), item.getColor(), item.getSize(), item.getQuantity());
@@ -287,7 +546,7 @@ public class InventoryService {
 
         // Send consolidated low stock alert if there are multiple items
         if (items.size() >= 3) {
-            Store store = storeRepository.findById(storeId).orElse(null);
+            Store store = storeCache.find(storeId);
             if (store != null) {
                 String alertMessage = String.format("Multiple low stock items detected in %s: %d items need attention",
                         store.getName(), items.size());
@@ -296,9 +555,7 @@ public class InventoryService {
             }
         }
 
-        return items.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(items);
     }
 
     // MANAGER METHODS - pentru manageri
@@ -307,9 +564,7 @@ public class InventoryService {
         jwtValidationService.validateManagerRole(token);
 
         List<Inventory> items = inventoryRepository.findAll();
-        return items.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(items);
     }
 
     public List<InventoryDto> getAllLowStockItems(String token) {
@@ -323,42 +578,50 @@ public class InventoryService {
             notificationService.sendNotification("management@company.com", managementAlert, NotificationType.EMAIL);
         }
 
-        return items.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(items);
     }
 
     // STORE METHODS
 
     public List<StoreDto> getAllStores() {
-        List<Store> stores = storeRepository.findByActiveTrue();
+        List<Store> stores = storeCache.findActive();
         return stores.stream()
                 .map(this::convertToStoreDto)
                 .collect(Collectors.toList());
     }
 
     public StoreDto getStore(Long storeId) {
-        Store store = storeRepository.findById(storeId)
-                .orElseThrow(() -> new RuntimeException("Store not found"));
+        Store store = storeCache.find(storeId);
+        if (store == null) {
+            throw new RuntimeException("Store not found");
+        }
         return convertToStoreDto(store);
     }
 
     // HELPER METHODS
 
     private InventoryDto convertToDto(Inventory inventory) {
+        return convertToDto(inventory, storeCache.find(inventory.getStoreId()));
+    }
+
+    // Magazinele sunt rezolvate o singură dată pentru toată lista, nu câte un query pe rând
+    private List<InventoryDto> convertToDtos(List<Inventory> items) {
+        Map<Long, Store> stores = storeCache.findAll(items.stream()
+                .map(Inventory::getStoreId)
+                .collect(Collectors.toSet()));
+        return items.stream()
+                .map(item -> convertToDto(item, stores.get(item.getStoreId())))
+                .collect(Collectors.toList());
+    }
+
+    private InventoryDto convertToDto(Inventory inventory, Store store) {
         InventoryDto dto = new InventoryDto();
         dto.setId(inventory.getId());
         dto.setProductId(inventory.getProductId());
         dto.setStoreId(inventory.getStoreId());
 
-        // Adăugăm numele magazinului dacă store-ul este încărcat
-        if (inventory.getStore() != null) {
-            dto.setStoreName(inventory.getStore().getName());
-        } else {
-            // Încărcăm store-ul dacă nu este deja încărcat
-            Store store = storeRepository.findById(inventory.getStoreId()).orElse(null);
-            dto.setStoreName(store != null ? store.getName() : "Unknown Store");
-        }
+        // Nu atingem relația lazy Inventory.store - ar declanșa câte un SELECT pe magazin
+        dto.setStoreName(store != null ? store.getName() : "Unknown Store");
 
         dto.setColor(inventory.getColor());
         dto.setSize(inventory.getSize());
@@ -367,6 +630,38 @@ public class InventoryService {
         return dto;
     }
 
+    // Același răspuns ca varianta din baza de date, construit din indexul de stoc
+    private ProductAvailabilityDto toProductAvailability(Long productId, List<StockIndex.StoreStock> stock) {
+        Map<Long, List<InventoryItemDto>> itemsByStore = new LinkedHashMap<>();
+        for (StockIndex.StoreStock sku : stock) {
+            InventoryItemDto dto = new InventoryItemDto();
+            dto.setColor(sku.color());
+            dto.setSize(sku.size());
+            dto.setQuantity(sku.quantity());
+            dto.setMinStock(sku.minStock());
+            itemsByStore.computeIfAbsent(sku.storeId(), storeId -> new ArrayList<>()).add(dto);
+        }
+
+        List<StoreAvailabilityDto> storeAvailabilities = new ArrayList<>();
+        for (Map.Entry<Long, List<InventoryItemDto>> entry : itemsByStore.entrySet()) {
+            Store store = storeCache.find(entry.getKey());
+            if (store == null) {
+                throw new RuntimeException("Store not found");
+            }
+            StoreAvailabilityDto storeAvailability = new StoreAvailabilityDto();
+            storeAvailability.setStoreId(entry.getKey());
+            storeAvailability.setStoreName(store.getName());
+            storeAvailability.setCity(store.getCity());
+            storeAvailability.setAvailableItems(entry.getValue());
+            storeAvailabilities.add(storeAvailability);
+        }
+
+        ProductAvailabilityDto availability = new ProductAvailabilityDto();
+        availability.setProductId(productId);
+        availability.setStores(storeAvailabilities);
+        return availability;
+    }
+
     private InventoryItemDto convertToInventoryItemDto(Inventory inventory) {
         InventoryItemDto dto = new InventoryItemDto();
         dto.setColor(inventory.getColor());
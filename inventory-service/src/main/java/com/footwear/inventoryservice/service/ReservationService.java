@@ -0,0 +1,219 @@
+package com.footwear.inventoryservice.service;
+
+import com.footwear.inventoryservice.dto.HoldDto;
+import com.footwear.inventoryservice.dto.HoldRequest;
+import com.footwear.inventoryservice.dto.InventoryDto;
+import com.footwear.inventoryservice.dto.SaleRequest;
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.entity.StockHold;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import com.footwear.inventoryservice.repository.StockHoldRepository;
+import com.footwear.inventoryservice.reservation.HoldLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Time-limited stock holds for online checkout: a hold keeps {@code quantity} of a SKU
+ * out of the available stock until it is committed (sold), released, or expires.
+ * Holds are persisted in {@code stock_holds}, which is what every instance checks stock against;
+ * the {@link HoldLedger} tracks this instance's holds for expiry and fast lookups.
+ * <p>
+ * A hold is admitted while the inventory row is locked ({@code SELECT ... FOR UPDATE}); sales
+ * lock the same row with their conditional UPDATE and re-check the stored held total once they
+ * have it, so a hold and a sale can never both take the same units, whichever instance runs them.
+ */
+@Service
+public class ReservationService {
+
+    @Autowired
+    private HoldLedger holdLedger;
+
+    @Autowired
+    private StockHoldRepository holdRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JwtValidationService jwtValidationService;
+
+    @Value("${app.reservations.default-ttl:10m}")
+    private Duration defaultTtl;
+
+    @Value("${app.reservations.max-ttl:30m}")
+    private Duration maxTtl;
+
+    @Value("${app.reservations.max-quantity-per-customer:5}")
+    private int maxQuantityPerCustomer;
+
+    @Transactional
+    public HoldDto hold(HoldRequest request, String token) {
+        jwtValidationService.validateToken(token);
+        Long userId = jwtValidationService.getUserIdFromToken(token);
+
+        if (request.getProductId() == null || request.getStoreId() == null || request.getColor() == null
+                || request.getSize() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new RuntimeException("Invalid hold request");
+        }
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new RuntimeException("Hold duration must be between 1 second and " + maxTtl.toSeconds() + " seconds");
+        }
+
+        // Rândul rămâne blocat până la commit - nicio vânzare nu poate lua între timp stocul numărat aici
+        Inventory item = inventoryRepository.findForUpdate(
+                        request.getProductId(), request.getStoreId(), request.getColor(), request.getSize())
+                .orElseThrow(() -> new RuntimeException("Product not found in inventory"));
+
+        Instant now = Instant.now();
+        StockHold hold = new StockHold();
+        hold.setId(UUID.randomUUID().toString());
+        hold.setProductId(item.getProductId());
+        hold.setStoreId(item.getStoreId());
+        // Culoarea din baza de date, ca rezervarea să se potrivească exact cu rândul de inventar
+        hold.setColor(item.getColor());
+        hold.setSize(item.getSize());
+        hold.setQuantity(request.getQuantity());
+        hold.setUserId(userId);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(ttl));
+
+        if (userId != null && holdRepository.sumActiveByCustomer(userId, hold.getProductId(), hold.getStoreId(),
+                hold.getColor(), hold.getSize(), now) + hold.getQuantity() > maxQuantityPerCustomer) {
+            throw new RuntimeException("Hold limit reached - at most " + maxQuantityPerCustomer + " units of a product per customer");
+        }
+        // Totalul rezervat de toate instanțele; ledger-ul local verifică din nou doar rezervările proprii
+        long held = holdRepository.sumActive(hold.getProductId(), hold.getStoreId(), hold.getColor(), hold.getSize(), now);
+        if (item.getQuantity() - held < hold.getQuantity() || !holdLedger.tryHold(hold, item.getQuantity())) {
+            throw new RuntimeException("Insufficient stock to hold");
+        }
+        releaseOnRollback(hold);
+        holdRepository.save(hold);
+        return convertToDto(hold);
+    }
+
+    /**
+     * Turns the hold into a sale. The hold's own quantity is not counted against it, so the
+     * sale succeeds as long as the stock was not sold elsewhere (e.g. by an in-store sale
+     * that ran before the hold existed). A hold created by another instance is committed
+     * from its stored row.
+     */
+    @Transactional
+    public InventoryDto commit(String holdId, String token) {
+        StockHold hold = holdLedger.claim(holdId);
+        int ownHold = 0;
+        if (hold != null) {
+            // Până aici rezervarea e revendicată - orice ieșire trebuie să o elibereze
+            registerCompletion(hold);
+            ownHold = hold.getQuantity();
+        } else {
+            hold = holdRepository.findForUpdate(holdId)
+                    .filter(stored -> stored.getExpiresAt().isAfter(Instant.now()))
+                    .orElseThrow(() -> new RuntimeException("Hold not found or expired"));
+        }
+        checkOwner(hold, token);
+        // Rândul șters în aceeași tranzacție e arbitrul între instanțe: un singur commit îl găsește,
+        // iar vânzarea de mai jos nu îl mai numără printre rezervări
+        if (holdRepository.deleteHold(hold.getId()) == 0) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+
+        SaleRequest sale = new SaleRequest();
+        sale.setProductId(hold.getProductId());
+        sale.setStoreId(hold.getStoreId());
+        sale.setColor(hold.getColor());
+        sale.setSize(hold.getSize());
+        sale.setQuantity(hold.getQuantity());
+        return inventoryService.sell(sale, ownHold);
+    }
+
+    public void release(String holdId, String token) {
+        StockHold hold = findActive(holdId);
+        checkOwner(hold, token);
+        if (holdLedger.find(holdId) != null && holdLedger.release(holdId) == null) {
+            throw new RuntimeException("Hold is being committed");
+        }
+        if (holdRepository.deleteHold(holdId) == 0) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+    }
+
+    public HoldDto getHold(String holdId, String token) {
+        StockHold hold = findActive(holdId);
+        checkOwner(hold, token);
+        return convertToDto(hold);
+    }
+
+    // Rezervările altor instanțe nu sunt în ledger-ul local - rândul din baza de date e sursa comună
+    private StockHold findActive(String holdId) {
+        StockHold hold = holdLedger.find(holdId);
+        if (hold != null) {
+            return hold;
+        }
+        return holdRepository.findById(holdId)
+                .filter(stored -> stored.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new RuntimeException("Hold not found or expired"));
+    }
+
+    // Rezervarea e a clientului care a creat-o; angajații o pot gestiona doar în magazinul lor
+    private void checkOwner(StockHold hold, String token) {
+        jwtValidationService.validateToken(token);
+        String role = jwtValidationService.getRoleFromToken(token);
+        if ("MANAGER".equals(role) || "ADMIN".equals(role)) {
+            return;
+        }
+        if ("EMPLOYEE".equals(role) && hold.getStoreId().equals(jwtValidationService.getStoreIdFromToken(token))) {
+            return;
+        }
+        if (hold.getUserId() == null || !hold.getUserId().equals(jwtValidationService.getUserIdFromToken(token))) {
+            throw new RuntimeException("Access denied - Hold belongs to another user");
+        }
+    }
+
+    private void registerCompletion(StockHold hold) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    holdLedger.finish(hold);
+                } else {
+                    holdLedger.unclaim(hold);
+                }
+            }
+        });
+    }
+
+    private void releaseOnRollback(StockHold hold) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    holdLedger.release(hold.getId());
+                }
+            }
+        });
+    }
+
+    private HoldDto convertToDto(StockHold hold) {
+        HoldDto dto = new HoldDto();
+        dto.setId(hold.getId());
+        dto.setProductId(hold.getProductId());
+        dto.setStoreId(hold.getStoreId());
+        dto.setColor(hold.getColor());
+        dto.setSize(hold.getSize());
+        dto.setQuantity(hold.getQuantity());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+}
@@ -0,0 +1,26 @@
+-- Comasează rândurile duplicate ale aceluiași SKU (produs, magazin, culoare, mărime),
+-- ca ddl-auto să poată crea constrângerea uk_inventory_sku. Rulat o singură dată, manual (MySQL).
+-- Stocul rândurilor duplicate se adună în rândul cu id-ul cel mai mic; restul se șterg.
+
+START TRANSACTION;
+
+UPDATE inventory keep_row
+JOIN (SELECT MIN(id) AS id, SUM(quantity) AS quantity, MAX(min_stock) AS min_stock
+      FROM inventory
+      GROUP BY product_id, store_id, color, size
+      HAVING COUNT(*) > 1) merged ON keep_row.id = merged.id
+SET keep_row.quantity = merged.quantity,
+    keep_row.min_stock = merged.min_stock;
+
+DELETE dup FROM inventory dup
+JOIN inventory keep_row
+  ON keep_row.product_id = dup.product_id
+ AND keep_row.store_id = dup.store_id
+ AND keep_row.color = dup.color
+ AND keep_row.size = dup.size
+ AND keep_row.id < dup.id;
+
+COMMIT;
+
+ALTER TABLE inventory
+    ADD CONSTRAINT uk_inventory_sku UNIQUE (product_id, store_id, color, size);
@@ -0,0 +1,242 @@
+package com.footwear.inventoryservice;
+
+import com.footwear.inventoryservice.dto.CheckoutLineResultDto;
+import com.footwear.inventoryservice.dto.CheckoutRequest;
+import com.footwear.inventoryservice.dto.CheckoutResultDto;
+import com.footwear.inventoryservice.dto.SaleRequest;
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.index.StockIndex;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import com.footwear.inventoryservice.repository.StockJdbcRepository;
+import com.footwear.inventoryservice.repository.StoreRepository;
+import com.footwear.inventoryservice.service.InventoryService;
+import com.footwear.inventoryservice.service.JwtValidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Multi-line checkout on H2: all lines are sold or none, duplicate SKU lines are merged,
+ * and every line gets its own result from the read-back.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class CheckoutTests {
+
+    private static final String TOKEN = "token";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StockIndex stockIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private JwtValidationService jwtValidationService;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtValidationService.getRoleFromToken(anyString())).thenReturn("ADMIN");
+
+        Store store = new Store();
+        store.setName("Checkout");
+        store.setCity("Cluj");
+        store.setActive(true);
+        storeId = storeRepository.save(store).getId();
+
+        inventoryRepository.save(inventory(1L, "Black", 42, 10));
+        inventoryRepository.save(inventory(2L, "White", 38, 3));
+        stockIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        storeRepository.deleteAll();
+    }
+
+    @Test
+    void allLinesAreSold() {
+        CheckoutResultDto result = inventoryService.checkout(checkout(line(1L, "Black", 42, 4), line(2L, "White", 38, 3)), TOKEN);
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getLines().size());
+        assertLine(result.getLines().get(0), true, 6, null);
+        assertLine(result.getLines().get(1), true, 0, null);
+        assertEquals(6, quantity(1L, "Black", 42));
+        assertEquals(0, quantity(2L, "White", 38));
+        assertEquals(6, stockIndex.checkStock(1L, "Black", 42).totalQuantity());
+    }
+
+    @Test
+    void oneShortLineRollsBackTheWholeCheckout() {
+        CheckoutResultDto result = inventoryService.checkout(checkout(line(1L, "Black", 42, 4), line(2L, "White", 38, 5)), TOKEN);
+
+        assertFalse(result.isSuccess());
+        // Linia care ar fi mers raportează stocul de dinainte de checkout
+        assertLine(result.getLines().get(0), false, 10, "Not sold - checkout rolled back");
+        assertLine(result.getLines().get(1), false, 3, "Insufficient stock. Available: 3");
+        assertEquals(10, quantity(1L, "Black", 42));
+        assertEquals(3, quantity(2L, "White", 38));
+        assertEquals(10, stockIndex.checkStock(1L, "Black", 42).totalQuantity());
+    }
+
+    @Test
+    void missingSkuRollsBackTheWholeCheckout() {
+        CheckoutResultDto result = inventoryService.checkout(checkout(line(1L, "Black", 42, 1), line(3L, "Red", 40, 1)), TOKEN);
+
+        assertFalse(result.isSuccess());
+        assertLine(result.getLines().get(0), false, 10, "Not sold - checkout rolled back");
+        assertEquals("Product not found in inventory", result.getLines().get(1).getError());
+        assertEquals(10, quantity(1L, "Black", 42));
+    }
+
+    @Test
+    void duplicateSkuLinesAreMergedAcrossColorCasing() {
+        CheckoutResultDto result = inventoryService.checkout(checkout(line(1L, "Black", 42, 6), line(1L, "black", 42, 3)), TOKEN);
+
+        assertTrue(result.isSuccess());
+        // Un singur UPDATE de 9 unități; ambele linii văd stocul rămas
+        assertLine(result.getLines().get(0), true, 1, null);
+        assertLine(result.getLines().get(1), true, 1, null);
+        assertEquals(1, quantity(1L, "Black", 42));
+    }
+
+    @Test
+    void mergedLinesAreCheckedAgainstTheStockTogether() {
+        CheckoutResultDto result = inventoryService.checkout(checkout(line(1L, "Black", 42, 6), line(1L, "BLACK", 42, 5)), TOKEN);
+
+        assertFalse(result.isSuccess());
+        assertLine(result.getLines().get(0), false, 10, "Insufficient stock. Available: 10");
+        assertLine(result.getLines().get(1), false, 10, "Insufficient stock. Available: 10");
+        assertEquals(10, quantity(1L, "Black", 42));
+    }
+
+    @Test
+    void checkoutIsLimitedToOneHundredLines() {
+        inventoryRepository.save(inventory(5L, "Blue", 40, 100));
+        List<SaleRequest> lines = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            lines.add(line(5L, "Blue", 40, 1));
+        }
+        CheckoutRequest request = new CheckoutRequest();
+        request.setLines(lines);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> inventoryService.checkout(request, TOKEN));
+        assertEquals("Checkout must have between 1 and 100 lines", error.getMessage());
+
+        lines.remove(100);
+        CheckoutResultDto result = inventoryService.checkout(request, TOKEN);
+        assertTrue(result.isSuccess());
+        assertEquals(100, result.getLines().size());
+        assertEquals(0, quantity(5L, "Blue", 40));
+    }
+
+    @Test
+    void emptyCheckoutAndInvalidLinesAreRejected() {
+        CheckoutRequest empty = new CheckoutRequest();
+        empty.setLines(List.of());
+        assertThrows(RuntimeException.class, () -> inventoryService.checkout(empty, TOKEN));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> inventoryService.checkout(checkout(line(1L, "Black", 42, 0)), TOKEN));
+        assertEquals("Invalid checkout line", error.getMessage());
+    }
+
+    @Test
+    void decrementAllReportsEveryLine() {
+        List<SaleRequest> lines = List.of(line(1L, "Black", 42, 2), line(2L, "White", 38, 5), line(3L, "Red", 40, 1));
+
+        boolean[] updated = transactionTemplate.execute(status ->
+                stockJdbcRepository.decrementAll(lines, new int[]{2, 5, 1}));
+
+        assertArrayEquals(new boolean[]{true, false, false}, updated);
+        assertEquals(8, quantity(1L, "Black", 42));
+        assertEquals(3, quantity(2L, "White", 38));
+    }
+
+    @Test
+    void decrementAllKeepsTheHeldStock() {
+        // Cu 8 unități rezervate, o vânzare de 3 cere cel puțin 11 în stoc
+        boolean[] updated = transactionTemplate.execute(status ->
+                stockJdbcRepository.decrementAll(List.of(line(1L, "Black", 42, 3)), new int[]{11}));
+
+        assertArrayEquals(new boolean[]{false}, updated);
+        assertEquals(10, quantity(1L, "Black", 42));
+    }
+
+    private static void assertLine(CheckoutLineResultDto line, boolean sold, int available, String error) {
+        assertEquals(sold, line.isSold());
+        assertEquals(available, line.getAvailableQuantity());
+        if (error == null) {
+            assertNull(line.getError());
+        } else {
+            assertEquals(error, line.getError());
+        }
+    }
+
+    private int quantity(Long productId, String color, int size) {
+        return inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(productId, storeId, color, size)
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private CheckoutRequest checkout(SaleRequest... lines) {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setLines(List.of(lines));
+        return request;
+    }
+
+    private SaleRequest line(Long productId, String color, int size, int quantity) {
+        SaleRequest line = new SaleRequest();
+        line.setProductId(productId);
+        line.setStoreId(storeId);
+        line.setColor(color);
+        line.setSize(size);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private Inventory inventory(Long productId, String color, int size, int quantity) {
+        Inventory item = new Inventory();
+        item.setProductId(productId);
+        item.setStoreId(storeId);
+        item.setColor(color);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        item.setMinStock(-1);
+        return item;
+    }
+}
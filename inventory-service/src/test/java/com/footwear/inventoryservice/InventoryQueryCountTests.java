@@ -0,0 +1,169 @@
+package com.footwear.inventoryservice;
+
+import com.footwear.inventoryservice.cache.StoreCache;
+import com.footwear.inventoryservice.dto.InventoryDto;
+import com.footwear.inventoryservice.dto.ProductAvailabilityDto;
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.index.StockIndex;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import com.footwear.inventoryservice.repository.StoreRepository;
+import com.footwear.inventoryservice.service.InventoryService;
+import com.footwear.inventoryservice.service.JwtValidationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the SQL statements behind the inventory reads, on H2 with Hibernate statistics:
+ * store names must come from the store cache, not from one query per row.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class InventoryQueryCountTests {
+
+    private static final String TOKEN = "token";
+    private static final int STORES = 20;
+    private static final int ITEMS_PER_STORE = 10;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StoreCache storeCache;
+
+    @Autowired
+    private StockIndex stockIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private JwtValidationService jwtValidationService;
+
+    private Statistics statistics;
+    private final List<Store> stores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jwtValidationService.getRoleFromToken(anyString())).thenReturn("ADMIN");
+
+        List<Inventory> items = new ArrayList<>();
+        for (int i = 0; i < STORES; i++) {
+            Store store = saveStore("Store " + i);
+            for (int j = 0; j < ITEMS_PER_STORE; j++) {
+                items.add(inventory(100L + j, store.getId(), "Black", 40 + i % 5, 5 + j));
+            }
+        }
+        inventoryRepository.saveAll(items);
+        storeCache.refresh();
+        stockIndex.reload();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        storeRepository.deleteAll();
+        stores.clear();
+    }
+
+    @Test
+    void allInventoryRunsOneQuery() {
+        List<InventoryDto> all = inventoryService.getAllInventory(TOKEN);
+
+        assertEquals(STORES * ITEMS_PER_STORE, all.size());
+        assertEquals("Store 0", all.get(0).getStoreName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void storeInventoryRunsOneQuery() {
+        List<InventoryDto> storeItems = inventoryService.getStoreInventory(stores.get(3).getId(), TOKEN);
+
+        assertEquals(ITEMS_PER_STORE, storeItems.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void productAvailabilityRunsNoQuery() {
+        ProductAvailabilityDto availability = inventoryService.getProductAvailability(100L);
+
+        assertEquals(STORES, availability.getStores().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void uncachedStoresAreLoadedInOneBatch() {
+        List<Inventory> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Store store = saveStore("New store " + i);
+            items.add(inventory(200L, store.getId(), "Red", 41, 1));
+        }
+        inventoryRepository.saveAll(items);
+        statistics.clear();
+
+        List<InventoryDto> all = inventoryService.getAllInventory(TOKEN);
+
+        assertEquals(STORES * ITEMS_PER_STORE + 3, all.size());
+        // findAll pe inventory + un singur findAllById pentru magazinele noi
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void storeWriteEvictsTheCachedStore() {
+        Store store = stores.get(0);
+        store.setName("Renamed");
+        storeRepository.save(store);
+        statistics.clear();
+
+        assertEquals("Renamed", inventoryService.getStore(store.getId()).getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Renamed", inventoryService.getStore(store.getId()).getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Store saveStore(String name) {
+        Store store = new Store();
+        store.setName(name);
+        store.setAddress("Str. Test 1");
+        store.setCity("Cluj");
+        store.setActive(true);
+        store = storeRepository.save(store);
+        stores.add(store);
+        return store;
+    }
+
+    private static Inventory inventory(Long productId, Long storeId, String color, int size, int quantity) {
+        Inventory item = new Inventory();
+        item.setProductId(productId);
+        item.setStoreId(storeId);
+        item.setColor(color);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        item.setMinStock(2);
+        return item;
+    }
+}
@@ -0,0 +1,225 @@
+package com.footwear.inventoryservice;
+
+import com.footwear.inventoryservice.dto.SaleRequest;
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.index.StockIndex;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import com.footwear.inventoryservice.repository.StoreRepository;
+import com.footwear.inventoryservice.service.InventoryService;
+import com.footwear.inventoryservice.service.JwtValidationService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many threads selling the same SKU at once. The conditional UPDATE in processSale must
+ * sell exactly the stock there is. The old read-check-save flow is checked next to it with
+ * two sales forced to interleave, which deterministically loses one of the two updates.
+ * <p>
+ * The hammer itself takes close to a minute, so it is tagged {@code stress} and left out of
+ * the default build; run it with {@code mvn test -Pstress}.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProcessSaleStressTests {
+
+    private static final String TOKEN = "token";
+    private static final int STOCK = 2000;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 400;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StockIndex stockIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private JwtValidationService jwtValidationService;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtValidationService.getRoleFromToken(anyString())).thenReturn("ADMIN");
+
+        Store store = new Store();
+        store.setName("Stress");
+        store.setCity("Cluj");
+        storeId = storeRepository.save(store).getId();
+
+        Inventory item = new Inventory();
+        item.setProductId(1L);
+        item.setStoreId(storeId);
+        item.setColor("Black");
+        item.setSize(42);
+        item.setQuantity(STOCK);
+        // Fără notificări de stoc mic în timpul măsurătorii
+        item.setMinStock(-1);
+        inventoryRepository.save(item);
+        stockIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        storeRepository.deleteAll();
+    }
+
+    @Test
+    @Tag("stress")
+    void concurrentSalesNeverOversell() throws Exception {
+        SaleRequest request = saleOfOne();
+
+        Result result = hammer(() -> inventoryService.processSale(request, TOKEN));
+        report("conditional UPDATE", result);
+
+        assertEquals(STOCK, result.sold);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, result.rejected);
+        assertEquals(0, currentQuantity());
+        assertEquals(0, stockIndex.checkStock(1L, "Black", 42).totalQuantity());
+    }
+
+    @Test
+    void readModifyWriteLosesConcurrentUpdates() throws Exception {
+        // Ambele tranzacții citesc stocul înainte ca vreuna să scrie
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        Runnable sale = () -> transactionTemplate.executeWithoutResult(status -> {
+            // Fluxul vechi: citire, verificare în Java, salvare
+            Inventory item = inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(1L, storeId, "Black", 42)
+                    .orElseThrow(() -> new RuntimeException("Product not found in inventory"));
+            if (item.getQuantity() < 1) {
+                throw new RuntimeException("Insufficient stock. Available: " + item.getQuantity());
+            }
+            await(bothRead);
+            item.setQuantity(item.getQuantity() - 1);
+            inventoryRepository.save(item);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(sale);
+            Future<?> second = pool.submit(sale);
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Două vânzări raportate, o singură unitate scăzută din stoc
+        assertEquals(STOCK - 1, currentQuantity());
+    }
+
+    @Test
+    void interleavedConditionalSalesAreBothApplied() throws Exception {
+        SaleRequest request = saleOfOne();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> inventoryService.processSale(request, TOKEN));
+            Future<?> second = pool.submit(() -> inventoryService.processSale(request, TOKEN));
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(STOCK - 2, currentQuantity());
+    }
+
+    private Result hammer(Runnable sale) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            sale.run();
+                            sold.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            return new Result(sold.get(), rejected.get(), System.nanoTime() - begin);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void report(String name, Result result) {
+        double seconds = result.elapsedNanos / 1e9;
+        log.info("{}: {} sold, {} rejected in {} ms - {} attempts/s on one SKU", name, result.sold, result.rejected,
+                Math.round(seconds * 1000), Math.round((result.sold + result.rejected) / seconds));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Sales did not interleave", e);
+        }
+    }
+
+    private int currentQuantity() {
+        return inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(1L, storeId, "Black", 42)
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private SaleRequest saleOfOne() {
+        SaleRequest request = new SaleRequest();
+        request.setProductId(1L);
+        request.setStoreId(storeId);
+        request.setColor("Black");
+        request.setSize(42);
+        request.setQuantity(1);
+        return request;
+    }
+
+    private record Result(int sold, int rejected, long elapsedNanos) {
+    }
+}
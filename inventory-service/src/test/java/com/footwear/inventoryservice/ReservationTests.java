@@ -0,0 +1,312 @@
+package com.footwear.inventoryservice;
+
+import com.footwear.inventoryservice.dto.HoldDto;
+import com.footwear.inventoryservice.dto.HoldRequest;
+import com.footwear.inventoryservice.dto.SaleRequest;
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.entity.StockHold;
+import com.footwear.inventoryservice.entity.Store;
+import com.footwear.inventoryservice.index.StockIndex;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import com.footwear.inventoryservice.repository.StockHoldRepository;
+import com.footwear.inventoryservice.repository.StoreRepository;
+import com.footwear.inventoryservice.reservation.HoldLedger;
+import com.footwear.inventoryservice.service.InventoryService;
+import com.footwear.inventoryservice.service.JwtValidationService;
+import com.footwear.inventoryservice.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stock holds on H2: a hold keeps its units away from in-store sales until it is committed,
+ * released or expires, and holds and sales racing for the same SKU never oversell it.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ReservationTests {
+
+    private static final String STAFF = "staff";
+    private static final String CUSTOMER = "customer";
+    private static final String OTHER_CUSTOMER = "other";
+    private static final int STOCK = 10;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private HoldLedger holdLedger;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository holdRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StockIndex stockIndex;
+
+    @MockitoBean
+    private JwtValidationService jwtValidationService;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtValidationService.getRoleFromToken(STAFF)).thenReturn("ADMIN");
+        when(jwtValidationService.getRoleFromToken(CUSTOMER)).thenReturn("CLIENT");
+        when(jwtValidationService.getUserIdFromToken(CUSTOMER)).thenReturn(7L);
+        when(jwtValidationService.getRoleFromToken(OTHER_CUSTOMER)).thenReturn("CLIENT");
+        when(jwtValidationService.getUserIdFromToken(OTHER_CUSTOMER)).thenReturn(8L);
+
+        Store store = new Store();
+        store.setName("Holds");
+        store.setCity("Cluj");
+        store.setActive(true);
+        storeId = storeRepository.save(store).getId();
+
+        Inventory item = new Inventory();
+        item.setProductId(1L);
+        item.setStoreId(storeId);
+        item.setColor("Black");
+        item.setSize(42);
+        item.setQuantity(STOCK);
+        item.setMinStock(-1);
+        inventoryRepository.save(item);
+        stockIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (StockHold hold : holdRepository.findAll()) {
+            holdLedger.release(hold.getId());
+        }
+        holdRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        storeRepository.deleteAll();
+    }
+
+    @Test
+    void heldUnitsCannotBeSoldInStore() {
+        reservationService.hold(holdOf(4, null), CUSTOMER);
+        reservationService.hold(holdOf(3, null), OTHER_CUSTOMER);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> inventoryService.processSale(saleOf(4), STAFF));
+        assertEquals("Insufficient stock. Available: 3", error.getMessage());
+        assertEquals(STOCK, quantity());
+
+        inventoryService.processSale(saleOf(3), STAFF);
+        assertEquals(STOCK - 3, quantity());
+    }
+
+    @Test
+    void holdsAreAdmittedAgainstTheStockInTheDatabase() {
+        inventoryService.processSale(saleOf(8), STAFF);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> reservationService.hold(holdOf(3, null), CUSTOMER));
+        assertEquals("Insufficient stock to hold", error.getMessage());
+        assertEquals(0, holdLedger.activeHolds());
+        assertEquals(0, holdRepository.count());
+    }
+
+    @Test
+    void customersCannotHoldMoreThanTheLimit() {
+        reservationService.hold(holdOf(3, null), CUSTOMER);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> reservationService.hold(holdOf(3, null), CUSTOMER));
+        assertEquals("Hold limit reached - at most 5 units of a product per customer", error.getMessage());
+
+        reservationService.hold(holdOf(2, null), CUSTOMER);
+        reservationService.hold(holdOf(5, null), OTHER_CUSTOMER);
+        assertEquals(3, holdRepository.count());
+    }
+
+    @Test
+    void commitSellsTheHeldUnits() {
+        HoldDto hold = reservationService.hold(holdOf(4, null), CUSTOMER);
+        reservationService.hold(holdOf(5, null), OTHER_CUSTOMER);
+
+        reservationService.commit(hold.getId(), CUSTOMER);
+
+        assertEquals(STOCK - 4, quantity());
+        assertEquals(1, holdRepository.count());
+        assertEquals(1, holdLedger.activeHolds());
+        assertThrows(RuntimeException.class, () -> reservationService.commit(hold.getId(), CUSTOMER));
+    }
+
+    @Test
+    void holdsBelongToTheirCustomer() {
+        HoldDto hold = reservationService.hold(holdOf(2, null), CUSTOMER);
+
+        assertThrows(RuntimeException.class, () -> reservationService.commit(hold.getId(), OTHER_CUSTOMER));
+        assertThrows(RuntimeException.class, () -> reservationService.release(hold.getId(), OTHER_CUSTOMER));
+
+        // Vânzarea refuzată a dat rezervarea înapoi - proprietarul o poate finaliza
+        reservationService.commit(hold.getId(), CUSTOMER);
+        assertEquals(STOCK - 2, quantity());
+    }
+
+    @Test
+    void releaseGivesTheUnitsBack() {
+        HoldDto hold = reservationService.hold(holdOf(5, 60), STAFF);
+
+        reservationService.release(hold.getId(), STAFF);
+
+        assertEquals(0, holdRepository.count());
+        assertThrows(RuntimeException.class, () -> reservationService.getHold(hold.getId(), STAFF));
+        inventoryService.processSale(saleOf(STOCK), STAFF);
+        assertEquals(0, quantity());
+    }
+
+    @Test
+    void expiredHoldsCannotBeCommitted() throws Exception {
+        HoldDto hold = reservationService.hold(holdOf(2, 1), CUSTOMER);
+
+        Thread.sleep(1100);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> reservationService.commit(hold.getId(), CUSTOMER));
+        assertEquals("Hold not found or expired", error.getMessage());
+        assertEquals(STOCK, quantity());
+    }
+
+    @Test
+    void holdsFromOtherInstancesCannotBeSold() {
+        StockHold remote = storeRemoteHold(7L, 4);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> inventoryService.processSale(saleOf(7), STAFF));
+        assertEquals("Insufficient stock. Available: 6", error.getMessage());
+        assertEquals(STOCK, quantity());
+
+        reservationService.hold(holdOf(5, null), OTHER_CUSTOMER);
+        error = assertThrows(RuntimeException.class,
+                () -> reservationService.hold(holdOf(2, null), STAFF));
+        assertEquals("Insufficient stock to hold", error.getMessage());
+        error = assertThrows(RuntimeException.class,
+                () -> reservationService.hold(holdOf(2, null), CUSTOMER));
+        assertEquals("Hold limit reached - at most 5 units of a product per customer", error.getMessage());
+
+        reservationService.commit(remote.getId(), CUSTOMER);
+        assertEquals(STOCK - 4, quantity());
+        assertEquals(1, holdRepository.count());
+        assertThrows(RuntimeException.class, () -> reservationService.commit(remote.getId(), CUSTOMER));
+    }
+
+    @Test
+    void holdsFromOtherInstancesCanBeReleasedHere() {
+        StockHold remote = storeRemoteHold(7L, 5);
+
+        assertEquals(5, reservationService.getHold(remote.getId(), CUSTOMER).getQuantity());
+        reservationService.release(remote.getId(), CUSTOMER);
+
+        assertEquals(0, holdRepository.count());
+        inventoryService.processSale(saleOf(STOCK), STAFF);
+        assertEquals(0, quantity());
+    }
+
+    @Test
+    void racingHoldsAndSalesNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                boolean seller = t % 2 == 0;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10; i++) {
+                        try {
+                            if (seller) {
+                                inventoryService.processSale(saleOf(1), STAFF);
+                                sold.incrementAndGet();
+                            } else {
+                                reservationService.hold(holdOf(1, 60), STAFF);
+                            }
+                        } catch (RuntimeException e) {
+                            // Stoc epuizat
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int held = holdLedger.heldByStore(1L, "Black", 42).getOrDefault(storeId, 0);
+        assertEquals(STOCK - sold.get(), quantity());
+        assertEquals(STOCK, sold.get() + held);
+        assertEquals(held, holdRepository.count());
+        assertTrue(quantity() >= held);
+    }
+
+    // Rezervare creată de altă instanță: există doar în baza de date, nu și în ledger-ul local
+    private StockHold storeRemoteHold(Long userId, int quantity) {
+        Instant now = Instant.now();
+        return holdRepository.save(new StockHold(UUID.randomUUID().toString(), 1L, storeId, "Black", 42,
+                quantity, userId, now, now.plus(Duration.ofMinutes(5))));
+    }
+
+    private int quantity() {
+        return inventoryRepository.findByProductIdAndStoreIdAndColorAndSize(1L, storeId, "Black", 42)
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private HoldRequest holdOf(int quantity, Integer ttlSeconds) {
+        HoldRequest request = new HoldRequest();
+        request.setProductId(1L);
+        request.setStoreId(storeId);
+        request.setColor("Black");
+        request.setSize(42);
+        request.setQuantity(quantity);
+        request.setTtlSeconds(ttlSeconds);
+        return request;
+    }
+
+    private SaleRequest saleOf(int quantity) {
+        SaleRequest request = new SaleRequest();
+        request.setProductId(1L);
+        request.setStoreId(storeId);
+        request.setColor("Black");
+        request.setSize(42);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.footwear.inventoryservice.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTests {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongIntHashMap map = new LongIntHashMap(4);
+
+        map.put(42L, 1);
+        map.put(Long.MIN_VALUE, 2);
+        map.put(0L, 3);
+        map.put(42L, 4);
+
+        assertEquals(4, map.get(42L));
+        assertEquals(2, map.get(Long.MIN_VALUE));
+        assertEquals(3, map.get(0L));
+        assertEquals(LongIntHashMap.MISSING, map.get(7L));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void growKeepsEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        int count = 50_000;
+        // Chei cu biții de jos identici - aceleași forme ca cheile împachetate ale indexului
+        for (int i = 0; i < count; i++) {
+            map.put((long) i << 33, i);
+        }
+
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, map.get((long) i << 33));
+        }
+        assertEquals(LongIntHashMap.MISSING, map.get((long) count << 33));
+    }
+
+    @Test
+    void growUnderOverwritesKeepsTheLatestValue() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int round = 0; round < 3; round++) {
+            for (long key = 0; key < 1_000; key++) {
+                map.put(key, (int) key + round);
+            }
+        }
+
+        assertEquals(1_000, map.size());
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals((int) key + 2, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.footwear.inventoryservice.index;
+
+import com.footwear.inventoryservice.entity.Inventory;
+import com.footwear.inventoryservice.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockIndexTests {
+
+    private static final int MAX_STORE = 8191;
+    private static final int MAX_SIZE = 255;
+    private static final int MAX_COLORS = 4095;
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final StockIndex index = new StockIndex();
+
+    StockIndexTests() {
+        ReflectionTestUtils.setField(index, "inventoryRepository", inventoryRepository);
+    }
+
+    @Test
+    void stockIsSummedAcrossStores() {
+        load(row(1L, 1L, "Black", 42, 5), row(1L, 2L, "black", 42, 3), row(1L, 3L, "Black", 42, 0),
+                row(1L, 1L, "Black", 43, 7), row(2L, 1L, "Black", 42, 9));
+
+        assertEquals(new StockIndex.StockTotals(8, 2), index.checkStock(1L, "BLACK", 42));
+        assertEquals(new StockIndex.StockTotals(5, 1), index.checkStock(1L, "Black", 42, Map.of(2L, 3)));
+        assertEquals(new StockIndex.StockTotals(0, 0), index.checkStock(1L, "Red", 42));
+        assertEquals(3, index.productAvailability(1L).size());
+        assertEquals(List.of(), index.productAvailability(99L));
+    }
+
+    @Test
+    void keyLimitsAreUsableUpToTheEdge() {
+        load(row(1L, (long) MAX_STORE, "Black", MAX_SIZE, 4));
+
+        assertEquals(new StockIndex.StockTotals(4, 1), index.checkStock(1L, "Black", MAX_SIZE));
+        assertEquals(MAX_STORE, index.productAvailability(1L).get(0).storeId());
+    }
+
+    @Test
+    void storeOutsideTheKeyLeavesReadsToTheDatabase() {
+        load(row(1L, 1L, "Black", 42, 4), row(1L, (long) MAX_STORE + 1, "Black", 42, 1));
+
+        assertNull(index.checkStock(1L, "Black", 42));
+        assertNull(index.productAvailability(1L));
+    }
+
+    @Test
+    void sizeOutsideTheKeyLeavesReadsToTheDatabase() {
+        load(row(1L, 1L, "Black", MAX_SIZE + 1, 1));
+
+        assertNull(index.checkStock(1L, "Black", 42));
+    }
+
+    @Test
+    void writeOutsideTheKeyDropsALoadedIndex() {
+        load(row(1L, 1L, "Black", 42, 4));
+        assertNotNull(index.checkStock(1L, "Black", 42));
+
+        index.updateAfterCommit(inventory(1L, (long) MAX_STORE + 1, "Black", 42, 1));
+
+        assertNull(index.checkStock(1L, "Black", 42));
+    }
+
+    @Test
+    void colorDictionaryOverflowLeavesReadsToTheDatabase() {
+        List<StockRow> rows = new ArrayList<>();
+        for (int color = 0; color < MAX_COLORS; color++) {
+            rows.add(row(1L, 1L, "c" + color, 42, 1));
+        }
+        load(rows.toArray(StockRow[]::new));
+        assertEquals(new StockIndex.StockTotals(1, 1), index.checkStock(1L, "c" + (MAX_COLORS - 1), 42));
+
+        // O culoare în plus nu mai are id - indexul nu mai poate fi complet
+        index.updateAfterCommit(inventory(1L, 1L, "one-too-many", 42, 1));
+
+        assertNull(index.checkStock(1L, "c0", 42));
+    }
+
+    @Test
+    void salesAndUpdatesAreWrittenThrough() {
+        load(row(1L, 1L, "Black", 42, 5));
+
+        index.saleAfterCommit(inventory(1L, 1L, "Black", 42, 3), 2);
+        assertEquals(new StockIndex.StockTotals(3, 1), index.checkStock(1L, "Black", 42));
+
+        index.updateAfterCommit(inventory(1L, 2L, "Black", 42, 6));
+        assertEquals(new StockIndex.StockTotals(9, 2), index.checkStock(1L, "Black", 42));
+    }
+
+    @Test
+    void writesCommittedDuringAReloadAreReplayed() {
+        // Rândurile citite din baza de date sunt dinaintea vânzării și a noului SKU
+        when(inventoryRepository.findStockRows()).thenAnswer(invocation -> {
+            index.saleAfterCommit(inventory(1L, 1L, "Black", 42, 3), 2);
+            index.updateAfterCommit(inventory(1L, 2L, "Black", 42, 6));
+            return List.of(row(1L, 1L, "Black", 42, 5));
+        });
+
+        index.reload();
+
+        assertEquals(new StockIndex.StockTotals(9, 2), index.checkStock(1L, "Black", 42));
+    }
+
+    @Test
+    void failedReloadKeepsThePreviousIndex() {
+        load(row(1L, 1L, "Black", 42, 5));
+        when(inventoryRepository.findStockRows()).thenThrow(new RuntimeException("connection lost"));
+
+        index.reload();
+
+        assertEquals(new StockIndex.StockTotals(5, 1), index.checkStock(1L, "Black", 42));
+    }
+
+    @Test
+    void reloadRestoresAnIndexDroppedByAnOutOfRangeWrite() {
+        load(row(1L, 1L, "Black", 42, 5));
+        index.updateAfterCommit(inventory(1L, (long) MAX_STORE + 1, "Black", 42, 1));
+        assertNull(index.checkStock(1L, "Black", 42));
+
+        load(row(1L, 1L, "Black", 42, 5));
+
+        assertEquals(new StockIndex.StockTotals(5, 1), index.checkStock(1L, "Black", 42));
+    }
+
+    private void load(StockRow... rows) {
+        when(inventoryRepository.findStockRows()).thenReturn(List.of(rows));
+        index.reload();
+    }
+
+    private static StockRow row(Long productId, Long storeId, String color, int size, int quantity) {
+        return new StockRow(productId, storeId, color, size, quantity, 0);
+    }
+
+    private static Inventory inventory(Long productId, Long storeId, String color, int size, int quantity) {
+        Inventory item = new Inventory();
+        item.setProductId(productId);
+        item.setStoreId(storeId);
+        item.setColor(color);
+        item.setSize(size);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
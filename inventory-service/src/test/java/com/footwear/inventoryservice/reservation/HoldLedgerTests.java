@@ -0,0 +1,205 @@
+package com.footwear.inventoryservice.reservation;
+
+import com.footwear.inventoryservice.entity.StockHold;
+import com.footwear.inventoryservice.repository.StockHoldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldLedgerTests {
+
+    private static final long STORE = 1L;
+
+    private StockHoldRepository holdRepository;
+    private HoldLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        holdRepository = mock(StockHoldRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ledger != null) {
+            ledger.shutdown();
+        }
+    }
+
+    @Test
+    void holdsAreAdmittedAgainstStockMinusWhatIsHeld() {
+        startLedger();
+
+        assertTrue(ledger.tryHold(hold(7L, 6, Duration.ofMinutes(5)), 10));
+        assertFalse(ledger.tryHold(hold(8L, 5, Duration.ofMinutes(5)), 10));
+        assertTrue(ledger.tryHold(hold(8L, 4, Duration.ofMinutes(5)), 10));
+
+        assertEquals(Map.of(STORE, 10), ledger.heldByStore(1L, "Black", 42));
+        assertEquals(2, ledger.activeHolds());
+    }
+
+    @Test
+    void colorIsMatchedCaseInsensitively() {
+        startLedger();
+        ledger.tryHold(hold(7L, 3, Duration.ofMinutes(5)), 10);
+
+        assertEquals(Map.of(STORE, 3), ledger.heldByStore(1L, "BLACK", 42));
+        assertTrue(ledger.heldByStore(1L, "Black", 43).isEmpty());
+    }
+
+    @Test
+    void customerTotalsArePerUserAndSku() {
+        startLedger();
+        ledger.tryHold(hold(7L, 2, Duration.ofMinutes(5)), 10);
+        ledger.tryHold(hold(7L, 1, Duration.ofMinutes(5)), 10);
+
+        assertEquals(3, ledger.heldByCustomer(hold(7L, 1, Duration.ofMinutes(5))));
+        assertEquals(0, ledger.heldByCustomer(hold(8L, 1, Duration.ofMinutes(5))));
+    }
+
+    @Test
+    void releaseGivesTheStockBack() {
+        startLedger();
+        StockHold hold = hold(7L, 4, Duration.ofMinutes(5));
+        ledger.tryHold(hold, 4);
+
+        assertSame(hold, ledger.release(hold.getId()));
+        assertNull(ledger.release(hold.getId()));
+        assertTrue(ledger.heldByStore(1L, "Black", 42).isEmpty());
+        assertEquals(0, ledger.heldByCustomer(hold));
+        assertTrue(ledger.tryHold(hold(8L, 4, Duration.ofMinutes(5)), 4));
+    }
+
+    @Test
+    void claimedHoldsCannotBeReleasedOrClaimedTwice() {
+        startLedger();
+        StockHold hold = hold(7L, 2, Duration.ofMinutes(5));
+        ledger.tryHold(hold, 10);
+
+        assertNotNull(ledger.claim(hold.getId()));
+        assertNull(ledger.claim(hold.getId()));
+        assertNull(ledger.release(hold.getId()));
+        assertEquals(Map.of(STORE, 2), ledger.heldByStore(1L, "Black", 42));
+
+        ledger.unclaim(hold);
+        assertSame(hold, ledger.release(hold.getId()));
+    }
+
+    @Test
+    void finishDropsTheSoldHold() {
+        startLedger();
+        StockHold hold = hold(7L, 2, Duration.ofMinutes(5));
+        ledger.tryHold(hold, 10);
+
+        ledger.finish(ledger.claim(hold.getId()));
+
+        assertNull(ledger.find(hold.getId()));
+        assertTrue(ledger.heldByStore(1L, "Black", 42).isEmpty());
+    }
+
+    @Test
+    void expiredHoldsAreDroppedAndDeleted() {
+        startLedger();
+        StockHold hold = hold(7L, 2, Duration.ofMillis(50));
+        ledger.tryHold(hold, 10);
+
+        // Ticker-ul de 10 ms expiră rezervarea fără apel explicit
+        verify(holdRepository, timeout(2000)).deleteHold(hold.getId());
+        assertNull(ledger.find(hold.getId()));
+        assertTrue(ledger.heldByStore(1L, "Black", 42).isEmpty());
+    }
+
+    @Test
+    void expiredHoldCannotBeClaimed() {
+        startLedger();
+        StockHold hold = hold(7L, 2, Duration.ofMinutes(5));
+        hold.setExpiresAt(Instant.now().minusMillis(1));
+        ledger.tryHold(hold, 10);
+
+        assertNull(ledger.claim(hold.getId()));
+    }
+
+    @Test
+    void claimedHoldsDoNotExpireUntilUnclaimed() throws Exception {
+        startLedger();
+        StockHold hold = hold(7L, 2, Duration.ofMillis(30));
+        ledger.tryHold(hold, 10);
+        ledger.claim(hold.getId());
+
+        Thread.sleep(100);
+        ledger.expireDue();
+        verify(holdRepository, never()).deleteHold(any());
+        assertNotNull(ledger.find(hold.getId()));
+
+        ledger.unclaim(hold);
+        verify(holdRepository, timeout(2000)).deleteHold(hold.getId());
+        assertNull(ledger.find(hold.getId()));
+    }
+
+    @Test
+    void activeHoldsAreRestoredAtStartup() {
+        StockHold active = hold(7L, 3, Duration.ofMinutes(5));
+        when(holdRepository.deleteExpired(any())).thenReturn(2);
+        when(holdRepository.findByExpiresAtAfter(any())).thenReturn(List.of(active));
+
+        startLedger();
+
+        verify(holdRepository).deleteExpired(any());
+        assertSame(active, ledger.find(active.getId()));
+        assertEquals(Map.of(STORE, 3), ledger.heldByStore(1L, "Black", 42));
+        assertEquals(3, ledger.heldByCustomer(active));
+        assertFalse(ledger.tryHold(hold(8L, 8, Duration.ofMinutes(5)), 10));
+    }
+
+    @Test
+    void restoreFailureStillStartsAnEmptyLedger() {
+        when(holdRepository.deleteExpired(any())).thenThrow(new RuntimeException("database down"));
+
+        startLedger();
+
+        assertEquals(0, ledger.activeHolds());
+        assertTrue(ledger.tryHold(hold(7L, 1, Duration.ofMinutes(5)), 1));
+    }
+
+    private void startLedger() {
+        ledger = new HoldLedger();
+        ReflectionTestUtils.setField(ledger, "holdRepository", holdRepository);
+        ReflectionTestUtils.setField(ledger, "tick", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(ledger, "wheelSize", 64);
+        ledger.init();
+    }
+
+    private static StockHold hold(Long userId, int quantity, Duration ttl) {
+        Instant now = Instant.now();
+        StockHold hold = new StockHold();
+        hold.setId(UUID.randomUUID().toString());
+        hold.setProductId(1L);
+        hold.setStoreId(STORE);
+        hold.setColor("Black");
+        hold.setSize(42);
+        hold.setQuantity(quantity);
+        hold.setUserId(userId);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(ttl));
+        return hold;
+    }
+}
@@ -0,0 +1,56 @@
+package com.footwear.inventoryservice.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTests {
+
+    private static final long TICK = 100;
+
+    @Test
+    void itemsFallDueOnTheirTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 420);
+
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertTrue(wheel.advance(450).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(500));
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirTurn() {
+        // 8 bucket-uri de 100 ms - 1250 ms cade în același bucket ca 500 ms
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("later", 1250);
+
+        assertTrue(wheel.advance(500).isEmpty());
+        assertTrue(wheel.advance(1200).isEmpty());
+        assertEquals(List.of("later"), wheel.advance(1300));
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 1000);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of("late"), wheel.advance(1100));
+    }
+
+    @Test
+    void aLongPauseStillExpiresEverything() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 8, 0);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, i * 100L);
+        }
+
+        // Un singur advance după 5 ture complete
+        assertEquals(20, wheel.advance(5000).size());
+        assertTrue(wheel.advance(6000).isEmpty());
+    }
+}
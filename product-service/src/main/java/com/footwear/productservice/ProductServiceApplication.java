@@ -1,18 +1,33 @@
 package com.footwear.productservice;
 
+import com.footwear.common.deadline.DeadlineRequestFactory;
+import com.footwear.common.tracing.TraceparentInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @SpringBootApplication
 @EnableJpaRepositories
 public class ProductServiceApplication {
 
+    @Value("${app.http-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${app.http-client.read-timeout:10s}")
+    private Duration readTimeout;
+
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        // Timeout-urile sunt plafonate de bugetul rămas al request-ului
+        RestTemplate restTemplate = new RestTemplate(
+                new DeadlineRequestFactory((int) connectTimeout.toMillis(), (int) readTimeout.toMillis()));
+        restTemplate.getInterceptors().add(new TraceparentInterceptor());
+        return restTemplate;
     }
 
     public static void main(String[] args) {
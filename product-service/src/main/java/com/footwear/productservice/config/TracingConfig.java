@@ -0,0 +1,43 @@
+package com.footwear.productservice.config;
+
+import com.footwear.common.tracing.SpanExporter;
+import com.footwear.common.tracing.TracingAspect;
+import com.footwear.common.tracing.TracingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class TracingConfig {
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    // Fișier JSON lines cu span-uri; gol = doar buffer-ul din memorie
+    @Value("${app.tracing.file:}")
+    private String file;
+
+    @Value("${app.tracing.buffer-size:2000}")
+    private int bufferSize;
+
+    @Bean
+    public SpanExporter spanExporter() {
+        return new SpanExporter(serviceName, bufferSize, file);
+    }
+
+    // Primul filtru din lanț, ca tot ce urmează să intre în timpul măsurat
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(SpanExporter spanExporter) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(serviceName, spanExporter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingAspect tracingAspect() {
+        return new TracingAspect();
+    }
+}
@@ -1,19 +1,27 @@
 package com.footwear.productservice.service;
 
+import com.footwear.common.security.GatewayIdentity;
+import com.footwear.common.security.GatewayIdentityContext;
+import com.footwear.common.security.JwtConfigurationManager;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Service;
 import java.security.Key;
+import java.util.Date;
 
 @Service
 public class JwtValidationService {
-    private static final String SECRET = "mySecretKeyForFootwearApplicationThatIsLongEnough";
-
+    // Același secret ca gateway-ul și celelalte servicii
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+        return JwtConfigurationManager.getInstance().getSigningKey();
     }
 
     public Claims validateToken(String token) {
+        // Fast path: gateway-ul a verificat deja semnătura pentru acest token
+        GatewayIdentity identity = GatewayIdentityContext.forToken(token);
+        if (identity != null) {
+            return toClaims(identity);
+        }
+
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
         }
@@ -25,6 +33,17 @@ public class JwtValidationService {
                 .getBody();
     }
 
+    private Claims toClaims(GatewayIdentity identity) {
+        Claims claims = Jwts.claims();
+        claims.put("userId", identity.getUserId());
+        claims.put("role", identity.getRole());
+        if (identity.getStoreId() != null) {
+            claims.put("storeId", identity.getStoreId());
+        }
+        claims.setExpiration(new Date(identity.getExpiresAt()));
+        return claims;
+    }
+
     public void validateManagerRole(String token) {
         Claims claims = validateToken(token);
         String role = claims.get("role", String.class);
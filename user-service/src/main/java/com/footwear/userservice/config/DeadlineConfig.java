@@ -0,0 +1,41 @@
+package com.footwear.userservice.config;
+
+import com.footwear.common.deadline.DeadlineFilter;
+import com.footwear.common.deadline.DeadlineTransactionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import java.time.Duration;
+
+@Configuration
+public class DeadlineConfig {
+
+    // Buget pentru apelurile care nu vin prin gateway (fără header); 0 = fără termen
+    @Value("${app.deadline.default-budget:0}")
+    private Duration defaultBudget;
+
+    // Imediat după TracingFilter, ca cererile respinse să apară în trace
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter() {
+        FilterRegistrationBean<DeadlineFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineFilter(defaultBudget.toMillis()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Înlocuiește JpaTransactionManager-ul din auto-configurare
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -1,15 +1,31 @@
 // user-service/src/main/java/com/footwear/userservice/config/RestTemplateConfig.java
 package com.footwear.userservice.config;
 
+import com.footwear.common.deadline.DeadlineRequestFactory;
+import com.footwear.common.tracing.TraceparentInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${app.http-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${app.http-client.read-timeout:10s}")
+    private Duration readTimeout;
+
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        // Timeout-urile sunt plafonate de bugetul rămas al request-ului (vezi Deadline)
+        RestTemplate restTemplate = new RestTemplate(
+                new DeadlineRequestFactory((int) connectTimeout.toMillis(), (int) readTimeout.toMillis()));
+        // Apelurile externe (ex. SmsAdvert) apar ca span-uri OUTBOUND
+        restTemplate.getInterceptors().add(new TraceparentInterceptor());
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 // user-service/src/main/java/com/footwear/userservice/service/EmailService.java
 package com.footwear.userservice.service;
 
+import com.footwear.common.tracing.Span;
+import com.footwear.common.tracing.SpanLayer;
+import com.footwear.common.tracing.Tracer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
@@ -38,7 +41,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(htmlContent, true); // true = HTML content
 
-            mailSender.send(message);
+            send(message);
             System.out.println("sendHtmlEmail");
             log.info("HTML email sent successfully to: {}", to);
 
@@ -61,7 +64,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(textContent, false); // false = plain text
 
-            mailSender.send(message);
+            send(message);
             log.info("Text email sent successfully to: {}", to);
 
         } catch (MessagingException | UnsupportedEncodingException e) {
@@ -69,4 +72,16 @@ public class EmailService {
             throw new RuntimeException("Failed to send email", e);
         }
     }
-}
\ No newline at end of file
+
+    // Apelul SMTP este un span OUTBOUND
+    private void send(MimeMessage message) {
+        try (Span span = Tracer.start("smtp.send", SpanLayer.OUTBOUND)) {
+            try {
+                mailSender.send(message);
+            } catch (RuntimeException e) {
+                span.markError();
+                throw e;
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.footwear.userservice.service;
 
-import com.footwear.userservice.config.JwtConfigurationManager;
+import com.footwear.common.security.JwtConfigurationManager;
 import io.jsonwebtoken.*;
 import org.springframework.stereotype.Service;
 import java.util.Date;
@@ -1,6 +1,8 @@
 package com.footwear.productservice.service;
 
-import com.footwear.userservice.config.JwtConfigurationManager;
+import com.footwear.common.security.GatewayIdentity;
+import com.footwear.common.security.GatewayIdentityContext;
+import com.footwear.common.security.JwtConfigurationManager;
 import io.jsonwebtoken.*;
 import org.springframework.stereotype.Service;
 
@@ -10,21 +12,38 @@ import java.util.Date;
 public class JwtValidationService {
 
     private final JwtConfigurationManager config;
+    private final JwtParser parser;
 
     public JwtValidationService() {
         this.config = JwtConfigurationManager.getInstance();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(config.getSigningKey())
+                .build();
     }
 
     public Claims validateToken(String token) {
+        // Fast path: gateway-ul a verificat deja semnătura pentru acest token
+        GatewayIdentity identity = GatewayIdentityContext.forToken(token);
+        if (identity != null) {
+            return toClaims(identity);
+        }
+
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
         }
 
-        return Jwts.parserBuilder()
-                .setSigningKey(config.getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Claims toClaims(GatewayIdentity identity) {
+        Claims claims = Jwts.claims();
+        claims.put("userId", identity.getUserId());
+        claims.put("role", identity.getRole());
+        if (identity.getStoreId() != null) {
+            claims.put("storeId", identity.getStoreId());
+        }
+        claims.setExpiration(new Date(identity.getExpiresAt()));
+        return claims;
     }
 
     public void validateManagerRole(String token) {
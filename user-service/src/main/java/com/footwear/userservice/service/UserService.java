@@ -1,5 +1,7 @@
 package com.footwear.userservice.service;
 
+import com.footwear.common.security.GatewayIdentity;
+import com.footwear.common.security.GatewayIdentityContext;
 import com.footwear.userservice.dto.*;
 import com.footwear.userservice.entity.User;
 import com.footwear.userservice.entity.UserRole;
@@ -232,6 +234,15 @@ public class UserService {
     }
 
     private void validateAdminRole(String token) {
+        // Token deja verificat de gateway
+        GatewayIdentity identity = GatewayIdentityContext.forToken(token);
+        if (identity != null) {
+            if (!"ADMIN".equals(identity.getRole())) {
+                throw new RuntimeException("Access denied - Admin role required");
+            }
+            return;
+        }
+
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
         }